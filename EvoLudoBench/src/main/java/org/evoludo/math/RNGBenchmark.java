@@ -0,0 +1,191 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.math;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of random number generation. Covers the raw output of
+ * {@link MersenneTwister} as well as the random number distributions in
+ * {@link RNGDistribution}.
+ *
+ * @author Christoph Hauert
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RNGBenchmark {
+
+	/**
+	 * The range for random integers.
+	 */
+	@Param({ "1000" })
+	public int range;
+
+	/**
+	 * The random number generator.
+	 */
+	MersenneTwister rng;
+
+	/**
+	 * The uniform distribution.
+	 */
+	RNGDistribution.Uniform uniform;
+
+	/**
+	 * The exponential distribution.
+	 */
+	RNGDistribution.Exponential exponential;
+
+	/**
+	 * The normal distribution.
+	 */
+	RNGDistribution.Normal normal;
+
+	/**
+	 * The geometric distribution.
+	 */
+	RNGDistribution.Geometric geometric;
+
+	/**
+	 * The binomial distribution.
+	 */
+	RNGDistribution.Binomial binomial;
+
+	/**
+	 * Set up the random number generator and distributions.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		rng = new MersenneTwister(0L);
+		uniform = new RNGDistribution.Uniform(rng, 0.0, 1.0);
+		exponential = new RNGDistribution.Exponential(rng, 1.0);
+		normal = new RNGDistribution.Normal(rng, 0.0, 1.0);
+		geometric = new RNGDistribution.Geometric(rng, 0.1);
+		binomial = new RNGDistribution.Binomial(rng, 0.3, 100);
+	}
+
+	/**
+	 * Uniform random number in \([0,1)\).
+	 *
+	 * @return the random number
+	 */
+	@Benchmark
+	public double nextDouble() {
+		return rng.nextDouble();
+	}
+
+	/**
+	 * Uniform random integer in \([0,\)range\()\).
+	 *
+	 * @return the random number
+	 */
+	@Benchmark
+	public int nextInt() {
+		return rng.nextInt(range);
+	}
+
+	/**
+	 * Gaussian random number.
+	 *
+	 * @return the random number
+	 */
+	@Benchmark
+	public double nextGaussian() {
+		return rng.nextGaussian();
+	}
+
+	/**
+	 * Random number from the uniform distribution.
+	 *
+	 * @return the random number
+	 */
+	@Benchmark
+	public double uniform() {
+		return uniform.next();
+	}
+
+	/**
+	 * Random number from the exponential distribution.
+	 *
+	 * @return the random number
+	 */
+	@Benchmark
+	public double exponential() {
+		return exponential.next();
+	}
+
+	/**
+	 * Random number from the normal distribution.
+	 *
+	 * @return the random number
+	 */
+	@Benchmark
+	public double normal() {
+		return normal.next();
+	}
+
+	/**
+	 * Random number from the geometric distribution.
+	 *
+	 * @return the random number
+	 */
+	@Benchmark
+	public int geometric() {
+		return geometric.next();
+	}
+
+	/**
+	 * Random number from the binomial distribution.
+	 *
+	 * @return the random number
+	 */
+	@Benchmark
+	public int binomial() {
+		return binomial.next();
+	}
+}
@@ -0,0 +1,70 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator;
+
+import java.util.logging.Level;
+
+/**
+ * Helper for setting up engines in benchmarks. The engine loads the module and
+ * model specified by the command line options and resets the model, such that
+ * its components are ready for benchmarking.
+ *
+ * @author Christoph Hauert
+ */
+public class BenchmarkEngine {
+
+	/**
+	 * Ensure non-instantiability with private default constructor
+	 */
+	private BenchmarkEngine() {
+	}
+
+	/**
+	 * Create a new engine, load the module and model specified by the command line
+	 * options {@code clo} and reset the model. A fixed seed is appended to
+	 * {@code clo} to render benchmarks reproducible.
+	 *
+	 * @param clo the command line options
+	 * @return the engine ready for benchmarking
+	 * @throws IllegalArgumentException if {@code clo} cannot be parsed
+	 */
+	public static EvoLudoJRE create(String clo) {
+		EvoLudoJRE engine = new EvoLudoJRE();
+		// keep benchmark output clean
+		engine.getLogger().setLevel(Level.SEVERE);
+		engine.addCLOProvider(engine);
+		engine.setCLO(clo + " --seed 0");
+		if (engine.parseCLO() > 0)
+			throw new IllegalArgumentException("failed to parse options '" + clo + "'");
+		engine.modelReset();
+		return engine;
+	}
+}
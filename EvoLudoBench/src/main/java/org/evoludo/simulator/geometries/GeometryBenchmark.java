@@ -0,0 +1,100 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator.geometries;
+
+import java.util.concurrent.TimeUnit;
+
+import org.evoludo.simulator.BenchmarkEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the construction of geometries for different types and sizes.
+ *
+ * @author Christoph Hauert
+ *
+ * @see AbstractGeometry#init()
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeometryBenchmark {
+
+	/**
+	 * The type of geometry.
+	 */
+	@Param({ "M", "n", "m", "h", "t", "C", "r4", "f", "F" })
+	public String geometry;
+
+	/**
+	 * The population size.
+	 */
+	@Param({ "4096", "262144" })
+	public int popsize;
+
+	/**
+	 * The geometry to build.
+	 */
+	AbstractGeometry structure;
+
+	/**
+	 * Set up the geometry.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		structure = BenchmarkEngine.create("--module 2x2 --model IBS --popsize " + popsize + " --geometry " + geometry)
+				.getModule().getGeometry();
+	}
+
+	/**
+	 * Build the geometry from scratch.
+	 *
+	 * @return the geometry
+	 */
+	@Benchmark
+	public AbstractGeometry init() {
+		structure.init();
+		return structure;
+	}
+}
@@ -0,0 +1,126 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator.models;
+
+import java.util.concurrent.TimeUnit;
+
+import org.evoludo.simulator.BenchmarkEngine;
+import org.evoludo.simulator.EvoLudoJRE;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link IBSGroup#pickAt(int, boolean)} for different geometries,
+ * population sizes and sampling types.
+ *
+ * @author Christoph Hauert
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IBSGroupBenchmark {
+
+	/**
+	 * The geometry of the population.
+	 */
+	@Param({ "M", "n", "m", "r4", "f" })
+	public String geometry;
+
+	/**
+	 * The population size.
+	 */
+	@Param({ "1000", "100000" })
+	public int popsize;
+
+	/**
+	 * The type of sampling.
+	 */
+	@Param({ "ALL", "RANDOM" })
+	public String sampling;
+
+	/**
+	 * The number of samples for random sampling.
+	 */
+	@Param({ "4" })
+	public int nSamples;
+
+	/**
+	 * The engine providing the geometry and the random number generator.
+	 */
+	EvoLudoJRE engine;
+
+	/**
+	 * The group to pick.
+	 */
+	IBSGroup group;
+
+	/**
+	 * The index of the focal individual.
+	 */
+	int focal;
+
+	/**
+	 * Set up the geometry and the group.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		engine = BenchmarkEngine.create("--module 2x2 --model IBS --popsize " + popsize + " --geometry " + geometry);
+		group = new IBSGroup(engine.getRNG());
+		group.setGeometry(engine.getModule().getGeometry());
+		group.setSampling(IBSGroup.SamplingType.valueOf(sampling));
+		group.setNSamples(nSamples);
+		focal = 0;
+	}
+
+	/**
+	 * Pick the group of the next focal individual.
+	 *
+	 * @return the group
+	 */
+	@Benchmark
+	public int[] pickAt() {
+		focal = (focal + 1) % popsize;
+		return group.pickAt(focal, true);
+	}
+}
@@ -0,0 +1,116 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator.models;
+
+import java.util.concurrent.TimeUnit;
+
+import org.evoludo.simulator.BenchmarkEngine;
+import org.evoludo.simulator.EvoLudoJRE;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link IBSPopulation#step()} for the different types of
+ * population updates, population sizes and geometries. The benchmark runs the
+ * prisoner's dilemma in 2x2 games with small mutation rates to prevent the
+ * population from reaching absorbing states.
+ *
+ * @author Christoph Hauert
+ *
+ * @see PopulationUpdate.Type
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IBSPopulationBenchmark {
+
+	/**
+	 * The type of population update.
+	 */
+	@Param({ "asynchronous", "synchronous", "once", "Bd", "dB", "imitate" })
+	public String popupdate;
+
+	/**
+	 * The population size.
+	 */
+	@Param({ "1000", "10000", "100000" })
+	public int popsize;
+
+	/**
+	 * The geometry of the population.
+	 */
+	@Param({ "M", "n", "r4", "f" })
+	public String geometry;
+
+	/**
+	 * The engine running the model.
+	 */
+	EvoLudoJRE engine;
+
+	/**
+	 * The population to update.
+	 */
+	IBSPopulation<?, ?> population;
+
+	/**
+	 * Set up the population.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		engine = BenchmarkEngine.create("--module 2x2 --model IBS --popsize " + popsize + " --geometry " + geometry
+				+ " --popupdate " + popupdate + " --playerupdate thermal 0.1 --init frequency 1,1"
+				+ " --mutation 0.01 other --paymatrix 1,0;1.25,0.25");
+		population = engine.getModule().getIBSPopulation();
+	}
+
+	/**
+	 * Perform a single update of the population.
+	 *
+	 * @return the number of elapsed realtime units
+	 */
+	@Benchmark
+	public int step() {
+		return population.step();
+	}
+}
@@ -0,0 +1,114 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator.models;
+
+import java.util.concurrent.TimeUnit;
+
+import org.evoludo.simulator.BenchmarkEngine;
+import org.evoludo.simulator.EvoLudoJRE;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of single integration steps, {@code deStep(double)}, of the
+ * ordinary and stochastic differential equation models.
+ *
+ * @author Christoph Hauert
+ *
+ * @see ODE#deStep(double)
+ * @see RungeKutta#deStep(double)
+ * @see SDE#deStep(double)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ODEBenchmark {
+
+	/**
+	 * The type of model (integrator).
+	 */
+	@Param({ "ODEEM", "ODERK5", "ODEDP5", "SDE" })
+	public String model;
+
+	/**
+	 * The module providing the dynamics.
+	 */
+	@Param({ "2x2", "CDL" })
+	public String module;
+
+	/**
+	 * The engine running the model.
+	 */
+	EvoLudoJRE engine;
+
+	/**
+	 * The model to integrate.
+	 */
+	ODE ode;
+
+	/**
+	 * The integration step.
+	 */
+	double dt;
+
+	/**
+	 * Set up the model.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		engine = BenchmarkEngine.create("--module " + module + " --model " + model);
+		ode = (ODE) engine.getModel();
+		dt = ode.getDt();
+	}
+
+	/**
+	 * Perform a single integration step.
+	 *
+	 * @return the accumulated change in state
+	 */
+	@Benchmark
+	public double deStep() {
+		return ode.deStep(dt);
+	}
+}
@@ -0,0 +1,175 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator.models;
+
+import java.util.concurrent.TimeUnit;
+
+import org.evoludo.simulator.BenchmarkEngine;
+import org.evoludo.simulator.EvoLudoJRE;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the reaction and diffusion steps of PDE models for different
+ * geometries and discretizations. The full domain variants use the worker pool
+ * of the JRE, while the serial variants process the entire domain in the
+ * calling thread. The fused variant processes the diffusion and reaction steps
+ * tile by tile. The state is stored in double or single precision.
+ *
+ * @author Christoph Hauert
+ *
+ * @see PDE#react(double)
+ * @see PDE#diffuse(double[])
+ * @see PDE#diffuseReact(double[], double[][], double)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PDEBenchmark {
+
+	/**
+	 * The geometry of the PDE domain.
+	 */
+	@Param({ "n", "m", "h" })
+	public String geometry;
+
+	/**
+	 * The number of units of the PDE domain.
+	 */
+	@Param({ "1024", "16384", "262144" })
+	public int pdeN;
+
+	/**
+	 * The precision of the stored state.
+	 * 
+	 * @see PDE#cloPdeSingle
+	 */
+	@Param({ "double", "single" })
+	public String precision;
+
+	/**
+	 * The engine running the model.
+	 */
+	EvoLudoJRE engine;
+
+	/**
+	 * The PDE model.
+	 */
+	PDE pde;
+
+	/**
+	 * The number of units.
+	 */
+	int nUnits;
+
+	/**
+	 * The integration step.
+	 */
+	double dt;
+
+	/**
+	 * The diffusion coefficients scaled for the integration step.
+	 */
+	double[] scaledD;
+
+	/**
+	 * Set up the model.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		engine = BenchmarkEngine.create("--module 2x2 --model PDE --geometry " + geometry + " --pdeN " + pdeN
+				+ " --playerupdate thermal 0.1 --init random 99,1 --paymatrix 1,0;1.25,0.25"
+				+ ("single".equals(precision) ? " --pdeSingle" : ""));
+		pde = (PDE) engine.getModel();
+		nUnits = pde.getGeometry().getSize();
+		dt = pde.getDt();
+		scaledD = pde.getScaledDiffusion(dt);
+	}
+
+	/**
+	 * Reaction step across the entire domain.
+	 *
+	 * @return the accumulated change in state
+	 */
+	@Benchmark
+	public double react() {
+		return pde.react(dt);
+	}
+
+	/**
+	 * Reaction step across the entire domain in the calling thread.
+	 *
+	 * @return the accumulated change in state
+	 */
+	@Benchmark
+	public double reactSerial() {
+		return pde.react(0, nUnits, dt);
+	}
+
+	/**
+	 * Diffusion step across the entire domain.
+	 */
+	@Benchmark
+	public void diffuse() {
+		pde.diffuse(scaledD);
+	}
+
+	/**
+	 * Diffusion step across the entire domain in the calling thread.
+	 */
+	@Benchmark
+	public void diffuseSerial() {
+		pde.diffuse(0, nUnits, scaledD);
+	}
+
+	/**
+	 * Fused diffusion and reaction step across the entire domain.
+	 *
+	 * @return the accumulated change in state
+	 */
+	@Benchmark
+	public double diffuseReact() {
+		return pde.diffuseReact(scaledD, null, dt);
+	}
+}
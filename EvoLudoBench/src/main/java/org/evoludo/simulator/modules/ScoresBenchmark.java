@@ -0,0 +1,207 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator.modules;
+
+import java.util.concurrent.TimeUnit;
+
+import org.evoludo.math.MersenneTwister;
+import org.evoludo.simulator.BenchmarkEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the payoff calculations of modules with discrete and continuous
+ * traits for different interaction group sizes.
+ *
+ * @author Christoph Hauert
+ *
+ * @see TBT#pairScores(int, int[], double[])
+ * @see CDL#pairScores(int, int[], double[])
+ * @see CDL#groupScores(int[], double[])
+ * @see CSD#pairScores(double, double[], int, double[])
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoresBenchmark {
+
+	/**
+	 * The state for modules with discrete traits.
+	 */
+	@State(Scope.Thread)
+	public static class Discrete {
+
+		/**
+		 * The size of the interaction group.
+		 */
+		@Param({ "4", "8", "32" })
+		public int groupSize;
+
+		/**
+		 * The 2x2 game module.
+		 */
+		TBT tbt;
+
+		/**
+		 * The module with cooperators, defectors and loners.
+		 */
+		CDL cdl;
+
+		/**
+		 * The trait counts in the interaction group.
+		 */
+		int[] traitCount;
+
+		/**
+		 * The scores of each trait.
+		 */
+		double[] traitScore;
+
+		/**
+		 * Set up the modules and the interaction group.
+		 */
+		@Setup(Level.Trial)
+		public void setup() {
+			tbt = (TBT) BenchmarkEngine.create("--module 2x2 --model IBS --paymatrix 1,0;1.25,0.25").getModule();
+			cdl = (CDL) BenchmarkEngine.create("--module CDL --model IBS --interactions all").getModule();
+			// spread group members evenly across traits (CDL has the most traits)
+			int nTraits = cdl.getNTraits();
+			traitCount = new int[nTraits];
+			for (int n = 0; n < groupSize; n++)
+				traitCount[n % nTraits]++;
+			traitScore = new double[nTraits];
+		}
+	}
+
+	/**
+	 * The state for modules with continuous traits.
+	 */
+	@State(Scope.Thread)
+	public static class Continuous {
+
+		/**
+		 * The size of the interaction group.
+		 */
+		@Param({ "4", "8", "32" })
+		public int groupSize;
+
+		/**
+		 * The continuous snowdrift game module.
+		 */
+		CSD csd;
+
+		/**
+		 * The trait of the focal individual.
+		 */
+		double me;
+
+		/**
+		 * The traits of the members of the interaction group.
+		 */
+		double[] groupTraits;
+
+		/**
+		 * The payoffs of the members of the interaction group.
+		 */
+		double[] groupPayoffs;
+
+		/**
+		 * Set up the module and the interaction group.
+		 */
+		@Setup(Level.Trial)
+		public void setup() {
+			csd = (CSD) BenchmarkEngine.create("--module cSD --model IBS").getModule();
+			MersenneTwister rng = new MersenneTwister(0L);
+			me = rng.nextDouble();
+			groupTraits = new double[groupSize];
+			for (int n = 0; n < groupSize; n++)
+				groupTraits[n] = rng.nextDouble();
+			groupPayoffs = new double[groupSize];
+		}
+	}
+
+	/**
+	 * Pairwise scores in 2x2 games.
+	 *
+	 * @param state the interaction group
+	 * @return the total payoff of the focal individual
+	 */
+	@Benchmark
+	public double pairScoresTBT(Discrete state) {
+		return state.tbt.pairScores(0, state.traitCount, state.traitScore);
+	}
+
+	/**
+	 * Pairwise scores in games with cooperators, defectors and loners.
+	 *
+	 * @param state the interaction group
+	 * @return the total payoff of the focal individual
+	 */
+	@Benchmark
+	public double pairScoresCDL(Discrete state) {
+		return state.cdl.pairScores(0, state.traitCount, state.traitScore);
+	}
+
+	/**
+	 * Group scores in public goods games with cooperators, defectors and loners.
+	 *
+	 * @param state the interaction group
+	 * @return the scores of each trait
+	 */
+	@Benchmark
+	public double[] groupScoresCDL(Discrete state) {
+		state.cdl.groupScores(state.traitCount, state.traitScore);
+		return state.traitScore;
+	}
+
+	/**
+	 * Pairwise scores in the continuous snowdrift game.
+	 *
+	 * @param state the interaction group
+	 * @return the total payoff of the focal individual
+	 */
+	@Benchmark
+	public double pairScoresCSD(Continuous state) {
+		return state.csd.pairScores(state.me, state.groupTraits, state.groupSize, state.groupPayoffs);
+	}
+}
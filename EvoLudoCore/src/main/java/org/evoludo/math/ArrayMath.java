@@ -1148,6 +1148,109 @@ public class ArrayMath {
 		return norm;
 	}
 
+	/**
+	 * Correctly rounded sum of the elements of double array <code>a</code> ranging
+	 * from index <code>from</code> (including) to index <code>to</code>
+	 * (excluding). The result is the exact sum rounded to the nearest
+	 * <code>double</code> and hence independent of the order of the elements.
+	 * Based on the algorithm by Shewchuk (1997) Discrete &amp; Computational
+	 * Geometry 18:305-363, which tracks the exact sum as a sequence of
+	 * non-overlapping partial sums. Infinite or NaN elements are not supported.
+	 * <p>
+	 * For speed, the sum is first accumulated in double-double precision together
+	 * with a bound on its error. If the bound guarantees that the result rounds
+	 * correctly, no partial sums are tracked.
+	 * 
+	 * @param a        the array <code>double[]</code>
+	 * @param from     the start index of the section to sum
+	 * @param to       the end index of the section to sum
+	 * @param partials the buffer for the partial sums, must hold at least
+	 *                 <code>to-from</code> elements
+	 * @return the correctly rounded sum of the elements <code>a[i]</code> with
+	 *         <code>i=from,...,to-1</code>
+	 */
+	public static double exactSum(double[] a, int from, int to, double[] partials) {
+		// double-double accumulation (Ogita, Rump & Oishi 2005)
+		double hi = 0.0;
+		double lo = 0.0;
+		double err = 0.0;
+		for (int n = from; n < to; n++) {
+			double x = a[n];
+			double s = hi + x;
+			double z = s - hi;
+			double e = (hi - (s - z)) + (x - z);
+			lo += e;
+			err += Math.abs(e);
+			hi = s;
+		}
+		// all steps exact: hi + lo is the exact sum
+		if (err == 0.0)
+			return hi;
+		double sum = hi + lo;
+		double z = sum - hi;
+		double res = Math.abs((hi - (sum - z)) + (lo - z));
+		// error of lo bounded by (to-from) * 2^-53 * err; done if exact sum is
+		// certain to round to sum (half ulp below powers of two is ulp/4)
+		if (res + (to - from) * 0x1p-52 * err < 0.2 * Math.ulp(sum))
+			return sum;
+		return shewchukSum(a, from, to, partials);
+	}
+
+	/**
+	 * Helper method to calculate the correctly rounded sum for
+	 * {@link #exactSum(double[], int, int, double[])} by tracking the non-overlapping
+	 * partial sums.
+	 * 
+	 * @param a        the array <code>double[]</code>
+	 * @param from     the start index of the section to sum
+	 * @param to       the end index of the section to sum
+	 * @param partials the buffer for the partial sums
+	 * @return the correctly rounded sum
+	 */
+	private static double shewchukSum(double[] a, int from, int to, double[] partials) {
+		int np = 0;
+		for (int n = from; n < to; n++) {
+			double x = a[n];
+			int i = 0;
+			for (int j = 0; j < np; j++) {
+				double y = partials[j];
+				if (Math.abs(x) < Math.abs(y)) {
+					double t = x;
+					x = y;
+					y = t;
+				}
+				double hi = x + y;
+				double lo = y - (hi - x);
+				if (lo != 0.0)
+					partials[i++] = lo;
+				x = hi;
+			}
+			partials[i] = x;
+			np = i + 1;
+		}
+		if (np == 0)
+			return 0.0;
+		// sum partials from largest magnitude down
+		double hi = partials[--np];
+		double lo = 0.0;
+		while (np > 0) {
+			double x = hi;
+			double y = partials[--np];
+			hi = x + y;
+			lo = y - (hi - x);
+			if (lo != 0.0)
+				break;
+		}
+		// round half-even correction if remaining partials push beyond halfway
+		if (np > 0 && ((lo < 0.0 && partials[np - 1] < 0.0) || (lo > 0.0 && partials[np - 1] > 0.0))) {
+			double y = lo * 2.0;
+			double x = hi + y;
+			if (y == x - hi)
+				hi = x;
+		}
+		return hi;
+	}
+
 	/**
 	 * Normalize float array <code>a</code>. Scales elements such that the sum over
 	 * all elements <code>a[i]</code> adds up to <code>1</code>. Normalization
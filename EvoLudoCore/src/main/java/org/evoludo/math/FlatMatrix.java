@@ -0,0 +1,288 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.math;
+
+/**
+ * Matrix stored in a flat array for fast matrix-vector products. Dense
+ * matrices are stored in row-major order while sparse matrices are stored in
+ * compressed row format, i.e. only non-zero elements together with their
+ * column indices. Matrix-vector products of dense matrices are blocked: four
+ * rows are processed simultaneously, which reduces the number of loads of the
+ * vector, and columns are processed in chunks that fit into the cache of the
+ * processor. This is intended for payoff matrices of games with many traits,
+ * where the calculation of the average scores dominates the computational
+ * costs.
+ * 
+ * @author Christoph Hauert
+ */
+public class FlatMatrix {
+
+	/**
+	 * The number of columns processed in one block. Chosen such that the
+	 * corresponding chunk of the vector fits comfortably into the (L1) cache.
+	 */
+	static final int BLOCK = 1024;
+
+	/**
+	 * The maximum fraction of non-zero elements for storing matrices in sparse
+	 * format.
+	 * 
+	 * @see #of(double[][])
+	 */
+	static final double SPARSE_DENSITY = 0.25;
+
+	/**
+	 * The minimum number of elements for storing matrices in sparse format. For
+	 * small matrices the overhead of the sparse format does not pay off.
+	 * 
+	 * @see #of(double[][])
+	 */
+	static final int SPARSE_MIN_SIZE = 256;
+
+	/**
+	 * The number of rows.
+	 */
+	final int nRows;
+
+	/**
+	 * The number of columns.
+	 */
+	final int nCols;
+
+	/**
+	 * The (non-zero) elements of the matrix. For dense matrices element
+	 * {@code (i, j)} is stored in {@code values[i * nCols + j]}.
+	 */
+	final double[] values;
+
+	/**
+	 * The index of the first non-zero element of each row in {@code values} for
+	 * sparse matrices (with {@code rowStart[nRows]} the number of non-zero
+	 * elements) or {@code null} for dense matrices.
+	 */
+	final int[] rowStart;
+
+	/**
+	 * The column indices of the non-zero elements for sparse matrices or
+	 * {@code null} for dense matrices.
+	 */
+	final int[] colIndex;
+
+	/**
+	 * The diagonal elements of the matrix.
+	 */
+	final double[] diagonal;
+
+	/**
+	 * Create a flat copy of the matrix {@code matrix}. The matrix is stored in
+	 * sparse format if {@code sparse == true} and in dense format otherwise.
+	 * 
+	 * @param matrix the matrix
+	 * @param sparse the flag to indicate whether to store the matrix in sparse
+	 *               format
+	 */
+	public FlatMatrix(double[][] matrix, boolean sparse) {
+		nRows = matrix.length;
+		nCols = matrix[0].length;
+		diagonal = new double[Math.min(nRows, nCols)];
+		for (int i = 0; i < diagonal.length; i++)
+			diagonal[i] = matrix[i][i];
+		if (!sparse) {
+			values = new double[nRows * nCols];
+			for (int i = 0; i < nRows; i++)
+				System.arraycopy(matrix[i], 0, values, i * nCols, nCols);
+			rowStart = null;
+			colIndex = null;
+			return;
+		}
+		int nnz = countNonZeros(matrix);
+		values = new double[nnz];
+		colIndex = new int[nnz];
+		rowStart = new int[nRows + 1];
+		int k = 0;
+		for (int i = 0; i < nRows; i++) {
+			rowStart[i] = k;
+			double[] mi = matrix[i];
+			for (int j = 0; j < nCols; j++) {
+				if (mi[j] == 0.0)
+					continue;
+				values[k] = mi[j];
+				colIndex[k++] = j;
+			}
+		}
+		rowStart[nRows] = k;
+	}
+
+	/**
+	 * Create a flat copy of the matrix {@code matrix}. Large matrices with few
+	 * non-zero elements are stored in sparse format and all others in dense
+	 * format.
+	 * 
+	 * @param matrix the matrix
+	 * @return the flat matrix
+	 * 
+	 * @see #SPARSE_DENSITY
+	 * @see #SPARSE_MIN_SIZE
+	 */
+	public static FlatMatrix of(double[][] matrix) {
+		int size = matrix.length * matrix[0].length;
+		boolean sparse = size >= SPARSE_MIN_SIZE && countNonZeros(matrix) < SPARSE_DENSITY * size;
+		return new FlatMatrix(matrix, sparse);
+	}
+
+	/**
+	 * Helper method to count the number of non-zero elements of {@code matrix}.
+	 * 
+	 * @param matrix the matrix
+	 * @return the number of non-zero elements
+	 */
+	private static int countNonZeros(double[][] matrix) {
+		int nnz = 0;
+		for (double[] row : matrix)
+			for (double m : row)
+				if (m != 0.0)
+					nnz++;
+		return nnz;
+	}
+
+	/**
+	 * Get the number of rows.
+	 * 
+	 * @return the number of rows
+	 */
+	public int getNRows() {
+		return nRows;
+	}
+
+	/**
+	 * Get the number of columns.
+	 * 
+	 * @return the number of columns
+	 */
+	public int getNCols() {
+		return nCols;
+	}
+
+	/**
+	 * Check if the matrix is stored in sparse format.
+	 * 
+	 * @return {@code true} if the matrix is sparse
+	 */
+	public boolean isSparse() {
+		return colIndex != null;
+	}
+
+	/**
+	 * Get the diagonal element {@code (i, i)}.
+	 * 
+	 * @param i the index of the diagonal element
+	 * @return the diagonal element
+	 */
+	public double getDiagonal(int i) {
+		return diagonal[i];
+	}
+
+	/**
+	 * Calculate the matrix-vector product {@code y = M x}, where the vector
+	 * {@code x} starts at index {@code xFrom} and the result {@code y} is stored
+	 * starting at index {@code yFrom}. The arrays {@code x} and {@code y} must
+	 * not overlap.
+	 * 
+	 * @param x     the vector
+	 * @param xFrom the index of the first element of the vector
+	 * @param y     the array to store the product
+	 * @param yFrom the index of the first element of the product
+	 */
+	public void multiply(double[] x, int xFrom, double[] y, int yFrom) {
+		if (colIndex != null) {
+			multiplySparse(x, xFrom, y, yFrom);
+			return;
+		}
+		for (int jStart = 0; jStart < nCols; jStart += BLOCK) {
+			int jEnd = Math.min(jStart + BLOCK, nCols);
+			// process four rows at once to reuse elements of x
+			boolean first = (jStart == 0);
+			int i = 0;
+			for (; i + 4 <= nRows; i += 4) {
+				int r0 = i * nCols - xFrom;
+				int r1 = r0 + nCols;
+				int r2 = r1 + nCols;
+				int r3 = r2 + nCols;
+				int yi = yFrom + i;
+				double s0 = first ? 0.0 : y[yi];
+				double s1 = first ? 0.0 : y[yi + 1];
+				double s2 = first ? 0.0 : y[yi + 2];
+				double s3 = first ? 0.0 : y[yi + 3];
+				for (int j = xFrom + jStart; j < xFrom + jEnd; j++) {
+					double xj = x[j];
+					s0 += values[r0 + j] * xj;
+					s1 += values[r1 + j] * xj;
+					s2 += values[r2 + j] * xj;
+					s3 += values[r3 + j] * xj;
+				}
+				y[yi] = s0;
+				y[yi + 1] = s1;
+				y[yi + 2] = s2;
+				y[yi + 3] = s3;
+			}
+			// remaining rows
+			for (; i < nRows; i++) {
+				int r = i * nCols - xFrom;
+				int yi = yFrom + i;
+				double s = first ? 0.0 : y[yi];
+				for (int j = xFrom + jStart; j < xFrom + jEnd; j++)
+					s += values[r + j] * x[j];
+				y[yi] = s;
+			}
+		}
+	}
+
+	/**
+	 * Helper method to calculate the matrix-vector product {@code y = M x} for
+	 * sparse matrices.
+	 * 
+	 * @param x     the vector
+	 * @param xFrom the index of the first element of the vector
+	 * @param y     the array to store the product
+	 * @param yFrom the index of the first element of the product
+	 * 
+	 * @see #multiply(double[], int, double[], int)
+	 */
+	private void multiplySparse(double[] x, int xFrom, double[] y, int yFrom) {
+		for (int i = 0; i < nRows; i++) {
+			double s = 0.0;
+			int end = rowStart[i + 1];
+			for (int k = rowStart[i]; k < end; k++)
+				s += values[k] * x[xFrom + colIndex[k]];
+			y[yFrom + i] = s;
+		}
+	}
+}
@@ -0,0 +1,491 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.math;
+
+/**
+ * Collection of methods for dense linear algebra on small square matrices, such
+ * as the Jacobians of systems of differential equations. All methods operate in
+ * place and do not allocate memory.
+ * 
+ * @author Christoph Hauert
+ */
+public class LinearAlgebra {
+
+	/**
+	 * Ensure non-instantiability with private default constructor
+	 */
+	private LinearAlgebra() {
+	}
+
+	/**
+	 * The radix for balancing matrices prior to determining their eigenvalues.
+	 */
+	private static final double RADIX = 2.0;
+
+	/**
+	 * The maximum number of iterations to determine an eigenvalue.
+	 */
+	private static final int MAX_ITERATIONS = 30;
+
+	/**
+	 * LU decomposition with partial (implicit) pivoting of the {@code n x n}
+	 * matrix {@code a}, which is replaced by its decomposition. The rows of
+	 * {@code a} are swapped rather than copied and the row permutations are
+	 * recorded in {@code index}.
+	 * <p>
+	 * Adapted from Numerical Recipes in C, chapter 2.3, p.46f
+	 * 
+	 * @param a     the matrix (input) and its LU decomposition (output)
+	 * @param n     the dimension of the matrix
+	 * @param index the array to return the row permutations
+	 * @param scale temporary storage for the implicit scaling of rows
+	 * @return <code>false</code> if the matrix is singular
+	 */
+	public static boolean luDecompose(double[][] a, int n, int[] index, double[] scale) {
+		for (int i = 0; i < n; i++) {
+			double big = 0.0;
+			double[] ai = a[i];
+			for (int j = 0; j < n; j++)
+				big = Math.max(big, Math.abs(ai[j]));
+			if (big == 0.0)
+				return false;
+			scale[i] = 1.0 / big;
+		}
+		for (int j = 0; j < n; j++) {
+			for (int i = 0; i < j; i++) {
+				double[] ai = a[i];
+				double sum = ai[j];
+				for (int k = 0; k < i; k++)
+					sum -= ai[k] * a[k][j];
+				ai[j] = sum;
+			}
+			double big = 0.0;
+			int imax = j;
+			for (int i = j; i < n; i++) {
+				double[] ai = a[i];
+				double sum = ai[j];
+				for (int k = 0; k < j; k++)
+					sum -= ai[k] * a[k][j];
+				ai[j] = sum;
+				double dum = scale[i] * Math.abs(sum);
+				if (dum >= big) {
+					big = dum;
+					imax = i;
+				}
+			}
+			if (j != imax) {
+				double[] swap = a[imax];
+				a[imax] = a[j];
+				a[j] = swap;
+				scale[imax] = scale[j];
+			}
+			index[j] = imax;
+			if (a[j][j] == 0.0)
+				return false;
+			double dum = 1.0 / a[j][j];
+			for (int i = j + 1; i < n; i++)
+				a[i][j] *= dum;
+		}
+		return true;
+	}
+
+	/**
+	 * Solve the linear system {@code A x = b} using the LU decomposition
+	 * {@code a} of the {@code n x n} matrix {@code A} with row permutations
+	 * {@code index}, see {@link #luDecompose(double[][], int, int[], double[])}.
+	 * On input {@code b} holds the right hand side and on output the solution
+	 * {@code x}.
+	 * <p>
+	 * Adapted from Numerical Recipes in C, chapter 2.3, p.47
+	 * 
+	 * @param a     the LU decomposition of the matrix
+	 * @param n     the dimension of the matrix
+	 * @param index the row permutations of the decomposition
+	 * @param b     the right hand side (input) and solution (output)
+	 */
+	public static void luSolve(double[][] a, int n, int[] index, double[] b) {
+		int ii = -1;
+		for (int i = 0; i < n; i++) {
+			int ip = index[i];
+			double sum = b[ip];
+			b[ip] = b[i];
+			if (ii >= 0) {
+				double[] ai = a[i];
+				for (int j = ii; j < i; j++)
+					sum -= ai[j] * b[j];
+			} else if (sum != 0.0)
+				ii = i;
+			b[i] = sum;
+		}
+		for (int i = n - 1; i >= 0; i--) {
+			double[] ai = a[i];
+			double sum = b[i];
+			for (int j = i + 1; j < n; j++)
+				sum -= ai[j] * b[j];
+			b[i] = sum / ai[i];
+		}
+	}
+
+	/**
+	 * Cholesky decomposition of the symmetric, positive semi-definite
+	 * {@code n x n} matrix {@code a} such that {@code A = L L^T}. Only the lower
+	 * triangle of {@code a} is referenced and replaced by the lower triangular
+	 * matrix {@code L}, while the strict upper triangle remains untouched. For
+	 * singular matrices the columns with non-positive pivots are set to zero,
+	 * such that {@code L L^T} still approximates {@code A}, e.g. for generating
+	 * correlated noise with a degenerate covariance matrix.
+	 * <p>
+	 * Adapted from Numerical Recipes in C, chapter 2.9, p.97
+	 * 
+	 * @param a the matrix (input) and its Cholesky factor (output)
+	 * @param n the dimension of the matrix
+	 * @return <code>false</code> if the matrix is not positive definite
+	 */
+	public static boolean cholesky(double[][] a, int n) {
+		boolean definite = true;
+		for (int j = 0; j < n; j++) {
+			double[] aj = a[j];
+			double sum = aj[j];
+			for (int k = 0; k < j; k++)
+				sum -= aj[k] * aj[k];
+			if (sum <= 0.0) {
+				definite = false;
+				for (int i = j; i < n; i++)
+					a[i][j] = 0.0;
+				continue;
+			}
+			double ljj = Math.sqrt(sum);
+			aj[j] = ljj;
+			double inv = 1.0 / ljj;
+			for (int i = j + 1; i < n; i++) {
+				double[] ai = a[i];
+				sum = ai[j];
+				for (int k = 0; k < j; k++)
+					sum -= ai[k] * aj[k];
+				ai[j] = sum * inv;
+			}
+		}
+		return definite;
+	}
+
+	/**
+	 * Determine the eigenvalues of the real, non-symmetric {@code n x n} matrix
+	 * {@code a}. The matrix is balanced and reduced to upper Hessenberg form
+	 * before the eigenvalues are found using the QR algorithm. The real and
+	 * imaginary parts of the eigenvalues are returned in {@code wr} and {@code wi},
+	 * respectively, in no particular order. Complex conjugate pairs are stored in
+	 * consecutive elements with the positive imaginary part first.
+	 * <p>
+	 * <strong>Note:</strong> the matrix {@code a} is destroyed.
+	 * 
+	 * @param a  the matrix
+	 * @param n  the dimension of the matrix
+	 * @param wr the array to return the real parts of the eigenvalues
+	 * @param wi the array to return the imaginary parts of the eigenvalues
+	 * @return <code>false</code> if the QR algorithm failed to converge
+	 * 
+	 * @see #balance(double[][], int)
+	 * @see #hessenberg(double[][], int)
+	 * @see #hqr(double[][], int, double[], double[])
+	 */
+	public static boolean eigenvalues(double[][] a, int n, double[] wr, double[] wi) {
+		balance(a, n);
+		hessenberg(a, n);
+		return hqr(a, n, wr, wi);
+	}
+
+	/**
+	 * Balance the {@code n x n} matrix {@code a} through similarity
+	 * transformations such that the norms of corresponding rows and columns are
+	 * comparable. This reduces the sensitivity of eigenvalues to rounding errors.
+	 * <p>
+	 * Adapted from Numerical Recipes in C, chapter 11.5, p.483f
+	 * 
+	 * @param a the matrix (input) and the balanced matrix (output)
+	 * @param n the dimension of the matrix
+	 */
+	public static void balance(double[][] a, int n) {
+		double sqrdx = RADIX * RADIX;
+		boolean done = false;
+		while (!done) {
+			done = true;
+			for (int i = 0; i < n; i++) {
+				double r = 0.0;
+				double c = 0.0;
+				double[] ai = a[i];
+				for (int j = 0; j < n; j++) {
+					if (j == i)
+						continue;
+					c += Math.abs(a[j][i]);
+					r += Math.abs(ai[j]);
+				}
+				if (c == 0.0 || r == 0.0)
+					continue;
+				double g = r / RADIX;
+				double f = 1.0;
+				double s = c + r;
+				while (c < g) {
+					f *= RADIX;
+					c *= sqrdx;
+				}
+				g = r * RADIX;
+				while (c > g) {
+					f /= RADIX;
+					c /= sqrdx;
+				}
+				if ((c + r) / f < 0.95 * s) {
+					done = false;
+					g = 1.0 / f;
+					for (int j = 0; j < n; j++)
+						ai[j] *= g;
+					for (int j = 0; j < n; j++)
+						a[j][i] *= f;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reduce the {@code n x n} matrix {@code a} to upper Hessenberg form by
+	 * elimination with pivoting. The multipliers are left in the lower triangle
+	 * below the subdiagonal.
+	 * <p>
+	 * Adapted from Numerical Recipes in C, chapter 11.5, p.485f
+	 * 
+	 * @param a the matrix (input) and its Hessenberg form (output)
+	 * @param n the dimension of the matrix
+	 */
+	public static void hessenberg(double[][] a, int n) {
+		for (int m = 1; m < n - 1; m++) {
+			double x = 0.0;
+			int i = m;
+			for (int j = m; j < n; j++) {
+				if (Math.abs(a[j][m - 1]) > Math.abs(x)) {
+					x = a[j][m - 1];
+					i = j;
+				}
+			}
+			if (i != m) {
+				for (int j = m - 1; j < n; j++) {
+					double swap = a[i][j];
+					a[i][j] = a[m][j];
+					a[m][j] = swap;
+				}
+				for (int j = 0; j < n; j++) {
+					double swap = a[j][i];
+					a[j][i] = a[j][m];
+					a[j][m] = swap;
+				}
+			}
+			if (x == 0.0)
+				continue;
+			for (i = m + 1; i < n; i++) {
+				double y = a[i][m - 1];
+				if (y == 0.0)
+					continue;
+				y /= x;
+				a[i][m - 1] = y;
+				for (int j = m; j < n; j++)
+					a[i][j] -= y * a[m][j];
+				for (int j = 0; j < n; j++)
+					a[j][m] += y * a[j][i];
+			}
+		}
+	}
+
+	/**
+	 * Determine the eigenvalues of the {@code n x n} upper Hessenberg matrix
+	 * {@code a} using the QR algorithm with implicit double shifts. The real and
+	 * imaginary parts of the eigenvalues are returned in {@code wr} and
+	 * {@code wi}, respectively.
+	 * <p>
+	 * Adapted from Numerical Recipes in C, chapter 11.6, p.491f
+	 * 
+	 * @param a  the Hessenberg matrix, which is destroyed
+	 * @param n  the dimension of the matrix
+	 * @param wr the array to return the real parts of the eigenvalues
+	 * @param wi the array to return the imaginary parts of the eigenvalues
+	 * @return <code>false</code> if the algorithm failed to converge
+	 */
+	public static boolean hqr(double[][] a, int n, double[] wr, double[] wi) {
+		double anorm = 0.0;
+		for (int i = 0; i < n; i++)
+			for (int j = Math.max(i - 1, 0); j < n; j++)
+				anorm += Math.abs(a[i][j]);
+		int nn = n - 1;
+		double t = 0.0;
+		double p = 0.0;
+		double q = 0.0;
+		double r = 0.0;
+		double x;
+		double y;
+		double z;
+		double w;
+		while (nn >= 0) {
+			int its = 0;
+			int l;
+			do {
+				for (l = nn; l >= 1; l--) {
+					double s = Math.abs(a[l - 1][l - 1]) + Math.abs(a[l][l]);
+					if (s == 0.0)
+						s = anorm;
+					if (Math.abs(a[l][l - 1]) + s == s) {
+						a[l][l - 1] = 0.0;
+						break;
+					}
+				}
+				x = a[nn][nn];
+				if (l == nn) {
+					// one root found
+					wr[nn] = x + t;
+					wi[nn--] = 0.0;
+					continue;
+				}
+				y = a[nn - 1][nn - 1];
+				w = a[nn][nn - 1] * a[nn - 1][nn];
+				if (l == nn - 1) {
+					// two roots found
+					p = 0.5 * (y - x);
+					q = p * p + w;
+					z = Math.sqrt(Math.abs(q));
+					x += t;
+					if (q >= 0.0) {
+						// real pair
+						z = p + (p >= 0.0 ? z : -z);
+						wr[nn - 1] = wr[nn] = x + z;
+						if (z != 0.0)
+							wr[nn] = x - w / z;
+						wi[nn - 1] = wi[nn] = 0.0;
+					} else {
+						// complex pair
+						wr[nn - 1] = wr[nn] = x + p;
+						wi[nn - 1] = z;
+						wi[nn] = -z;
+					}
+					nn -= 2;
+					continue;
+				}
+				// no roots found yet - continue iteration
+				if (its == MAX_ITERATIONS)
+					return false;
+				if (its == 10 || its == 20) {
+					// exceptional shift
+					t += x;
+					for (int i = 0; i <= nn; i++)
+						a[i][i] -= x;
+					double s = Math.abs(a[nn][nn - 1]) + Math.abs(a[nn - 1][nn - 2]);
+					y = x = 0.75 * s;
+					w = -0.4375 * s * s;
+				}
+				++its;
+				// form shift and look for two consecutive small subdiagonal elements
+				int m;
+				for (m = nn - 2; m >= l; m--) {
+					z = a[m][m];
+					r = x - z;
+					double s = y - z;
+					p = (r * s - w) / a[m + 1][m] + a[m][m + 1];
+					q = a[m + 1][m + 1] - z - r - s;
+					r = a[m + 2][m + 1];
+					s = Math.abs(p) + Math.abs(q) + Math.abs(r);
+					p /= s;
+					q /= s;
+					r /= s;
+					if (m == l)
+						break;
+					double u = Math.abs(a[m][m - 1]) * (Math.abs(q) + Math.abs(r));
+					double v = Math.abs(p) * (Math.abs(a[m - 1][m - 1]) + Math.abs(z) + Math.abs(a[m + 1][m + 1]));
+					if (u + v == v)
+						break;
+				}
+				for (int i = m + 2; i <= nn; i++) {
+					a[i][i - 2] = 0.0;
+					if (i != m + 2)
+						a[i][i - 3] = 0.0;
+				}
+				// double QR step on rows l to nn and columns m to nn
+				for (int k = m; k <= nn - 1; k++) {
+					if (k != m) {
+						p = a[k][k - 1];
+						q = a[k + 1][k - 1];
+						r = 0.0;
+						if (k != nn - 1)
+							r = a[k + 2][k - 1];
+						x = Math.abs(p) + Math.abs(q) + Math.abs(r);
+						if (x != 0.0) {
+							p /= x;
+							q /= x;
+							r /= x;
+						}
+					}
+					double s = Math.sqrt(p * p + q * q + r * r);
+					if (p < 0.0)
+						s = -s;
+					if (s == 0.0)
+						continue;
+					if (k == m) {
+						if (l != m)
+							a[k][k - 1] = -a[k][k - 1];
+					} else
+						a[k][k - 1] = -s * x;
+					p += s;
+					x = p / s;
+					y = q / s;
+					z = r / s;
+					q /= p;
+					r /= p;
+					// row modification
+					for (int j = k; j <= nn; j++) {
+						p = a[k][j] + q * a[k + 1][j];
+						if (k != nn - 1) {
+							p += r * a[k + 2][j];
+							a[k + 2][j] -= p * z;
+						}
+						a[k + 1][j] -= p * y;
+						a[k][j] -= p * x;
+					}
+					// column modification
+					int mmin = Math.min(nn, k + 3);
+					for (int i = l; i <= mmin; i++) {
+						p = x * a[i][k] + y * a[i][k + 1];
+						if (k != nn - 1) {
+							p += z * a[i][k + 2];
+							a[i][k + 2] -= p * r;
+						}
+						a[i][k + 1] -= p * q;
+						a[i][k] -= p;
+					}
+				}
+			} while (l < nn - 1);
+		}
+		return true;
+	}
+}
@@ -355,6 +355,14 @@ public class MersenneTwister {
 	 */
 	private int mti;
 
+	/**
+	 * The number of times the state vector was regenerated. Together with
+	 * {@link #mti} this yields the number of random words drawn.
+	 * 
+	 * @see #getDraws()
+	 */
+	private double twists;
+
 	/**
 	 * The seed used for the random number generator.
 	 */
@@ -654,6 +662,22 @@ public class MersenneTwister {
 		mt[N - 1] = mt[M - 1] ^ (y >>> 1) ^ ((y & 0x1) * MATRIX_A);
 
 		mti = 0;
+		twists++;
+	}
+
+	/**
+	 * Get a running count of the 32bit random words drawn. Random
+	 * <code>double</code>'s and <code>long</code>'s consume two words. Counting is
+	 * essentially free because the generator advances through the state vector
+	 * anyways.
+	 * <p>
+	 * <strong>Note:</strong> only differences between counts are meaningful.
+	 * Seeding or restoring the generator invalidates previous counts.
+	 * 
+	 * @return the running count of random words drawn
+	 */
+	public synchronized double getDraws() {
+		return twists * N + mti;
 	}
 
 	/**
@@ -668,7 +692,9 @@ public class MersenneTwister {
 	 * @return random <code>int</code> in <code>[0, 2^<sup>33</sup>-1]</code>
 	 */
 	private int nextUInt() {
-		twist();
+		// avoid (re-)acquiring lock of twist() for every word
+		if (mti >= N)
+			twist();
 		int y = mt[mti++];
 		y ^= (y >>> 11); // TEMPERING_SHIFT_U(y)
 		y ^= (y << 7) & TEMPERING_MASK_B; // TEMPERING_SHIFT_S(y)
@@ -1040,6 +1066,41 @@ public class MersenneTwister {
 		return v1 * multiplier;
 	}
 
+	/**
+	 * Fill the range {@code [from, to)} of the array {@code gauss} with random
+	 * numbers from the standard normal distribution. Returns the exact same
+	 * sequence as repeated calls to {@link #nextGaussian()} but acquires the lock
+	 * only once and consumes both numbers of each pair generated by the polar
+	 * method.
+	 * 
+	 * @param gauss the array to fill
+	 * @param from  the index of the first entry (inclusive)
+	 * @param to    the index of the last entry (exclusive)
+	 */
+	public synchronized void nextGaussian(double[] gauss, int from, int to) {
+		int n = from;
+		if (n < to && !Double.isNaN(nextGaussian)) {
+			gauss[n++] = nextGaussian;
+			nextGaussian = Double.NaN;
+		}
+		while (n < to) {
+			double v1;
+			double v2;
+			double s;
+			do {
+				v1 = (nextUInt() >>> 5) * TWO_TO_NEG25 + (nextUInt() >>> 6) * TWO_TO_NEG52 - 1;
+				v2 = (nextUInt() >>> 5) * TWO_TO_NEG25 + (nextUInt() >>> 6) * TWO_TO_NEG52 - 1;
+				s = v1 * v1 + v2 * v2;
+			} while (s >= 1 || s == 0);
+			double multiplier = Math.sqrt(-2.0 * Math.log(s) / s);
+			gauss[n++] = v1 * multiplier;
+			if (n < to)
+				gauss[n++] = v2 * multiplier;
+			else
+				nextGaussian = v2 * multiplier;
+		}
+	}
+
 	/**
 	 * Clone this MersenneTwister to ensure both objects return identical sequences
 	 * of random numbers.
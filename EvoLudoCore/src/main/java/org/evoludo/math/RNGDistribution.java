@@ -265,6 +265,21 @@ public abstract class RNGDistribution {
 		return rng.nextGaussian();
 	}
 
+	/**
+	 * Fill the range {@code [from, to)} of the array {@code gauss} with Gaussian
+	 * distributed random numbers with mean <code>0</code> and variance
+	 * <code>1</code>. Equivalent to but faster than repeated calls to
+	 * {@link #nextGaussian()}.
+	 *
+	 * @param gauss the array to fill
+	 * @param from  the index of the first entry (inclusive)
+	 * @param to    the index of the last entry (exclusive)
+	 * @see MersenneTwister#nextGaussian(double[], int, int)
+	 */
+	public void nextGaussian(double[] gauss, int from, int to) {
+		rng.nextGaussian(gauss, from, to);
+	}
+
 	/**
 	 * Set seed of random number generator to <code>seed</code>. Since
 	 * MersenneTwister only uses lower 32bits of long, <code>seed</code> is
@@ -33,7 +33,6 @@ package org.evoludo.simulator;
 import java.awt.Color;
 import java.util.Arrays;
 
-import org.evoludo.math.ArrayMath;
 import org.evoludo.simulator.models.IBSMCPopulation;
 import org.evoludo.simulator.models.PDE;
 
@@ -133,36 +132,41 @@ public abstract class ColorMap<T extends Object> {
 	}
 
 	/**
-	 * Translate the <code>data</code> array of <code>double[]</code> multi-trait
-	 * values to colors and store the results in the <code>color</code> array. The
-	 * type of the <code>color</code> array depends on the implementation.
+	 * Translate the <code>data</code> array of interleaved multi-trait values to
+	 * colors and store the results in the <code>color</code> array. The values
+	 * for unit <code>n</code> are stored in the <code>stride</code> entries
+	 * starting at <code>data[n * stride]</code>. The type of the
+	 * <code>color</code> array depends on the implementation.
 	 * 
-	 * @param data  the <code>double[][]</code> array to convert to colors
-	 * @param color the array for the resulting colors
+	 * @param data   the <code>double[]</code> array to convert to colors
+	 * @param stride the number of entries per unit
+	 * @param color  the array for the resulting colors
 	 * @return <code>true</code> if translation successful
 	 */
-	public boolean translate(double[][] data, T[] color) {
-		throw new UnsupportedOperationException("ColorMap.translate(double[][], T[]) not implemented!");
+	public boolean translate(double[] data, int stride, T[] color) {
+		throw new UnsupportedOperationException("ColorMap.translate(double[], int, T[]) not implemented!");
 	}
 
 	/**
 	 * Translate the <code>data1</code> and <code>data2</code> arrays of
-	 * <code>double[]</code> multi-trait values to colors and store the results in
-	 * the <code>color</code> array. The type of the <code>color</code> array
-	 * depends on the implementation.
+	 * interleaved multi-trait values to colors and store the results in the
+	 * <code>color</code> array. The values for unit <code>n</code> are stored in
+	 * the <code>stride</code> entries starting at <code>n * stride</code>. The
+	 * type of the <code>color</code> array depends on the implementation.
 	 * <p>
 	 * For example, frequencies and fitnesses, say <code>data1</code> and
 	 * <code>data2</code>, respectively, yield the average fitness as
 	 * <code>data1&middot;data2</code> (dot product), which then gets converted to a
 	 * color.
 	 * 
-	 * @param data1 the first <code>double[]</code> array to convert to colors
-	 * @param data2 the second <code>double[]</code> array to convert to colors
-	 * @param color the array for the resulting colors
+	 * @param data1  the first <code>double[]</code> array to convert to colors
+	 * @param data2  the second <code>double[]</code> array to convert to colors
+	 * @param stride the number of entries per unit
+	 * @param color  the array for the resulting colors
 	 * @return <code>true</code> if translation successful
 	 */
-	public boolean translate(double[][] data1, double[][] data2, T[] color) {
-		throw new UnsupportedOperationException("ColorMap.translate(double[][], double[][], T[]) not implemented!");
+	public boolean translate(double[] data1, double[] data2, int stride, T[] color) {
+		throw new UnsupportedOperationException("ColorMap.translate(double[], double[], int, T[]) not implemented!");
 	}
 
 	/**
@@ -799,9 +803,9 @@ public abstract class ColorMap<T extends Object> {
 		 * <p>
 		 * <strong>Implementation:</strong>
 		 * <ol>
-		 * <li>Each entry in <code>data</code> is assumed to be one dimensional (only
-		 * first entry used) and converted to the corresponding gradient color and
-		 * returned in the <code>color</code> array.
+		 * <li>Only the entry <code>trait</code> of each unit in <code>data</code> is
+		 * converted to the corresponding gradient color and returned in the
+		 * <code>color</code> array.
 		 * <li>For performance reasons no validity checks on <code>data</code>. In
 		 * particular, all data entries must lie inside the range for mapping data
 		 * values.
@@ -810,10 +814,10 @@ public abstract class ColorMap<T extends Object> {
 		 * @see PDE
 		 */
 		@Override
-		public boolean translate(double[][] data, T[] color) {
-			int len = data.length;
-			for (int n = 0; n < len; n++)
-				color[n] = gradient[binOf(data[n][trait])];
+		public boolean translate(double[] data, int stride, T[] color) {
+			int len = color.length;
+			for (int n = 0, idx = trait; n < len; n++, idx += stride)
+				color[n] = gradient[binOf(data[idx])];
 			return true;
 		}
 
@@ -823,10 +827,15 @@ public abstract class ColorMap<T extends Object> {
 		 * @see PDE
 		 */
 		@Override
-		public boolean translate(double[][] data1, double[][] data2, T[] color) {
+		public boolean translate(double[] data1, double[] data2, int stride, T[] color) {
 			int len = color.length;
-			for (int n = 0; n < len; n++)
-				color[n] = translate(ArrayMath.dot(data1[n], data2[n]));
+			int idx = 0;
+			for (int n = 0; n < len; n++) {
+				double dot = 0.0;
+				for (int i = 0; i < stride; i++, idx++)
+					dot += data1[idx] * data2[idx];
+				color[n] = translate(dot);
+			}
 			return true;
 		}
 	}
@@ -1121,8 +1130,8 @@ public abstract class ColorMap<T extends Object> {
 		 * <p>
 		 * <strong>Implementation:</strong>
 		 * <ol>
-		 * <li>Each entry in <code>data</code> represents a multi-dimensional trait
-		 * value, which is converted to the corresponding gradient color and returned in
+		 * <li>Each block of <code>stride</code> entries in <code>data</code>
+		 * represents a multi-dimensional trait value, which is converted to the corresponding gradient color and returned in
 		 * the <code>color</code> array. An example are trait densities in PDE models.
 		 * <li>For performance reasons no validity checks on <code>data</code>. In
 		 * particular, all data entries must lie inside the range for mapping data
@@ -1132,19 +1141,16 @@ public abstract class ColorMap<T extends Object> {
 		 * @see PDE
 		 */
 		@Override
-		public boolean translate(double[][] data, T[] color) {
+		public boolean translate(double[] data, int stride, T[] color) {
 			int len = color.length;
 			if (nTraits == 2) {
 				// no dependent trait - use auto scaling
-				for (int n = 0; n < len; n++) {
-					double[] datan = data[n];
-					color[n] = gradient[binOf(datan, trait1)][binOf(datan, trait2)];
-				}
+				for (int n = 0, idx = 0; n < len; n++, idx += stride)
+					color[n] = gradient[binOf(data[idx + trait1], trait1)][binOf(data[idx + trait2], trait2)];
 			} else {
-				for (int n = 0; n < len; n++) {
-					double[] datan = data[n];
-					color[n] = gradient[(int) (datan[trait1] * nGradient)][(int) (datan[trait2] * nGradient)];
-				}
+				for (int n = 0, idx = 0; n < len; n++, idx += stride)
+					color[n] = gradient[(int) (data[idx + trait1] * nGradient)][(int) (data[idx + trait2]
+							* nGradient)];
 			}
 			return true;
 		}
@@ -1306,8 +1312,8 @@ public abstract class ColorMap<T extends Object> {
 		 * <p>
 		 * <strong>Implementation:</strong>
 		 * <ol>
-		 * <li>Each entry in <code>data</code> represents a <code>N</code>-dimensional
-		 * trait value, which is converted to gradient colors on the fly and returned in
+		 * <li>Each block of <code>stride</code> entries in <code>data</code>
+		 * represents a <code>N</code>-dimensional trait value, which is converted to gradient colors on the fly and returned in
 		 * the <code>color</code> array. An example are trait densities in PDE models.
 		 * <li>For performance reasons no validity checks on <code>data</code>. In
 		 * particular, all data entries must lie inside the range for mapping data
@@ -1317,10 +1323,15 @@ public abstract class ColorMap<T extends Object> {
 		 * @see PDE
 		 */
 		@Override
-		public boolean translate(double[][] data, T[] color) {
+		public boolean translate(double[] data, int stride, T[] color) {
+			double[] datan = new double[stride];
 			int len = color.length;
-			for (int n = 0; n < len; n++)
-				color[n] = super.translate(data[n]);
+			int idx = 0;
+			for (int n = 0; n < len; n++) {
+				System.arraycopy(data, idx, datan, 0, stride);
+				color[n] = super.translate(datan);
+				idx += stride;
+			}
 			return true;
 		}
 
@@ -42,6 +42,7 @@ import org.evoludo.simulator.geometries.AbstractGeometry;
 import org.evoludo.simulator.models.Advection;
 import org.evoludo.simulator.models.ChangeListener;
 import org.evoludo.simulator.models.ChangeListener.PendingAction;
+import org.evoludo.simulator.models.DormandPrince;
 import org.evoludo.simulator.models.IBSPopulation;
 import org.evoludo.simulator.models.LifecycleListener;
 import org.evoludo.simulator.models.Model;
@@ -230,6 +231,10 @@ public abstract class EvoLudo
 				if (activeModule instanceof HasDE.ODE)
 					return new RungeKutta(this);
 				break;
+			case DP5:
+				if (activeModule instanceof HasDE.ODE)
+					return new DormandPrince(this);
+				break;
 			case EM:
 				if (activeModule instanceof HasDE.ODE)
 					return new ODE(this);
@@ -963,6 +968,7 @@ public abstract class EvoLudo
 	 * @see PendingAction
 	 */
 	public synchronized void fireModelChanged() {
+		PhaseTrace trace = beginTrace(PhaseTrace.Phase.MODEL_CHANGED);
 		switch (activeModel.getMode()) {
 			default:
 			case STATISTICS_UPDATE:
@@ -972,6 +978,8 @@ public abstract class EvoLudo
 			case STATISTICS_SAMPLE:
 				break;
 		}
+		if (trace != null)
+			trace.record(getTraceSize(), 0.0, null);
 	}
 
 	/**
@@ -995,6 +1003,7 @@ public abstract class EvoLudo
 	public synchronized boolean fireModelSample(boolean success) {
 		// check if new sample completed
 		activeModel.readStatisticsSample();
+		activeModel.traceStatisticsSample(success);
 		for (SampleListener i : sampleListeners)
 			i.modelSample(success);
 		if (activeModel.getNSamples() == activeModel.getNStatisticsSamples()) {
@@ -1148,7 +1157,11 @@ public abstract class EvoLudo
 	 * @return encoded state
 	 */
 	public String encodeState() {
-		return stateEncoder.encodeState();
+		PhaseTrace trace = beginTrace(PhaseTrace.Phase.STATE_EXPORT);
+		String state = stateEncoder.encodeState();
+		if (trace != null)
+			trace.record(getTraceSize(), 0.0, null);
+		return state;
 	}
 
 	/**
@@ -1179,7 +1192,61 @@ public abstract class EvoLudo
 	 * @return {@code true} on successfully restoring state
 	 */
 	public boolean restoreState(Plist plist) {
-		return stateEncoder.restoreState(plist);
+		PhaseTrace trace = beginTrace(PhaseTrace.Phase.STATE_RESTORE);
+		boolean success = stateEncoder.restoreState(plist);
+		if (trace != null)
+			trace.record(getTraceSize(), 0.0, success ? null : "failed");
+		return success;
+	}
+
+	/**
+	 * Begin tracing {@code phase} of the simulation. Tracing is not supported by
+	 * default and {@code null} is returned. Implementations return {@code null}
+	 * whenever {@code phase} is not being traced to keep the overhead negligible.
+	 * 
+	 * @param phase the phase to trace
+	 * @return the trace to record the end of the phase or {@code null}
+	 * 
+	 * @see org.evoludo.simulator.EvoLudoJRE#beginTrace(PhaseTrace.Phase)
+	 */
+	public PhaseTrace beginTrace(PhaseTrace.Phase phase) {
+		return null;
+	}
+
+	/**
+	 * Get a time stamp for timing phases of the simulation. Only differences
+	 * between time stamps are meaningful. By default this is
+	 * {@link #elapsedTimeMsec()} but implementations should provide a higher
+	 * resolution whenever possible.
+	 *
+	 * @return the time stamp in milliseconds
+	 *
+	 * @see org.evoludo.simulator.EvoLudoGWT#timeStampMsec()
+	 * @see org.evoludo.simulator.EvoLudoJRE#timeStampMsec()
+	 */
+	public double timeStampMsec() {
+		return elapsedTimeMsec();
+	}
+
+	/**
+	 * Get the number of bytes allocated by the current thread. Only differences
+	 * are meaningful. Not supported by default and {@code -1} is returned.
+	 *
+	 * @return the number of bytes allocated or {@code -1} if not supported
+	 *
+	 * @see org.evoludo.simulator.EvoLudoJRE#allocatedBytes()
+	 */
+	public double allocatedBytes() {
+		return -1.0;
+	}
+
+	/**
+	 * Helper method to get the size of the active module for traces.
+	 * 
+	 * @return the size of the population or {@code 0} if no module loaded
+	 */
+	int getTraceSize() {
+		return (activeModule == null ? 0 : activeModule.getNPopulation());
 	}
 
 	/**
@@ -295,6 +295,11 @@ public abstract class Network<N extends Node> extends AbstractList<N> implements
 	 */
 	protected EvoLudo engine;
 
+	/**
+	 * The trace of the current layouting process or {@code null} if not traced.
+	 */
+	private PhaseTrace layoutTrace;
+
 	/**
 	 * The random number generator used for layout of networks. Must
 	 * <strong>NOT</strong> interfere with modelling and calculations. Do
@@ -492,6 +497,7 @@ public abstract class Network<N extends Node> extends AbstractList<N> implements
 	 * Prepare for the layouting process.
 	 */
 	public void doLayoutPrep() {
+		layoutTrace = engine.beginTrace(PhaseTrace.Phase.NETWORK_LAYOUT);
 		isRunning = true;
 		prevPotential = 0.0;
 		prevAdjust = 1.0;
@@ -548,6 +554,10 @@ public abstract class Network<N extends Node> extends AbstractList<N> implements
 		Model model = engine.getModel();
 		if (model != null)
 			timestamp = model.getUpdates();
+		if (layoutTrace != null) {
+			layoutTrace.record(nNodes, 0.0, geometry.getType().getKey());
+			layoutTrace = null;
+		}
 		listener.layoutComplete();
 	}
 
@@ -669,6 +679,7 @@ public abstract class Network<N extends Node> extends AbstractList<N> implements
 		if (isRunning)
 			setStatus(Status.NEEDS_LAYOUT);
 		isRunning = false;
+		layoutTrace = null;
 	}
 
 	/**
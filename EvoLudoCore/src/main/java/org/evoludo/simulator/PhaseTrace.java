@@ -0,0 +1,115 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator;
+
+/**
+ * {@code PhaseTrace}s record the duration of a phase of the simulation, for
+ * example a model step or the construction of a geometry, together with some
+ * information about the phase. Traces are started through
+ * {@link EvoLudo#beginTrace(Phase)}, which returns {@code null} unless the
+ * phase is being traced. This keeps the cost negligible if tracing is off. The
+ * JRE implementation emits Java Flight Recorder events, whereas GWT does not
+ * support tracing.
+ *
+ * @author Christoph Hauert
+ */
+public interface PhaseTrace {
+
+	/**
+	 * The phases of the simulation that can be traced.
+	 */
+	public enum Phase {
+
+		/**
+		 * Single step of the model.
+		 */
+		MODEL_STEP,
+
+		/**
+		 * Single sample for statistics (from start to fixation or failure).
+		 */
+		STATISTICS_SAMPLE,
+
+		/**
+		 * Construction of a geometry.
+		 */
+		GEOMETRY_INIT,
+
+		/**
+		 * Rewiring or adding links to a geometry.
+		 */
+		GEOMETRY_REWIRE,
+
+		/**
+		 * Layout of a network for visualization.
+		 */
+		NETWORK_LAYOUT,
+
+		/**
+		 * Reaction step of a PDE.
+		 */
+		PDE_REACT,
+
+		/**
+		 * Diffusion (and advection) step of a PDE.
+		 */
+		PDE_DIFFUSE,
+
+		/**
+		 * Fused diffusion (and advection) and reaction step of a PDE.
+		 */
+		PDE_STEP,
+
+		/**
+		 * Encoding the state of the model.
+		 */
+		STATE_EXPORT,
+
+		/**
+		 * Restoring the state of the model.
+		 */
+		STATE_RESTORE,
+
+		/**
+		 * Notification of listeners about changes of the model.
+		 */
+		MODEL_CHANGED;
+	}
+
+	/**
+	 * Record the end of the traced phase.
+	 *
+	 * @param size    the size of the population (or number of units)
+	 * @param updates the number of updates advanced (in generations)
+	 * @param detail  further details about the phase, may be {@code null}
+	 */
+	public void record(int size, double updates, String detail);
+}
@@ -35,6 +35,7 @@ import java.util.List;
 
 import org.evoludo.simulator.models.ChangeListener;
 import org.evoludo.simulator.models.ChangeListener.PendingAction;
+import org.evoludo.simulator.models.Counters;
 import org.evoludo.simulator.models.IBS;
 import org.evoludo.simulator.models.Mode;
 import org.evoludo.simulator.models.RunListener;
@@ -496,7 +497,16 @@ class RunController {
 		if (engine.activeModel == null)
 			return false;
 		clearTraits();
-		return modelNextDone(engine.activeModel.next(engine.activeModel.getTimeStep()));
+		PhaseTrace trace = engine.beginTrace(PhaseTrace.Phase.MODEL_STEP);
+		double updates = engine.activeModel.getUpdates();
+		Counters counters = engine.activeModel.getCounters();
+		counters.beginStep();
+		boolean cont = engine.activeModel.next(engine.activeModel.getTimeStep());
+		counters.endStep();
+		if (trace != null)
+			trace.record(engine.getTraceSize(), engine.activeModel.getUpdates() - updates,
+					engine.activeModel.getType().getKey());
+		return modelNextDone(cont);
 	}
 
 	/**
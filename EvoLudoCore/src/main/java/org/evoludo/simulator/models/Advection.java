@@ -35,6 +35,7 @@ import java.util.logging.Level;
 
 import org.evoludo.math.ArrayMath;
 import org.evoludo.simulator.EvoLudo;
+import org.evoludo.simulator.PhaseTrace;
 import org.evoludo.simulator.geometries.GeometryFeatures;
 import org.evoludo.simulator.modules.Module;
 import org.evoludo.util.CLODelegate;
@@ -46,7 +47,8 @@ import org.evoludo.util.Formatter;
 /**
  * Numerical integration of partial differential equations for
  * reaction-diffusion-advection systems based on Euler's method (fixed step
- * size).
+ * size). Optionally, advection is integrated by implicit steps, which lifts the
+ * restrictions on the step size imposed by strong advection.
  * <p>
  * <strong>Important:</strong> Currently multi-species modules are not supported
  * by PDE models.
@@ -68,6 +70,26 @@ public class Advection extends PDE {
 	 */
 	protected boolean doAdvection = true;
 
+	/**
+	 * The buffer for the advection coefficients scaled for the current time step.
+	 * 
+	 * @see #getScaledAdvection(double)
+	 */
+	private double[][] scaledAdvection;
+
+	/**
+	 * The requested scheme for the advection step.
+	 * 
+	 * @see #cloPdeASolver
+	 */
+	AdvectionImplicit.Type advSolver = AdvectionImplicit.Type.EXPLICIT;
+
+	/**
+	 * The implicit solver for the advection step or {@code null} if advection is
+	 * integrated explicitly together with diffusion.
+	 */
+	AdvectionImplicit upwind;
+
 	/**
 	 * Constructs a new model for the numerical integration of the system of partial
 	 * differential equations representing the dynamics specified by the
@@ -95,8 +117,7 @@ public class Advection extends PDE {
 	// // NOTE: swapping would be faster but results in some strange behavior with
 	// 'apply' and 'init';
 	// // since this is not critical it is not worth tracking down
-	// for( int n=0; n<density.length; n++ )
-	// System.arraycopy(density[n], 0, next[n], 0, density[n].length);
+	// System.arraycopy(density, 0, next, 0, density.length);
 	// double[] dummy = new double[d];
 	// updateFitness(dummy, dummy, dummy);
 	// // NOTE: in the absence of reactions, the total/mean density of each type
@@ -105,76 +126,140 @@ public class Advection extends PDE {
 	// }
 
 	@Override
-	public void diffuse(int start, int end, double[] scaledD, double[][] scaledA) {
-		if (!doAdvection) {
-			super.diffuse(start, end, scaledD);
+	public synchronized void unload() {
+		scaledAdvection = null;
+		upwind = null;
+		super.unload();
+	}
+
+	@Override
+	public boolean check() {
+		boolean doReset = super.check();
+		if (isSymmetric && hasImplicitAdvection())
+			logger.warning("implicit advection does not preserve symmetry.");
+		return doReset;
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		upwind = (hasImplicitAdvection() ? new AdvectionImplicit(space, nDim) : null);
+	}
+
+	/**
+	 * Check whether the model includes advection that is integrated by implicit
+	 * steps separately from diffusion.
+	 * 
+	 * @return {@code true} if implicit advection is present
+	 */
+	private boolean hasImplicitAdvection() {
+		return doAdvection && advSolver == AdvectionImplicit.Type.IMPLICIT;
+	}
+
+	@Override
+	void advect(double[][] scaledA, double stepSize) {
+		if (upwind == null || scaledA == null)
 			return;
-		}
+		PhaseTrace trace = engine.beginTrace(PhaseTrace.Phase.PDE_DIFFUSE);
+		advectImplicit(scaledA);
+		if (trace != null)
+			trace.record(space.getSize(), stepSize, "advection");
+	}
 
-		double[] minDens = new double[nDim];
-		Arrays.fill(minDens, Double.MAX_VALUE);
-		double[] maxDens = new double[nDim];
-		Arrays.fill(maxDens, -Double.MAX_VALUE);
-		double[] meanDens = new double[nDim];
-		double[] delta = new double[nDim];
-		double[] adv = new double[nDim];
+	/**
+	 * Perform an implicit advection step across the entire PDE domain. As for
+	 * explicit advection steps, the density of the dependent trait, if any, is set
+	 * to maintain normalization but not truncated. The advected densities replace
+	 * the current state in {@link #next}, which subsequently undergoes the
+	 * diffusion and reaction steps.
+	 *
+	 * @param scaledA the scaled advection coefficients
+	 * 
+	 * @see #cloPdeASolver
+	 */
+	public synchronized void advectImplicit(double[][] scaledA) {
+		if (!upwind.advect(next, density, scaledA, dependent))
+			logger.warning("implicit advection step failed to converge.");
+		if (dependent >= 0) {
+			for (int sn = 0; sn < density.length; sn += nDim) {
+				double norm = 0.0;
+				for (int k = 0; k < nDim; k++) {
+					if (k != dependent)
+						norm += density[sn + k];
+				}
+				density[sn + dependent] = 1.0 - norm;
+			}
+		}
+		System.arraycopy(density, 0, next, 0, density.length);
+	}
 
+	@Override
+	void diffuseRange(int start, int end, double[] scaledD, double[][] scaledA, Workspace ws) {
+		if (!doAdvection || scaledA == null || upwind != null) {
+			super.diffuseRange(start, end, scaledD, scaledA, ws);
+			return;
+		}
 		if (isSymmetric) {
-			diffuseSymmetric(start, end, scaledD, scaledA, minDens, maxDens, meanDens, delta, adv);
+			diffuseSymmetric(start, end, scaledD, scaledA, ws);
 		} else {
-			diffuseStandard(start, end, scaledD, scaledA, minDens, maxDens, meanDens, delta, adv);
+			diffuseStandard(start, end, scaledD, scaledA, ws.min, ws.max, ws.mean, ws.delta, ws.adv);
 		}
-		updateDensity(minDens, maxDens, meanDens);
 	}
 
 	/**
-	 * Process sites in the symmetric case (neighbour ordering must be sorted).
+	 * Process sites in the symmetric case. The diffusion and advection
+	 * contributions of all neighbours are summed exactly such that the result is
+	 * independent of the order of the neighbours.
 	 * 
-	 * @param start    the starting site index
-	 * @param end      the ending site index
-	 * @param scaledD  the diffusion coefficients scaled for the current time step
-	 * @param scaledA  the advection coefficients scaled for the current time step
-	 * @param minDens  the minimum densities (updated)
-	 * @param maxDens  the maximum densities (updated)
-	 * @param meanDens the mean densities (updated)
-	 * @param delta    helper array to store differences
-	 * @param adv      helper array to store advection contributions
+	 * @param start   the starting site index
+	 * @param end     the ending site index
+	 * @param scaledD the diffusion coefficients scaled for the current time step
+	 * @param scaledA the advection coefficients scaled for the current time step
+	 * @param ws      the workspace to store the minimum, maximum and mean
+	 *                densities and for summation
+	 * 
+	 * @see ArrayMath#exactSum(double[], int, int, double[])
 	 */
-	private void diffuseSymmetric(int start, int end, double[] scaledD, double[][] scaledA,
-			double[] minDens, double[] maxDens, double[] meanDens, double[] delta, double[] adv) {
+	private void diffuseSymmetric(int start, int end, double[] scaledD, double[][] scaledA, Workspace ws) {
 		int[][] in = space.in;
-		GeometryFeatures features = space.getFeatures();
-		double[][] sort = new double[features.maxIn][];
-		for (int n = start; n < end; n++) {
+		double[] terms = ws.terms;
+		double[] partials = ws.partials;
+		double[] delta = ws.delta;
+		double[] adv = ws.adv;
+		for (int n = start, sn = start * nDim; n < end; n++, sn += nDim) {
 			int[] neighs = in[n];
 			int nIn = space.kin[n];
-			double[] sn = next[n]; // current state of focal site sn
-			double[] s = density[n]; // next state
-			ArrayMath.multiply(sn, -space.kout[n], s);
-			Arrays.fill(adv, 0.0);
-			// collect neighbours
-			for (int i = 0; i < nIn; i++) {
-				sort[i] = next[neighs[i]];
+			double kout = -space.kout[n];
+			// diffusion
+			for (int k = 0; k < nDim; k++) {
+				terms[0] = next[sn + k] * kout;
+				for (int i = 0; i < nIn; i++)
+					terms[i + 1] = next[neighs[i] * nDim + k];
+				density[sn + k] = ArrayMath.exactSum(terms, 0, nIn + 1, partials);
 			}
-			// maintain deterministic order for symmetric case
-			Arrays.sort(sort, 0, nIn, sorting);
-			// accumulate contributions from sorted neighbours
+			// advection: collect contributions of neighbours for each trait
 			for (int i = 0; i < nIn; i++) {
-				double[] si = sort[i];
-				// diffusion
-				ArrayMath.add(s, si); // s += si
-				// advection contribution from this neighbour
-				ArrayMath.sub(si, sn, delta); // delta = si-sn
-				ArrayMath.add(delta, 1.0); // delta = 1+si-sn
+				int si = neighs[i] * nDim;
+				for (int k = 0; k < nDim; k++)
+					delta[k] = next[si + k] - next[sn + k] + 1.0; // delta = 1+si-sn
+				Arrays.fill(adv, 0.0);
 				addAdvectionContribution(sn, si, delta, adv, scaledA);
+				for (int j = 0, jidx = 0; j < nDim; j++) {
+					if (j == dependent)
+						continue;
+					terms[jidx * nIn + i] = adv[j];
+					jidx++;
+				}
 			}
-			// finalize site
-			ArrayMath.multiply(s, scaledD); // s *= alpha
-			ArrayMath.add(s, sn); // s += sn
-			ArrayMath.add(s, adv); // s += adv
-			if (dependent >= 0)
-				s[dependent] = 1.0 + s[dependent] - ArrayMath.norm(s);
-			minmaxmean(s, minDens, maxDens, meanDens);
+			Arrays.fill(adv, 0.0);
+			for (int j = 0, jidx = 0; j < nDim; j++) {
+				if (j == dependent)
+					continue;
+				adv[j] = ArrayMath.exactSum(terms, jidx * nIn, (jidx + 1) * nIn, partials);
+				jidx++;
+			}
+			finishAdvection(sn, scaledD, adv);
+			minmaxmean(density, sn, ws.min, ws.max, ws.mean);
 		}
 	}
 
@@ -194,29 +279,65 @@ public class Advection extends PDE {
 	private void diffuseStandard(int start, int end, double[] scaledD, double[][] scaledA,
 			double[] minDens, double[] maxDens, double[] meanDens, double[] delta, double[] adv) {
 		int[][] in = space.in;
-		for (int n = start; n < end; n++) {
+		for (int n = start, sn = start * nDim; n < end; n++, sn += nDim) {
 			int[] neighs = in[n];
 			int nIn = space.kin[n];
-			double[] sn = next[n]; // current state of focal site sn
-			double[] s = density[n]; // next state
-			ArrayMath.multiply(sn, -space.kout[n], s);
+			double kout = -space.kout[n];
+			for (int k = 0; k < nDim; k++)
+				density[sn + k] = next[sn + k] * kout;
 			Arrays.fill(adv, 0.0);
-			for (int i = 0; i < nIn; i++) {
-				double[] si = next[neighs[i]]; // neighbour state
-				// diffusion
-				ArrayMath.add(s, si); // s += si
-				// advection contribution from this neighbour
-				ArrayMath.sub(si, sn, delta); // delta = si-sn
-				ArrayMath.add(delta, 1.0); // delta = 1+si-sn
-				addAdvectionContribution(sn, si, delta, adv, scaledA);
-			}
-			// finalize site
-			ArrayMath.multiply(s, scaledD);
-			ArrayMath.add(s, sn);
-			ArrayMath.add(s, adv);
-			if (dependent >= 0)
-				s[dependent] = 1.0 + s[dependent] - ArrayMath.norm(s);
-			minmaxmean(s, minDens, maxDens, meanDens);
+			for (int i = 0; i < nIn; i++)
+				addNeighbour(sn, neighs[i] * nDim, delta, adv, scaledA);
+			finishAdvection(sn, scaledD, adv);
+			minmaxmean(density, sn, minDens, maxDens, meanDens);
+		}
+	}
+
+	/**
+	 * Adds the diffusion and advection contributions of the neighbouring site with
+	 * offset {@code si} to the focal site with offset {@code sn}. The diffusion
+	 * contribution is accumulated in {@link #density} and the advection
+	 * contribution in {@code adv}.
+	 * 
+	 * @param sn      the offset of the focal site
+	 * @param si      the offset of the neighbouring site
+	 * @param delta   helper array to store differences
+	 * @param adv     the advection accumulator for the focal site
+	 * @param scaledA the advection coefficients scaled for the current time step
+	 */
+	private void addNeighbour(int sn, int si, double[] delta, double[] adv, double[][] scaledA) {
+		for (int k = 0; k < nDim; k++) {
+			double sik = next[si + k];
+			// diffusion
+			density[sn + k] += sik; // s += si
+			delta[k] = sik - next[sn + k]; // delta = si-sn
+			delta[k] += 1.0; // delta = 1+si-sn
+		}
+		// advection contribution from this neighbour
+		addAdvectionContribution(sn, si, delta, adv, scaledA);
+	}
+
+	/**
+	 * Finalizes the site with offset {@code sn}: scales the accumulated diffusion
+	 * in {@link #density} by the diffusion coefficients, adds the current state in
+	 * {@link #next} as well as the advection contribution {@code adv} and, if
+	 * applicable, adjusts the dependent trait to maintain normalization.
+	 * 
+	 * @param sn      the offset of the site
+	 * @param scaledD the diffusion coefficients scaled for the current time step
+	 * @param adv     the advection contribution for the site
+	 */
+	private void finishAdvection(int sn, double[] scaledD, double[] adv) {
+		double norm = 0.0;
+		for (int k = 0; k < nDim; k++) {
+			int idx = sn + k;
+			double sk = density[idx] * scaledD[k] + next[idx] + adv[k]; // s = s*alpha+sn+adv
+			density[idx] = sk;
+			norm += sk;
+		}
+		if (dependent >= 0) {
+			int dep = sn + dependent;
+			density[dep] = 1.0 + density[dep] - norm;
 		}
 	}
 
@@ -224,13 +345,14 @@ public class Advection extends PDE {
 	 * Adds the advection contribution of a single neighbor (si) to the accumulator
 	 * adv for the focal site with state sn using precomputed delta = 1 + si - sn.
 	 * 
-	 * @param sn    the state of the focal site
-	 * @param si    the state of the neighboring site
-	 * @param delta the precomputed delta = 1 + si - sn
-	 * @param adv   the advection accumulator for the focal site
+	 * @param sn      the offset of the state of the focal site in {@link #next}
+	 * @param si      the offset of the state of the neighboring site in
+	 *                {@link #next}
+	 * @param delta   the precomputed delta = 1 + si - sn
+	 * @param adv     the advection accumulator for the focal site
 	 * @param scaledA the advection coefficients scaled for the current time step
 	 */
-	private void addAdvectionContribution(double[] sn, double[] si, double[] delta, double[] adv,
+	private void addAdvectionContribution(int sn, int si, double[] delta, double[] adv,
 			double[][] scaledA) {
 		int jidx = 0;
 		for (int j = 0; j < nDim; j++) {
@@ -242,7 +364,7 @@ public class Advection extends PDE {
 				if (k == dependent)
 					continue;
 				double dk = delta[k] * 0.5;
-				advj += scaledA[jidx][kidx] * (-sn[j] * dk + si[j] * (1.0 - dk));
+				advj += scaledA[jidx][kidx] * (-next[sn + j] * dk + next[si + j] * (1.0 - dk));
 				kidx++;
 			}
 			adv[j] += advj;
@@ -265,7 +387,9 @@ public class Advection extends PDE {
 		if (!doAdvection)
 			return null;
 		int dim = dependent < 0 ? nDim : nDim - 1;
-		double[][] scaledA = new double[dim][dim];
+		if (scaledAdvection == null || scaledAdvection.length != dim)
+			scaledAdvection = new double[dim][dim];
+		double[][] scaledA = scaledAdvection;
 		double invdx = calcInvDeltaX();
 		double invdx2 = invdx * invdx;
 		for (int r = 0; r < dim; r++)
@@ -273,6 +397,44 @@ public class Advection extends PDE {
 		return scaledA;
 	}
 
+	@Override
+	boolean hasAdvection() {
+		return doAdvection && advSolver == AdvectionImplicit.Type.EXPLICIT;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Single precision storage is not available in the presence of advection.
+	 */
+	@Override
+	boolean admitsSingle() {
+		return !doAdvection && super.admitsSingle();
+	}
+
+	/**
+	 * Sets the scheme for the advection step. Implicit steps are stable for any
+	 * time increment and are processed separately from the diffusion and reaction
+	 * steps. Explicit advection steps are integrated together with explicit
+	 * diffusion steps.
+	 *
+	 * @param solver the scheme for the advection step
+	 * 
+	 * @see AdvectionImplicit.Type
+	 */
+	public void setAdvectionSolver(AdvectionImplicit.Type solver) {
+		advSolver = solver;
+	}
+
+	/**
+	 * Gets the scheme for the advection step.
+	 *
+	 * @return the scheme for the advection step
+	 */
+	public AdvectionImplicit.Type getAdvectionSolver() {
+		return advSolver;
+	}
+
 	@Override
 	protected void checkDt() {
 		super.checkDt();
@@ -287,7 +449,11 @@ public class Advection extends PDE {
 		// DEBUG the following seems too conservative (at least for normalized densities
 		// - try without but check whether densities remain in [0,1])
 		if (doAdvection) {
-			double maxA = Math.max(ArrayMath.max(advcoeff), Math.abs(ArrayMath.min(advcoeff))) * invdx2;
+			// implicit steps integrate negative rates explicitly
+			double maxA = (hasImplicitAdvection() ? Math.max(0.0, -ArrayMath.min(advcoeff))
+					: Math.max(ArrayMath.max(advcoeff), Math.abs(ArrayMath.min(advcoeff)))) * invdx2;
+			if (maxA <= 0.0 && hasImplicitAdvection())
+				return;
 			GeometryFeatures features = space.getFeatures();
 			int maxK = Math.max(features.maxOut, features.maxIn);
 			// threshold of 1 is much to aggressive - this means everyone in one site
@@ -302,6 +468,22 @@ public class Advection extends PDE {
 		}
 	}
 
+	@Override
+	double stableDt() {
+		double maxDt = super.stableDt();
+		if (!doAdvection)
+			return maxDt;
+		double invdx = calcInvDeltaX();
+		// implicit steps integrate negative rates explicitly
+		double maxA = (hasImplicitAdvection() ? Math.max(0.0, -ArrayMath.min(advcoeff))
+				: Math.max(ArrayMath.max(advcoeff), Math.abs(ArrayMath.min(advcoeff)))) * invdx * invdx;
+		if (maxA <= 0.0)
+			return maxDt;
+		GeometryFeatures features = space.getFeatures();
+		int maxK = Math.max(features.maxOut, features.maxIn);
+		return Math.min(maxDt, 0.5 / (nDim * maxA * maxK));
+	}
+
 	/**
 	 * Command line option to set the advection coefficients of every trait against
 	 * all others.
@@ -379,10 +561,29 @@ public class Advection extends PDE {
 				}
 			});
 
+	/**
+	 * Command line option to set the scheme for the advection step.
+	 * 
+	 * @see #setAdvectionSolver(AdvectionImplicit.Type)
+	 */
+	public final CLOption cloPdeASolver = new CLOption("pdeASolver", AdvectionImplicit.Type.EXPLICIT.getKey(),
+			CLOCategory.Model, "--pdeASolver <s>  scheme for advection step of PDE:", new CLODelegate() {
+				@Override
+				public boolean parse(String arg) {
+					AdvectionImplicit.Type type = (AdvectionImplicit.Type) cloPdeASolver.match(arg);
+					if (type == null)
+						return false;
+					setAdvectionSolver(type);
+					return true;
+				}
+			});
+
 	@Override
 	public void collectCLO(CLOParser parser) {
 		// (re)set defaults prior to parsing CLOs
 		parser.addCLO(cloPdeAdvection);
+		parser.addCLO(cloPdeASolver);
+		cloPdeASolver.addKeys(AdvectionImplicit.Type.values());
 		super.collectCLO(parser);
 	}
 }
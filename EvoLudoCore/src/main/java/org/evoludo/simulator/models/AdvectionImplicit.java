@@ -0,0 +1,394 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+package org.evoludo.simulator.models;
+
+import org.evoludo.simulator.geometries.AbstractGeometry;
+import org.evoludo.util.CLOption;
+
+/**
+ * Implicit integration of the advection step of {@link Advection} models. The
+ * explicit advection step is only stable if the scaled advection coefficients
+ * remain small, which restricts the time increment {@code dt} in proportion to
+ * the strength of advection. The implicit step is stable for any {@code dt}
+ * such that the time increment can be chosen based on the accuracy of the
+ * reaction and diffusion steps instead. Advection, diffusion and reaction steps
+ * are combined through operator splitting.
+ * <p>
+ * The advection of trait {@code j} from a unit to its neighbour and back
+ * occurs at rates that depend on the differences of the densities of all
+ * traits between the two units (see {@link Advection}). For each trait these
+ * rates are frozen at the current state, which renders the advection step
+ * linear, and the new densities are obtained from a backward Euler step. The
+ * resulting linear system is solved by the stabilized bi-conjugate gradient
+ * method (BiCGSTAB) with a Jacobi preconditioner. As long as the rates are
+ * non-negative the system matrix is an M-matrix: densities remain positive and,
+ * on undirected geometries, the total density of each trait is conserved.
+ * Negative rates, e.g. for repulsion with negative advection coefficients, act
+ * like anti-diffusion and are treated explicitly. Note that the implicit step
+ * applies to any geometry and hence does not preserve the symmetry of states.
+ * 
+ * @author Christoph Hauert
+ * 
+ * @see Advection#cloPdeASolver
+ */
+class AdvectionImplicit {
+
+	/**
+	 * The relative tolerance of the residual for the BiCGSTAB method.
+	 */
+	static final double TOLERANCE = 1e-10;
+
+	/**
+	 * The maximum number of iterations of the BiCGSTAB method.
+	 */
+	static final int MAX_ITERATIONS = 1000;
+
+	/**
+	 * The geometry of the PDE.
+	 */
+	final AbstractGeometry space;
+
+	/**
+	 * The number of traits.
+	 */
+	final int nDim;
+
+	/**
+	 * The number of units.
+	 */
+	final int nUnits;
+
+	/**
+	 * The index of the first incoming link of each unit in {@link #out} and
+	 * {@link #in}.
+	 */
+	private final int[] first;
+
+	/**
+	 * The implicit rates of advection from each unit to its neighbours.
+	 */
+	private final double[] out;
+
+	/**
+	 * The implicit rates of advection from the neighbours to each unit.
+	 */
+	private final double[] in;
+
+	/**
+	 * The diagonal of the system matrix.
+	 */
+	private final double[] diag;
+
+	/**
+	 * The buffers for the BiCGSTAB method: the right hand side, the solution,
+	 * the residual, the shadow residual, the search direction and its image, the
+	 * preconditioned search direction and residual and the image of the latter.
+	 */
+	private final double[] b, x, r, r0, p, v, ph, sh, t;
+
+	/**
+	 * Create a new implicit advection solver for the geometry {@code space} with
+	 * {@code nDim} traits.
+	 * 
+	 * @param space the geometry of the PDE
+	 * @param nDim  the number of traits
+	 */
+	AdvectionImplicit(AbstractGeometry space, int nDim) {
+		this.space = space;
+		this.nDim = nDim;
+		nUnits = space.getSize();
+		first = new int[nUnits + 1];
+		for (int n = 0; n < nUnits; n++)
+			first[n + 1] = first[n] + space.kin[n];
+		out = new double[first[nUnits]];
+		in = new double[first[nUnits]];
+		diag = new double[nUnits];
+		b = new double[nUnits];
+		x = new double[nUnits];
+		r = new double[nUnits];
+		r0 = new double[nUnits];
+		p = new double[nUnits];
+		v = new double[nUnits];
+		ph = new double[nUnits];
+		sh = new double[nUnits];
+		t = new double[nUnits];
+	}
+
+	/**
+	 * Implicit advection step for all traits except {@code dependent}. The
+	 * current densities are read from {@code y} and the new densities are stored
+	 * in {@code dest}. The densities of the {@code dependent} trait are left
+	 * unchanged and must be set by the caller.
+	 * 
+	 * @param y         the current densities
+	 * @param dest      the new densities
+	 * @param scaledA   the advection coefficients scaled for the current time
+	 *                  step
+	 * @param dependent the index of the dependent trait or {@code -1}
+	 * @return {@code true} if the solution converged
+	 */
+	boolean advect(double[] y, double[] dest, double[][] scaledA, int dependent) {
+		boolean converged = true;
+		for (int j = 0, jidx = 0; j < nDim; j++) {
+			if (j == dependent)
+				continue;
+			double[] aj = scaledA[jidx++];
+			if (!setRates(y, j, aj, dependent)) {
+				for (int sn = j; sn < y.length; sn += nDim)
+					dest[sn] = y[sn];
+				continue;
+			}
+			converged &= solve();
+			for (int n = 0, sn = j; n < nUnits; n++, sn += nDim)
+				dest[sn] = x[n];
+		}
+		return converged;
+	}
+
+	/**
+	 * Determine the rates of advection of trait {@code j} from the densities in
+	 * {@code y} and assemble the system matrix and the right hand side. For the
+	 * link from unit {@code n} to its neighbour {@code i} the rates are
+	 * {@code a±g}, where {@code a} is half the sum of the advection coefficients
+	 * {@code aj} and {@code g} half the sum of the differences of the densities
+	 * in {@code i} and {@code n} weighted by {@code aj}. Negative rates are
+	 * added to the right hand side.
+	 * 
+	 * @param y         the current densities
+	 * @param j         the index of the trait
+	 * @param aj        the scaled advection coefficients of trait {@code j}
+	 * @param dependent the index of the dependent trait or {@code -1}
+	 * @return {@code false} if there is no advection of trait {@code j}
+	 */
+	private boolean setRates(double[] y, int j, double[] aj, int dependent) {
+		double a = 0.0;
+		boolean none = true;
+		for (double ajk : aj) {
+			a += ajk;
+			none &= (ajk == 0.0);
+		}
+		if (none)
+			return false;
+		a *= 0.5;
+		int[][] neighs = space.in;
+		for (int n = 0, sn = 0; n < nUnits; n++, sn += nDim) {
+			int[] nn = neighs[n];
+			double un = y[sn + j];
+			double d = 1.0;
+			double rhs = un;
+			for (int l = first[n], i = 0; l < first[n + 1]; l++, i++) {
+				int si = nn[i] * nDim;
+				double g = 0.0;
+				for (int k = 0, kidx = 0; k < nDim; k++) {
+					if (k == dependent)
+						continue;
+					g += aj[kidx++] * (y[si + k] - y[sn + k]);
+				}
+				g *= 0.5;
+				double ro = a + g;
+				double ri = a - g;
+				// implicit positive rates, explicit negative rates
+				if (ro >= 0.0) {
+					d += ro;
+					out[l] = ro;
+				} else {
+					rhs -= ro * un;
+					out[l] = 0.0;
+				}
+				if (ri >= 0.0) {
+					in[l] = ri;
+				} else {
+					rhs += ri * y[si + j];
+					in[l] = 0.0;
+				}
+			}
+			diag[n] = d;
+			b[n] = rhs;
+			x[n] = un;
+		}
+		return true;
+	}
+
+	/**
+	 * Calculate the image {@code dst} of {@code src} under the system matrix.
+	 * 
+	 * @param src the vector
+	 * @param dst the image of the vector
+	 */
+	private void apply(double[] src, double[] dst) {
+		int[][] neighs = space.in;
+		for (int n = 0; n < nUnits; n++) {
+			int[] nn = neighs[n];
+			double s = diag[n] * src[n];
+			for (int l = first[n], i = 0; l < first[n + 1]; l++, i++)
+				s -= in[l] * src[nn[i]];
+			dst[n] = s;
+		}
+	}
+
+	/**
+	 * Solve the linear system for the current trait using BiCGSTAB with a Jacobi
+	 * preconditioner. The initial guess in {@link #x} are the current densities.
+	 * 
+	 * @return {@code true} if the solution converged
+	 */
+	private boolean solve() {
+		apply(x, v);
+		double bb = 0.0;
+		double rr = 0.0;
+		for (int n = 0; n < nUnits; n++) {
+			double rn = b[n] - v[n];
+			r[n] = rn;
+			r0[n] = rn;
+			p[n] = 0.0;
+			v[n] = 0.0;
+			bb += b[n] * b[n];
+			rr += rn * rn;
+		}
+		double tol2 = TOLERANCE * TOLERANCE * bb;
+		if (rr <= tol2)
+			return true;
+		double rho = 1.0;
+		double alpha = 1.0;
+		double omega = 1.0;
+		for (int iter = 0; iter < MAX_ITERATIONS; iter++) {
+			double rhoNew = 0.0;
+			for (int n = 0; n < nUnits; n++)
+				rhoNew += r0[n] * r[n];
+			if (rhoNew == 0.0 || omega == 0.0)
+				return false;
+			double beta = (rhoNew / rho) * (alpha / omega);
+			rho = rhoNew;
+			for (int n = 0; n < nUnits; n++) {
+				double pn = r[n] + beta * (p[n] - omega * v[n]);
+				p[n] = pn;
+				ph[n] = pn / diag[n];
+			}
+			apply(ph, v);
+			double r0v = 0.0;
+			for (int n = 0; n < nUnits; n++)
+				r0v += r0[n] * v[n];
+			if (r0v == 0.0)
+				return false;
+			alpha = rho / r0v;
+			double ss = 0.0;
+			for (int n = 0; n < nUnits; n++) {
+				// residual r becomes s
+				double sn = r[n] - alpha * v[n];
+				r[n] = sn;
+				sh[n] = sn / diag[n];
+				ss += sn * sn;
+			}
+			if (ss <= tol2) {
+				for (int n = 0; n < nUnits; n++)
+					x[n] += alpha * ph[n];
+				return true;
+			}
+			apply(sh, t);
+			double ts = 0.0;
+			double tt = 0.0;
+			for (int n = 0; n < nUnits; n++) {
+				ts += t[n] * r[n];
+				tt += t[n] * t[n];
+			}
+			omega = (tt > 0.0 ? ts / tt : 0.0);
+			rr = 0.0;
+			for (int n = 0; n < nUnits; n++) {
+				x[n] += alpha * ph[n] + omega * sh[n];
+				double rn = r[n] - omega * t[n];
+				r[n] = rn;
+				rr += rn * rn;
+			}
+			if (rr <= tol2)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * The schemes for the advection step of {@link Advection} models.
+	 * 
+	 * @see Advection#cloPdeASolver
+	 */
+	public enum Type implements CLOption.Key {
+
+		/**
+		 * Explicit Euler step together with the diffusion step (default). The time
+		 * increment is limited by the stability of the advection step.
+		 */
+		EXPLICIT("explicit", "explicit Euler step"),
+
+		/**
+		 * Linearly implicit (backward Euler) step with rates frozen at the current
+		 * state, solved by BiCGSTAB. Available for all geometries.
+		 */
+		IMPLICIT("implicit", "linearly implicit step, BiCGSTAB");
+
+		/**
+		 * Key of advection scheme. Used when parsing command line options.
+		 * 
+		 * @see Advection#cloPdeASolver
+		 */
+		String key;
+
+		/**
+		 * Brief description of advection scheme for help display.
+		 * 
+		 * @see org.evoludo.simulator.EvoLudo#getCLOHelp()
+		 */
+		String title;
+
+		/**
+		 * Instantiate new advection scheme.
+		 * 
+		 * @param key   identifier for parsing of command line option
+		 * @param title summary of advection scheme
+		 */
+		Type(String key, String title) {
+			this.key = key;
+			this.title = title;
+		}
+
+		@Override
+		public String getKey() {
+			return key;
+		}
+
+		@Override
+		public String getTitle() {
+			return title;
+		}
+
+		@Override
+		public String toString() {
+			return key;
+		}
+	}
+}
@@ -0,0 +1,374 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator.models;
+
+import org.evoludo.simulator.EvoLudo;
+import org.evoludo.util.Formatter;
+
+/**
+ * Lightweight registry of performance counters of a model. The counters keep
+ * track of the number of steps and events processed, failed updates, rejected
+ * proposals when picking individuals with a probability proportional to their
+ * fitness, random numbers drawn as well as the time spent in the different
+ * phases of individual based simulations and the memory allocated per step.
+ * <p>
+ * Counters are cheap enough to remain enabled at all times: models are advanced
+ * by a single thread and hence the counters are plain, unsynchronized fields.
+ * The timing of phases that are processed for every event, such as picking
+ * individuals in asynchronous updates, is sampled only every
+ * {@value #SAMPLE_INTERVAL} events and scaled accordingly.
+ * <p>
+ * Counters are reset whenever the model is reset or initialized. The counters
+ * can be queried through {@link #get(Count)} and {@link #getTime(Phase)} or
+ * summarized through {@link #format(String)}, e.g. for the footer of headless
+ * runs or in the console view.
+ *
+ * @author Christoph Hauert
+ * 
+ * @see Model#getCounters()
+ */
+public class Counters {
+
+	/**
+	 * The quantities that are counted.
+	 */
+	public enum Count {
+
+		/**
+		 * The number of steps advanced, i.e. calls to {@link Model#next(double)}.
+		 */
+		STEPS("steps"),
+
+		/**
+		 * The number of events processed. For individual based simulations this
+		 * is the number of individual updates, for differential equations the
+		 * number of integration steps.
+		 */
+		EVENTS("events"),
+
+		/**
+		 * The number of failed or no-op updates, e.g. ecological updates that
+		 * did not result in births or deaths.
+		 */
+		FAILED("failed updates"),
+
+		/**
+		 * The number of rejected proposals when picking individuals with a
+		 * probability proportional to their fitness using rejection sampling.
+		 */
+		REJECTED("rejected picks"),
+
+		/**
+		 * The number of 32bit random words drawn.
+		 */
+		RANDOM("random numbers"),
+
+		/**
+		 * The number of bytes allocated while advancing the model (if supported
+		 * by the platform).
+		 * 
+		 * @see EvoLudo#allocatedBytes()
+		 */
+		ALLOCATED("allocated bytes");
+
+		/**
+		 * The title of the count.
+		 */
+		final String title;
+
+		/**
+		 * Create a new count with title {@code title}.
+		 * 
+		 * @param title the title of the count
+		 */
+		Count(String title) {
+			this.title = title;
+		}
+
+		@Override
+		public String toString() {
+			return title;
+		}
+	}
+
+	/**
+	 * The timed phases of individual based simulations. For asynchronous updates
+	 * the phases are interleaved. Playing games and committing traits are then
+	 * attributed to updating the focal individual.
+	 */
+	public enum Phase {
+
+		/**
+		 * Picking the focal species and the event.
+		 */
+		PICK("pick"),
+
+		/**
+		 * Updating individuals, including picking focal individuals and their
+		 * models.
+		 */
+		UPDATE("update"),
+
+		/**
+		 * Committing the new traits for synchronous updates.
+		 */
+		COMMIT("commit"),
+
+		/**
+		 * Playing games and updating scores for synchronous updates.
+		 */
+		PLAY("play");
+
+		/**
+		 * The title of the phase.
+		 */
+		final String title;
+
+		/**
+		 * Create a new phase with title {@code title}.
+		 * 
+		 * @param title the title of the phase
+		 */
+		Phase(String title) {
+			this.title = title;
+		}
+
+		@Override
+		public String toString() {
+			return title;
+		}
+	}
+
+	/**
+	 * The interval for sampling the timing of phases that are processed for
+	 * every event. Must be a power of two.
+	 */
+	public static final int SAMPLE_INTERVAL = 64;
+
+	/**
+	 * The pacemaker of all models. Provides access to the platform specific
+	 * timer and memory allocation.
+	 */
+	final EvoLudo engine;
+
+	/**
+	 * The counts indexed by the ordinal of {@link Count}.
+	 */
+	private final double[] counts = new double[Count.values().length];
+
+	/**
+	 * The time in milliseconds spent in each phase indexed by the ordinal of
+	 * {@link Phase}.
+	 */
+	private final double[] times = new double[Phase.values().length];
+
+	/**
+	 * The number of events since the last sample of the timing.
+	 */
+	private int tick;
+
+	/**
+	 * The running count of random numbers drawn at the beginning of the current
+	 * step.
+	 */
+	private double drawsMark;
+
+	/**
+	 * The number of bytes allocated at the beginning of the current step.
+	 */
+	private double allocMark;
+
+	/**
+	 * Create a new registry of performance counters.
+	 * 
+	 * @param engine the pacemaker for running the model
+	 */
+	public Counters(EvoLudo engine) {
+		this.engine = engine;
+	}
+
+	/**
+	 * Reset all counters.
+	 */
+	public void reset() {
+		for (int n = 0; n < counts.length; n++)
+			counts[n] = 0.0;
+		for (int n = 0; n < times.length; n++)
+			times[n] = 0.0;
+		tick = 0;
+	}
+
+	/**
+	 * Mark the beginning of a step.
+	 * 
+	 * @see #endStep()
+	 */
+	public void beginStep() {
+		drawsMark = engine.getRNG().getRNG().getDraws();
+		allocMark = engine.allocatedBytes();
+	}
+
+	/**
+	 * Mark the end of a step. Counts the step and updates the number of random
+	 * numbers drawn as well as the memory allocated during the step.
+	 * 
+	 * @see #beginStep()
+	 */
+	public void endStep() {
+		counts[Count.STEPS.ordinal()]++;
+		double draws = engine.getRNG().getRNG().getDraws() - drawsMark;
+		// reseeding or restoring the generator invalidates the mark
+		if (draws > 0.0)
+			counts[Count.RANDOM.ordinal()] += draws;
+		if (allocMark >= 0.0)
+			counts[Count.ALLOCATED.ordinal()] += engine.allocatedBytes() - allocMark;
+	}
+
+	/**
+	 * Increment the count of {@code count} by {@code incr}.
+	 * 
+	 * @param count the quantity to count
+	 * @param incr  the increment
+	 */
+	public void add(Count count, double incr) {
+		counts[count.ordinal()] += incr;
+	}
+
+	/**
+	 * Get the current count of {@code count}.
+	 * 
+	 * @param count the quantity
+	 * @return the count
+	 */
+	public double get(Count count) {
+		return counts[count.ordinal()];
+	}
+
+	/**
+	 * Check whether the timing of the current event should be sampled. Only
+	 * every {@value #SAMPLE_INTERVAL} events are sampled.
+	 * 
+	 * @return {@code true} if the timing should be sampled
+	 * 
+	 * @see #addTime(Phase, double, double)
+	 */
+	public boolean sample() {
+		return ((++tick) & (SAMPLE_INTERVAL - 1)) == 0;
+	}
+
+	/**
+	 * Get the current time stamp for timing phases.
+	 * 
+	 * @return the time stamp in milliseconds
+	 * 
+	 * @see EvoLudo#timeStampMsec()
+	 */
+	public double timeStamp() {
+		return engine.timeStampMsec();
+	}
+
+	/**
+	 * Add the time elapsed since {@code start} to {@code phase}, weighted by
+	 * {@code weight}, e.g. {@link #SAMPLE_INTERVAL} for sampled events.
+	 * 
+	 * @param phase  the phase
+	 * @param start  the time stamp at the beginning of the phase
+	 * @param weight the weight of the elapsed time
+	 * @return the current time stamp
+	 * 
+	 * @see #timeStamp()
+	 */
+	public double addTime(Phase phase, double start, double weight) {
+		double now = engine.timeStampMsec();
+		times[phase.ordinal()] += (now - start) * weight;
+		return now;
+	}
+
+	/**
+	 * Get the (estimated) time in milliseconds spent in {@code phase}.
+	 * 
+	 * @param phase the phase
+	 * @return the time in milliseconds
+	 */
+	public double getTime(Phase phase) {
+		return times[phase.ordinal()];
+	}
+
+	/**
+	 * Summarize the counters. Each count and phase is reported on a separate
+	 * line prefixed by {@code prefix}. Counts that are zero, e.g. because they
+	 * do not apply to the model, are skipped.
+	 * 
+	 * @param prefix the prefix of each line
+	 * @return the summary of the counters
+	 */
+	public String format(String prefix) {
+		StringBuilder sb = new StringBuilder();
+		double steps = counts[Count.STEPS.ordinal()];
+		for (Count count : Count.values()) {
+			double c = counts[count.ordinal()];
+			if (c <= 0.0)
+				continue;
+			append(sb, prefix, count.title);
+			sb.append(Formatter.format(c, 0));
+			if (count != Count.STEPS && steps > 0.0)
+				sb.append(" (").append(Formatter.format(c / steps, 1)).append(" per step)");
+			sb.append('\n');
+		}
+		double total = 0.0;
+		for (double t : times)
+			total += t;
+		if (total <= 0.0)
+			return sb.toString();
+		for (Phase phase : Phase.values()) {
+			double t = times[phase.ordinal()];
+			if (t <= 0.0)
+				continue;
+			append(sb, prefix, "time " + phase.title);
+			sb.append(Formatter.format(t, 1)).append(" ms (")
+					.append(Formatter.formatPercent(t / total, 1)).append(")\n");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Helper method to append the label {@code label} padded to a common width.
+	 * 
+	 * @param sb     the string builder
+	 * @param prefix the prefix of each line
+	 * @param label  the label
+	 */
+	private static void append(StringBuilder sb, String prefix, String label) {
+		sb.append(prefix).append(label).append(':');
+		for (int n = label.length(); n < 21; n++)
+			sb.append(' ');
+	}
+}
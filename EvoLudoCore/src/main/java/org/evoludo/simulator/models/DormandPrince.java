@@ -0,0 +1,471 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+
+package org.evoludo.simulator.models;
+
+import java.util.logging.Level;
+
+import org.evoludo.math.ArrayMath;
+import org.evoludo.simulator.EvoLudo;
+import org.evoludo.simulator.modules.Module;
+import org.evoludo.util.Plist;
+
+/**
+ * Implementation of the Dormand-Prince 5(4) method with adaptive step size and
+ * continuous (dense) output for the numerical integration of systems of
+ * differential equations. In contrast to {@link RungeKutta} the integrator
+ * does not shorten steps to hit reporting times exactly. Instead it takes its
+ * natural steps, possibly beyond the next reporting time, and the states at
+ * reporting times are interpolated. This greatly reduces the number of
+ * derivative evaluations for fine reporting intervals. Adapted from Hairer,
+ * Nørsett &amp; Wanner (1993) Solving Ordinary Differential Equations I,
+ * chapter II.5-6.
+ * <p>
+ * <strong>Note:</strong> for stiff dynamics, see {@link #cloStiff}, the
+ * Rosenbrock method of {@link RungeKutta} is used without dense output. If
+ * locating fixed points, see {@link #cloEquilibrium}, fails, the dynamics are
+ * integrated using the Cash-Karp method of {@link RungeKutta}.
+ * 
+ * @author Christoph Hauert
+ */
+public class DormandPrince extends RungeKutta {
+
+	/**
+	 * Constructs a new model for the numerical integration of the system of
+	 * ordinary differential equations representing the dynamics specified by the
+	 * {@link Module} <code>module</code> using the {@link EvoLudo} pacemaker
+	 * <code>engine</code> to control the numerical evaluations. The integrator
+	 * implements the Dormand-Prince 5(4) method with adaptive step size and dense
+	 * output.
+	 * 
+	 * @param engine the pacemaker for running the model
+	 */
+	public DormandPrince(EvoLudo engine) {
+		super(engine);
+		type = ModelType.DP5;
+	}
+
+	@Override
+	public void unload() {
+		ys = ynew = yold = null;
+		ak1 = ak1old = ak7 = null;
+		super.unload();
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		synced = false;
+		if (doEuler)
+			return;
+		if (ys == null || ys.length != nDim) {
+			ys = new double[nDim];
+			ynew = new double[nDim];
+			yold = new double[nDim];
+			ak1 = new double[nDim];
+			ak1old = new double[nDim];
+			ak7 = new double[nDim];
+		}
+	}
+
+	@Override
+	public void init() {
+		super.init();
+		synced = false;
+	}
+
+	@Override
+	public void update() {
+		super.update();
+		// derivatives may have changed, e.g. due to parameter changes
+		synced = false;
+	}
+
+	@Override
+	public boolean restoreState(Plist plist) {
+		boolean success = super.restoreState(plist);
+		synced = false;
+		return success;
+	}
+
+	/**
+	 * The flag is <code>true</code> if the state of the integrator is
+	 * synchronized with the reported state {@code yt} at time {@link #tReport}.
+	 */
+	private boolean synced = false;
+
+	/**
+	 * The flag is <code>true</code> if the integrator has completed at least one
+	 * step since it was last synchronized, i.e. the interval for dense output is
+	 * valid.
+	 */
+	private boolean hasInterval = false;
+
+	/**
+	 * The time of the last reported state.
+	 */
+	private double tReport;
+
+	/**
+	 * The time of the integrator. Generally ahead of the reporting time.
+	 */
+	private double ts;
+
+	/**
+	 * The size of the last step taken by the integrator. Negative for backwards
+	 * integration.
+	 */
+	private double hs;
+
+	/**
+	 * The state of the integrator at time {@link #ts}.
+	 */
+	private double[] ys;
+
+	/**
+	 * The state of the integrator at the beginning of the last step, i.e. at time
+	 * {@code ts - hs}.
+	 */
+	private double[] yold;
+
+	/**
+	 * Temporary storage for the state at the end of the step currently attempted.
+	 */
+	private double[] ynew;
+
+	/**
+	 * The derivatives of the integrator at time {@link #ts}. First stage of the
+	 * next step and last stage of the previous step (FSAL).
+	 */
+	private double[] ak1;
+
+	/**
+	 * The derivatives at the beginning of the last step.
+	 */
+	private double[] ak1old;
+
+	/**
+	 * Seventh stage derivative vector.
+	 */
+	private double[] ak7;
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <h3>Implementation Notes:</h3> The integrator advances with its natural
+	 * step sizes until it passes the requested time. The state at the requested
+	 * time is obtained from the continuous extension of the last step. Only the
+	 * fitness and derivatives of the interpolated state need to be evaluated
+	 * additionally. After:
+	 * <ol>
+	 * <li><code>yt</code> interpolated state
+	 * <li><code>ft</code> fitness of interpolated state
+	 * <li><code>dyt</code> derivatives of interpolated state
+	 * <li><code>yout</code> contains previous state (i.e. <code>yt</code> when
+	 * entering method)
+	 * </ol>
+	 */
+	@Override
+	public boolean next(double step) {
+		if (doEuler || stiff || equilibriumMode)
+			return super.next(step);
+		if (converged)
+			return false;
+		connect = true;
+		double nextHalt = getNextHalt();
+		// continue if milestone reached in previous step, i.e. deltat < 1e-8
+		double deltat = Math.abs(nextHalt - time);
+		if (deltat >= 1e-8)
+			step = Math.min(step, deltat);
+		if (!synced || time != tReport)
+			sync();
+		double dir = forward ? 1.0 : -1.0;
+		double target = time + dir * step;
+		while (dir * (target - ts) > 1e-12) {
+			boolean success = dpStep(dir);
+			counters.add(Counters.Count.EVENTS, 1.0);
+			if (!success) {
+				// emergency brake - step size too small
+				converged = true;
+				return false;
+			}
+		}
+		// the previous state goes to yout, interpolate new state
+		double[] swap = yout;
+		yout = yt;
+		yt = swap;
+		interpolate(target, yt);
+		normalizeState(yt);
+		getDerivatives(target, yt, ft, dyt);
+		time = target;
+		tReport = target;
+		dtTaken = step;
+		converged = checkConvergence(ArrayMath.distSq(yout, yt));
+		if (Math.abs(nextHalt - time) < 1e-8)
+			return false;
+		return !converged;
+	}
+
+	/**
+	 * Synchronize the integrator with the current state {@code yt} at the current
+	 * time.
+	 */
+	private void sync() {
+		ts = time;
+		tReport = time;
+		System.arraycopy(yt, 0, ys, 0, nDim);
+		getDerivatives(ts, ys, ftmp, ak1);
+		hasInterval = false;
+		synced = true;
+	}
+
+	/**
+	 * Take a single Dormand-Prince step with monitoring of the local truncation
+	 * error to adjust the step size. The step size attempted is {@link #dtTry},
+	 * which is updated with the estimated next step size on return.
+	 * 
+	 * @param dir the direction of integration, {@code 1} forward and {@code -1}
+	 *            backward in time
+	 * @return <code>true</code> if step successful
+	 */
+	private boolean dpStep(double dir) {
+		double h = dtTry;
+		while (true) {
+			double hdir = dir * h;
+			if (ts + hdir == ts) {
+				if (logger.isLoggable(Level.WARNING))
+					logger.warning("stepsize underflow in ODE method DormandPrince.dpStep() at time " + ts + ".");
+				dtTaken = 0.0;
+				return false;
+			}
+			if (!dopri(hdir)) {
+				// step failed - decrease step width and try again
+				h /= 2.0;
+				continue;
+			}
+			double errmax = 0.0; // evaluate accuracy.
+			for (int i = 0; i < nDim; i++) {
+				double yscal = Math.max(Math.abs(ys[i]), Math.abs(ynew[i]));
+				if (yscal > 1e-6) { // ignore component if variable is zero.
+					double yerr = hdir * (E1 * ak1[i] + E3 * ak3[i] + E4 * ak4[i] + E5 * ak5[i] + E6 * ak6[i]
+							+ E7 * ak7[i]);
+					errmax = Math.max(errmax, Math.abs(yerr / yscal));
+				}
+			}
+			errmax /= ACCURACY; // scale relative to required tolerance.
+			if (errmax <= 1.0) {
+				// step succeeded - swap states and derivatives, reuse last stage (FSAL)
+				hs = hdir;
+				ts += hdir;
+				double[] swap = yold;
+				yold = ys;
+				ys = ynew;
+				ynew = swap;
+				swap = ak1old;
+				ak1old = ak1;
+				ak1 = ak7;
+				ak7 = swap;
+				hasInterval = true;
+				// compute size of next step, no more than a factor of 5.
+				dtTry = (errmax > ERRCON ? SAFETY * h * Math.pow(errmax, PGROW) : 5.0 * h);
+				return true;
+			}
+			// truncation error too large, reduce step size but no more than a factor
+			// of 10.
+			h = Math.max(SAFETY * h * Math.pow(errmax, PSHRNK), 0.1 * h);
+		}
+	}
+
+	/**
+	 * Interpolate the state at time {@code t} using the continuous extension of
+	 * the last step. The time {@code t} must lie within the last step.
+	 * 
+	 * @param t     the time to interpolate the state at
+	 * @param state the array to store the interpolated state
+	 */
+	private void interpolate(double t, double[] state) {
+		if (!hasInterval || t == ts) {
+			System.arraycopy(ys, 0, state, 0, nDim);
+			return;
+		}
+		double theta = (t - (ts - hs)) / hs;
+		double theta1 = 1.0 - theta;
+		for (int i = 0; i < nDim; i++) {
+			double ydiff = ys[i] - yold[i];
+			double bspl = hs * ak1old[i] - ydiff;
+			double r4 = ydiff - hs * ak1[i] - bspl;
+			double r5 = hs * (D1 * ak1old[i] + D3 * ak3[i] + D4 * ak4[i] + D5 * ak5[i] + D6 * ak6[i]
+					+ D7 * ak1[i]);
+			state[i] = yold[i] + theta * (ydiff + theta1 * (bspl + theta * (r4 + theta1 * r5)));
+		}
+	}
+
+	/** Dormand-Prince coefficient for the second stage time. */
+	private static final double C2 = 0.2;
+	/** Dormand-Prince coefficient for the third stage time. */
+	private static final double C3 = 0.3;
+	/** Dormand-Prince coefficient for the fourth stage time. */
+	private static final double C4 = 0.8;
+	/** Dormand-Prince coefficient for the fifth stage time. */
+	private static final double C5 = 8.0 / 9.0;
+	/** Dormand-Prince coefficient for the second stage derivative. */
+	private static final double A21 = 0.2;
+	/** Dormand-Prince coefficient for the third stage derivative. */
+	private static final double A31 = 3.0 / 40.0;
+	/** Dormand-Prince coefficient for the third stage derivative. */
+	private static final double A32 = 9.0 / 40.0;
+	/** Dormand-Prince coefficient for the fourth stage derivative. */
+	private static final double A41 = 44.0 / 45.0;
+	/** Dormand-Prince coefficient for the fourth stage derivative. */
+	private static final double A42 = -56.0 / 15.0;
+	/** Dormand-Prince coefficient for the fourth stage derivative. */
+	private static final double A43 = 32.0 / 9.0;
+	/** Dormand-Prince coefficient for the fifth stage derivative. */
+	private static final double A51 = 19372.0 / 6561.0;
+	/** Dormand-Prince coefficient for the fifth stage derivative. */
+	private static final double A52 = -25360.0 / 2187.0;
+	/** Dormand-Prince coefficient for the fifth stage derivative. */
+	private static final double A53 = 64448.0 / 6561.0;
+	/** Dormand-Prince coefficient for the fifth stage derivative. */
+	private static final double A54 = -212.0 / 729.0;
+	/** Dormand-Prince coefficient for the sixth stage derivative. */
+	private static final double A61 = 9017.0 / 3168.0;
+	/** Dormand-Prince coefficient for the sixth stage derivative. */
+	private static final double A62 = -355.0 / 33.0;
+	/** Dormand-Prince coefficient for the sixth stage derivative. */
+	private static final double A63 = 46732.0 / 5247.0;
+	/** Dormand-Prince coefficient for the sixth stage derivative. */
+	private static final double A64 = 49.0 / 176.0;
+	/** Dormand-Prince coefficient for the sixth stage derivative. */
+	private static final double A65 = -5103.0 / 18656.0;
+	/** Dormand-Prince fifth-order output coefficient. */
+	private static final double A71 = 35.0 / 384.0;
+	/** Dormand-Prince fifth-order output coefficient. */
+	private static final double A73 = 500.0 / 1113.0;
+	/** Dormand-Prince fifth-order output coefficient. */
+	private static final double A74 = 125.0 / 192.0;
+	/** Dormand-Prince fifth-order output coefficient. */
+	private static final double A75 = -2187.0 / 6784.0;
+	/** Dormand-Prince fifth-order output coefficient. */
+	private static final double A76 = 11.0 / 84.0;
+	/** Dormand-Prince error estimate coefficient. */
+	private static final double E1 = 71.0 / 57600.0;
+	/** Dormand-Prince error estimate coefficient. */
+	private static final double E3 = -71.0 / 16695.0;
+	/** Dormand-Prince error estimate coefficient. */
+	private static final double E4 = 71.0 / 1920.0;
+	/** Dormand-Prince error estimate coefficient. */
+	private static final double E5 = -17253.0 / 339200.0;
+	/** Dormand-Prince error estimate coefficient. */
+	private static final double E6 = 22.0 / 525.0;
+	/** Dormand-Prince error estimate coefficient. */
+	private static final double E7 = -1.0 / 40.0;
+	/** Dormand-Prince dense output coefficient. */
+	private static final double D1 = -12715105075.0 / 11282082432.0;
+	/** Dormand-Prince dense output coefficient. */
+	private static final double D3 = 87487479700.0 / 32700410799.0;
+	/** Dormand-Prince dense output coefficient. */
+	private static final double D4 = -10690763975.0 / 1880347072.0;
+	/** Dormand-Prince dense output coefficient. */
+	private static final double D5 = 701980252875.0 / 199316789632.0;
+	/** Dormand-Prince dense output coefficient. */
+	private static final double D6 = -1453857185.0 / 822651844.0;
+	/** Dormand-Prince dense output coefficient. */
+	private static final double D7 = 69997945.0 / 29380423.0;
+
+	/**
+	 * Given the state {@code ys} and its derivatives {@code ak1} at time
+	 * {@code ts}, use the fifth-order Dormand-Prince method to advance the
+	 * solution over an interval {@code h}. The new state is returned in
+	 * {@code ynew} and its derivatives in {@code ak7}, which serve as the first
+	 * stage of the next step (first same as last, FSAL).
+	 * 
+	 * <h3>Implementation Notes:</h3>
+	 * For replicator dynamics all intermediate steps must remain normalized,
+	 * i.e. sum ytmp = 1, otherwise reject.
+	 * 
+	 * @param h the step to try to take
+	 * @return <code>true</code> if step successful
+	 */
+	private boolean dopri(double h) {
+		for (int i = 0; i < nDim; i++)
+			ytmp[i] = ys[i] + h * A21 * ak1[i];
+		if (!isValid(ytmp))
+			return false;
+		getDerivatives(ts + C2 * h, ytmp, ftmp, ak2);
+		for (int i = 0; i < nDim; i++)
+			ytmp[i] = ys[i] + h * (A31 * ak1[i] + A32 * ak2[i]);
+		if (!isValid(ytmp))
+			return false;
+		getDerivatives(ts + C3 * h, ytmp, ftmp, ak3);
+		for (int i = 0; i < nDim; i++)
+			ytmp[i] = ys[i] + h * (A41 * ak1[i] + A42 * ak2[i] + A43 * ak3[i]);
+		if (!isValid(ytmp))
+			return false;
+		getDerivatives(ts + C4 * h, ytmp, ftmp, ak4);
+		for (int i = 0; i < nDim; i++)
+			ytmp[i] = ys[i] + h * (A51 * ak1[i] + A52 * ak2[i] + A53 * ak3[i] + A54 * ak4[i]);
+		if (!isValid(ytmp))
+			return false;
+		getDerivatives(ts + C5 * h, ytmp, ftmp, ak5);
+		for (int i = 0; i < nDim; i++)
+			ytmp[i] = ys[i] + h * (A61 * ak1[i] + A62 * ak2[i] + A63 * ak3[i] + A64 * ak4[i] + A65 * ak5[i]);
+		if (!isValid(ytmp))
+			return false;
+		getDerivatives(ts + h, ytmp, ftmp, ak6);
+		for (int i = 0; i < nDim; i++)
+			ynew[i] = ys[i] + h * (A71 * ak1[i] + A73 * ak3[i] + A74 * ak4[i] + A75 * ak5[i] + A76 * ak6[i]);
+		if (!isValid(ynew))
+			return false;
+		// if it's a replicator equation the frequencies must add up to 1
+		normalizeState(ynew);
+		getDerivatives(ts + h, ynew, ftmp, ak7);
+		return true;
+	}
+
+	/**
+	 * Check whether the frequencies in {@code state} are valid. For density
+	 * models all states are valid.
+	 * 
+	 * @param state the state to check
+	 * @return <code>true</code> if all frequencies lie in {@code [0, 1]}
+	 */
+	private boolean isValid(double[] state) {
+		if (isDensity)
+			return true;
+		for (int i = 0; i < nDim; i++) {
+			double y = state[i];
+			if (y < 0.0 || y > 1.0)
+				return false;
+		}
+		return true;
+	}
+}
@@ -490,18 +490,23 @@ public abstract class IBS extends Model {
 		for (int f = 0; f < nUpdates; f++) {
 			// update populations
 			int dt = 0;
-			for (Module<?> mod : species) {
+			double stamp = counters.timeStamp();
+			for (int i = 0; i < nSpecies; i++) {
+				Module<?> mod = species.get(i);
 				IBSPopulation<?, ?> pop = mod.getIBSPopulation();
 				pop.prepareTraits();
 				dt += pop.step();
 				pop.checkConsistency();
 			}
+			counters.add(Counters.Count.EVENTS, dt);
+			stamp = counters.addTime(Counters.Phase.UPDATE, stamp, 1.0);
 			// advance time and real time (if possible)
 			updates += dt * gincr;
 			if (time < Double.POSITIVE_INFINITY)
 				time += RNGDistribution.Exponential.next(rng.getRNG(), dt / totRate);
 			// commit traits and reset scores
-			for (Module<?> mod : species) {
+			for (int i = 0; i < nSpecies; i++) {
+				Module<?> mod = species.get(i);
 				IBSPopulation<?, ?> pop = mod.getIBSPopulation();
 				pop.commitTraits(); // also check homogeneity
 				// TODO: review migration - should be an independent event, independent of
@@ -511,8 +516,10 @@ public abstract class IBS extends Model {
 				// all scores must be reset before we can re-calculate them
 				pop.resetScores();
 			}
+			stamp = counters.addTime(Counters.Phase.COMMIT, stamp, 1.0);
 			// calculate new scores (requires that all traits are committed and reset)
 			totRate = updateScores();
+			counters.addTime(Counters.Phase.PLAY, stamp, 1.0);
 			if (converged)
 				return false;
 		}
@@ -561,8 +568,8 @@ public abstract class IBS extends Model {
 	 */
 	private double getTotalUpdateRate() {
 		double totRate = 0.0;
-		for (Module<?> mod : species)
-			totRate += mod.getIBSPopulation().getSpeciesUpdateRate();
+		for (int i = 0; i < nSpecies; i++)
+			totRate += species.get(i).getIBSPopulation().getSpeciesUpdateRate();
 		return totRate;
 	}
 
@@ -571,15 +578,16 @@ public abstract class IBS extends Model {
 	 * has been reported to listeners.
 	 */
 	public void clearTraits() {
-		for (Module<?> mod : species)
-			mod.getIBSPopulation().clearTraits();
+		for (int i = 0; i < nSpecies; i++)
+			species.get(i).getIBSPopulation().clearTraits();
 	}
 
 	/**
 	 * Resets the scores for all populations that use ephemeral payoffs.
 	 */
 	private void resetScores() {
-		for (Module<?> mod : species) {
+		for (int i = 0; i < nSpecies; i++) {
+			Module<?> mod = species.get(i);
 			IBSPopulation<?, ?> pop = mod.getIBSPopulation();
 			if (!pop.playerScoring.equals(ScoringType.EPHEMERAL))
 				continue;
@@ -600,7 +608,8 @@ public abstract class IBS extends Model {
 	private double checkConvergence() {
 		converged = true;
 		double totRate = 0.0;
-		for (Module<?> mod : species) {
+		for (int i = 0; i < nSpecies; i++) {
+			Module<?> mod = species.get(i);
 			IBSPopulation<?, ?> pop = mod.getIBSPopulation();
 			pop.checkConsistency();
 			converged &= pop.checkConvergence();
@@ -618,7 +627,8 @@ public abstract class IBS extends Model {
 	private double updateScores() {
 		converged = true;
 		double totRate = 0.0;
-		for (Module<?> mod : species) {
+		for (int i = 0; i < nSpecies; i++) {
+			Module<?> mod = species.get(i);
 			IBSPopulation<?, ?> pop = mod.getIBSPopulation();
 			pop.updateScores();
 			converged &= pop.checkConvergence();
@@ -650,6 +660,9 @@ public abstract class IBS extends Model {
 			// update event
 			int dt = processEvent();
 			PopulationUpdate.Type updateType = debugFocalSpecies.getPopulationUpdate().getType();
+			counters.add(Counters.Count.EVENTS, 1.0);
+			if (dt == 0)
+				counters.add(Counters.Count.FAILED, 1.0);
 			if (dt > 0) {
 				if (updateType == PopulationUpdate.Type.ONCE) {
 					updates += dt;
@@ -674,21 +687,33 @@ public abstract class IBS extends Model {
 	}
 
 	/**
-	 * Processes a single event.
+	 * Processes a single event. The timing of picking and processing the event is
+	 * sampled every {@value Counters#SAMPLE_INTERVAL} events.
 	 * 
 	 * @return the number of elapsed realtime units
 	 */
 	private int processEvent() {
+		boolean sample = counters.sample();
+		double stamp = (sample ? counters.timeStamp() : 0.0);
 		debugFocalSpecies = pickFocalSpecies();
-		switch (pickEvent(debugFocalSpecies)) {
+		Event event = pickEvent(debugFocalSpecies);
+		if (sample)
+			stamp = counters.addTime(Counters.Phase.PICK, stamp, Counters.SAMPLE_INTERVAL);
+		int dt;
+		switch (event) {
 			case REPLICATION:
-				return debugFocalSpecies.step();
+				dt = debugFocalSpecies.step();
+				break;
 			case MUTATION:
-				return debugFocalSpecies.mutate();
+				dt = debugFocalSpecies.mutate();
+				break;
 			default:
 				engine.fatal("unknown event type...");
 				return 0; // unreachable
 		}
+		if (sample)
+			counters.addTime(Counters.Phase.UPDATE, stamp, Counters.SAMPLE_INTERVAL);
+		return dt;
 	}
 
 	@Override
@@ -920,6 +945,11 @@ public abstract class IBS extends Model {
 		return speciesUpdate;
 	}
 
+	/**
+	 * Buffer for the rates of picking the focal species.
+	 */
+	private double[] speciesRates;
+
 	/**
 	 * Pick focal population according to the selected scheme.
 	 * 
@@ -931,12 +961,15 @@ public abstract class IBS extends Model {
 	public IBSPopulation<?, ?> pickFocalSpecies() {
 		if (!isMultispecies)
 			return population;
-		double[] rates = new double[nSpecies];
+		if (speciesRates == null || speciesRates.length != nSpecies)
+			speciesRates = new double[nSpecies];
+		double[] rates = speciesRates;
 		int idx = 0;
 		double total = 0.0;
 		switch (speciesUpdate.getType()) {
 			case FITNESS:
-				for (Module<?> mod : species) {
+				for (int i = 0; i < nSpecies; i++) {
+					Module<?> mod = species.get(i);
 					IBSPopulation<?, ?> pop = mod.getIBSPopulation();
 					double rate = pop.getTotalFitness();
 					rates[idx++] = rate;
@@ -944,7 +977,8 @@ public abstract class IBS extends Model {
 				}
 				return pickFocalSpecies(rates, total);
 			case SIZE:
-				for (Module<?> mod : species) {
+				for (int i = 0; i < nSpecies; i++) {
+					Module<?> mod = species.get(i);
 					IBSPopulation<?, ?> pop = mod.getIBSPopulation();
 					double rate = pop.getPopulationSize();
 					rates[idx++] = rate;
@@ -952,7 +986,8 @@ public abstract class IBS extends Model {
 				}
 				return pickFocalSpecies(rates, total);
 			case RATE:
-				for (Module<?> mod : species) {
+				for (int i = 0; i < nSpecies; i++) {
+					Module<?> mod = species.get(i);
 					IBSPopulation<?, ?> pop = mod.getIBSPopulation();
 					double rate = pop.getSpeciesUpdateRate();
 					rates[idx++] = rate;
@@ -36,6 +36,7 @@ import java.util.logging.Level;
 
 import org.evoludo.math.ArrayMath;
 import org.evoludo.math.Combinatorics;
+import org.evoludo.math.FlatMatrix;
 import org.evoludo.simulator.ColorMap;
 import org.evoludo.simulator.EvoLudo;
 import org.evoludo.simulator.geometries.AbstractGeometry;
@@ -45,6 +46,7 @@ import org.evoludo.simulator.models.IBS.ScoringType;
 import org.evoludo.simulator.models.IBSD.Init;
 import org.evoludo.simulator.models.Model.HasIBS;
 import org.evoludo.simulator.modules.Discrete;
+import org.evoludo.simulator.modules.Features.MatrixGame;
 import org.evoludo.simulator.modules.Features.Payoffs;
 import org.evoludo.util.Formatter;
 import org.evoludo.util.Plist;
@@ -78,6 +80,23 @@ public class IBSDPopulation extends IBSPopulation<Discrete, IBSDPopulation> {
 	 */
 	protected HasIBS.DGroups groupmodule;
 
+	/**
+	 * For modules that implement {@link MatrixGame} the payoff matrix and
+	 * {@code null} otherwise. Scores in well-mixed populations are then calculated
+	 * through matrix-vector products instead of calling the module.
+	 * 
+	 * @see #mixedScores(int[], double[])
+	 */
+	protected FlatMatrix payoffMatrix;
+
+	/**
+	 * Temporary storage for the trait counts as {@code double}s to calculate
+	 * matrix-vector products.
+	 * 
+	 * @see #mixedScores(int[], double[])
+	 */
+	private double[] tmpCountD;
+
 	/**
 	 * The flag to indicate whether optimizations of Moran processes are requested.
 	 * <code>true</code> if optimizations for Moran process requested.
@@ -906,7 +925,7 @@ public class IBSDPopulation extends IBSPopulation<Discrete, IBSDPopulation> {
 			// add candidate trait to the mix
 			tmpCount[n]++;
 			if (module.isPairwise())
-				pairmodule.mixedScores(tmpCount, tmpScore);
+				mixedScores(tmpCount, tmpScore);
 			else
 				groupmodule.mixedScores(tmpCount, module.getNGroup(), tmpScore);
 			tmpTraitScore[n] = tmpScore[n];
@@ -931,7 +950,7 @@ public class IBSDPopulation extends IBSPopulation<Discrete, IBSDPopulation> {
 			// add candidate trait to the mix
 			tmpCount[n]++;
 			if (module.isPairwise())
-				pairmodule.mixedScores(tmpCount, tmpScore);
+				mixedScores(tmpCount, tmpScore);
 			else
 				groupmodule.mixedScores(tmpCount, module.getNGroup(), tmpScore);
 			tmpTraitScore[n] = tmpScore[n];
@@ -1485,7 +1504,7 @@ public class IBSDPopulation extends IBSPopulation<Discrete, IBSDPopulation> {
 				// store scores for each type in traitScores (including 0.0 for VACANT)
 				int nGroup = module.getNGroup();
 				if (module.isPairwise())
-					pairmodule.mixedScores(opponent.traitsCount, tmpTraitScore);
+					mixedScores(opponent.traitsCount, tmpTraitScore);
 				else
 					groupmodule.mixedScores(opponent.traitsCount, nGroup, tmpTraitScore);
 				setScoreAt(me, tmpTraitScore[newtrait], nGroup * opponent.getPopulationSize());
@@ -1517,13 +1536,43 @@ public class IBSDPopulation extends IBSPopulation<Discrete, IBSDPopulation> {
 		}
 	}
 
+	/**
+	 * Calculate the scores of all traits for pairwise interactions in a
+	 * well-mixed population with trait counts {@code count} and store them in
+	 * {@code scores}. For modules that provide their payoff matrix the scores are
+	 * calculated through a matrix-vector product, otherwise the calculation is
+	 * delegated to the module.
+	 * 
+	 * @param count  the number of individuals of each trait
+	 * @param scores the array to store the scores of each trait
+	 * 
+	 * @see HasIBS.DPairs#mixedScores(int[], double[])
+	 */
+	private void mixedScores(int[] count, double[] scores) {
+		if (payoffMatrix == null) {
+			pairmodule.mixedScores(count, scores);
+			return;
+		}
+		int m1 = -1;
+		for (int n = 0; n < nTraits; n++) {
+			int cn = count[n];
+			m1 += cn;
+			tmpCountD[n] = cn;
+		}
+		payoffMatrix.multiply(tmpCountD, 0, scores, 0);
+		// exclude interactions with oneself
+		double im1 = 1.0 / m1;
+		for (int n = 0; n < nTraits; n++)
+			scores[n] = (scores[n] - payoffMatrix.getDiagonal(n)) * im1;
+	}
+
 	/**
 	 * Calculate scores in well-mixed populations.
 	 */
 	void updateMixedMeanfield() {
 		// store scores for each type in typeScores
 		if (module.isPairwise())
-			pairmodule.mixedScores(opponent.traitsCount, typeScores);
+			mixedScores(opponent.traitsCount, typeScores);
 		else
 			groupmodule.mixedScores(opponent.traitsCount, module.getNGroup(), typeScores);
 		double mxScore = -Double.MAX_VALUE;
@@ -1573,7 +1622,7 @@ public class IBSDPopulation extends IBSPopulation<Discrete, IBSDPopulation> {
 			countTraits(tmpCount, traits, unitStart, unitSize);
 			// calculate scores in unit (return in traitScores)
 			if (module.isPairwise())
-				pairmodule.mixedScores(tmpCount, tmpTraitScore);
+				mixedScores(tmpCount, tmpTraitScore);
 			else
 				groupmodule.mixedScores(tmpCount, module.getNGroup(), tmpTraitScore);
 			int uInter = nMixedInter;
@@ -1907,6 +1956,18 @@ public class IBSDPopulation extends IBSPopulation<Discrete, IBSDPopulation> {
 		return Formatter.format(traits);
 	}
 
+	/**
+	 * Appends the traits of all individuals as indices to the string builder
+	 * {@code sb}. Same as {@link #getTraits()} but without creating intermediate
+	 * strings.
+	 * 
+	 * @param sb the string builder to append to
+	 * @return the string builder {@code sb}
+	 */
+	public StringBuilder appendTraits(StringBuilder sb) {
+		return Formatter.append(sb, traits);
+	}
+
 	@Override
 	public String getTraitNameAt(int idx) {
 		return module.getTraitName(traits[idx]);
@@ -1948,6 +2009,17 @@ public class IBSDPopulation extends IBSPopulation<Discrete, IBSDPopulation> {
 		}
 		maxRate = -1.0;
 
+		payoffMatrix = null;
+		// payoff matrices apply only to interactions within species
+		if (module instanceof MatrixGame && module.isPairwise() && module.getOpponent() == module) {
+			FlatMatrix matrix = ((MatrixGame) module).getPayoffMatrix();
+			if (matrix != null && matrix.getNRows() == nTraits && matrix.getNCols() == nTraits) {
+				payoffMatrix = matrix;
+				if (tmpCountD == null || tmpCountD.length != nTraits)
+					tmpCountD = new double[nTraits];
+			}
+		}
+
 		active = module.getActiveTraits();
 		// check that current state doesn't contain inactive traits
 		for (int n = 0; n < nTraits; n++) {
@@ -768,6 +768,19 @@ public class IBSMCPopulation extends IBSPopulation<Continuous, IBSMCPopulation>
 		return Formatter.format(traits, digits);
 	}
 
+	/**
+	 * Appends all traits of all individuals with an accuracy of {@code digits}
+	 * decimals to the string builder {@code sb}. Same as {@link #getTraits(int)}
+	 * but without creating intermediate strings.
+	 * 
+	 * @param sb     the string builder to append to
+	 * @param digits the number of decimals
+	 * @return the string builder {@code sb}
+	 */
+	public StringBuilder appendTraits(StringBuilder sb, int digits) {
+		return Formatter.append(sb, traits, digits);
+	}
+
 	@Override
 	public String getTraitNameAt(int index) {
 		StringBuilder aName = new StringBuilder();
@@ -42,6 +42,7 @@ import org.evoludo.math.Functions;
 import org.evoludo.math.RNGDistribution;
 import org.evoludo.simulator.ColorMap;
 import org.evoludo.simulator.EvoLudo;
+import org.evoludo.simulator.PhaseTrace;
 import org.evoludo.simulator.geometries.AbstractGeometry;
 import org.evoludo.simulator.geometries.GeometryFeatures;
 import org.evoludo.simulator.geometries.GeometryType;
@@ -82,6 +83,11 @@ public abstract class IBSPopulation<M extends Module<?>, P extends IBSPopulation
 	 */
 	protected EvoLudo engine;
 
+	/**
+	 * The performance counters of the model.
+	 */
+	protected final Counters counters;
+
 	/**
 	 * The module associated with this population.
 	 */
@@ -149,6 +155,7 @@ public abstract class IBSPopulation<M extends Module<?>, P extends IBSPopulation
 
 		// get shared random number generator
 		rng = engine.getRNG();
+		counters = engine.getModel().getCounters();
 		isMultispecies = (module.getNSpecies() > 1);
 
 		interGroup = new IBSGroup(rng);
@@ -1071,9 +1078,12 @@ public abstract class IBSPopulation<M extends Module<?>, P extends IBSPopulation
 			else
 				mScore = getFitnessAt(maxEffScoreIdx);
 			int aRand = -1;
+			int nRejected = -1;
 			do {
 				aRand = random0n(nPopulation);
+				nRejected++;
 			} while (random01() * mScore > getFitnessAt(aRand)); // note: if < holds aRand is ok
+			counters.add(Counters.Count.REJECTED, nRejected);
 			return aRand;
 		}
 		// standard, non-optimized version
@@ -1113,9 +1123,12 @@ public abstract class IBSPopulation<M extends Module<?>, P extends IBSPopulation
 			else
 				mScore = getFitnessAt(maxEffScoreIdx);
 			int aRand = -1;
+			int nRejected = -1;
 			do {
 				aRand = random0n(nPopulation);
+				nRejected++;
 			} while (isVacantAt(aRand) || random01() * mScore > getFitnessAt(aRand)); // note: if < holds aRand is ok
+			counters.add(Counters.Count.REJECTED, nRejected);
 			return aRand;
 		}
 
@@ -1218,11 +1231,14 @@ public abstract class IBSPopulation<M extends Module<?>, P extends IBSPopulation
 			// may be even worse because most candidates are rejected
 			double mScore = map2fit.map(second(maxEffScoreIdx));
 			int aRand = -1;
+			int nRejected = -1;
 			do {
 				aRand = random0n(nPopulation - 1);
 				if (aRand >= excl)
 					aRand++;
+				nRejected++;
 			} while (random01() * mScore > getFitnessAt(aRand)); // note: if < holds aRand is ok
+			counters.add(Counters.Count.REJECTED, nRejected);
 			return aRand;
 		}
 
@@ -1235,11 +1251,14 @@ public abstract class IBSPopulation<M extends Module<?>, P extends IBSPopulation
 		else
 			mScore = getFitnessAt(maxEffScoreIdx);
 		int aRand = -1;
+		int nRejected = -1;
 		do {
 			aRand = random0n(nPopulation - 1);
 			if (aRand >= excl)
 				aRand++;
+			nRejected++;
 		} while (random01() * mScore > getFitnessAt(aRand)); // note: if < holds aRand is ok
+		counters.add(Counters.Count.REJECTED, nRejected);
 		return aRand;
 	}
 
@@ -1301,11 +1320,14 @@ public abstract class IBSPopulation<M extends Module<?>, P extends IBSPopulation
 			// may be even worse because most candidates are rejected
 			double mScore = map2fit.map(second(maxEffScoreIdx));
 			int aRand = -1;
+			int nRejected = -1;
 			do {
 				aRand = random0n(nPopulation - 1);
 				if (aRand >= excl)
 					aRand++;
+				nRejected++;
 			} while (isVacantAt(aRand) || random01() * mScore > getFitnessAt(aRand)); // note: if < holds aRand is ok
+			counters.add(Counters.Count.REJECTED, nRejected);
 			return aRand;
 		}
 
@@ -1318,11 +1340,14 @@ public abstract class IBSPopulation<M extends Module<?>, P extends IBSPopulation
 		else
 			mScore = getFitnessAt(maxEffScoreIdx);
 		int aRand = -1;
+		int nRejected = -1;
 		do {
 			aRand = random0n(nPopulation - 1);
 			if (aRand >= excl)
 				aRand++;
+			nRejected++;
 		} while (random01() * mScore > getFitnessAt(aRand)); // note: if < holds aRand is ok
+		counters.add(Counters.Count.REJECTED, nRejected);
 		return aRand;
 	}
 
@@ -4008,6 +4033,25 @@ public abstract class IBSPopulation<M extends Module<?>, P extends IBSPopulation
 	 */
 	protected abstract boolean doAdjustScores();
 
+	/**
+	 * Initialize and rewire the geometry {@code geom}. Both phases are traced if
+	 * requested.
+	 * 
+	 * @param geom the geometry to initialize
+	 * 
+	 * @see EvoLudo#beginTrace(PhaseTrace.Phase)
+	 */
+	private void initGeometry(AbstractGeometry geom) {
+		PhaseTrace trace = engine.beginTrace(PhaseTrace.Phase.GEOMETRY_INIT);
+		geom.init();
+		if (trace != null)
+			trace.record(geom.getSize(), 0.0, geom.getType().getKey());
+		trace = engine.beginTrace(PhaseTrace.Phase.GEOMETRY_REWIRE);
+		geom.rewire();
+		if (trace != null)
+			trace.record(geom.getSize(), 0.0, geom.getType().getKey());
+	}
+
 	/**
 	 * Reset the model. All parameters must be consistent at this point. Allocate
 	 * memory and initialize the interaction and competition structures. If
@@ -4019,8 +4063,7 @@ public abstract class IBSPopulation<M extends Module<?>, P extends IBSPopulation
 	 * @see Model#reset()
 	 */
 	public synchronized void reset() {
-		interaction.init();
-		interaction.rewire();
+		initGeometry(interaction);
 
 		// for accumulated payoffs the min and max scores can only be determined
 		// after the structure of the population is known. note scores are potentially
@@ -4054,8 +4097,7 @@ public abstract class IBSPopulation<M extends Module<?>, P extends IBSPopulation
 				competition = interaction;
 			}
 		} else {
-			competition.init();
-			competition.rewire();
+			initGeometry(competition);
 		}
 		// determine maximum reasonable group size
 		GeometryFeatures iFeats = interaction.getFeatures();
@@ -4614,14 +4656,26 @@ public abstract class IBSPopulation<M extends Module<?>, P extends IBSPopulation
 	 * @return the formatted scores
 	 */
 	public String getScores(int digits) {
+		return appendScores(new StringBuilder(), digits).toString();
+	}
+
+	/**
+	 * Appends the scores of all individuals with precision {@code digits} to the
+	 * string builder {@code sb}. Same as {@link #getScores(int)} but without
+	 * creating intermediate strings.
+	 * 
+	 * @param sb     the string builder to append to
+	 * @param digits the number of digits for the scores
+	 * @return the string builder {@code sb}
+	 */
+	public StringBuilder appendScores(StringBuilder sb, int digits) {
 		if (hasLookupTable) {
-			StringBuilder buf = new StringBuilder();
-			buf.append(Formatter.format(getScoreAt(0), digits));
+			Formatter.append(sb, getScoreAt(0), digits);
 			for (int n = 1; n < nPopulation; n++)
-				buf.append(Formatter.VECTOR_DELIMITER).append(" ").append(Formatter.format(getScoreAt(n), digits));
-			return buf.toString();
+				Formatter.append(sb.append(Formatter.VECTOR_DELIMITER).append(" "), getScoreAt(n), digits);
+			return sb;
 		}
-		return Formatter.format(scores, digits);
+		return Formatter.append(sb, scores, digits);
 	}
 
 	/**
@@ -4644,14 +4698,26 @@ public abstract class IBSPopulation<M extends Module<?>, P extends IBSPopulation
 	 * @return the formatted fitness
 	 */
 	public String getFitness(int digits) {
+		return appendFitness(new StringBuilder(), digits).toString();
+	}
+
+	/**
+	 * Appends the fitness of all individuals with precision {@code digits} to the
+	 * string builder {@code sb}. Same as {@link #getFitness(int)} but without
+	 * creating intermediate strings.
+	 * 
+	 * @param sb     the string builder to append to
+	 * @param digits the number of digits for the fitness
+	 * @return the string builder {@code sb}
+	 */
+	public StringBuilder appendFitness(StringBuilder sb, int digits) {
 		if (hasLookupTable) {
-			StringBuilder buf = new StringBuilder();
-			buf.append(Formatter.format(getFitnessAt(0), digits));
+			Formatter.append(sb, getFitnessAt(0), digits);
 			for (int n = 1; n < nPopulation; n++)
-				buf.append(Formatter.VECTOR_DELIMITER).append(" ").append(Formatter.format(getFitnessAt(n), digits));
-			return buf.toString();
+				Formatter.append(sb.append(Formatter.VECTOR_DELIMITER).append(" "), getFitnessAt(n), digits);
+			return sb;
 		}
-		return Formatter.format(fitness, digits);
+		return Formatter.append(sb, fitness, digits);
 	}
 
 	/**
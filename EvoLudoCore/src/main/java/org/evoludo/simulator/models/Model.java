@@ -38,6 +38,7 @@ import java.util.logging.Logger;
 import org.evoludo.math.RNGDistribution;
 import org.evoludo.simulator.ColorMap;
 import org.evoludo.simulator.EvoLudo;
+import org.evoludo.simulator.PhaseTrace;
 import org.evoludo.simulator.models.ChangeListener.PendingAction;
 import org.evoludo.simulator.modules.Features;
 import org.evoludo.simulator.modules.Module;
@@ -455,6 +456,11 @@ public abstract class Model implements CLOProvider {
 	 */
 	protected Logger logger;
 
+	/**
+	 * The registry of performance counters of this model.
+	 */
+	protected final Counters counters;
+
 	/**
 	 * The shared random number generator to ensure reproducibility of results.
 	 * 
@@ -539,6 +545,7 @@ public abstract class Model implements CLOProvider {
 	protected Model(EvoLudo engine) {
 		this.engine = engine;
 		logger = engine.getLogger();
+		counters = new Counters(engine);
 	}
 
 	/**
@@ -608,6 +615,7 @@ public abstract class Model implements CLOProvider {
 		time = 0.0;
 		converged = false;
 		connect = false;
+		counters.reset();
 	}
 
 	/**
@@ -882,6 +890,28 @@ public abstract class Model implements CLOProvider {
 	 */
 	public void initStatisticsSample() {
 		statisticsSampleNew = false;
+		sampleTrace = engine.beginTrace(PhaseTrace.Phase.STATISTICS_SAMPLE);
+	}
+
+	/**
+	 * The trace of the current statistics sample or {@code null} if not traced.
+	 */
+	PhaseTrace sampleTrace;
+
+	/**
+	 * Record the trace of the statistics sample that just completed (if traced).
+	 * The outcome of the sample is the trait that fixated, if available.
+	 * 
+	 * @param success {@code true} if the sample completed successfully
+	 */
+	public void traceStatisticsSample(boolean success) {
+		if (sampleTrace == null)
+			return;
+		String outcome = "failed";
+		if (success)
+			outcome = (fixData == null ? "completed" : "fixated " + fixData.typeFixed);
+		sampleTrace.record(engine.getModule().getNPopulation(), getUpdates(), outcome);
+		sampleTrace = null;
 	}
 
 	/**
@@ -948,6 +978,15 @@ public abstract class Model implements CLOProvider {
 		return fixData;
 	}
 
+	/**
+	 * Gets the registry of performance counters of this model.
+	 * 
+	 * @return the performance counters
+	 */
+	public Counters getCounters() {
+		return counters;
+	}
+
 	/**
 	 * Checks if model deals with continuous traits.
 	 * 
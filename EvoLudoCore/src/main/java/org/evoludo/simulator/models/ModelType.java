@@ -43,6 +43,8 @@ import org.evoludo.util.CLOption;
  * <dd>ODE, Euler method</dd>
  * <dt>ODERK5</dt>
  * <dd>ODE, Fifth order Runge-Kutta method</dd>
+ * <dt>ODEDP5</dt>
+ * <dd>ODE, Dormand-Prince method with dense output</dd>
  * <dt>SDE</dt>
  * <dd>stochastic differential equations</dd>
  * <dt>PDE</dt>
@@ -69,6 +71,12 @@ public enum ModelType implements CLOption.Key {
 	 */
 	RK5("ODERK5", "Fifth order Runge-Kutta method"),
 
+	/**
+	 * Dormand-Prince 5(4) method with dense output for ordinary differential
+	 * equation models.
+	 */
+	DP5("ODEDP5", "Dormand-Prince method with dense output"),
+
 	/**
 	 * Euler method for ordinary differential equation models.
 	 */
@@ -155,8 +163,9 @@ public enum ModelType implements CLOption.Key {
 		switch (query) {
 			case ODE:
 			case RK5:
+			case DP5:
 			case EM:
-				return this == ODE || this == RK5 || this == EM;
+				return this == ODE || this == RK5 || this == DP5 || this == EM;
 			case SDE:
 				return this == SDE;
 			case PDE:
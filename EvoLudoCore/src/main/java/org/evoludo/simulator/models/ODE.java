@@ -35,12 +35,14 @@ import java.util.List;
 import java.util.logging.Level;
 
 import org.evoludo.math.ArrayMath;
+import org.evoludo.math.FlatMatrix;
 import org.evoludo.math.Functions;
 import org.evoludo.simulator.ColorMap;
 import org.evoludo.simulator.EvoLudo;
 import org.evoludo.simulator.models.Model.HasDE;
 import org.evoludo.simulator.models.ODEInitialize.InitType;
 import org.evoludo.simulator.modules.Features;
+import org.evoludo.simulator.modules.Features.MatrixGame;
 import org.evoludo.simulator.modules.Features.Payoffs;
 import org.evoludo.simulator.modules.Map2Fitness;
 import org.evoludo.simulator.modules.Module;
@@ -310,6 +312,15 @@ public class ODE extends Model implements DModel {
 	 */
 	boolean isAdjustedDynamics = false;
 
+	/**
+	 * The payoff matrices of species that implement {@link MatrixGame} (and
+	 * {@code null} otherwise). Fitness is then calculated through matrix-vector
+	 * products instead of calling the module.
+	 * 
+	 * @see #computeFitness(double[], double[])
+	 */
+	FlatMatrix[] payoffMatrix;
+
 	/**
 	 * Desired accuracy to determine whether numerical integration has converged or
 	 * a population has become monomorphic.
@@ -321,6 +332,47 @@ public class ODE extends Model implements DModel {
 	 */
 	protected double accuracy = 1e-4;
 
+	/**
+	 * The flag is <code>true</code> if fixed points are located directly using
+	 * Newton's method instead of integrating the dynamics.
+	 * 
+	 * @see #setEquilibriumMode(boolean)
+	 * @see #cloEquilibrium
+	 */
+	boolean equilibriumMode = false;
+
+	/**
+	 * The flag is <code>true</code> if locating the fixed point failed and the
+	 * model resorts to integrating the dynamics.
+	 */
+	private boolean equilibriumFailed = false;
+
+	/**
+	 * Helper for locating fixed points and determining their stability. Allocated
+	 * on demand.
+	 */
+	private ODEEquilibrium equilibrium;
+
+	/**
+	 * Temporary storage for the perturbed state when estimating the Jacobian.
+	 * Allocated on demand.
+	 * 
+	 * @see #getJacobian(double, double[], double[], double[][])
+	 */
+	private double[] jacState;
+
+	/**
+	 * Temporary storage for the fitness of the perturbed state when estimating the
+	 * Jacobian.
+	 */
+	private double[] jacFitness;
+
+	/**
+	 * Temporary storage for the derivatives of the perturbed state when estimating
+	 * the Jacobian.
+	 */
+	private double[] jacChange;
+
 	// REVIEW
 	// - implement/check disabled traits
 	// - review/check calculations for static and ecological cases as well as
@@ -349,6 +401,7 @@ public class ODE extends Model implements DModel {
 		initType = new InitType[nSpecies];
 		mutation = new Mutation.Discrete[nSpecies];
 		dependents = new int[nSpecies];
+		payoffMatrix = new FlatMatrix[nSpecies];
 		effRate = new double[2];
 		int idx = 0;
 		for (Module<?> mod : species) {
@@ -362,12 +415,15 @@ public class ODE extends Model implements DModel {
 		initType = null;
 		mutation = null;
 		dependents = null;
+		payoffMatrix = null;
 		effRate = null;
 		yt = ft = dyt = yout = null;
 		staticfit = null;
 		names = null;
 		invFitRange = null;
 		idxSpecies = null;
+		jacState = jacFitness = jacChange = null;
+		equilibrium = null;
 		cloInit.clearKeys();
 		super.unload();
 	}
@@ -404,6 +460,13 @@ public class ODE extends Model implements DModel {
 			doReset |= mod.check();
 			int nTraits = mod.getNTraits();
 			idxSpecies[idx] = nDim;
+			payoffMatrix[idx] = null;
+			// payoff matrices apply only to interactions within species
+			if (mod instanceof MatrixGame && mod.isPairwise() && mod.getOpponent() == mod) {
+				FlatMatrix matrix = ((MatrixGame) mod).getPayoffMatrix();
+				if (matrix != null && matrix.getNRows() == nTraits && matrix.getNCols() == nTraits)
+					payoffMatrix[idx] = matrix;
+			}
 			if (mod instanceof Payoffs) {
 				if (!hasPayoffs) {
 					invFitRange = new double[nSpecies];
@@ -499,6 +562,7 @@ public class ODE extends Model implements DModel {
 	public void init() {
 		super.init();
 		dtTry = dt;
+		equilibriumFailed = false;
 		if (isPDE())
 			return; // PDE models handle initialization themselves
 		init(true);
@@ -767,6 +831,8 @@ public class ODE extends Model implements DModel {
 	public boolean next(double step) {
 		if (converged)
 			return false;
+		if (equilibriumMode && !equilibriumFailed)
+			return nextEquilibrium();
 		connect = true;
 		double nextHalt = getNextHalt();
 		// continue if milestone reached in previous step, i.e. deltat < 1e-8
@@ -779,6 +845,7 @@ public class ODE extends Model implements DModel {
 		while (Math.abs(step - elapsed) > 1e-8) {
 			double nextstep = Math.min(dtTry, step - elapsed);
 			double d2 = deStep(forward ? nextstep : -nextstep);
+			counters.add(Counters.Count.EVENTS, 1.0);
 			// elapsed may not change if dtTaken is too small
 			double prev = elapsed;
 			elapsed += dtTaken;
@@ -832,6 +899,202 @@ public class ODE extends Model implements DModel {
 		return converged;
 	}
 
+	/**
+	 * Helper method to locate the fixed point closest to the current state,
+	 * instead of integrating the dynamics, and report its stability. If the
+	 * search fails, the model resorts to numerical integration.
+	 * 
+	 * @return <code>false</code> if the fixed point was found
+	 * 
+	 * @see #findEquilibrium()
+	 */
+	private boolean nextEquilibrium() {
+		if (!findEquilibrium()) {
+			equilibriumFailed = true;
+			if (logger.isLoggable(Level.WARNING))
+				logger.warning(getClass().getSimpleName()
+						+ ": failed to locate equilibrium - integrating dynamics instead.");
+			return true;
+		}
+		counters.add(Counters.Count.EVENTS, equilibrium.iterations);
+		converged = true;
+		if (logger.isLoggable(Level.INFO)) {
+			double max = getMaxEigenvalue();
+			logger.info(getClass().getSimpleName() + ": equilibrium " + Formatter.format(yt, 6) + " after "
+					+ equilibrium.iterations + " iterations is "
+					+ (Double.isNaN(max) ? "of unknown stability"
+							: (isStable() ? "stable" : (isUnstable() ? "unstable" : "neutral"))
+									+ " (max. eigenvalue " + Formatter.formatSci(max, 4) + ")")
+					+ ".");
+		}
+		return false;
+	}
+
+	/**
+	 * Locate the fixed point of the dynamics closest to the current state using
+	 * damped Newton iterations and determine its stability. For frequency based
+	 * models the search is confined to the simplex. On success the fixed point
+	 * becomes the current state.
+	 * 
+	 * @return <code>true</code> if the fixed point was found
+	 * 
+	 * @see #getMaxEigenvalue()
+	 * @see #getEigenvalues(double[], double[])
+	 */
+	public boolean findEquilibrium() {
+		return findEquilibrium(null);
+	}
+
+	/**
+	 * Locate the fixed point of the dynamics closest to the state {@code guess}
+	 * using damped Newton iterations and determine its stability. This is useful
+	 * to track fixed points across parameter changes by starting from the fixed
+	 * point of nearby parameters. For frequency based models the search is
+	 * confined to the simplex. On success the fixed point becomes the current
+	 * state, otherwise the current state remains unchanged.
+	 * 
+	 * @param guess the initial guess or {@code null} to start from the current
+	 *              state
+	 * @return <code>true</code> if the fixed point was found
+	 */
+	public boolean findEquilibrium(double[] guess) {
+		if (equilibrium == null)
+			equilibrium = new ODEEquilibrium(this);
+		double[] state = yout;
+		System.arraycopy(guess == null ? yt : guess, 0, state, 0, nDim);
+		normalizeState(state);
+		if (!equilibrium.solve(state))
+			return false;
+		yout = yt;
+		yt = state;
+		update();
+		return true;
+	}
+
+	/**
+	 * Evaluate the system of equations whose roots are the fixed points of the
+	 * dynamics at {@code state} together with its Jacobian with respect to the
+	 * state. The system is given by the derivatives, except that for frequency
+	 * based models the equation of the most abundant trait of each species is
+	 * replaced by the constraint that frequencies sum to one. This is the system
+	 * solved by {@link #findEquilibrium(double[])} and allows to track fixed
+	 * points across parameter changes, e.g. by pseudo-arclength continuation.
+	 * 
+	 * @param state    the state
+	 * @param residual the array for returning the values of the equations
+	 * @param jacobian the array for returning the Jacobian or {@code null} if not
+	 *                 needed
+	 */
+	public void getEquilibriumSystem(double[] state, double[] residual, double[][] jacobian) {
+		if (equilibrium == null)
+			equilibrium = new ODEEquilibrium(this);
+		equilibrium.system(state, residual, jacobian);
+	}
+
+	/**
+	 * Get the number of eigenvalues that determine the stability of the last
+	 * fixed point. For frequency based models this is the number of traits less
+	 * the number of species.
+	 * 
+	 * @return the number of eigenvalues or {@code -1} if not available
+	 * 
+	 * @see #findEquilibrium()
+	 */
+	public int getNEigenvalues() {
+		return equilibrium == null ? -1 : equilibrium.nEigen;
+	}
+
+	/**
+	 * Get the eigenvalues of the Jacobian at the last fixed point. The real and
+	 * imaginary parts are returned in {@code re} and {@code im}, respectively.
+	 * Both arrays must hold at least {@link #getNEigenvalues()} elements.
+	 * 
+	 * @param re the array to return the real parts of the eigenvalues
+	 * @param im the array to return the imaginary parts of the eigenvalues
+	 * @return <code>true</code> if eigenvalues are available
+	 * 
+	 * @see #findEquilibrium()
+	 */
+	public boolean getEigenvalues(double[] re, double[] im) {
+		int nEigen = getNEigenvalues();
+		if (nEigen < 0)
+			return false;
+		System.arraycopy(equilibrium.eigenReal, 0, re, 0, nEigen);
+		System.arraycopy(equilibrium.eigenImag, 0, im, 0, nEigen);
+		return true;
+	}
+
+	/**
+	 * Get the largest real part of the eigenvalues of the Jacobian at the last
+	 * fixed point. The fixed point is stable if it is negative.
+	 * 
+	 * @return the largest real part or {@code NaN} if not available
+	 * 
+	 * @see #findEquilibrium()
+	 */
+	public double getMaxEigenvalue() {
+		return equilibrium == null ? Double.NaN : equilibrium.getMaxEigenvalue();
+	}
+
+	/**
+	 * Check if the last fixed point is stable, i.e. if the real parts of all
+	 * eigenvalues are negative.
+	 * 
+	 * @return <code>true</code> if the fixed point is stable
+	 * 
+	 * @see #findEquilibrium()
+	 */
+	public boolean isStable() {
+		return getMaxEigenvalue() < -ODEEquilibrium.EIGEN_TOLERANCE;
+	}
+
+	/**
+	 * Check if the last fixed point is unstable, i.e. if the real part of at
+	 * least one eigenvalue is positive. Fixed points that are neither stable nor
+	 * unstable are neutrally stable (at least in linear approximation).
+	 * 
+	 * @return <code>true</code> if the fixed point is unstable
+	 * 
+	 * @see #findEquilibrium()
+	 */
+	public boolean isUnstable() {
+		return getMaxEigenvalue() > ODEEquilibrium.EIGEN_TOLERANCE;
+	}
+
+	/**
+	 * Calculate the Jacobian of the derivatives,
+	 * {@link #getDerivatives(double, double[], double[], double[])}, with respect
+	 * to the {@code state} at time {@code t}. By default the Jacobian is estimated
+	 * numerically using forward differences, which requires one evaluation of the
+	 * derivatives per trait. Models may override this method to provide the
+	 * Jacobian analytically.
+	 * 
+	 * @param t        the time at which to calculate the Jacobian
+	 * @param state    the state at which to calculate the Jacobian
+	 * @param change   the derivatives at {@code state}
+	 * @param jacobian the array to return the Jacobian
+	 *                 {@code jacobian[i][j] = d change[i] / d state[j]}
+	 */
+	protected void getJacobian(double t, double[] state, double[] change, double[][] jacobian) {
+		if (jacState == null || jacState.length != nDim) {
+			jacState = new double[nDim];
+			jacFitness = new double[nDim];
+			jacChange = new double[nDim];
+		}
+		System.arraycopy(state, 0, jacState, 0, nDim);
+		for (int j = 0; j < nDim; j++) {
+			double yj = jacState[j];
+			double delta = 1.5e-8 * Math.max(Math.abs(yj), 1.0);
+			jacState[j] = yj + delta;
+			// recover actual increment to reduce rounding errors
+			delta = jacState[j] - yj;
+			getDerivatives(t, jacState, jacFitness, jacChange);
+			jacState[j] = yj;
+			for (int i = 0; i < nDim; i++)
+				jacobian[i][j] = (jacChange[i] - change[i]) / delta;
+		}
+	}
+
 	/**
 	 * Check if population is monomorphic. Note, in multi-species modules all
 	 * species need to be monomorphic.
@@ -841,7 +1104,8 @@ public class ODE extends Model implements DModel {
 	public boolean isMonomorphic() {
 		int idx = 0;
 		int from = 0;
-		for (Module<?> pop : species) {
+		for (int i = 0; i < nSpecies; i++) {
+			Module<?> pop = species.get(i);
 			int to = from + pop.getNTraits();
 			if (!isMonomorphic(from, to, dependents[idx], pop.getVacantIdx()))
 				return false;
@@ -933,7 +1197,8 @@ public class ODE extends Model implements DModel {
 			return;
 		// multi-species: normalize sections
 		int from = 0;
-		for (Module<?> pop : species) {
+		for (int i = 0; i < nSpecies; i++) {
+			Module<?> pop = species.get(i);
 			int to = from + pop.getNTraits();
 			ArrayMath.normalize(state, from, to);
 			from = to;
@@ -988,7 +1253,8 @@ public class ODE extends Model implements DModel {
 		if (fitness == null)
 			return;
 		int index = 0;
-		for (Module<?> mod : species) {
+		for (int i = 0; i < nSpecies; i++) {
+			Module<?> mod = species.get(i);
 			int nTraits = mod.getNTraits();
 			int skip = idxSpecies[index++];
 			if (!(mod instanceof Payoffs)) {
@@ -1002,7 +1268,10 @@ public class ODE extends Model implements DModel {
 			}
 			// models that implement HasDE may neither implement DGroups nor DPairs
 			// and, instead, provide getDerivatives(...) to integrate the DE-model
-			if (mod instanceof HasDE.DGroups)
+			FlatMatrix matrix = payoffMatrix[i];
+			if (matrix != null)
+				matrix.multiply(state, skip, fitness, skip);
+			else if (mod instanceof HasDE.DGroups)
 				((HasDE.DGroups) mod).avgScores(state, nGroup, fitness);
 			else if (mod instanceof HasDE.DPairs)
 				((HasDE.DPairs) mod).avgScores(state, fitness);
@@ -1022,7 +1291,8 @@ public class ODE extends Model implements DModel {
 	 */
 	private void applyUpdates(double[] state, double[] fitness, double[] change) {
 		int index = 0;
-		for (Module<?> mod : species) {
+		for (int i = 0; i < nSpecies; i++) {
+			Module<?> mod = species.get(i);
 			int nGroup = mod.getNGroup();
 			int nTraits = mod.getNTraits();
 			int skip = idxSpecies[index];
@@ -1081,7 +1351,8 @@ public class ODE extends Model implements DModel {
 	private void postProcessChanges(double[] state, double[] fitness, double[] change) {
 		int index = 0;
 		int from = 0;
-		for (Module<?> pop : species) {
+		for (int s = 0; s < nSpecies; s++) {
+			Module<?> pop = species.get(s);
 			int dim = pop.getNTraits();
 			int to = from + dim;
 			if (isAdjustedDynamics) {
@@ -1722,6 +1993,28 @@ public class ODE extends Model implements DModel {
 		accuracy = acc;
 	}
 
+	/**
+	 * Sets whether fixed points are located directly using Newton's method
+	 * instead of integrating the dynamics.
+	 * 
+	 * @param equilibrium if <code>true</code> locate fixed points
+	 * 
+	 * @see #findEquilibrium()
+	 */
+	public void setEquilibriumMode(boolean equilibrium) {
+		equilibriumMode = equilibrium;
+	}
+
+	/**
+	 * Check whether fixed points are located directly using Newton's method
+	 * instead of integrating the dynamics.
+	 * 
+	 * @return <code>true</code> if fixed points are located
+	 */
+	public boolean isEquilibriumMode() {
+		return equilibriumMode;
+	}
+
 	/**
 	 * Gets the numerical accuracy for determining convergence.
 	 *
@@ -1862,6 +2155,23 @@ public class ODE extends Model implements DModel {
 				}
 			});
 
+	/**
+	 * Command line option to locate the fixed point closest to the initial
+	 * configuration using Newton's method, instead of integrating the dynamics,
+	 * and report its stability.
+	 * 
+	 * @see #setEquilibriumMode(boolean)
+	 * @see #findEquilibrium()
+	 */
+	public final CLOption cloEquilibrium = new CLOption("equilibrium", CLOCategory.Model,
+			"--equilibrium   locate fixed point (Newton's method) and its stability", new CLODelegate() {
+				@Override
+				public boolean parse(boolean isSet) {
+					setEquilibriumMode(isSet);
+					return true;
+				}
+			});
+
 	@Override
 	public void collectCLO(CLOParser parser) {
 		super.collectCLO(parser);
@@ -1889,6 +2199,8 @@ public class ODE extends Model implements DModel {
 		}
 		if (permitsTimeReversal())
 			parser.addCLO(cloTimeReversed);
+		if (isODE())
+			parser.addCLO(cloEquilibrium);
 	}
 
 	@Override
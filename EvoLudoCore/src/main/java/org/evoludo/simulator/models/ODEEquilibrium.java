@@ -0,0 +1,391 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator.models;
+
+import java.util.Arrays;
+
+import org.evoludo.math.ArrayMath;
+import org.evoludo.math.LinearAlgebra;
+
+/**
+ * Helper responsible for locating fixed points of ODE models and determining
+ * their stability.
+ * <p>
+ * Fixed points are located using damped Newton iterations on the derivatives
+ * {@link ODE#getDerivatives(double, double[], double[], double[])}. For
+ * frequency based models the iterations are confined to the simplex by
+ * replacing one of the equations of each species with the constraint that
+ * frequencies sum to one. The stability of fixed points is determined by the
+ * eigenvalues of the Jacobian reduced to the simplex, i.e. after eliminating
+ * one frequency of each species.
+ */
+class ODEEquilibrium {
+
+	/**
+	 * Accuracy of fixed points. Newton iterations stop once the maximum norm of
+	 * the derivatives drops below this threshold.
+	 */
+	static final double ACCURACY = 1e-10;
+
+	/**
+	 * Maximum number of Newton iterations.
+	 */
+	static final int MAX_ITERATIONS = 50;
+
+	/**
+	 * Smallest damping factor of Newton steps before the step is accepted
+	 * regardless of whether it reduces the derivatives.
+	 */
+	static final double MIN_DAMPING = 1.0 / 1024.0;
+
+	/**
+	 * Maximum fraction of the distance to the boundary that a Newton step may
+	 * cover. Fixed points on the boundary are approached geometrically until
+	 * the distance drops below {@link #ACCURACY}, where they are set to zero.
+	 */
+	static final double BOUNDARY_FRACTION = 0.99;
+
+	/**
+	 * Tolerance for the real parts of eigenvalues to distinguish stable and
+	 * unstable fixed points. The Jacobian is estimated numerically and hence its
+	 * eigenvalues are accurate only to about {@code 1e-7}.
+	 */
+	static final double EIGEN_TOLERANCE = 1e-6;
+
+	/**
+	 * Hosting ODE model used to access species and state arrays.
+	 */
+	private final ODE ode;
+
+	/**
+	 * The Jacobian of the derivatives and its LU decomposition.
+	 */
+	private double[][] jacobian;
+
+	/**
+	 * The row permutations of the LU decomposition.
+	 */
+	private int[] index;
+
+	/**
+	 * Temporary storage for the implicit scaling of rows in the LU decomposition.
+	 */
+	private double[] scale;
+
+	/**
+	 * The Newton step.
+	 */
+	private double[] step;
+
+	/**
+	 * The trial state of a damped Newton step.
+	 */
+	private double[] trial;
+
+	/**
+	 * The fitness of the trial state.
+	 */
+	private double[] fitness;
+
+	/**
+	 * The derivatives of the current state.
+	 */
+	private double[] change;
+
+	/**
+	 * The derivatives of the trial state.
+	 */
+	private double[] trialChange;
+
+	/**
+	 * The indices of the frequencies eliminated in each species to reduce the
+	 * dynamics to the simplex.
+	 */
+	private int[] eliminated;
+
+	/**
+	 * The reduced Jacobian for determining the eigenvalues.
+	 */
+	private double[][] reduced;
+
+	/**
+	 * The real parts of the eigenvalues of the reduced Jacobian.
+	 */
+	double[] eigenReal;
+
+	/**
+	 * The imaginary parts of the eigenvalues of the reduced Jacobian.
+	 */
+	double[] eigenImag;
+
+	/**
+	 * The number of eigenvalues or {@code -1} if not available.
+	 */
+	int nEigen = -1;
+
+	/**
+	 * The number of Newton iterations required to locate the last fixed point.
+	 */
+	int iterations;
+
+	/**
+	 * Create a solver for fixed points bound to the supplied ODE model.
+	 * 
+	 * @param ode owning model
+	 */
+	ODEEquilibrium(ODE ode) {
+		this.ode = ode;
+	}
+
+	/**
+	 * Allocate working arrays for the current dimensionality of the ODE.
+	 */
+	private void alloc() {
+		int nDim = ode.nDim;
+		if (step != null && step.length == nDim && eliminated.length == ode.nSpecies)
+			return;
+		jacobian = new double[nDim][nDim];
+		reduced = new double[nDim][nDim];
+		index = new int[nDim];
+		scale = new double[nDim];
+		step = new double[nDim];
+		trial = new double[nDim];
+		fitness = new double[nDim];
+		change = new double[nDim];
+		trialChange = new double[nDim];
+		eigenReal = new double[nDim];
+		eigenImag = new double[nDim];
+		eliminated = new int[ode.nSpecies];
+	}
+
+	/**
+	 * Locate a fixed point using damped Newton iterations starting from
+	 * {@code state}. On success {@code state} holds the fixed point and its
+	 * stability is determined, see {@link #getMaxEigenvalue()}.
+	 * 
+	 * @param state the initial guess (input) and the fixed point (output)
+	 * @return {@code true} if a fixed point was found
+	 */
+	boolean solve(double[] state) {
+		alloc();
+		nEigen = -1;
+		int nDim = ode.nDim;
+		double t = ode.time;
+		ode.getDerivatives(t, state, fitness, change);
+		double norm = maxNorm(change);
+		for (iterations = 0; iterations < MAX_ITERATIONS; iterations++) {
+			if (norm < ACCURACY)
+				return stability(state);
+			ode.getJacobian(t, state, change, jacobian);
+			System.arraycopy(change, 0, step, 0, nDim);
+			constrain(state, step, jacobian);
+			for (int i = 0; i < nDim; i++)
+				step[i] = -step[i];
+			if (!LinearAlgebra.luDecompose(jacobian, nDim, index, scale))
+				return false;
+			LinearAlgebra.luSolve(jacobian, nDim, index, step);
+			// keep frequencies/densities positive; otherwise the iterations may get
+			// trapped on the boundary, which is invariant (negligible ones are set
+			// to zero instead of stalling the step)
+			double damping = 1.0;
+			for (int i = 0; i < nDim; i++) {
+				double si = step[i];
+				if (si < 0.0 && state[i] > ACCURACY && state[i] + si < 0.0)
+					damping = Math.min(damping, -BOUNDARY_FRACTION * state[i] / si);
+			}
+			// damp step until derivatives decrease
+			double trialNorm;
+			while (true) {
+				for (int i = 0; i < nDim; i++)
+					trial[i] = Math.max(0.0, state[i] + damping * step[i]);
+				ode.normalizeState(trial);
+				ode.getDerivatives(t, trial, fitness, trialChange);
+				trialNorm = maxNorm(trialChange);
+				if (trialNorm < (1.0 - 1e-4 * damping) * norm || damping < MIN_DAMPING)
+					break;
+				damping *= 0.5;
+			}
+			double dist2 = ArrayMath.distSq(state, trial);
+			System.arraycopy(trial, 0, state, 0, nDim);
+			System.arraycopy(trialChange, 0, change, 0, nDim);
+			norm = trialNorm;
+			if (dist2 < ACCURACY * ACCURACY * ACCURACY)
+				// stuck - no progress
+				break;
+		}
+		if (norm < ACCURACY)
+			return stability(state);
+		return false;
+	}
+
+	/**
+	 * Evaluate the system of equations whose roots are the fixed points at
+	 * {@code state} together with its Jacobian. The system is given by the
+	 * derivatives, except that for frequency based models the equation of the
+	 * most abundant trait of each species is replaced by the constraint that
+	 * frequencies sum to one.
+	 * 
+	 * @param state    the state
+	 * @param residual the array for returning the values of the equations
+	 * @param jac      the array for returning the Jacobian or {@code null} if not
+	 *                 needed
+	 */
+	void system(double[] state, double[] residual, double[][] jac) {
+		alloc();
+		double t = ode.time;
+		ode.getDerivatives(t, state, fitness, residual);
+		if (jac != null)
+			ode.getJacobian(t, state, residual, jac);
+		constrain(state, residual, jac);
+	}
+
+	/**
+	 * Replace the equation of the most abundant trait of each species in
+	 * {@code residual} and {@code jac} with the constraint that frequencies sum to
+	 * one. Does nothing for density based models.
+	 * 
+	 * @param state    the state
+	 * @param residual the values of the equations
+	 * @param jac      the Jacobian of the equations or {@code null}
+	 */
+	private void constrain(double[] state, double[] residual, double[][] jac) {
+		if (ode.isDensity)
+			return;
+		for (int s = 0; s < ode.nSpecies; s++) {
+			int from = ode.idxSpecies[s];
+			int to = ode.idxSpecies[s + 1];
+			int row = maxIndex(state, from, to);
+			if (jac != null) {
+				double[] jr = jac[row];
+				Arrays.fill(jr, 0.0);
+				Arrays.fill(jr, from, to, 1.0);
+			}
+			double sum = 0.0;
+			for (int i = from; i < to; i++)
+				sum += state[i];
+			residual[row] = sum - 1.0;
+		}
+	}
+
+	/**
+	 * Determine the stability of the fixed point {@code state} through the
+	 * eigenvalues of the Jacobian. For frequency based models the Jacobian is
+	 * first reduced to the simplex by eliminating the most abundant trait
+	 * \(x_e\) of each species, i.e. \(x_e=1-\sum_{k\neq e}x_k\), which yields the
+	 * reduced Jacobian \(J^r_{ij}=J_{ij}-J_{ie}\).
+	 * 
+	 * @param state the fixed point
+	 * @return {@code true} if the eigenvalues were determined
+	 */
+	private boolean stability(double[] state) {
+		int nDim = ode.nDim;
+		ode.getJacobian(ode.time, state, change, jacobian);
+		if (ode.isDensity) {
+			for (int i = 0; i < nDim; i++)
+				System.arraycopy(jacobian[i], 0, reduced[i], 0, nDim);
+			nEigen = nDim;
+		} else {
+			for (int s = 0; s < ode.nSpecies; s++) {
+				int from = ode.idxSpecies[s];
+				eliminated[s] = maxIndex(state, from, ode.idxSpecies[s + 1]);
+			}
+			int ri = 0;
+			int s = 0;
+			for (int i = 0; i < nDim; i++) {
+				if (i == ode.idxSpecies[s + 1])
+					s++;
+				if (i == eliminated[s])
+					continue;
+				double[] ji = jacobian[i];
+				double[] rr = reduced[ri++];
+				int rj = 0;
+				int sj = 0;
+				for (int j = 0; j < nDim; j++) {
+					if (j == ode.idxSpecies[sj + 1])
+						sj++;
+					if (j == eliminated[sj])
+						continue;
+					rr[rj++] = ji[j] - ji[eliminated[sj]];
+				}
+			}
+			nEigen = ri;
+		}
+		if (!LinearAlgebra.eigenvalues(reduced, nEigen, eigenReal, eigenImag)) {
+			nEigen = -1;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Get the largest real part of the eigenvalues of the last fixed point.
+	 * 
+	 * @return the largest real part or {@code NaN} if not available
+	 */
+	double getMaxEigenvalue() {
+		if (nEigen < 0)
+			return Double.NaN;
+		double max = -Double.MAX_VALUE;
+		for (int n = 0; n < nEigen; n++)
+			max = Math.max(max, eigenReal[n]);
+		return max;
+	}
+
+	/**
+	 * Helper method to determine the maximum norm of {@code a}.
+	 * 
+	 * @param a the array
+	 * @return the largest absolute value of the elements of {@code a}
+	 */
+	private static double maxNorm(double[] a) {
+		double max = 0.0;
+		for (double ai : a)
+			max = Math.max(max, Math.abs(ai));
+		return max;
+	}
+
+	/**
+	 * Helper method to determine the index of the largest element of {@code a} in
+	 * the range {@code from} (including) to {@code to} (excluding).
+	 * 
+	 * @param a    the array
+	 * @param from the first index
+	 * @param to   the last index (excluding)
+	 * @return the index of the largest element
+	 */
+	private static int maxIndex(double[] a, int from, int to) {
+		int idx = from;
+		for (int i = from + 1; i < to; i++)
+			if (a[i] > a[idx])
+				idx = i;
+		return idx;
+	}
+}
@@ -31,13 +31,13 @@
 package org.evoludo.simulator.models;
 
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.List;
 import java.util.logging.Level;
 
 import org.evoludo.math.ArrayMath;
 import org.evoludo.simulator.ColorMap;
 import org.evoludo.simulator.EvoLudo;
+import org.evoludo.simulator.PhaseTrace;
 import org.evoludo.simulator.geometries.AbstractGeometry;
 import org.evoludo.simulator.geometries.GeometryFeatures;
 import org.evoludo.simulator.geometries.GeometryType;
@@ -53,7 +53,10 @@ import org.evoludo.util.Plist;
 
 /**
  * Numerical integration of partial differential equations for
- * reaction-diffusion systems based on Euler's method (fixed step size)
+ * reaction-diffusion systems based on Euler's method (fixed step size by
+ * default, see {@link PDEStepper} for adaptive step sizes and the acceleration
+ * toward steady states). Optionally, the state is stored in single precision,
+ * see {@link PDESingle}.
  * <p>
  * <strong>Important:</strong> Currently multi-species modules are not supported
  * by PDE models.
@@ -74,28 +77,30 @@ public class PDE extends ODE {
 	protected AbstractGeometry space;
 
 	/**
-	 * Density distribution of traits as a 2D array. The first entry refers to the
-	 * index of the node (e.g. location on lattice) and the second entry refers to
-	 * the different traits at that location. {@link #space} defines the geometric
-	 * arrangement of the nodes.
+	 * Density distribution of traits as a flat array. The densities of the
+	 * different traits at the node with index {@code n} (e.g. location on
+	 * lattice) are stored contiguously in the {@link #nDim} entries starting at
+	 * {@code n * nDim}. {@link #space} defines the geometric arrangement of the
+	 * nodes.
+	 * <p>
+	 * <strong>Note:</strong> the interleaved layout keeps the state of each node
+	 * in a single cache line and lets the reaction step pass it on to
+	 * {@link #getDerivatives(double, double[], double[], double[])} with a single
+	 * copy, while the diffusion kernels stream through whole index ranges.
 	 */
-	double[][] density;
+	double[] density;
 
 	/**
-	 * The next density/frequency distribution of traits as a 2D array. The first
-	 * entry refers to the index of the node (e.g. location on lattice) and the
-	 * second entry refers to the different traits at that location. {@link #space}
-	 * defines the geometric arrangement of the nodes.
+	 * The next density/frequency distribution of traits as a flat array. Same
+	 * layout as {@link #density}.
 	 */
-	double[][] next;
+	double[] next;
 
 	/**
-	 * Fitness distribution of traits as a 2D array. The first entry refers to the
-	 * index of the node (e.g. location on lattice) and the second entry refers to
-	 * the different traits at that location. {@link #space} defines the geometric
-	 * arrangement of the nodes.
+	 * Fitness distribution of traits as a flat array. Same layout as
+	 * {@link #density}.
 	 */
-	double[][] fitness;
+	double[] fitness;
 
 	/**
 	 * The background densities for each trait at initialization.
@@ -170,6 +175,16 @@ public class PDE extends ODE {
 	 */
 	boolean isSymmetric = false;
 
+	/**
+	 * The stencil of regular lattices for the diffusion step or {@code null} if
+	 * the geometry does not admit a stencil. Cells in the interior of lattices are then
+	 * processed using the stencil, which avoids lookups in the neighbourhood
+	 * arrays of the geometry.
+	 * 
+	 * @see PDEStencil
+	 */
+	PDEStencil stencil;
+
 	/**
 	 * The array containing the minimum densities of each trait. Used to set the
 	 * color range when retrieving the density data.
@@ -236,11 +251,240 @@ public class PDE extends ODE {
 	protected int dependent = -1;
 
 	/**
-	 * In order to preserve symmetry the densities of neighbouring cells in the
-	 * diffusion step need to be sorted. The sorting criteria are essentially
-	 * irrelevant as long as they are consistently applied.
+	 * Scratch buffers for the reaction and diffusion steps. Reusing the buffers
+	 * keeps the integration steps free of memory allocations. In multi-threaded
+	 * settings each worker requires its own workspace because no memory can be
+	 * shared.
+	 * 
+	 * @see PDE#createWorkspace()
+	 */
+	public static class Workspace {
+
+		/**
+		 * The buffer for the minimum densities.
+		 */
+		final double[] min;
+
+		/**
+		 * The buffer for the maximum densities.
+		 */
+		final double[] max;
+
+		/**
+		 * The buffer for the total densities.
+		 */
+		final double[] mean;
+
+		/**
+		 * The buffer for the minimum fitnesses.
+		 */
+		final double[] minFit;
+
+		/**
+		 * The buffer for the maximum fitnesses.
+		 */
+		final double[] maxFit;
+
+		/**
+		 * The buffer for the total fitnesses.
+		 */
+		final double[] meanFit;
+
+		/**
+		 * The buffer for the rates of change in the reaction step.
+		 */
+		final double[] change;
+
+		/**
+		 * The buffer for differences in states of neighbouring units.
+		 */
+		final double[] delta;
+
+		/**
+		 * The buffer for advection contributions.
+		 */
+		final double[] adv;
+
+		/**
+		 * The buffer for the state of a single unit in the reaction step.
+		 */
+		final double[] state;
+
+		/**
+		 * The buffer for the updated state of a single unit in the reaction step.
+		 */
+		final double[] update;
+
+		/**
+		 * The buffer for the fitness of a single unit in the reaction step.
+		 */
+		final double[] fit;
+
+		/**
+		 * The buffer for the terms of order independent sums over neighbouring
+		 * units.
+		 * 
+		 * @see ArrayMath#exactSum(double[], int, int, double[])
+		 */
+		final double[] terms;
+
+		/**
+		 * The buffer for the partial sums of order independent sums.
+		 * 
+		 * @see ArrayMath#exactSum(double[], int, int, double[])
+		 */
+		final double[] partials;
+
+		/**
+		 * The buffer for the offsets of the states of neighbours of boundary units
+		 * on lattices with periodic boundaries.
+		 * 
+		 * @see PDEStencil#wrapped(int, int[])
+		 */
+		final int[] offs;
+
+		/**
+		 * Create a new workspace for {@code nDim} traits and units with up to
+		 * {@code maxIn} neighbours.
+		 * 
+		 * @param nDim  the number of traits
+		 * @param maxIn the maximum number of neighbours
+		 */
+		public Workspace(int nDim, int maxIn) {
+			min = new double[nDim];
+			max = new double[nDim];
+			mean = new double[nDim];
+			minFit = new double[nDim];
+			maxFit = new double[nDim];
+			meanFit = new double[nDim];
+			change = new double[nDim];
+			delta = new double[nDim];
+			adv = new double[nDim];
+			state = new double[nDim];
+			update = new double[nDim];
+			fit = new double[nDim];
+			terms = new double[(maxIn + 1) * nDim];
+			partials = new double[(maxIn + 1) * nDim];
+			offs = new int[maxIn];
+		}
+
+		/**
+		 * Reset the buffers for minima, maxima and means of the densities.
+		 */
+		void reset() {
+			Arrays.fill(min, Double.MAX_VALUE);
+			Arrays.fill(max, -Double.MAX_VALUE);
+			Arrays.fill(mean, 0.0);
+		}
+
+		/**
+		 * Reset the buffers for minima, maxima and means of the fitnesses.
+		 */
+		void resetFit() {
+			Arrays.fill(minFit, Double.MAX_VALUE);
+			Arrays.fill(maxFit, -Double.MAX_VALUE);
+			Arrays.fill(meanFit, 0.0);
+		}
+	}
+
+	/**
+	 * The workspace for processing the entire PDE domain in a single thread.
+	 */
+	protected Workspace workspace;
+
+	/**
+	 * The number of units processed in one tile of a fused diffusion and reaction
+	 * step. Small enough for the states of a tile to remain in cache between the
+	 * two steps.
+	 * 
+	 * @see #diffuseReact(int, int, double[], double[][], double, Workspace)
+	 */
+	public static final int FUSED_TILE = 256;
+
+	/**
+	 * The flag indicating whether diffusion and reaction steps are fused and
+	 * processed tile by tile.
+	 * 
+	 * @see #cloPdeFuse
+	 */
+	boolean fused = false;
+
+	/**
+	 * The buffer receiving the results of the reaction step in fused diffusion and
+	 * reaction steps. The neighbouring units of a tile still require the states in
+	 * {@link #next} for their diffusion step. Swapped with {@link #next} once the
+	 * entire domain is processed.
+	 */
+	double[] spare;
+
+	/**
+	 * The requested scheme for the diffusion step.
+	 * 
+	 * @see #cloPdeSolver
+	 */
+	PDEImplicit.Type solver = PDEImplicit.Type.EXPLICIT;
+
+	/**
+	 * The scheme for the diffusion step in use. Differs from {@link #solver} if
+	 * the requested scheme is not available for the current geometry.
+	 * 
+	 * @see #checkSolver()
+	 */
+	PDEImplicit.Type diffusionType = PDEImplicit.Type.EXPLICIT;
+
+	/**
+	 * The implicit solver for the diffusion step or {@code null} for explicit
+	 * diffusion steps.
+	 */
+	PDEImplicit implicit;
+
+	/**
+	 * The buffer for the scaled diffusion coefficients.
+	 */
+	private double[] scaledDiffusion;
+
+	/**
+	 * The requested scheme for advancing time.
+	 * 
+	 * @see #cloPdeStep
+	 */
+	PDEStepper.Type stepping = PDEStepper.Type.FIXED;
+
+	/**
+	 * The tolerance for the local error of adaptive time increments.
+	 * 
+	 * @see #cloPdeTolerance
+	 */
+	double tolerance = PDEStepper.TOLERANCE;
+
+	/**
+	 * The helper for adaptive time increments or the acceleration toward steady
+	 * states or {@code null} for fixed time increments.
+	 */
+	PDEStepper stepper;
+
+	/**
+	 * The flag indicating whether the state should be stored in single precision.
+	 * 
+	 * @see #cloPdeSingle
+	 */
+	boolean requestSingle = false;
+
+	/**
+	 * The flag indicating whether the state is stored in single precision.
+	 * Differs from {@link #requestSingle} if single precision storage is not
+	 * available for the current settings.
+	 * 
+	 * @see #admitsSingle()
 	 */
-	Comparator<double[]> sorting;
+	boolean isSingle = false;
+
+	/**
+	 * The single precision storage of the state or {@code null} if the state is
+	 * stored in double precision in {@link #density}, {@link #next} and
+	 * {@link #fitness}.
+	 */
+	PDESingle single;
 
 	/**
 	 * Constructs a new model for the numerical integration of the system of partial
@@ -277,7 +521,6 @@ public class PDE extends ODE {
 	public void load() {
 		super.load();
 		module = engine.getModule();
-		sorting = (o1, o2) -> (int) Math.signum(o1[0] - o2[0]);
 	}
 
 	@Override
@@ -285,8 +528,14 @@ public class PDE extends ODE {
 		space = null;
 		density = null;
 		next = null;
+		spare = null;
 		fitness = null;
-		sorting = null;
+		stencil = null;
+		implicit = null;
+		workspace = null;
+		scaledDiffusion = null;
+		stepper = null;
+		single = null;
 		module = null;
 		super.unload();
 	}
@@ -307,8 +556,12 @@ public class PDE extends ODE {
 		}
 		doReset |= space.setSize(discretization);
 		doReset |= space.check();
-		if (doReset)
+		if (doReset) {
+			PhaseTrace trace = engine.beginTrace(PhaseTrace.Phase.GEOMETRY_INIT);
 			space.init();
+			if (trace != null)
+				trace.record(space.getSize(), 0.0, space.getType().getKey());
+		}
 		// some initialization types make only sense on lattices
 		if (!space.isLattice() && (initType == PDEInitialize.Type.CIRCLE || initType == PDEInitialize.Type.SQUARE
 				|| initType == PDEInitialize.Type.GAUSSIAN
@@ -321,6 +574,8 @@ public class PDE extends ODE {
 		doReset |= super.check();
 		// shortcut since this is only single species - at least for now
 		dependent = dependents[0];
+		// implicit diffusion steps are not limited by stability
+		diffusionType = checkSolver();
 		// some careful checking for suitable time steps is required!
 		checkDt();
 		// check if diffusion can and should preserve symmetry
@@ -330,42 +585,140 @@ public class PDE extends ODE {
 		isSymmetric = (requestSymmetric && space.isLattice());
 		if (requestSymmetric != isSymmetric)
 			logger.warning("request to preserve symmetry cannot be honoured.");
+		isSingle = (requestSingle && admitsSingle());
+		if (requestSingle != isSingle)
+			logger.warning("single precision not available for current settings - using double precision.");
 		return doReset;
 	}
 
+	/**
+	 * Check whether the state can be stored in single precision. Requires
+	 * explicit diffusion steps and fixed time increments.
+	 * 
+	 * @return {@code true} if single precision storage is available
+	 * 
+	 * @see PDESingle
+	 */
+	boolean admitsSingle() {
+		return diffusionType == PDEImplicit.Type.EXPLICIT && stepping == PDEStepper.Type.FIXED;
+	}
+
 	@Override
 	public void reset() {
 		super.reset();
 		if (space.isType(GeometryType.WELLMIXED))
 			return;
 
-		int nodeCount = space.getSize();
-		if (density == null || density.length != nodeCount || density[0].length != nDim) {
-			density = new double[nodeCount][nDim];
-			next = new double[nodeCount][nDim];
+		int size = space.getSize() * nDim;
+		boolean hasFit = (module instanceof Payoffs);
+		if (isSingle) {
+			if (single == null || !single.matches(size, hasFit))
+				single = new PDESingle(this, size, hasFit);
+			density = null;
+			next = null;
+			spare = null;
+			fitness = null;
+		} else {
+			single = null;
+			if (density == null || density.length != size) {
+				density = new double[size];
+				next = new double[size];
+			}
+			if (hasFit && (fitness == null || fitness.length != size))
+				fitness = new double[size];
+		}
+		if (minDensity == null || minDensity.length != nDim) {
 			minDensity = new double[nDim];
 			maxDensity = new double[nDim];
 			meanDensity = new double[nDim];
 		}
-		if (module instanceof Payoffs
-				&& (fitness == null || fitness.length != nodeCount || fitness[0].length != nDim)) {
-			fitness = new double[nodeCount][nDim];
+		if (hasFit && (minFitness == null || minFitness.length != nDim)) {
 			minFitness = new double[nDim];
 			maxFitness = new double[nDim];
 			meanFitness = new double[nDim];
 			// scaleAuto = new boolean[d];
 			// Arrays.fill(scaleAuto, true);
 		}
+		stencil = PDEStencil.create(space, nDim);
+		implicit = (diffusionType == PDEImplicit.Type.EXPLICIT ? null
+				: new PDEImplicit(diffusionType, space, nDim));
+		workspace = createWorkspace();
+		if (stepping == PDEStepper.Type.FIXED)
+			stepper = null;
+		else if (stepper == null || !stepper.matches(stepping, size, dependent, isDensity))
+			stepper = new PDEStepper(stepping, size, nDim, dependent, isDensity);
+	}
+
+	/**
+	 * Determine the scheme for the diffusion step. Falls back on Crank-Nicolson
+	 * steps if ADI is requested but not available for the current geometry and on
+	 * explicit steps if implicit steps are not available at all, e.g. for
+	 * directed geometries or in the presence of explicit advection.
+	 * 
+	 * @return the scheme for the diffusion step
+	 */
+	private PDEImplicit.Type checkSolver() {
+		PDEImplicit.Type type = solver;
+		if (type == PDEImplicit.Type.EXPLICIT)
+			return type;
+		if (hasAdvection()) {
+			logger.warning("implicit diffusion not available with explicit advection - using explicit steps.");
+			return PDEImplicit.Type.EXPLICIT;
+		}
+		if (type == PDEImplicit.Type.ADI && !PDEImplicit.admits(type, space)) {
+			logger.warning("ADI requires von Neumann or linear lattices - using Crank-Nicolson steps.");
+			type = PDEImplicit.Type.CRANK_NICOLSON;
+		}
+		if (!PDEImplicit.admits(type, space)) {
+			logger.warning("implicit diffusion requires undirected geometries - using explicit steps.");
+			return PDEImplicit.Type.EXPLICIT;
+		}
+		return type;
+	}
+
+	/**
+	 * Check whether the model includes explicit advection, which is integrated
+	 * together with the (explicit) diffusion step.
+	 * 
+	 * @return {@code true} if explicit advection is present
+	 */
+	boolean hasAdvection() {
+		return false;
+	}
+
+	/**
+	 * Advection step across the entire PDE domain for models where advection is
+	 * not integrated together with diffusion. The advected densities replace the
+	 * current state in {@link #next}. Plain PDEs have no advection.
+	 *
+	 * @param scaledA  the scaled advection coefficients, if any
+	 * @param stepSize the integration step
+	 */
+	void advect(double[][] scaledA, double stepSize) {
+	}
+
+	/**
+	 * Create a new workspace for reaction and diffusion steps. Each thread
+	 * processing PDE units requires its own workspace.
+	 * 
+	 * @return the new workspace
+	 */
+	public Workspace createWorkspace() {
+		return new Workspace(nDim, space.getFeatures().maxIn);
 	}
 
 	/**
 	 * {@inheritDoc}
 	 * <p>
-	 * Updates the densities and fitness values for the current PDE state.
+	 * Updates the densities and fitness values for the current PDE state. With
+	 * adaptive or accelerated time increments the reaction step has length zero
+	 * and merely updates the fitness. Otherwise the initial reaction step of
+	 * length {@code dt} introduces an error that does not shrink with the
+	 * tolerance of adaptive steps.
 	 */
 	@Override
 	public void update() {
-		react(getDt());
+		react(stepper == null ? getDt() : 0.0);
 		setDensity();
 	}
 
@@ -387,6 +740,13 @@ public class PDE extends ODE {
 			step = Math.min(step, deltat);
 		connect = true;
 		final double timeStop = getTime() + step;
+		if (stepper != null) {
+			boolean cont = (stepper.type == PDEStepper.Type.ADAPTIVE ? nextAdaptive(timeStop)
+					: nextSteady(timeStop));
+			if (!cont || Math.abs(gwtHalt - time) < 1e-8)
+				return false;
+			return !converged;
+		}
 		final double dt = getDt();
 		double[] scaledD = getScaledDiffusion(dt);
 		double[][] scaledA = getScaledAdvection(dt);
@@ -396,11 +756,11 @@ public class PDE extends ODE {
 		double timeRemain = step;
 		double change = Double.MAX_VALUE;
 		while (timeRemain > dt) {
-			diffuse(scaledD, scaledA);
-			change = react(dt);
+			change = step(scaledD, scaledA, dt);
 			// at this point, fitness and density are synchronized
 			// the new density distribution is in 'next'
 			incrementTime(dt);
+			counters.add(Counters.Count.EVENTS, 1.0);
 			timeRemain = timeStop - getTime();
 			if (change > acc2dt2)
 				continue;
@@ -411,9 +771,9 @@ public class PDE extends ODE {
 		if (timeRemain > 1e-6) {
 			scaledD = getScaledDiffusion(timeRemain);
 			scaledA = getScaledAdvection(timeRemain);
-			diffuse(scaledD, scaledA);
-			change = react(timeRemain);
+			change = step(scaledD, scaledA, timeRemain);
 			incrementTime(timeRemain);
+			counters.add(Counters.Count.EVENTS, 1.0);
 		}
 		if (change <= acc2 * timeRemain * timeRemain) {
 			setConverged();
@@ -424,6 +784,189 @@ public class PDE extends ODE {
 		return !converged;
 	}
 
+	/**
+	 * Advance the PDE model to {@code timeStop} with adaptive time increments.
+	 * Each step of size {@code h} is compared to two steps of size {@code h/2}
+	 * to estimate the local error. Accepted steps retain the result of the two
+	 * half steps, while rejected steps are repeated with a smaller step size.
+	 * Steps never exceed the stability limit of explicit diffusion or advection.
+	 *
+	 * @param timeStop the time to reach
+	 * @return {@code false} if the PDE has converged
+	 * 
+	 * @see PDEStepper.Type#ADAPTIVE
+	 */
+	private boolean nextAdaptive(double timeStop) {
+		final double acc = getAccuracy();
+		final double acc2 = acc * acc;
+		final double maxDt = stableDt();
+		double[] y0 = stepper.start;
+		double[] y1 = stepper.trial;
+		int size = y0.length;
+		double timeRemain = timeStop - getTime();
+		while (timeRemain > 1e-8) {
+			double t0 = time;
+			double h = Math.min(Math.min(dtTry, maxDt), timeRemain);
+			double half = 0.5 * h;
+			// note: fused steps swap buffers, always refer to current 'next'
+			System.arraycopy(next, 0, y0, 0, size);
+			step(getScaledDiffusion(h), getScaledAdvection(h), h);
+			System.arraycopy(next, 0, y1, 0, size);
+			System.arraycopy(y0, 0, next, 0, size);
+			step(getScaledDiffusion(half), getScaledAdvection(half), half);
+			time = t0 + half;
+			double change = step(getScaledDiffusion(half), getScaledAdvection(half), half);
+			counters.add(Counters.Count.EVENTS, 3.0);
+			double err = stepper.error(next, tolerance);
+			if (err > 1.0) {
+				// step rejected - restore state and retry with smaller step
+				System.arraycopy(y0, 0, next, 0, size);
+				time = t0;
+				dtTry = PDEStepper.adjust(h, err);
+				if (t0 + dtTry == t0) {
+					if (logger.isLoggable(Level.WARNING))
+						logger.warning("stepsize underflow in PDE at time " + t0 + ".");
+					setConverged();
+					return false;
+				}
+				continue;
+			}
+			time = t0 + h;
+			dtTaken = h;
+			// last step before reaching timeStop may be short - don't let it shrink dtTry
+			double dtNext = PDEStepper.adjust(h, err);
+			dtTry = (h < timeRemain ? dtNext : Math.max(dtTry, dtNext));
+			timeRemain = timeStop - getTime();
+			if (change > acc2 * half * half)
+				continue;
+			setConverged();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Advance the PDE model to {@code timeStop} with Anderson accelerated steps
+	 * of fixed size toward a steady state. Time merely counts the steps taken.
+	 * The PDE has converged once the change in one step drops below the
+	 * accuracy.
+	 *
+	 * @param timeStop the time to reach
+	 * @return {@code false} if the PDE has converged
+	 * 
+	 * @see PDEStepper.Type#STEADY
+	 */
+	private boolean nextSteady(double timeStop) {
+		final double acc = getAccuracy();
+		final double acc2 = acc * acc;
+		final double dt = getDt();
+		double timeRemain = timeStop - getTime();
+		while (timeRemain > 1e-8) {
+			double h = Math.min(dt, timeRemain);
+			stepper.prepare(next, h);
+			step(getScaledDiffusion(h), getScaledAdvection(h), h);
+			incrementTime(h);
+			counters.add(Counters.Count.EVENTS, 1.0);
+			timeRemain = timeStop - getTime();
+			if (stepper.accelerate(next) > acc2 * h * h)
+				continue;
+			if (!settles(h) && logger.isLoggable(Level.WARNING))
+				logger.warning("PDE steady state at time " + time
+						+ " not confirmed by plain steps - dynamics may never reach it.");
+			setConverged();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Confirm the convergence of Anderson accelerated steps with
+	 * {@link PDEStepper#VERIFY} plain steps of size {@code h}. Acceleration may
+	 * settle on unstable fixed points, e.g. the center of oscillations, where
+	 * the residuals of plain steps keep increasing.
+	 *
+	 * @param h the step size of the iterations
+	 * @return {@code true} if the residual of the last plain step does not exceed
+	 *         that of the first
+	 */
+	private boolean settles(double h) {
+		// discard history and extrapolated iterate
+		stepper.reset(h);
+		double first = -1.0;
+		double res = 0.0;
+		for (int n = 0; n < PDEStepper.VERIFY; n++) {
+			stepper.prepare(next, h);
+			step(getScaledDiffusion(h), getScaledAdvection(h), h);
+			incrementTime(h);
+			res = stepper.residual(next);
+			if (first < 0.0)
+				first = res;
+		}
+		counters.add(Counters.Count.EVENTS, PDEStepper.VERIFY);
+		return res <= first;
+	}
+
+	/**
+	 * Perform one diffusion and reaction step across the entire PDE domain.
+	 * Depending on {@link #fused} the two steps are processed separately or fused
+	 * tile by tile. Advection that is not integrated together with diffusion
+	 * precedes the two steps.
+	 *
+	 * @param scaledD  the scaled diffusion coefficients
+	 * @param scaledA  the scaled advection coefficients, if any
+	 * @param stepSize the integration step
+	 * @return the accumulated total change in state
+	 */
+	private double step(double[] scaledD, double[][] scaledA, double stepSize) {
+		advect(scaledA, stepSize);
+		if (!fused || implicit != null) {
+			tracedDiffuse(scaledD, scaledA, stepSize);
+			return tracedReact(stepSize);
+		}
+		PhaseTrace trace = engine.beginTrace(PhaseTrace.Phase.PDE_STEP);
+		double change = diffuseReact(scaledD, scaledA, stepSize);
+		if (trace != null)
+			trace.record(space.getSize(), stepSize, null);
+		return change;
+	}
+
+	/**
+	 * Perform the diffusion step across the entire PDE domain and trace it if
+	 * requested.
+	 *
+	 * @param scaledD  the scaled diffusion coefficients
+	 * @param scaledA  the scaled advection coefficients, if any
+	 * @param stepSize the integration step
+	 * 
+	 * @see EvoLudo#beginTrace(PhaseTrace.Phase)
+	 */
+	private void tracedDiffuse(double[] scaledD, double[][] scaledA, double stepSize) {
+		PhaseTrace trace = engine.beginTrace(PhaseTrace.Phase.PDE_DIFFUSE);
+		if (implicit != null)
+			diffuseImplicit(scaledD);
+		else
+			diffuse(scaledD, scaledA);
+		if (trace != null)
+			trace.record(space.getSize(), stepSize, null);
+	}
+
+	/**
+	 * Perform the reaction step across the entire PDE domain and trace it if
+	 * requested.
+	 *
+	 * @param stepSize the integration step to apply
+	 * @return the accumulated total change in state
+	 * 
+	 * @see EvoLudo#beginTrace(PhaseTrace.Phase)
+	 */
+	private double tracedReact(double stepSize) {
+		PhaseTrace trace = engine.beginTrace(PhaseTrace.Phase.PDE_REACT);
+		double change = react(stepSize);
+		if (trace != null)
+			trace.record(space.getSize(), stepSize, null);
+		return change;
+	}
+
 	/**
 	 * Perform the reaction step across the entire PDE domain.
 	 *
@@ -431,13 +974,11 @@ public class PDE extends ODE {
 	 * @return the accumulated total change in state
 	 */
 	public synchronized double react(double stepSize) {
-		double change;
+		double change = react(0, space.getSize(), stepSize);
 		if (module instanceof Payoffs) {
 			resetFitness();
-			change = react(0, space.getSize(), stepSize);
+			updateFitness(workspace.minFit, workspace.maxFit, workspace.meanFit);
 			normalizeMeanFitness();
-		} else {
-			change = react(0, space.getSize(), stepSize);
 		}
 		return change;
 	}
@@ -448,9 +989,7 @@ public class PDE extends ODE {
 	 * @param scaledD the scaled diffusion coefficients
 	 */
 	public synchronized void diffuse(double[] scaledD) {
-		resetDensity();
-		diffuse(0, space.getSize(), scaledD);
-		normalizeMeanDensity();
+		diffuse(scaledD, null);
 	}
 
 	/**
@@ -460,15 +999,139 @@ public class PDE extends ODE {
 	 * @param scaledA the scaled advection coefficients, if any
 	 */
 	public synchronized void diffuse(double[] scaledD, double[][] scaledA) {
-		if (scaledA == null) {
-			diffuse(scaledD);
-			return;
+		diffuse(0, space.getSize(), scaledD, scaledA);
+		resetDensity();
+		updateDensity(workspace.min, workspace.max, workspace.mean);
+		normalizeMeanDensity();
+	}
+
+	/**
+	 * Perform an implicit diffusion step across the entire PDE domain. Small
+	 * negative densities, which may arise for large time steps in Crank-Nicolson
+	 * steps with steep gradients, are truncated. The density of the dependent
+	 * trait, if any, is set to maintain normalization.
+	 *
+	 * @param scaledD the scaled diffusion coefficients
+	 * 
+	 * @see #cloPdeSolver
+	 */
+	public synchronized void diffuseImplicit(double[] scaledD) {
+		if (!implicit.diffuse(next, density, scaledD, dependent))
+			logger.warning("implicit diffusion step failed to converge.");
+		Workspace ws = workspace;
+		ws.reset();
+		for (int sn = 0; sn < density.length; sn += nDim) {
+			double norm = 0.0;
+			for (int k = 0; k < nDim; k++) {
+				if (k == dependent)
+					continue;
+				double dk = Math.max(0.0, density[sn + k]);
+				density[sn + k] = dk;
+				norm += dk;
+			}
+			if (dependent >= 0)
+				density[sn + dependent] = Math.max(0.0, 1.0 - norm);
+			minmaxmean(density, sn, ws.min, ws.max, ws.mean);
 		}
 		resetDensity();
-		((Advection) this).diffuse(0, space.getSize(), scaledD, scaledA);
+		updateDensity(ws.min, ws.max, ws.mean);
 		normalizeMeanDensity();
 	}
 
+	/**
+	 * Perform the diffusion step followed by the reaction step across the entire
+	 * PDE domain. The two steps are fused and processed tile by tile such that the
+	 * densities of a tile remain in cache between the two steps. The results are
+	 * identical to {@link #diffuse(double[], double[][])} followed by
+	 * {@link #react(double)}.
+	 *
+	 * @param scaledD  the scaled diffusion coefficients
+	 * @param scaledA  the scaled advection coefficients, if any
+	 * @param stepSize the integration step to apply
+	 * @return the accumulated total change in state
+	 * 
+	 * @see #cloPdeFuse
+	 */
+	public synchronized double diffuseReact(double[] scaledD, double[][] scaledA, double stepSize) {
+		prepareFused();
+		double change = diffuseReact(0, space.getSize(), scaledD, scaledA, stepSize, workspace);
+		finishFused();
+		resetDensity();
+		updateDensity(workspace.min, workspace.max, workspace.mean);
+		normalizeMeanDensity();
+		if (module instanceof Payoffs) {
+			resetFitness();
+			updateFitness(workspace.minFit, workspace.maxFit, workspace.meanFit);
+			normalizeMeanFitness();
+		}
+		return change;
+	}
+
+	/**
+	 * Fused diffusion and reaction step for cells with indices between
+	 * <code>start</code> (including) and <code>end</code> (excluding) using the
+	 * scratch buffers in {@code ws}. The range is processed in tiles of
+	 * {@link #FUSED_TILE} units. The diffused densities are in
+	 * <code>density</code> and the results of the reaction step in
+	 * {@link #spare} until {@link #finishFused()} is called for the entire domain.
+	 * <p>
+	 * <strong>Important:</strong> must be thread safe for JRE. In particular, no
+	 * memory can be shared with anyone else!
+	 *
+	 * @param start    the index of the first cell (including)
+	 * @param end      the index of the last cell (excluding)
+	 * @param scaledD  the scaled diffusion coefficients
+	 * @param scaledA  the scaled advection coefficients, if any
+	 * @param stepSize the integration step to apply
+	 * @param ws       the workspace of the calling thread
+	 * @return the accumulated change in state
+	 */
+	public double diffuseReact(int start, int end, double[] scaledD, double[][] scaledA, double stepSize,
+			Workspace ws) {
+		ws.reset();
+		ws.resetFit();
+		double change = 0.0;
+		for (int from = start; from < end; from += FUSED_TILE) {
+			int to = Math.min(end, from + FUSED_TILE);
+			diffuseRange(from, to, scaledD, scaledA, ws);
+			if (single != null)
+				change += single.reactRange(from, to, stepSize, single.spare, ws);
+			else
+				change += reactRange(from, to, stepSize, spare, ws);
+		}
+		return change;
+	}
+
+	/**
+	 * Prepare the buffer for fused diffusion and reaction steps.
+	 * 
+	 * @see #diffuseReact(double[], double[][], double)
+	 */
+	protected void prepareFused() {
+		if (single != null) {
+			single.prepareFused();
+			return;
+		}
+		if (spare == null || spare.length != next.length)
+			spare = new double[next.length];
+	}
+
+	/**
+	 * Complete the fused diffusion and reaction steps once the entire domain is
+	 * processed: the results of the reaction step become the new {@link #next}.
+	 * 
+	 * @see #diffuseReact(double[], double[][], double)
+	 */
+	protected void finishFused() {
+		if (single != null) {
+			single.finishFused();
+			return;
+		}
+		double[] swap = next;
+		next = spare;
+		spare = swap;
+	}
+
 	/**
 	 * Dispatch diffusion to the PDE implementation appropriate for the current
 	 * model type.
@@ -479,78 +1142,209 @@ public class PDE extends ODE {
 	 * @param scaledA the scaled advection coefficients, if any
 	 */
 	public void diffuse(int start, int end, double[] scaledD, double[][] scaledA) {
-		if (scaledA == null) {
-			diffuse(start, end, scaledD);
+		diffuse(start, end, scaledD, scaledA, workspace);
+	}
+
+	/**
+	 * Dispatch diffusion to the PDE implementation appropriate for the current
+	 * model type using the scratch buffers in {@code ws}.
+	 *
+	 * @param start   the first unit to update
+	 * @param end     the end-exclusive unit to update
+	 * @param scaledD the scaled diffusion coefficients
+	 * @param scaledA the scaled advection coefficients, if any
+	 * @param ws      the workspace of the calling thread
+	 */
+	public void diffuse(int start, int end, double[] scaledD, double[][] scaledA, Workspace ws) {
+		ws.reset();
+		diffuseRange(start, end, scaledD, scaledA, ws);
+	}
+
+	/**
+	 * Diffusion step for cells with indices between <code>start</code> (including)
+	 * and <code>end</code> (excluding). The minima, maxima and total densities are
+	 * accumulated in {@code ws}, i.e. the buffers are <em>not</em> reset.
+	 *
+	 * @param start   the first unit to update
+	 * @param end     the end-exclusive unit to update
+	 * @param scaledD the scaled diffusion coefficients
+	 * @param scaledA the scaled advection coefficients, if any
+	 * @param ws      the workspace of the calling thread
+	 */
+	void diffuseRange(int start, int end, double[] scaledD, double[][] scaledA, Workspace ws) {
+		if (single != null) {
+			single.diffuseRange(start, end, scaledD, ws);
+			return;
+		}
+		if (stencil == null) {
+			diffuseUnits(start, end, scaledD, ws);
 			return;
 		}
-		((Advection) this).diffuse(start, end, scaledD, scaledA);
+		// process lattices row by row; only interior units use the stencil
+		int cols = stencil.cols;
+		int n = start;
+		while (n < end) {
+			int rowStart = (n / cols) * cols;
+			int rowEnd = Math.min(end, rowStart + cols);
+			int row = n / cols;
+			int[] offs = (isSymmetric ? stencil.symmetric(row) : stencil.offsets(row));
+			if (offs == null) {
+				diffuseBoundary(n, rowEnd, scaledD, ws);
+			} else {
+				int lo = Math.min(rowEnd, Math.max(n, rowStart + stencil.colMargin));
+				int hi = Math.max(lo, Math.min(rowEnd, rowStart + cols - stencil.colMargin));
+				diffuseBoundary(n, lo, scaledD, ws);
+				double kout = stencil.kout(row);
+				if (isSymmetric)
+					diffuseSymmetric(lo, hi, offs, stencil.groups(row), kout, scaledD, ws);
+				else
+					diffuseStandard(lo, hi, offs, kout, scaledD, ws.min, ws.max, ws.mean);
+				diffuseBoundary(hi, rowEnd, scaledD, ws);
+			}
+			n = rowEnd;
+		}
+	}
+
+	/**
+	 * Diffusion step for the boundary cells of lattices with indices between
+	 * <code>start</code> (including) and <code>end</code> (excluding). For
+	 * symmetric diffusion on lattices with periodic boundaries the cells are
+	 * processed with the wrapped stencil such that all cells are summed alike.
+	 * Otherwise the neighbourhood arrays of the geometry are used.
+	 *
+	 * @param start   the first unit to update
+	 * @param end     the end-exclusive unit to update
+	 * @param scaledD the scaled diffusion coefficients
+	 * @param ws      the workspace of the calling thread
+	 * 
+	 * @see PDEStencil#wrapped(int, int[])
+	 */
+	private void diffuseBoundary(int start, int end, double[] scaledD, Workspace ws) {
+		if (!isSymmetric || !stencil.isPeriodic()) {
+			diffuseUnits(start, end, scaledD, ws);
+			return;
+		}
+		for (int n = start; n < end; n++) {
+			int row = n / stencil.cols;
+			diffuseSymmetric(n, n + 1, stencil.wrapped(n, ws.offs), stencil.groups(row), stencil.kout(row),
+					scaledD, ws);
+		}
+	}
+
+	/**
+	 * Diffusion step for cells with indices between <code>start</code> (including)
+	 * and <code>end</code> (excluding) based on the neighbourhood arrays of the
+	 * geometry.
+	 *
+	 * @param start   the first unit to update
+	 * @param end     the end-exclusive unit to update
+	 * @param scaledD the scaled diffusion coefficients
+	 * @param ws      the workspace of the calling thread
+	 */
+	private void diffuseUnits(int start, int end, double[] scaledD, Workspace ws) {
+		if (isSymmetric) {
+			diffuseSymmetric(start, end, scaledD, ws);
+		} else {
+			diffuseStandard(start, end, scaledD, ws.min, ws.max, ws.mean);
+		}
+	}
+
+	/**
+	 * Reaction step with an explicit integration step size {@link #dt}. Update
+	 * cells with indices between <code>start</code> (including) and
+	 * <code>end</code> (excluding) and return the accumulated/total change in
+	 * state.
+	 * <p>
+	 * <strong>Note:</strong> At the end, the state in <code>density</code> is
+	 * unchanged, the new density distribution is in <code>next</code> and the
+	 * fitness matching <code>density</code> is updated.
+	 * <p>
+	 * <strong>Important:</strong> must be thread safe for JRE. In particular, no
+	 * memory can be shared with anyone else!
+	 *
+	 * @param start    the index of the first cell (including)
+	 * @param end      the index of the last cell (excluding)
+	 * @param stepSize the integration step to apply
+	 * @return the accumulated change in state
+	 */
+	public double react(int start, int end, double stepSize) {
+		return react(start, end, stepSize, workspace);
+	}
+
+	/**
+	 * Reaction step for cells with indices between <code>start</code> (including)
+	 * and <code>end</code> (excluding) using the scratch buffers in {@code ws}.
+	 * 
+	 * @param start    the index of the first cell (including)
+	 * @param end      the index of the last cell (excluding)
+	 * @param stepSize the integration step to apply
+	 * @param ws       the workspace of the calling thread
+	 * @return the accumulated change in state
+	 * 
+	 * @see #react(int, int, double)
+	 */
+	public double react(int start, int end, double stepSize, Workspace ws) {
+		ws.resetFit();
+		if (single != null)
+			return single.reactRange(start, end, stepSize, single.next, ws);
+		return reactRange(start, end, stepSize, next, ws);
 	}
 
 	/**
-	 * Reaction step with an explicit integration step size {@link #dt}. Update
-	 * cells with indices between <code>start</code> (including) and
-	 * <code>end</code> (excluding) and return the accumulated/total change in
-	 * state.
-	 * <p>
-	 * <strong>Note:</strong> At the end, the state in <code>density</code> is
-	 * unchanged, the new density distribution is in <code>next</code> and the
-	 * fitness matching <code>density</code> is updated.
-	 * <p>
-	 * <strong>Important:</strong> must be thread safe for JRE. In particular, no
-	 * memory can be shared with anyone else!
-	 *
+	 * Reaction step for cells with indices between <code>start</code> (including)
+	 * and <code>end</code> (excluding). The new densities are stored in
+	 * {@code dest} and the minima, maxima and total fitnesses are accumulated in
+	 * {@code ws}, i.e. the buffers are <em>not</em> reset.
+	 * 
 	 * @param start    the index of the first cell (including)
 	 * @param end      the index of the last cell (excluding)
 	 * @param stepSize the integration step to apply
+	 * @param dest     the array for the new densities
+	 * @param ws       the workspace of the calling thread
 	 * @return the accumulated change in state
 	 */
-	public double react(int start, int end, double stepSize) {
+	private double reactRange(int start, int end, double stepSize, double[] dest, Workspace ws) {
 		boolean hasFit = (module instanceof Payoffs);
-		double[] minFit = null;
-		double[] maxFit = null;
-		double[] meanFit = null;
-		if (hasFit) {
-			minFit = new double[nDim];
-			Arrays.fill(minFit, Double.MAX_VALUE);
-			maxFit = new double[nDim];
-			Arrays.fill(maxFit, -Double.MAX_VALUE);
-			meanFit = new double[nDim];
-		}
-		double[] dytn = new double[nDim];
+		double[] minFit = ws.minFit;
+		double[] maxFit = ws.maxFit;
+		double[] meanFit = ws.meanFit;
+		double[] dytn = ws.change;
+		double[] ytn = ws.state;
+		double[] youtn = ws.update;
+		double[] ftn = (hasFit ? ws.fit : null);
 		double change = 0.0;
 
-		for (int n = start; n < end; n++) {
-			double[] ytn = density[n];
-			double[] youtn = next[n]; // youtn is only a short-cut - data written to next[]
-			double[] ftn = (hasFit ? fitness[n] : null);
+		for (int n = start, from = start * nDim; n < end; n++, from += nDim) {
+			System.arraycopy(density, from, ytn, 0, nDim);
 			getDerivatives(time, ytn, ftn, dytn);
 			ArrayMath.addscale(ytn, dytn, stepSize, youtn); // youtn = ytn+step*dy
 			change += ArrayMath.dot(dytn, dytn) * stepSize * stepSize;
 			if (!isDensity) {
 				normalizeState(youtn);
 			}
+			System.arraycopy(youtn, 0, dest, from, nDim);
 			if (!hasFit)
 				continue;
+			System.arraycopy(ftn, 0, fitness, from, nDim);
 			ArrayMath.min(minFit, ftn);
 			ArrayMath.max(maxFit, ftn);
 			ArrayMath.add(meanFit, ftn);
 		}
-		if (hasFit)
-			updateFitness(minFit, maxFit, meanFit);
 		return change;
 	}
 
 	/**
-	 * Update minimum, maximum and mean fitnesses during to reaction step. In multi
-	 * threaded settings each worker reports the minima {@code min}, maxima
-	 * {@code max}, and the total {@code mean} fitness (for the calculation of the
-	 * mean) of the PDE units it is responsible for.
+	 * Combine the minima {@code min}, maxima {@code max}, and the total
+	 * {@code mean} fitness (for the calculation of the mean) of a range of PDE
+	 * units with those of the entire domain. In multi threaded settings the
+	 * workspaces of all ranges are combined by the coordinating thread after the
+	 * reaction step is complete, which requires no synchronization.
 	 * 
 	 * @param min  the array with fitness minima
 	 * @param max  the array with fitness maxima
 	 * @param mean the array with fitness means
 	 */
-	public synchronized void updateFitness(double[] min, double[] max, double[] mean) {
+	public void updateFitness(double[] min, double[] max, double[] mean) {
 		ArrayMath.min(minFitness, min);
 		ArrayMath.max(maxFitness, max);
 		ArrayMath.add(meanFitness, mean);
@@ -575,10 +1369,10 @@ public class PDE extends ODE {
 	/**
 	 * Diffusion step. Update cells with indices between <code>start</code>
 	 * (including) and <code>end</code> (excluding). In order to preserve symmetry,
-	 * if requested and possible, the neighbouring cells are sorted according to
-	 * their density before the diffusion step is performed. The sorting is fairly
-	 * expensive in terms of CPU time but it doesn't matter whether the sorting is
-	 * ascending or descending.
+	 * if requested and possible, the contributions of neighbouring cells are
+	 * summed independent of their order. On the interior of lattices this is
+	 * achieved by summing opposite neighbours pairwise, otherwise the sum is
+	 * correctly rounded, which is more expensive in terms of CPU time.
 	 * <p>
 	 * <strong>Note:</strong> At the end, the state in <code>next</code> is
 	 * unchanged, the new density distribution is in <code>density</code> and the
@@ -592,23 +1386,133 @@ public class PDE extends ODE {
 	 * @param scaledD the diffusion coefficients scaled for the current time step
 	 */
 	public void diffuse(int start, int end, double[] scaledD) {
-		double[] minDens = new double[nDim];
-		Arrays.fill(minDens, Double.MAX_VALUE);
-		double[] maxDens = new double[nDim];
-		Arrays.fill(maxDens, -Double.MAX_VALUE);
-		double[] meanDens = new double[nDim];
+		diffuse(start, end, scaledD, workspace);
+	}
 
-		if (isSymmetric) {
-			diffuseSymmetric(start, end, scaledD, minDens, maxDens, meanDens);
-		} else {
-			diffuseStandard(start, end, scaledD, minDens, maxDens, meanDens);
+	/**
+	 * Diffusion step for cells with indices between <code>start</code> (including)
+	 * and <code>end</code> (excluding) using the scratch buffers in {@code ws}.
+	 *
+	 * @param start   the index of the first cell (including)
+	 * @param end     the index of the last cell (excluding)
+	 * @param scaledD the diffusion coefficients scaled for the current time step
+	 * @param ws      the workspace of the calling thread
+	 * 
+	 * @see #diffuse(int, int, double[])
+	 */
+	public void diffuse(int start, int end, double[] scaledD, Workspace ws) {
+		diffuse(start, end, scaledD, null, ws);
+	}
+
+	/**
+	 * Symmetric diffusion for the provided index range. The change in the density
+	 * of each trait is the correctly rounded sum of the contributions of the focal
+	 * cell and its neighbours and hence independent of the order of the
+	 * neighbours. Consequently, cells with identical neighbourhoods, e.g. mirror
+	 * images in symmetric configurations, yield identical densities.
+	 * 
+	 * @param start   the index of the first cell (including)
+	 * @param end     the index of the last cell (excluding)
+	 * @param scaledD the diffusion coefficients scaled for the current time step
+	 * @param ws      the workspace to store the minimum, maximum and mean
+	 *                densities and for summation
+	 * 
+	 * @see ArrayMath#exactSum(double[], int, int, double[])
+	 */
+	private void diffuseSymmetric(int start, int end, double[] scaledD, Workspace ws) {
+		int[][] in = space.in;
+		double[] terms = ws.terms;
+		double[] partials = ws.partials;
+		double[] minDens = ws.min;
+		double[] maxDens = ws.max;
+		double[] meanDens = ws.mean;
+		for (int n = start, sn = start * nDim; n < end; n++, sn += nDim) {
+			int[] neighs = in[n];
+			int nIn = space.kin[n];
+			// sn: offset of current state of focal site in next,
+			// s: offset of its next state in density
+			double kout = -space.kout[n];
+			for (int k = 0; k < nDim; k++) {
+				terms[0] = next[sn + k] * kout; // s = -k*sn
+				for (int i = 0; i < nIn; i++)
+					terms[i + 1] = next[neighs[i] * nDim + k]; // s += si
+				density[sn + k] = ArrayMath.exactSum(terms, 0, nIn + 1, partials);
+			}
+			finishDiffusion(sn, scaledD);
+			// update extrema and mean density
+			minmaxmean(density, sn, minDens, maxDens, meanDens);
+		}
+	}
+
+	/**
+	 * Symmetric diffusion for interior cells of lattices with indices between
+	 * <code>start</code> (including) and <code>end</code> (excluding). The offsets
+	 * of neighbouring cells are given by the stencil {@code offs} and arranged
+	 * in pairs of opposite neighbours. The pairs of each group are summed
+	 * pairwise, which renders the summation invariant under reflections of the
+	 * lattice.
+	 * 
+	 * @param start   the index of the first cell (including)
+	 * @param end     the index of the last cell (excluding)
+	 * @param offs    the offsets of the states of neighbouring cells
+	 * @param groups  the number of neighbours in each group
+	 * @param kout    the negative number of outgoing links of the cells
+	 * @param scaledD the diffusion coefficients scaled for the current time step
+	 * @param ws      the workspace to store the minimum, maximum and mean
+	 *                densities
+	 * 
+	 * @see PDEStencil#symmetric(int)
+	 * @see #diffuseSymmetric(int, int, double[], Workspace)
+	 */
+	private void diffuseSymmetric(int start, int end, int[] offs, int[] groups, double kout, double[] scaledD,
+			Workspace ws) {
+		for (int sn = start * nDim, send = end * nDim; sn < send; sn += nDim) {
+			for (int k = 0; k < nDim; k++) {
+				int snk = sn + k;
+				double s = next[snk] * kout;
+				int i = 0;
+				for (int g : groups) {
+					double pair = next[snk + offs[i]] + next[snk + offs[i + 1]];
+					if (g > 2)
+						pair += next[snk + offs[i + 2]] + next[snk + offs[i + 3]];
+					if (g > 4)
+						pair += (next[snk + offs[i + 4]] + next[snk + offs[i + 5]])
+								+ (next[snk + offs[i + 6]] + next[snk + offs[i + 7]]);
+					s += pair;
+					i += g;
+				}
+				density[snk] = s * scaledD[k] + next[snk];
+			}
+		}
+		finishStencil(start * nDim, end * nDim, ws.min, ws.max, ws.mean);
+	}
+
+	/**
+	 * Complete the diffusion step for the unit with offset {@code sn}: scale the
+	 * accumulated change in {@link #density} by the diffusion coefficients, add
+	 * the current state in {@link #next} and, if applicable, adjust the dependent
+	 * trait to maintain normalization.
+	 * 
+	 * @param sn      the offset of the unit
+	 * @param scaledD the diffusion coefficients scaled for the current time step
+	 */
+	private void finishDiffusion(int sn, double[] scaledD) {
+		double norm = 0.0;
+		for (int k = 0; k < nDim; k++) {
+			int idx = sn + k;
+			double sk = density[idx] * scaledD[k] + next[idx]; // s = s*alpha+sn
+			density[idx] = sk;
+			norm += sk;
+		}
+		if (dependent >= 0) {
+			int dep = sn + dependent;
+			density[dep] = Math.max(0.0, 1.0 + density[dep] - norm);
 		}
-		updateDensity(minDens, maxDens, meanDens);
 	}
 
 	/**
-	 * Symmetric diffusion for the provided index range; extracts work from the
-	 * original diffuse method to reduce its cognitive complexity.
+	 * Standard (non-symmetric) diffusion for the provided index range; extracts
+	 * work from the original diffuse method to reduce its cognitive complexity.
 	 * 
 	 * @param start    the index of the first cell (including)
 	 * @param end      the index of the last cell (excluding)
@@ -617,65 +1521,100 @@ public class PDE extends ODE {
 	 * @param maxDens  the array to store the maximum densities
 	 * @param meanDens the array to store the mean densities
 	 */
-	private void diffuseSymmetric(int start, int end, double[] scaledD, double[] minDens, double[] maxDens,
+	private void diffuseStandard(int start, int end, double[] scaledD, double[] minDens, double[] maxDens,
 			double[] meanDens) {
 		int[][] in = space.in;
-		GeometryFeatures features = space.getFeatures();
-		double[][] sort = new double[features.maxIn][];
-		for (int n = start; n < end; n++) {
+		for (int n = start, sn = start * nDim; n < end; n++, sn += nDim) {
 			int[] neighs = in[n];
 			int nIn = space.kin[n];
-			double[] sn = next[n]; // current state of focal site sn
-			double[] s = density[n]; // next state
-			ArrayMath.multiply(sn, -space.kout[n], s); // s = -k*sn
-			// sort neighbours
-			for (int i = 0; i < nIn; i++)
-				sort[i] = next[neighs[i]];
-			// sorting must maintain integrity of densities at neighbouring sites
-			// (sorting based on first element is enough - only equality in the first
-			// density but not the others could still result in an eventual break of
-			// symmetry due to rounding error.)
-			Arrays.sort(sort, 0, nIn, sorting);
-			// loop over neighbours
-			for (int i = 0; i < nIn; i++)
-				ArrayMath.add(s, sort[i]); // s += si
-			ArrayMath.multiply(s, scaledD); // s *= alpha
-			ArrayMath.add(s, sn); // s += sn
-			if (dependent >= 0)
-				s[dependent] = Math.max(0.0, 1.0 + s[dependent] - ArrayMath.norm(s));
+			double kout = -space.kout[n];
+			for (int k = 0; k < nDim; k++)
+				density[sn + k] = next[sn + k] * kout; // s = -kout*ds[n], current density in next
+			for (int i = 0; i < nIn; i++) {
+				int si = neighs[i] * nDim;
+				for (int k = 0; k < nDim; k++)
+					density[sn + k] += next[si + k]; // s += sum ds[i], where i are neighbours of n
+			}
+			// s = s*alpha+ds, new density now in s
+			finishDiffusion(sn, scaledD);
 			// update extrema and mean density
-			minmaxmean(s, minDens, maxDens, meanDens);
+			minmaxmean(density, sn, minDens, maxDens, meanDens);
 		}
 	}
 
 	/**
-	 * Standard (non-symmetric) diffusion for the provided index range; extracts
-	 * work from the original diffuse method to reduce its cognitive complexity.
+	 * Standard (non-symmetric) diffusion for interior cells of lattices with
+	 * indices between <code>start</code> (including) and <code>end</code>
+	 * (excluding). The offsets of neighbouring cells are given by the stencil
+	 * {@code offs}.
 	 * 
 	 * @param start    the index of the first cell (including)
 	 * @param end      the index of the last cell (excluding)
+	 * @param offs     the offsets of the states of neighbouring cells
+	 * @param kout     the negative number of outgoing links of the cells
 	 * @param scaledD  the diffusion coefficients scaled for the current time step
 	 * @param minDens  the array to store the minimum densities
 	 * @param maxDens  the array to store the maximum densities
 	 * @param meanDens the array to store the mean densities
+	 * 
+	 * @see PDEStencil
+	 */
+	private void diffuseStandard(int start, int end, int[] offs, double kout, double[] scaledD,
+			double[] minDens, double[] maxDens, double[] meanDens) {
+		int nIn = offs.length;
+		int from = start * nDim;
+		int to = end * nDim;
+		// process traits one at a time; summation order is the same as in
+		// diffuseStandard(int, int, double[], double[], double[], double[])
+		for (int k = 0; k < nDim; k++) {
+			double alpha = scaledD[k];
+			for (int sn = from + k; sn < to; sn += nDim) {
+				double s = next[sn] * kout;
+				for (int i = 0; i < nIn; i++)
+					s += next[sn + offs[i]];
+				density[sn] = s * alpha + next[sn];
+			}
+		}
+		finishStencil(from, to, minDens, maxDens, meanDens);
+	}
+
+	/**
+	 * Complete the diffusion step for interior cells of lattices with offsets
+	 * between {@code from} (including) and {@code to} (excluding): adjust the
+	 * dependent trait, if applicable, and update the extrema and mean densities.
+	 * Equivalent to {@link #finishDiffusion(int, double[])} followed by
+	 * {@link #minmaxmean(double[], int, double[], double[], double[])} for each
+	 * cell but processes one trait at a time.
+	 * 
+	 * @param from     the offset of the first cell (including)
+	 * @param to       the offset of the last cell (excluding)
+	 * @param minDens  the array to store the minimum densities
+	 * @param maxDens  the array to store the maximum densities
+	 * @param meanDens the array to store the mean densities
 	 */
-	private void diffuseStandard(int start, int end, double[] scaledD, double[] minDens, double[] maxDens,
-			double[] meanDens) {
-		int[][] in = space.in;
-		for (int n = start; n < end; n++) {
-			int[] neighs = in[n];
-			int nIn = space.kin[n];
-			double[] ds = next[n];
-			double[] s = density[n];
-			ArrayMath.multiply(ds, -space.kout[n], s); // s = -kout*ds[n], current density in ds
-			for (int i = 0; i < nIn; i++)
-				ArrayMath.add(s, next[neighs[i]]); // s += sum ds[i], where i are neighbours of n
-			ArrayMath.multiply(s, scaledD); // s *= alpha, s is change in density
-			ArrayMath.add(s, ds); // s += ds, new density now in s
-			if (dependent >= 0)
-				s[dependent] = Math.max(0.0, 1.0 + s[dependent] - ArrayMath.norm(s));
-			// update extrema and mean density // min_s:
-			minmaxmean(s, minDens, maxDens, meanDens);
+	private void finishStencil(int from, int to, double[] minDens, double[] maxDens, double[] meanDens) {
+		if (dependent >= 0) {
+			for (int sn = from; sn < to; sn += nDim) {
+				double norm = 0.0;
+				for (int k = 0; k < nDim; k++)
+					norm += density[sn + k];
+				int dep = sn + dependent;
+				density[dep] = Math.max(0.0, 1.0 + density[dep] - norm);
+			}
+		}
+		for (int k = 0; k < nDim; k++) {
+			double min = minDens[k];
+			double max = maxDens[k];
+			double mean = meanDens[k];
+			for (int sn = from + k; sn < to; sn += nDim) {
+				double d = density[sn];
+				min = Math.min(d, min);
+				max = Math.max(d, max);
+				mean += d;
+			}
+			minDens[k] = min;
+			maxDens[k] = max;
+			meanDens[k] = mean;
 		}
 	}
 
@@ -694,22 +1633,28 @@ public class PDE extends ODE {
 	public synchronized void setDensity() {
 		resetDensity();
 		int nodeCount = space.getSize();
-		for (int n = 0; n < nodeCount; n++)
-			minmaxmean(density[n], minDensity, maxDensity, meanDensity);
+		if (single != null) {
+			for (int n = 0; n < nodeCount; n++)
+				PDESingle.minmaxmean(single.density, n * nDim, minDensity, maxDensity, meanDensity);
+		} else {
+			for (int n = 0; n < nodeCount; n++)
+				minmaxmean(density, n * nDim, minDensity, maxDensity, meanDensity);
+		}
 		normalizeMeanDensity();
 	}
 
 	/**
-	 * Update minimum, maximum and mean density during to reaction step. In multi
-	 * threaded settings each worker reports the minima {@code min}, maxima
-	 * {@code max}, and the total {@code mean} density (for the calculation of the
-	 * mean) of the PDE units it is responsible for.
+	 * Combine the minima {@code min}, maxima {@code max}, and the total
+	 * {@code mean} density (for the calculation of the mean) of a range of PDE
+	 * units with those of the entire domain. In multi threaded settings the
+	 * workspaces of all ranges are combined by the coordinating thread after the
+	 * diffusion step is complete, which requires no synchronization.
 	 * 
 	 * @param min  the array with density minima
 	 * @param max  the array with density maxima
 	 * @param mean the array with density means
 	 */
-	public synchronized void updateDensity(double[] min, double[] max, double[] mean) {
+	public void updateDensity(double[] min, double[] max, double[] mean) {
 		ArrayMath.min(minDensity, min);
 		ArrayMath.max(maxDensity, max);
 		ArrayMath.add(meanDensity, mean);
@@ -736,12 +1681,12 @@ public class PDE extends ODE {
 
 	@Override
 	public double[] getMeanTraitAt(int id, int idx) {
-		return density[idx];
+		return Arrays.copyOfRange(densityData(), idx * nDim, (idx + 1) * nDim);
 	}
 
 	@Override
 	public String getTraitNameAt(int id, int idx) {
-		return Formatter.formatFix(density[idx], 3);
+		return Formatter.formatFix(getMeanTraitAt(id, idx), 3);
 	}
 
 	@Override
@@ -759,12 +1704,12 @@ public class PDE extends ODE {
 			cMap.setRange(minDensity[n], maxDensity[n]);
 			// else
 			// cMap.setRange(min[n], max[n]);
-			colorMap.translate(density, colors);
+			colorMap.translate(densityData(), nDim, colors);
 			return;
 		}
 		ColorMap.Gradient2D<T> map = (ColorMap.Gradient2D<T>) colorMap;
 		map.setRange(minDensity, maxDensity, dependent);
-		map.translate(density, colors);
+		map.translate(densityData(), nDim, colors);
 	}
 
 	@Override
@@ -781,12 +1726,12 @@ public class PDE extends ODE {
 
 	@Override
 	public double[] getMeanFitnessAt(int id, int idx) {
-		return fitness[idx];
+		return Arrays.copyOfRange(fitnessData(), idx * nDim, (idx + 1) * nDim);
 	}
 
 	@Override
 	public String getFitnessNameAt(int id, int idx) {
-		return Formatter.formatFix(fitness[idx], 3);
+		return Formatter.formatFix(getMeanFitnessAt(id, idx), 3);
 	}
 
 	@Override
@@ -821,7 +1766,7 @@ public class PDE extends ODE {
 			colorMap.setRange(minf * mind, (nTraits - 1) * maxf * maxd);
 		// else
 		// colorMap.setRange(minScore, maxScore);
-		colorMap.translate(density, fitness, colors);
+		colorMap.translate(densityData(), fitnessData(), nDim, colors);
 	}
 
 	@Override
@@ -852,16 +1797,17 @@ public class PDE extends ODE {
 		// clear bins
 		for (int n = 0; n < bins.length; n++)
 			Arrays.fill(bins[n], 0.0);
+		double[] dens = densityData();
+		double[] fit = fitnessData();
 		for (int n = 0; n < discretization; n++) {
-			double[] f = fitness[n];
-			double[] d = density[n];
+			int from = n * nDim;
 			idx = 0;
 			for (int i = 0; i < nDim; i++) {
 				if (i == vacant)
 					continue;
-				int bin = (int) ((f[idx] - min) * map);
+				int bin = (int) ((fit[from + idx] - min) * map);
 				bin = Math.max(0, Math.min(maxBin, bin));
-				bins[idx][bin] += d[idx];
+				bins[idx][bin] += dens[from + idx];
 				idx++;
 			}
 		}
@@ -874,6 +1820,103 @@ public class PDE extends ODE {
 		}
 	}
 
+	/**
+	 * Copy the densities (or frequencies) of all traits in all units to
+	 * {@code field}. The densities of the traits at unit {@code n} are stored
+	 * contiguously in the {@link #nDim} entries starting at {@code n * nDim}.
+	 * 
+	 * @param field the array for the densities (may be {@code null})
+	 * @return the array with the densities, newly allocated if {@code field} is
+	 *         {@code null} or has the wrong size
+	 * 
+	 * @see #getShape()
+	 */
+	public synchronized double[] getTraitField(double[] field) {
+		int size = space.getSize() * nDim;
+		if (field == null || field.length != size)
+			field = new double[size];
+		if (single != null)
+			PDESingle.widen(single.density, field);
+		else
+			System.arraycopy(density, 0, field, 0, size);
+		return field;
+	}
+
+	/**
+	 * Copy the fitness of all traits in all units to {@code field}. Same layout as
+	 * {@link #getTraitField(double[])}.
+	 * 
+	 * @param field the array for the fitness (may be {@code null})
+	 * @return the array with the fitness, newly allocated if {@code field} is
+	 *         {@code null} or has the wrong size, or {@code null} if the module
+	 *         does not define fitness
+	 */
+	public synchronized double[] getFitnessField(double[] field) {
+		if (!(module instanceof Payoffs))
+			return null;
+		int size = space.getSize() * nDim;
+		if (field == null || field.length != size)
+			field = new double[size];
+		if (single != null)
+			PDESingle.widen(single.fitness, field);
+		else
+			System.arraycopy(fitness, 0, field, 0, size);
+		return field;
+	}
+
+	/**
+	 * Get the densities of all traits in all units for views and the encoding of
+	 * states. Returns {@link #density} or a double precision copy if the state is
+	 * stored in single precision.
+	 * 
+	 * @return the densities
+	 */
+	private double[] densityData() {
+		return (single != null ? single.getDensities() : density);
+	}
+
+	/**
+	 * Get the fitness of all traits in all units for views and the encoding of
+	 * states. Returns {@link #fitness} or a double precision copy if the state is
+	 * stored in single precision.
+	 * 
+	 * @return the fitness
+	 */
+	private double[] fitnessData() {
+		return (single != null ? single.getFitness() : fitness);
+	}
+
+	/**
+	 * Gets the shape of the spatial domain. For lattices the shape lists the
+	 * number of units along each dimension, starting with the slowest varying
+	 * index, e.g. {@code {rows, columns}} for square lattices and
+	 * {@code {layers, rows, columns}} for cubic lattices. For all other
+	 * geometries the shape simply refers to the number of units.
+	 * 
+	 * @return the shape of the spatial domain
+	 */
+	public int[] getShape() {
+		int size = space.getSize();
+		switch (space.getType()) {
+			case CUBE:
+				if (size == 25000)
+					return new int[] { 10, 50, 50 };
+				int l = (int) Math.floor(Math.pow(size, 1.0 / 3.0) + 0.5);
+				return new int[] { l, l, l };
+			case SQUARE_NEUMANN:
+			case SQUARE_NEUMANN_2ND:
+			case SQUARE_MOORE:
+			case SQUARE:
+			case TRIANGULAR:
+			case HEXAGONAL:
+				int side = (int) Math.floor(Math.sqrt(size) + 0.5);
+				return new int[] { side, side };
+			case LINEAR:
+			default:
+				return new int[] { size };
+		}
+	}
+
 	@Override
 	public String getStatus() {
 		return getStatus(meanDensity);
@@ -978,6 +2021,118 @@ public class PDE extends ODE {
 		return isSymmetric;
 	}
 
+	/**
+	 * Sets whether diffusion and reaction steps are fused. Fused steps process the
+	 * diffusion and reaction steps tile by tile to keep the data of each tile in
+	 * cache at the expense of an additional buffer for the reaction step. The
+	 * results are the same.
+	 *
+	 * @param fused the flag to fuse diffusion and reaction steps
+	 */
+	public void setFused(boolean fused) {
+		this.fused = fused;
+	}
+
+	/**
+	 * Gets whether diffusion and reaction steps are fused.
+	 *
+	 * @return {@code true} if diffusion and reaction steps are fused
+	 */
+	public boolean isFused() {
+		return fused;
+	}
+
+	/**
+	 * Sets the scheme for the diffusion step. Implicit schemes are unconditionally
+	 * stable and hence the time increment can be chosen based on the accuracy of
+	 * the reaction step. Implicit diffusion steps are never fused with reaction
+	 * steps.
+	 *
+	 * @param solver the scheme for the diffusion step
+	 * 
+	 * @see PDEImplicit.Type
+	 */
+	public void setSolver(PDEImplicit.Type solver) {
+		this.solver = solver;
+	}
+
+	/**
+	 * Gets the scheme for the diffusion step in use.
+	 *
+	 * @return the scheme for the diffusion step
+	 */
+	public PDEImplicit.Type getSolver() {
+		return diffusionType;
+	}
+
+	/**
+	 * Sets the scheme for advancing time. Adaptive time increments resolve fast
+	 * transients as well as the slow approach to stationary patterns, while the
+	 * acceleration toward steady states is useful if only the final pattern is
+	 * of interest.
+	 *
+	 * @param stepping the scheme for advancing time
+	 * 
+	 * @see PDEStepper.Type
+	 */
+	public void setStepping(PDEStepper.Type stepping) {
+		this.stepping = stepping;
+	}
+
+	/**
+	 * Gets the scheme for advancing time.
+	 *
+	 * @return the scheme for advancing time
+	 */
+	public PDEStepper.Type getStepping() {
+		return stepping;
+	}
+
+	/**
+	 * Sets the tolerance for the local error of adaptive time increments. The
+	 * error of each step is bounded by {@code tol (1+|y|)} for every density
+	 * {@code y}. The global error is roughly proportional to {@code √tol}.
+	 *
+	 * @param tol the tolerance for the local error
+	 * 
+	 * @see PDEStepper.Type#ADAPTIVE
+	 */
+	public void setTolerance(double tol) {
+		tolerance = tol;
+	}
+
+	/**
+	 * Gets the tolerance for the local error of adaptive time increments.
+	 *
+	 * @return the tolerance for the local error
+	 */
+	public double getTolerance() {
+		return tolerance;
+	}
+
+	/**
+	 * Sets whether the densities and fitness are stored in single precision.
+	 * Halves the memory footprint and bandwidth of large domains at the expense
+	 * of accuracy. Only available for explicit diffusion with fixed time
+	 * increments.
+	 *
+	 * @param single {@code true} to store the state in single precision
+	 * 
+	 * @see PDESingle
+	 */
+	public void setSingle(boolean single) {
+		requestSingle = single;
+	}
+
+	/**
+	 * Gets whether the densities and fitness are stored in single precision.
+	 *
+	 * @return {@code true} if the state is stored in single precision
+	 */
+	public boolean isSingle() {
+		return isSingle;
+	}
+
 	/**
 	 * Increments time by <code>incr</code>.
 	 *
@@ -1059,7 +2214,14 @@ public class PDE extends ODE {
 	@Override
 	public void init() {
 		super.init();
-		initializer.init(density);
+		if (single != null) {
+			double[] init = new double[space.getSize() * nDim];
+			initializer.init(init);
+			single.setDensities(init);
+		} else
+			initializer.init(density);
+		if (stepper != null)
+			stepper.reset(0.0);
 	}
 
 	/**
@@ -1162,10 +2324,11 @@ public class PDE extends ODE {
 	 * @return the diffusion coefficients scaled for the supplied time increment
 	 */
 	public double[] getScaledDiffusion(double stepSize) {
-		double[] scaledD = new double[nDim];
+		if (scaledDiffusion == null || scaledDiffusion.length != nDim)
+			scaledDiffusion = new double[nDim];
 		double invdx = calcInvDeltaX();
-		ArrayMath.multiply(diffcoeff, stepSize * invdx * invdx, scaledD);
-		return scaledD;
+		ArrayMath.multiply(diffcoeff, stepSize * invdx * invdx, scaledDiffusion);
+		return scaledDiffusion;
 	}
 
 	/**
@@ -1190,6 +2353,8 @@ public class PDE extends ODE {
 		// if Di/(dx^2)>1/dt for any Di then adjust dt
 		// if Di/(dx^2)*dt*k>1 for any Di with k the maximum number of outgoing links
 		// then adjust dt
+		if (diffusionType != PDEImplicit.Type.EXPLICIT)
+			return;
 		double invdx = calcInvDeltaX();
 		double invdx2 = invdx * invdx;
 		double maxD = ArrayMath.max(diffcoeff) * invdx2;
@@ -1233,6 +2398,24 @@ public class PDE extends ODE {
 		// 6));
 	}
 
+	/**
+	 * The largest time increment that keeps explicit steps stable. Adaptive time
+	 * increments never exceed this limit.
+	 * 
+	 * @return the largest stable time increment
+	 * 
+	 * @see #checkDt()
+	 */
+	double stableDt() {
+		if (diffusionType != PDEImplicit.Type.EXPLICIT)
+			return Double.POSITIVE_INFINITY;
+		double invdx = calcInvDeltaX();
+		double maxD = ArrayMath.max(diffcoeff) * invdx * invdx;
+		GeometryFeatures features = space.getFeatures();
+		int maxK = Math.max(features.maxOut, features.maxIn);
+		return (maxD > 0.0 ? 0.5 / (maxD * maxK) : Double.POSITIVE_INFINITY);
+	}
+
 	/**
 	 * Helper method to calculate <code>1 / dx</code> for different lattice
 	 * geometries.
@@ -1258,16 +2441,18 @@ public class PDE extends ODE {
 
 	/**
 	 * Utility method to update the trait minimum, maximum and mean based on the
-	 * provided data array.
+	 * state of the unit starting at offset {@code from} in the provided data
+	 * array.
 	 * 
-	 * @param data the data to process
+	 * @param data the flat data array to process
+	 * @param from the offset of the unit in {@code data}
 	 * @param min  the array with the minima of each trait
 	 * @param max  the array with the maxima of each trait
 	 * @param mean the array with the trait means
 	 */
-	static void minmaxmean(double[] data, double[] min, double[] max, double[] mean) {
-		for (int i = 0; i < data.length; i++) {
-			double d = data[i];
+	static void minmaxmean(double[] data, int from, double[] min, double[] max, double[] mean) {
+		for (int i = 0; i < min.length; i++) {
+			double d = data[from + i];
 			min[i] = Math.min(d, min[i]);
 			max[i] = Math.max(d, max[i]);
 			mean[i] += d;
@@ -1380,6 +2565,102 @@ public class PDE extends ODE {
 				}
 			});
 
+	/**
+	 * Command line option to fuse the diffusion and reaction steps and process
+	 * them tile by tile.
+	 * 
+	 * @see #setFused(boolean)
+	 */
+	public final CLOption cloPdeFuse = new CLOption("pdeFuse", CLOCategory.Model,
+			"--pdeFuse       fuse diffusion and reaction steps of PDE", new CLODelegate() {
+				@Override
+				public boolean parse(boolean isSet) {
+					setFused(isSet);
+					return true;
+				}
+			});
+
+	/**
+	 * Command line option to set the scheme for the diffusion step.
+	 * 
+	 * @see #setSolver(PDEImplicit.Type)
+	 */
+	public final CLOption cloPdeSolver = new CLOption("pdeSolver", PDEImplicit.Type.EXPLICIT.getKey(),
+			CLOCategory.Model, "--pdeSolver <s>  scheme for diffusion step of PDE:", new CLODelegate() {
+				@Override
+				public boolean parse(String arg) {
+					PDEImplicit.Type type = (PDEImplicit.Type) cloPdeSolver.match(arg);
+					if (type == null)
+						return false;
+					setSolver(type);
+					return true;
+				}
+			});
+
+	/**
+	 * Command line option to set the scheme for advancing time.
+	 * 
+	 * @see #setStepping(PDEStepper.Type)
+	 */
+	public final CLOption cloPdeStep = new CLOption("pdeStep", PDEStepper.Type.FIXED.getKey(),
+			CLOCategory.Model, null, new CLODelegate() {
+				@Override
+				public boolean parse(String arg) {
+					PDEStepper.Type type = (PDEStepper.Type) cloPdeStep.match(arg);
+					if (type == null)
+						return false;
+					setStepping(type);
+					return true;
+				}
+
+				@Override
+				public String getDescription() {
+					return "--pdeStep <s>   time increments of PDE:\n" + cloPdeStep.getDescriptionKey()
+							+ "\n                adaptive: local error below --pdeTolerance"
+							+ "\n                steady: may settle on unstable fixed points that"
+							+ "\n                the dynamics never reach (warns if detected)";
+				}
+			});
+
+	/**
+	 * Command line option to set the tolerance for the local error of adaptive
+	 * time increments.
+	 * 
+	 * @see #setTolerance(double)
+	 */
+	public final CLOption cloPdeTolerance = new CLOption("pdeTolerance", "0.001", CLOCategory.Model,
+			"--pdeTolerance <t>  local error of adaptive PDE steps, |dy|<t(1+|y|)", new CLODelegate() {
+				@Override
+				public boolean parse(String arg) {
+					double tol = CLOParser.parseDouble(arg);
+					if (tol <= 0.0)
+						return false;
+					setTolerance(tol);
+					return true;
+				}
+			});
+
+	/**
+	 * Command line option to store the state of the PDE in single precision.
+	 * Each step rounds densities by at most
+	 * {@code 2<sup>-25</sup>≈3·10<sup>-8</sup>}, hence the deviation from double
+	 * precision remains below {@code n·3·10<sup>-8</sup>} after {@code n} steps
+	 * unless amplified by the reactions.
+	 * 
+	 * @see #setSingle(boolean)
+	 * @see PDESingle
+	 */
+	public final CLOption cloPdeSingle = new CLOption("pdeSingle", CLOCategory.Model,
+			"--pdeSingle     store PDE state in single precision\n"
+					+ "                (deviation <n·3e-8 after n steps)",
+			new CLODelegate() {
+				@Override
+				public boolean parse(boolean isSet) {
+					setSingle(isSet);
+					return true;
+				}
+			});
+
 	// public final CLOption cloPdeColorRange = new CLOption("pdecolorrange",
 	// Category.GUI,
 	// "auto", null,
@@ -1403,6 +2684,13 @@ public class PDE extends ODE {
 		parser.addCLO(cloPdeL);
 		parser.addCLO(cloPdeDiffusion);
 		parser.addCLO(cloPdeSymmetric);
+		parser.addCLO(cloPdeFuse);
+		parser.addCLO(cloPdeSolver);
+		cloPdeSolver.addKeys(PDEImplicit.Type.values());
+		parser.addCLO(cloPdeStep);
+		cloPdeStep.addKeys(PDEStepper.Type.values());
+		parser.addCLO(cloPdeTolerance);
+		parser.addCLO(cloPdeSingle);
 		// parser.addCLO(cloPdeColorRange);
 		// ODE loaded its own keys already - clear and reload ours.
 		cloInit.clearKeys();
@@ -1496,12 +2784,13 @@ public class PDE extends ODE {
 		if (geo == null)
 			return false;
 		space.decodeGeometry(geo);
+		stencil = PDEStencil.create(space, nDim);
 		return true;
 	}
 
 	@Override
 	void encodeTraits(StringBuilder plist) {
-		plist.append(Plist.encodeKey("Density", density));
+		plist.append(Plist.encodeKey("Density", densityData(), space.getSize(), nDim));
 	}
 
 	@Override
@@ -1511,19 +2800,22 @@ public class PDE extends ODE {
 		int nodeCount = space.getSize();
 		if (state == null || state.size() != nodeCount || state.get(0) == null || state.get(0).size() != nDim)
 			return false;
+		double[] dens = (single != null ? new double[nodeCount * nDim] : density);
+		int idx = 0;
 		for (int n = 0; n < nodeCount; n++) {
 			List<Double> cell = state.get(n);
-			double[] dcell = density[n];
 			for (int i = 0; i < nDim; i++)
-				dcell[i] = cell.get(i);
+				dens[idx++] = cell.get(i);
 		}
+		if (single != null)
+			single.setDensities(dens);
 		return true;
 	}
 
 	@Override
 	public void encodeFitness(StringBuilder plist) {
 		if (module instanceof Payoffs)
-			plist.append(Plist.encodeKey("Fitness", fitness));
+			plist.append(Plist.encodeKey("Fitness", fitnessData(), space.getSize(), nDim));
 	}
 
 	@Override
@@ -1533,12 +2825,15 @@ public class PDE extends ODE {
 		int nodeCount = space.getSize();
 		if (fit == null || fit.size() != nodeCount || fit.get(0) == null || fit.get(0).size() != nDim)
 			return false;
+		double[] fits = (single != null ? new double[nodeCount * nDim] : fitness);
+		int idx = 0;
 		for (int n = 0; n < nodeCount; n++) {
 			List<Double> cell = fit.get(n);
-			double[] fcell = fitness[n];
 			for (int i = 0; i < nDim; i++)
-				fcell[i] = cell.get(i);
+				fits[idx++] = cell.get(i);
 		}
+		if (single != null)
+			single.setFitness(fits);
 		update();
 		return true;
 	}
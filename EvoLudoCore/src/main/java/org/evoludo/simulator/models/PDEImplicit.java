@@ -0,0 +1,617 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+
+package org.evoludo.simulator.models;
+
+import java.util.Arrays;
+
+import org.evoludo.simulator.geometries.AbstractGeometry;
+import org.evoludo.simulator.geometries.AbstractLattice;
+import org.evoludo.simulator.geometries.GeometryType;
+import org.evoludo.util.CLOption;
+
+/**
+ * Implicit integration of the diffusion step of {@link PDE} models. The
+ * explicit diffusion step is only stable if the scaled diffusion coefficients
+ * remain small, which severely restricts the time increment {@code dt}. Implicit
+ * schemes are unconditionally stable such that {@code dt} can be chosen based on
+ * the accuracy of the reaction step instead. The diffusion and reaction steps
+ * are combined through operator splitting.
+ * <p>
+ * Two schemes are available:
+ * <dl>
+ * <dt>Crank-Nicolson</dt>
+ * <dd>Solves {@code (I-a/2 L) y' = (I+a/2 L) y} for each trait, where {@code L}
+ * denotes the graph Laplacian of the geometry and {@code a} the scaled
+ * diffusion coefficient, using conjugate gradients with a Jacobi
+ * preconditioner. Requires undirected geometries, which ensures that the linear
+ * system is symmetric and positive definite.</dd>
+ * <dt>Alternating direction implicit (ADI)</dt>
+ * <dd>Peaceman-Rachford splitting of the Laplacian into rows and columns for
+ * von Neumann lattices with fixed or periodic boundaries. Each half step
+ * requires only the solution of tridiagonal (or cyclic tridiagonal) systems
+ * along the rows or columns of the lattice. On linear lattices with nearest
+ * neighbour interactions this reduces to an exact Crank-Nicolson step.</dd>
+ * </dl>
+ * 
+ * @author Christoph Hauert
+ * 
+ * @see PDE#cloPdeSolver
+ */
+class PDEImplicit {
+
+	/**
+	 * The relative tolerance of the residual for the conjugate gradient method.
+	 */
+	static final double CG_TOLERANCE = 1e-10;
+
+	/**
+	 * The maximum number of iterations of the conjugate gradient method.
+	 */
+	static final int CG_MAX_ITERATIONS = 1000;
+
+	/**
+	 * The scheme for the implicit diffusion step.
+	 */
+	final Type type;
+
+	/**
+	 * The geometry of the PDE.
+	 */
+	final AbstractGeometry space;
+
+	/**
+	 * The number of traits.
+	 */
+	final int nDim;
+
+	/**
+	 * The number of units.
+	 */
+	final int nUnits;
+
+	/**
+	 * The number of units in each row of the lattice (ADI only).
+	 */
+	int cols;
+
+	/**
+	 * The number of rows of the lattice (ADI only); {@code 1} for linear
+	 * lattices.
+	 */
+	int rows;
+
+	/**
+	 * The flag indicating periodic boundaries of the lattice (ADI only).
+	 */
+	boolean periodic;
+
+	/**
+	 * The buffers for the conjugate gradient method: the densities of a single
+	 * trait, the solution, residual, preconditioned residual, search direction
+	 * and its image.
+	 */
+	private double[] u, x, r, z, p, q;
+
+	/**
+	 * The buffer for the intermediate densities of the ADI scheme.
+	 */
+	private double[] w;
+
+	/**
+	 * The modified super-diagonal of the tridiagonal systems (ADI only).
+	 */
+	private double[] cp;
+
+	/**
+	 * The inverse pivots of the tridiagonal systems (ADI only).
+	 */
+	private double[] inv;
+
+	/**
+	 * The correction vector of the Sherman-Morrison formula for cyclic
+	 * tridiagonal systems (ADI with periodic boundaries only).
+	 */
+	private double[] zs;
+
+	/**
+	 * The buffer for the Sherman-Morrison corrections of the columns (ADI with
+	 * periodic boundaries only).
+	 */
+	private double[] fact;
+
+	/**
+	 * Half the scaled diffusion coefficient of the factored tridiagonal systems,
+	 * i.e. the negative off-diagonal elements (ADI only).
+	 */
+	private double h;
+
+	/**
+	 * The first diagonal element of cyclic tridiagonal systems.
+	 */
+	private double b0;
+
+	/**
+	 * The denominator of the Sherman-Morrison correction.
+	 */
+	private double smDenom;
+
+	/**
+	 * Create a new implicit diffusion solver of type {@code type} for the
+	 * geometry {@code space} with {@code nDim} traits. The type must be admissible
+	 * for the geometry.
+	 * 
+	 * @param type  the scheme for the diffusion step
+	 * @param space the geometry of the PDE
+	 * @param nDim  the number of traits
+	 * 
+	 * @see #admits(Type, AbstractGeometry)
+	 */
+	PDEImplicit(Type type, AbstractGeometry space, int nDim) {
+		this.type = type;
+		this.space = space;
+		this.nDim = nDim;
+		nUnits = space.getSize();
+		if (type == Type.ADI) {
+			if (space.isType(GeometryType.LINEAR)) {
+				cols = nUnits;
+				rows = 1;
+			} else {
+				cols = (int) Math.floor(Math.sqrt(nUnits) + 0.5);
+				rows = cols;
+			}
+			periodic = !((AbstractLattice) space).isFixedBoundary();
+			w = new double[nUnits];
+			cp = new double[cols];
+			inv = new double[cols];
+			if (periodic) {
+				zs = new double[cols];
+				fact = new double[cols];
+			}
+			return;
+		}
+		u = new double[nUnits];
+		x = new double[nUnits];
+		r = new double[nUnits];
+		z = new double[nUnits];
+		p = new double[nUnits];
+		q = new double[nUnits];
+	}
+
+	/**
+	 * Check whether the scheme {@code type} can be applied to the geometry
+	 * {@code space}. Crank-Nicolson requires undirected geometries where the
+	 * incoming and outgoing links of every node match, ADI requires von Neumann
+	 * lattices or linear lattices with nearest neighbour interactions with at
+	 * least three units along each dimension.
+	 * 
+	 * @param type  the scheme for the diffusion step
+	 * @param space the geometry of the PDE
+	 * @return {@code true} if {@code type} is admissible for {@code space}
+	 */
+	static boolean admits(Type type, AbstractGeometry space) {
+		if (!space.isUndirected() || space.isInterspecies())
+			return false;
+		switch (type) {
+			case CRANK_NICOLSON:
+				return isSymmetric(space);
+			case ADI:
+				int size = space.getSize();
+				if (space.isType(GeometryType.LINEAR))
+					return size >= 3 && space.kin[size / 2] == 2;
+				if (!space.isType(GeometryType.SQUARE_NEUMANN))
+					return false;
+				int side = (int) Math.floor(Math.sqrt(size) + 0.5);
+				return side >= 3 && side * side == size;
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Check whether the incoming and outgoing links of every node of
+	 * {@code space} match, i.e. whether the graph Laplacian is symmetric, as
+	 * required by the conjugate gradient method.
+	 * 
+	 * @param space the geometry of the PDE
+	 * @return {@code true} if the graph Laplacian is symmetric
+	 */
+	private static boolean isSymmetric(AbstractGeometry space) {
+		int nNodes = space.getSize();
+		for (int n = 0; n < nNodes; n++) {
+			int k = space.kin[n];
+			if (space.kout[n] != k)
+				return false;
+			int[] in = Arrays.copyOf(space.in[n], k);
+			int[] out = Arrays.copyOf(space.out[n], k);
+			Arrays.sort(in);
+			Arrays.sort(out);
+			if (!Arrays.equals(in, out))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Implicit diffusion step for all traits except {@code dependent}. The
+	 * current densities are read from {@code y} and the new densities are stored
+	 * in {@code dest}. Traits with vanishing diffusion are simply copied. The
+	 * densities of the {@code dependent} trait are left unchanged and must be set
+	 * by the caller.
+	 * 
+	 * @param y         the current densities
+	 * @param dest      the new densities
+	 * @param scaledD   the diffusion coefficients scaled for the current time
+	 *                  step
+	 * @param dependent the index of the dependent trait or {@code -1}
+	 * @return {@code true} if the solution converged
+	 */
+	boolean diffuse(double[] y, double[] dest, double[] scaledD, int dependent) {
+		boolean converged = true;
+		for (int k = 0; k < nDim; k++) {
+			if (k == dependent)
+				continue;
+			double h = 0.5 * scaledD[k];
+			if (h <= 0.0) {
+				for (int sn = k; sn < y.length; sn += nDim)
+					dest[sn] = y[sn];
+				continue;
+			}
+			if (type == Type.ADI)
+				adi(y, dest, k, h);
+			else
+				converged &= crankNicolson(y, dest, k, h);
+		}
+		return converged;
+	}
+
+	/**
+	 * Crank-Nicolson step for trait {@code k} using the preconditioned conjugate
+	 * gradient method.
+	 * 
+	 * @param y    the current densities
+	 * @param dest the new densities
+	 * @param k    the index of the trait
+	 * @param h    half the scaled diffusion coefficient
+	 * @return {@code true} if the solution converged
+	 */
+	private boolean crankNicolson(double[] y, double[] dest, int k, double h) {
+		int[][] in = space.in;
+		int[] kin = space.kin;
+		int[] kout = space.kout;
+		for (int n = 0, sn = k; n < nUnits; n++, sn += nDim)
+			u[n] = y[sn];
+		// right hand side (I+h L) u stored in z; initial guess x=u
+		double bb = 0.0;
+		for (int n = 0; n < nUnits; n++) {
+			int[] neighs = in[n];
+			double s = 0.0;
+			for (int i = 0; i < kin[n]; i++)
+				s += u[neighs[i]];
+			double un = u[n];
+			double hs = h * (s - kout[n] * un);
+			double b = un + hs;
+			bb += b * b;
+			x[n] = un;
+			// residual b-(I-h L) u
+			r[n] = hs + hs;
+		}
+		double tol2 = CG_TOLERANCE * CG_TOLERANCE * bb;
+		double rz = 0.0;
+		double rr = 0.0;
+		for (int n = 0; n < nUnits; n++) {
+			double rn = r[n];
+			double zn = rn / (1.0 + h * kout[n]);
+			z[n] = zn;
+			p[n] = zn;
+			rz += rn * zn;
+			rr += rn * rn;
+		}
+		boolean converged = (rr <= tol2);
+		for (int iter = 0; iter < CG_MAX_ITERATIONS && !converged; iter++) {
+			// q = (I-h L) p
+			double pq = 0.0;
+			for (int n = 0; n < nUnits; n++) {
+				int[] neighs = in[n];
+				double s = 0.0;
+				for (int i = 0; i < kin[n]; i++)
+					s += p[neighs[i]];
+				double pn = p[n];
+				double qn = pn * (1.0 + h * kout[n]) - h * s;
+				q[n] = qn;
+				pq += pn * qn;
+			}
+			double alpha = rz / pq;
+			double rzNew = 0.0;
+			rr = 0.0;
+			for (int n = 0; n < nUnits; n++) {
+				x[n] += alpha * p[n];
+				double rn = r[n] - alpha * q[n];
+				r[n] = rn;
+				double zn = rn / (1.0 + h * kout[n]);
+				z[n] = zn;
+				rzNew += rn * zn;
+				rr += rn * rn;
+			}
+			if (rr <= tol2) {
+				converged = true;
+				break;
+			}
+			double beta = rzNew / rz;
+			rz = rzNew;
+			for (int n = 0; n < nUnits; n++)
+				p[n] = z[n] + beta * p[n];
+		}
+		for (int n = 0, sn = k; n < nUnits; n++, sn += nDim)
+			dest[sn] = x[n];
+		return converged;
+	}
+
+	/**
+	 * Peaceman-Rachford ADI step for trait {@code k}. The first half step is
+	 * implicit along rows and explicit along columns, the second half step is
+	 * implicit along columns and explicit along rows. On linear lattices this is
+	 * a single Crank-Nicolson step.
+	 * 
+	 * @param y    the current densities
+	 * @param dest the new densities
+	 * @param k    the index of the trait
+	 * @param h    half the scaled diffusion coefficient
+	 */
+	private void adi(double[] y, double[] dest, int k, double h) {
+		factor(h);
+		int stride = cols * nDim;
+		if (rows == 1) {
+			// (I-h Lx) y' = (I+h Lx) y
+			for (int c = 0; c < cols; c++)
+				w[c] = y[c * nDim + k] + h * laplace(y, c * nDim + k, c, nDim, cols);
+			solveLine(w, 0);
+			for (int c = 0; c < cols; c++)
+				dest[c * nDim + k] = w[c];
+			return;
+		}
+		// first half step: (I-h Lx) w = (I+h Ly) y
+		for (int row = 0; row < rows; row++) {
+			int base = row * cols;
+			for (int c = 0, sn = base * nDim + k; c < cols; c++, sn += nDim)
+				w[base + c] = y[sn] + h * laplace(y, sn, row, stride, rows);
+			solveLine(w, base);
+		}
+		// second half step: (I-h Ly) y' = (I+h Lx) w
+		for (int row = 0; row < rows; row++) {
+			int base = row * cols;
+			for (int c = 0, sn = base * nDim + k; c < cols; c++, sn += nDim)
+				dest[sn] = w[base + c] + h * laplace(w, base + c, c, 1, cols);
+		}
+		solveColumns(dest, k);
+	}
+
+	/**
+	 * Evaluate the one dimensional Laplacian along a row or column of the lattice
+	 * for the entry at offset {@code idx} in {@code data}, which is located at
+	 * position {@code pos} of a line with {@code len} entries separated by
+	 * {@code stride}.
+	 * 
+	 * @param data   the data
+	 * @param idx    the offset of the entry
+	 * @param pos    the position of the entry along the line
+	 * @param stride the offset between neighbouring entries along the line
+	 * @param len    the number of entries along the line
+	 * @return the Laplacian
+	 */
+	private double laplace(double[] data, int idx, int pos, int stride, int len) {
+		double d = data[idx];
+		double lap = 0.0;
+		if (pos > 0)
+			lap += data[idx - stride] - d;
+		else if (periodic)
+			lap += data[idx + (len - 1) * stride] - d;
+		if (pos < len - 1)
+			lap += data[idx + stride] - d;
+		else if (periodic)
+			lap += data[idx - (len - 1) * stride] - d;
+		return lap;
+	}
+
+	/**
+	 * Factor the tridiagonal matrix {@code I-h L1}, where {@code L1} denotes the
+	 * Laplacian along a row (or column) of the lattice. For periodic boundaries
+	 * the cyclic system is solved using the Sherman-Morrison formula.
+	 * 
+	 * @param h half the scaled diffusion coefficient
+	 */
+	private void factor(double h) {
+		this.h = h;
+		int m = cols;
+		double diag = 1.0 + 2.0 * h;
+		double end = (periodic ? diag : 1.0 + h);
+		double first = end;
+		double last = end;
+		if (periodic) {
+			// gamma=-b0; the corner elements are -h
+			b0 = diag;
+			first = diag + b0;
+			last = diag + h * h / b0;
+		}
+		double d = first;
+		for (int i = 0; i < m; i++) {
+			if (i > 0)
+				d = (i == m - 1 ? last : diag) + h * cp[i - 1];
+			inv[i] = 1.0 / d;
+			cp[i] = -h * inv[i];
+		}
+		if (!periodic)
+			return;
+		Arrays.fill(zs, 0.0);
+		zs[0] = -b0;
+		zs[m - 1] = -h;
+		thomas(zs, 0);
+		smDenom = 1.0 + zs[0] + h * zs[m - 1] / b0;
+	}
+
+	/**
+	 * Solve the factored tridiagonal system for the line of {@link #cols}
+	 * consecutive entries in {@code d} starting at {@code from}. The solution
+	 * replaces the right hand side.
+	 * 
+	 * @param d    the right hand side
+	 * @param from the offset of the first entry
+	 */
+	private void solveLine(double[] d, int from) {
+		thomas(d, from);
+		if (!periodic)
+			return;
+		int m = cols;
+		double f = (d[from] + h * d[from + m - 1] / b0) / smDenom;
+		for (int i = 0; i < m; i++)
+			d[from + i] -= f * zs[i];
+	}
+
+	/**
+	 * Thomas algorithm for the factored tridiagonal system (without the cyclic
+	 * correction) for the line of {@link #cols} consecutive entries in {@code d}
+	 * starting at {@code from}. The solution replaces the right hand side.
+	 * 
+	 * @param d    the right hand side
+	 * @param from the offset of the first entry
+	 */
+	private void thomas(double[] d, int from) {
+		int m = cols;
+		d[from] *= inv[0];
+		for (int i = 1; i < m; i++)
+			d[from + i] = (d[from + i] + h * d[from + i - 1]) * inv[i];
+		for (int i = m - 2; i >= 0; i--)
+			d[from + i] -= cp[i] * d[from + i + 1];
+	}
+
+	/**
+	 * Solve the factored tridiagonal systems along all columns of the lattice for
+	 * trait {@code k} in {@code d}. The columns are processed simultaneously row
+	 * by row to access memory sequentially. The solution replaces the right hand
+	 * side.
+	 * 
+	 * @param d the right hand sides
+	 * @param k the index of the trait
+	 */
+	private void solveColumns(double[] d, int k) {
+		int m = rows;
+		int stride = cols * nDim;
+		double inv0 = inv[0];
+		for (int sn = k; sn < stride; sn += nDim)
+			d[sn] *= inv0;
+		for (int i = 1; i < m; i++) {
+			double invi = inv[i];
+			for (int sn = i * stride + k, end = sn + stride; sn < end; sn += nDim)
+				d[sn] = (d[sn] + h * d[sn - stride]) * invi;
+		}
+		for (int i = m - 2; i >= 0; i--) {
+			double cpi = cp[i];
+			for (int sn = i * stride + k, end = sn + stride; sn < end; sn += nDim)
+				d[sn] -= cpi * d[sn + stride];
+		}
+		if (!periodic)
+			return;
+		int lastRow = (m - 1) * stride;
+		for (int c = 0, sn = k; c < cols; c++, sn += nDim)
+			fact[c] = (d[sn] + h * d[sn + lastRow] / b0) / smDenom;
+		for (int i = 0; i < m; i++) {
+			double zi = zs[i];
+			for (int c = 0, sn = i * stride + k; c < cols; c++, sn += nDim)
+				d[sn] -= fact[c] * zi;
+		}
+	}
+
+	/**
+	 * Schemes for the diffusion step of PDE models.
+	 * 
+	 * @see PDE#cloPdeSolver
+	 */
+	public enum Type implements CLOption.Key {
+
+		/**
+		 * Explicit Euler step (default). The time increment is limited by the
+		 * stability of the diffusion step.
+		 */
+		EXPLICIT("explicit", "explicit Euler step"),
+
+		/**
+		 * Crank-Nicolson step solved by conjugate gradients. Requires undirected
+		 * geometries.
+		 */
+		CRANK_NICOLSON("cn", "Crank-Nicolson, conjugate gradients"),
+
+		/**
+		 * Alternating direction implicit step with tridiagonal solves. Requires von
+		 * Neumann or linear lattices, otherwise reverts to Crank-Nicolson.
+		 */
+		ADI("adi", "alternating direction implicit (lattices)");
+
+		/**
+		 * Key of diffusion scheme. Used when parsing command line options.
+		 * 
+		 * @see PDE#cloPdeSolver
+		 */
+		String key;
+
+		/**
+		 * Brief description of diffusion scheme for help display.
+		 * 
+		 * @see org.evoludo.simulator.EvoLudo#getCLOHelp()
+		 */
+		String title;
+
+		/**
+		 * Instantiate new diffusion scheme.
+		 * 
+		 * @param key   identifier for parsing of command line option
+		 * @param title summary of diffusion scheme
+		 */
+		Type(String key, String title) {
+			this.key = key;
+			this.title = title;
+		}
+
+		@Override
+		public String getKey() {
+			return key;
+		}
+
+		@Override
+		public String getTitle() {
+			return title;
+		}
+
+		@Override
+		public String toString() {
+			return key;
+		}
+	}
+}
@@ -43,15 +43,15 @@ import org.evoludo.util.CLOption;
  * PDEInitialize encapsulates a particular initialization "type" (uniform,
  * random, localized shapes, Gaussian, ring, etc.), a background density vector,
  * an optional dependent-component index and an RNG for randomized initial
- * configurations. It provides a single entry point {@link #init(double[][])}
- * that fills a preallocated two-dimensional
- * density array where each row corresponds to the state vector at a lattice
- * site.
+ * configurations. It provides a single entry point {@link #init(double[])}
+ * that fills a preallocated, flat density array where consecutive blocks of
+ * {@code nDim} entries correspond to the state vector at a lattice site.
  *
  * <h3>Concepts and inputs</h3>
  * <ul>
- * <li><b>density</b> - destination array of shape [space.getSize()][nDim]; each
- * row receives the initial density vector for a spatial location.</li>
+ * <li><b>density</b> - destination array of length
+ * {@code space.getSize() * nDim}; the block starting at {@code n * nDim}
+ * receives the initial density vector for spatial location {@code n}.</li>
  * <li><b>y0</b> - baseline initial state vector (peak or default densities)
  * used for the selected initialization pattern.</li>
  * <li><b>background</b> - background density vector used for locations
@@ -75,13 +75,13 @@ import org.evoludo.util.CLOption;
  * <h3>Usage</h3>
  * <p>
  * Construct an instance with the desired {@link Type}, background vector,
- * dependent index and RNG (if needed), then call {@link #init(double[][])} to
+ * dependent index and RNG (if needed), then call {@link #init(double[])} to
  * populate the simulation density array prior to starting integration or
  * discrete updates.
  *
  * @see AbstractGeometry
  * @see Type
- * @see #init(double[][])
+ * @see #init(double[])
  */
 class PDEInitialize extends ODEInitialize {
 
@@ -105,7 +105,7 @@ class PDEInitialize extends ODEInitialize {
 	 * 
 	 * @param density per-node trait densities to fill
 	 */
-	public void init(double[][] density) {
+	public void init(double[] density) {
 		AbstractGeometry space = pde.space;
 		double[] y0 = new double[pde.nDim];
 		System.arraycopy(pde.y0, 0, y0, 0, pde.nDim);
@@ -137,11 +137,11 @@ class PDEInitialize extends ODEInitialize {
 	 * @param y0      base state vector copied to each node
 	 * @param space   simulation geometry describing the lattice size
 	 */
-	private void initUniform(double[][] density, double[] y0, AbstractGeometry space) {
+	private void initUniform(double[] density, double[] y0, AbstractGeometry space) {
 		int nDim = y0.length;
 		int nodeCount = space.getSize();
 		for (int n = 0; n < nodeCount; n++)
-			System.arraycopy(y0, 0, density[n], 0, nDim);
+			System.arraycopy(y0, 0, density, n * nDim, nDim);
 	}
 
 	/**
@@ -151,15 +151,15 @@ class PDEInitialize extends ODEInitialize {
 	 * @param y0      perturbed state vector applied to the central node
 	 * @param space   simulation geometry describing the lattice
 	 */
-	private void initPerturbation(double[][] density, double[] y0, AbstractGeometry space) {
+	private void initPerturbation(double[] density, double[] y0, AbstractGeometry space) {
 		int nDim = y0.length;
 		int nodeCount = space.getSize();
 		for (int n = 0; n < nodeCount; n++)
-			System.arraycopy(pde.background, 0, density[n], 0, nDim);
+			System.arraycopy(pde.background, 0, density, n * nDim, nDim);
 		switch (space.getType()) {
 			case CUBE: {
 				int l = (int) (Math.pow(space.getSize(), 1.0 / 3.0) + 0.5);
-				System.arraycopy(y0, 0, density[(l * l + l + 1) * l / 2], 0, nDim);
+				System.arraycopy(y0, 0, density, ((l * l + l + 1) * l / 2) * nDim, nDim);
 				break;
 			}
 			case SQUARE_NEUMANN:
@@ -168,11 +168,11 @@ class PDEInitialize extends ODEInitialize {
 			case TRIANGULAR:
 			case HEXAGONAL: {
 				int l = (int) (Math.sqrt(space.getSize()) + 0.5);
-				System.arraycopy(y0, 0, density[(l + 1) * l / 2], 0, nDim);
+				System.arraycopy(y0, 0, density, ((l + 1) * l / 2) * nDim, nDim);
 				break;
 			}
 			default:
-				System.arraycopy(y0, 0, density[space.getSize() / 2], 0, nDim);
+				System.arraycopy(y0, 0, density, (space.getSize() / 2) * nDim, nDim);
 		}
 	}
 
@@ -183,15 +183,15 @@ class PDEInitialize extends ODEInitialize {
 	 * @param y0      base amplitudes for random sampling
 	 * @param space   simulation geometry describing the lattice size
 	 */
-	private void initRandom(double[][] density, double[] y0, AbstractGeometry space) {
+	private void initRandom(double[] density, double[] y0, AbstractGeometry space) {
 		int nDim = y0.length;
 		int nodeCount = space.getSize();
 		for (int n = 0; n < nodeCount; n++) {
-			double[] ds = density[n]; // ds is only a short-cut - data written to density[]
+			int from = n * nDim;
 			for (int i = 0; i < nDim; i++)
-				ds[i] = pde.rng.random01() * y0[i];
+				density[from + i] = pde.rng.random01() * y0[i];
 			if (pde.dependent >= 0)
-				ArrayMath.normalize(ds);
+				ArrayMath.normalize(density, from, from + nDim);
 		}
 	}
 
@@ -202,7 +202,7 @@ class PDEInitialize extends ODEInitialize {
 	 * @param y0      peak density vector for the localized shapes
 	 * @param space   simulation geometry describing the lattice
 	 */
-	private void initFunction(double[][] density, double[] y0, AbstractGeometry space) {
+	private void initFunction(double[] density, double[] y0, AbstractGeometry space) {
 		switch (space.getType()) {
 			case CUBE:
 				initFunction3D(density, y0, space);
@@ -223,7 +223,7 @@ class PDEInitialize extends ODEInitialize {
 	 * @param y0      peak density vector for the localized shape
 	 * @param space   simulation geometry describing the lattice
 	 */
-	private void initFunction3D(double[][] density, double[] y0, AbstractGeometry space) {
+	private void initFunction3D(double[] density, double[] y0, AbstractGeometry space) {
 		int l = 50;
 		int lz = 10;
 		if (space.getSize() != 25000) { // not NOVA dimensions
@@ -244,7 +244,7 @@ class PDEInitialize extends ODEInitialize {
 	 * @param y0      peak density vector for the localized shape
 	 * @param space   simulation geometry describing the lattice
 	 */
-	private void initFunction1D(double[][] density, double[] y0, AbstractGeometry space) {
+	private void initFunction1D(double[] density, double[] y0, AbstractGeometry space) {
 		int nodeCount = space.getSize();
 		for (int x = 0; x < nodeCount; x++)
 			apply(x, nodeCount, y0, density);
@@ -258,7 +258,7 @@ class PDEInitialize extends ODEInitialize {
 	 * @param y0      peak density vector for the localized shape
 	 * @param space   simulation geometry describing the lattice
 	 */
-	private void initFunction2D(double[][] density, double[] y0, AbstractGeometry space) {
+	private void initFunction2D(double[] density, double[] y0, AbstractGeometry space) {
 		int l = (int) (Math.sqrt(space.getSize()) + 0.5);
 		for (int y = 0; y < l; y++)
 			for (int x = 0; x < l; x++)
@@ -271,9 +271,9 @@ class PDEInitialize extends ODEInitialize {
 	 * @param x    the x coordinate
 	 * @param l    the linear length of the lattice
 	 * @param y0   the initial state
-	 * @param dest the destination array
+	 * @param dest the flat destination array
 	 */
-	void apply(int x, int l, double[] y0, double[][] dest) {
+	void apply(int x, int l, double[] y0, double[] dest) {
 		switch (pde.initType) {
 			case CIRCLE:
 			case SQUARE:
@@ -281,19 +281,19 @@ class PDEInitialize extends ODEInitialize {
 				int l10 = l / 10;
 				if (x < m - l10 || x > m + l10)
 					y0 = pde.background;
-				System.arraycopy(y0, 0, dest[x], 0, y0.length);
+				System.arraycopy(y0, 0, dest, x * y0.length, y0.length);
 				break;
 			case GAUSSIAN:
 				m = (l - 1) / 2;
 				double norm = 1.0 / l;
-				scaleDensity(y0, Math.exp(-((x - m) * (x - m)) * norm), dest[x]);
+				scaleDensity(y0, Math.exp(-((x - m) * (x - m)) * norm), dest, x);
 				break;
 			case RING:
 				m = (l - 1) / 2;
 				double m3 = m * 0.333;
 				norm = 1.0 / l;
 				double r = Math.abs(x - m);
-				scaleDensity(y0, Math.exp(-(r - m3) * (r - m3) * norm), dest[x]);
+				scaleDensity(y0, Math.exp(-(r - m3) * (r - m3) * norm), dest, x);
 				break;
 			default:
 		}
@@ -306,36 +306,36 @@ class PDEInitialize extends ODEInitialize {
 	 * @param y    the y coordinate
 	 * @param l    the linear length of the lattice
 	 * @param y0   the initial state
-	 * @param dest the destination array
+	 * @param dest the flat destination array
 	 */
-	void apply(int x, int y, int l, double[] y0, double[][] dest) {
+	void apply(int x, int y, int l, double[] y0, double[] dest) {
 		switch (pde.initType) {
 			case CIRCLE:
 				int m = l / 2;
 				int r2 = Math.max(1, l * l / 100); // (l/10)^2
 				if ((x - m) * (x - m) + (y - m) * (y - m) > r2)
 					y0 = pde.background;
-				System.arraycopy(y0, 0, dest[y * l + x], 0, y0.length);
+				System.arraycopy(y0, 0, dest, (y * l + x) * y0.length, y0.length);
 				break;
 			case SQUARE:
 				m = l / 2;
 				int l10 = l / 10;
 				if (x < m - l10 || x > m + l10 || y < m - l10 || y > m + l10)
 					y0 = pde.background;
-				System.arraycopy(y0, 0, dest[y * l + x], 0, y0.length);
+				System.arraycopy(y0, 0, dest, (y * l + x) * y0.length, y0.length);
 				break;
 			case GAUSSIAN:
 				m = (l - 1) / 2;
 				double norm = 1.0 / l;
 				scaleDensity(y0, Math.exp(-((x - m) * (x - m) + (y - m) * (y - m)) * norm),
-						dest[y * l + x]);
+						dest, y * l + x);
 				break;
 			case RING:
 				m = (l - 1) / 2;
 				double m3 = m * 0.333;
 				norm = 1.0 / l;
 				double r = Math.sqrt((double) (x - m) * (x - m) + (y - m) * (y - m));
-				scaleDensity(y0, Math.exp(-(r - m3) * (r - m3) * norm), dest[y * l + x]);
+				scaleDensity(y0, Math.exp(-(r - m3) * (r - m3) * norm), dest, y * l + x);
 				break;
 			default:
 		}
@@ -351,16 +351,16 @@ class PDEInitialize extends ODEInitialize {
 	 * @param lz   the linear height of the lattice ({@code lz == l} except for
 	 *             NOVA)
 	 * @param y0   the initial state
-	 * @param dest the destination array
+	 * @param dest the flat destination array
 	 */
-	void apply(int x, int y, int z, int l, int lz, double[] y0, double[][] dest) {
+	void apply(int x, int y, int z, int l, int lz, double[] y0, double[] dest) {
 		switch (pde.initType) {
 			case CIRCLE:
 				int m = l / 2;
 				double r3 = l * l * l * 0.001; // (l/10)^3
 				if ((x - m) * (x - m) + (y - m) * (y - m) + (z - m) * (z - m) > r3)
 					y0 = pde.background;
-				System.arraycopy(y0, 0, dest[(z * l + y) * l + x], 0, y0.length);
+				System.arraycopy(y0, 0, dest, ((z * l + y) * l + x) * y0.length, y0.length);
 				break;
 			case SQUARE:
 				m = l / 2;
@@ -368,14 +368,14 @@ class PDEInitialize extends ODEInitialize {
 				int lz10 = lz / 10;
 				if (x < m - l10 || x > m + l10 || y < m - l10 || y > m + l10 || z < m - lz10 || z > m + lz10)
 					y0 = pde.background;
-				System.arraycopy(y0, 0, dest[(z * l + y) * l + x], 0, y0.length);
+				System.arraycopy(y0, 0, dest, ((z * l + y) * l + x) * y0.length, y0.length);
 				break;
 			case GAUSSIAN:
 				m = (l - 1) / 2;
 				int mz = (lz - 1) / 2;
 				double norm = 1.0 / l;
 				scaleDensity(y0, Math.exp(-((x - m) * (x - m) + (y - m) * (y - m) + (z - mz) * (z - mz)) * norm),
-						dest[(z * l + y) * l + x]);
+						dest, (z * l + y) * l + x);
 				break;
 			case RING:
 				m = (l - 1) / 2;
@@ -384,27 +384,35 @@ class PDEInitialize extends ODEInitialize {
 				norm = 1.0 / l;
 				double r = Math.pow((double) (x - m) * (x - m) + (y - m) * (y - m) + (z - mz) * (z - mz),
 						1.0 / 3.0);
-				scaleDensity(y0, Math.exp(-(r - m3) * (r - m3) * norm), dest[(z * l + y) * l + x]);
+				scaleDensity(y0, Math.exp(-(r - m3) * (r - m3) * norm), dest, (z * l + y) * l + x);
 				break;
 			default:
 		}
 	}
 
 	/**
-	 * Helper method to scale the density vector {@code d} by the scalar factor
+	 * Helper method to scale the density vector of {@code node} by the scalar factor
 	 * {@code scale}. The scalar must lie in \((0, 1)\) such that the initial
 	 * densities/frequencies represent the maximum.
 	 * 
 	 * @param y0    the initial density vector
 	 * @param scale the scaling factor
-	 * @param d     the location to store the scaled density
+	 * @param d     the flat array to store the scaled density
+	 * @param node  the index of the node to store the scaled density
 	 */
-	private void scaleDensity(double[] y0, double scale, double[] d) {
-		for (int n = 0; n < y0.length; n++)
-			d[n] = (1.0 - scale) * pde.background[n] + scale * y0[n];
+	private void scaleDensity(double[] y0, double scale, double[] d, int node) {
+		int nDim = y0.length;
+		int from = node * nDim;
+		double norm = 0.0;
+		for (int n = 0; n < nDim; n++) {
+			double dn = (1.0 - scale) * pde.background[n] + scale * y0[n];
+			d[from + n] = dn;
+			norm += dn;
+		}
 		if (pde.dependent >= 0) {
-			d[pde.dependent] = Math.max(0.0, 1.0 + d[pde.dependent] - ArrayMath.norm(d));
-			ArrayMath.normalize(d);
+			int dep = from + pde.dependent;
+			d[dep] = Math.max(0.0, 1.0 + d[dep] - norm);
+			ArrayMath.normalize(d, from, from + nDim);
 		}
 	}
 
@@ -0,0 +1,539 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+package org.evoludo.simulator.models;
+
+import org.evoludo.math.ArrayMath;
+import org.evoludo.simulator.geometries.AbstractGeometry;
+import org.evoludo.simulator.models.PDE.Workspace;
+import org.evoludo.simulator.modules.Features.Payoffs;
+
+/**
+ * Single precision storage of the state of {@link PDE} models. The densities
+ * and fitness of all units are stored as {@code float}s, which halves the
+ * memory footprint and the memory bandwidth of the diffusion and reaction
+ * steps of large domains. All arithmetic is carried out in double precision:
+ * the contributions of neighbouring units are accumulated as {@code double}s,
+ * the reaction step operates on {@code double} copies of the state of each
+ * unit and the minima, maxima and means of densities and fitness are
+ * accumulated as {@code double}s. Only the results are rounded to single
+ * precision when stored.
+ * <p>
+ * Storing a density {@code y∈[0,1]} introduces an absolute error of at most
+ * {@code 2<sup>-25</sup>≈3·10<sup>-8</sup>} (half a unit in the last place of
+ * {@code float}s). Explicit diffusion steps are convex combinations of the
+ * densities of a unit and its neighbours and hence do not amplify errors.
+ * Consequently, for diffusion dominated dynamics the deviation from double
+ * precision grows at most linearly with the number of steps, i.e. remains below
+ * {@code n·3·10<sup>-8</sup>} after {@code n} steps, and typically grows only as
+ * {@code √n}. For example, after {@code n=200} steps of size {@code dt=0.1}
+ * the bound is {@code 6·10<sup>-6</sup>}, while the observed deviations are
+ * about {@code 2·10<sup>-7</sup>} for rock-scissors-paper dynamics and
+ * {@code 2·10<sup>-6</sup>} for the oscillations of voluntary public goods
+ * games (see {@code NumericsEvoLudo} in EvoLudoTest). Reactions with a maximum
+ * growth rate {@code λ>0} amplify errors by up to {@code e<sup>λt</sup>}, just
+ * as any other perturbation. In
+ * particular, for the spirals of rock-scissors-paper dynamics or other pattern
+ * forming systems the two precisions eventually yield patterns that differ in
+ * detail but not in their statistical properties. The convergence to
+ * homogeneous states is unaffected unless the accuracy is set below
+ * {@code 10<sup>-7</sup>}.
+ * <p>
+ * Single precision storage is limited to explicit diffusion and reaction
+ * steps with fixed time increments in the absence of advection. Views and the
+ * encoding of states operate on double precision copies of the state.
+ * 
+ * @author Christoph Hauert
+ * 
+ * @see PDE#cloPdeSingle
+ */
+class PDESingle {
+
+	/**
+	 * The PDE model.
+	 */
+	final PDE pde;
+
+	/**
+	 * The number of traits.
+	 */
+	final int nDim;
+
+	/**
+	 * The densities after the diffusion step. Same layout as {@link PDE#density}.
+	 */
+	float[] density;
+
+	/**
+	 * The current state. Same layout as {@link PDE#next}.
+	 */
+	float[] next;
+
+	/**
+	 * The buffer receiving the results of the reaction step in fused diffusion and
+	 * reaction steps.
+	 * 
+	 * @see PDE#spare
+	 */
+	float[] spare;
+
+	/**
+	 * The fitness of the traits in all units or {@code null} if the module does
+	 * not define fitness. Same layout as {@link PDE#fitness}.
+	 */
+	final float[] fitness;
+
+	/**
+	 * The double precision copies of the densities and fitness for views and the
+	 * encoding of states. Allocated on demand.
+	 */
+	private double[] densityView, fitnessView;
+
+	/**
+	 * Create new single precision storage for the PDE model {@code pde} with
+	 * {@code size} entries.
+	 * 
+	 * @param pde    the PDE model
+	 * @param size   the number of entries of the state
+	 * @param hasFit {@code true} if the module defines fitness
+	 */
+	PDESingle(PDE pde, int size, boolean hasFit) {
+		this.pde = pde;
+		nDim = pde.nDim;
+		density = new float[size];
+		next = new float[size];
+		fitness = (hasFit ? new float[size] : null);
+	}
+
+	/**
+	 * Check whether the storage is compatible with the PDE state.
+	 * 
+	 * @param size   the number of entries of the state
+	 * @param hasFit {@code true} if the module defines fitness
+	 * @return {@code true} if the storage can be reused
+	 */
+	boolean matches(int size, boolean hasFit) {
+		return density.length == size && nDim == pde.nDim && (fitness != null) == hasFit;
+	}
+
+	/**
+	 * Round the densities {@code src} to single precision and store them as the
+	 * densities of the diffusion step.
+	 * 
+	 * @param src the densities
+	 */
+	void setDensities(double[] src) {
+		for (int i = 0; i < src.length; i++)
+			density[i] = (float) src[i];
+	}
+
+	/**
+	 * Round the fitness {@code src} to single precision and store it.
+	 * 
+	 * @param src the fitness
+	 */
+	void setFitness(double[] src) {
+		for (int i = 0; i < src.length; i++)
+			fitness[i] = (float) src[i];
+	}
+
+	/**
+	 * Get a double precision copy of the densities.
+	 * 
+	 * @return the densities
+	 */
+	double[] getDensities() {
+		if (densityView == null)
+			densityView = new double[density.length];
+		widen(density, densityView);
+		return densityView;
+	}
+
+	/**
+	 * Get a double precision copy of the fitness.
+	 * 
+	 * @return the fitness or {@code null} if the module does not define fitness
+	 */
+	double[] getFitness() {
+		if (fitness == null)
+			return null;
+		if (fitnessView == null)
+			fitnessView = new double[fitness.length];
+		widen(fitness, fitnessView);
+		return fitnessView;
+	}
+
+	/**
+	 * Copy the single precision data {@code src} to the double precision array
+	 * {@code dst}.
+	 * 
+	 * @param src the single precision data
+	 * @param dst the double precision array
+	 */
+	static void widen(float[] src, double[] dst) {
+		for (int i = 0; i < src.length; i++)
+			dst[i] = src[i];
+	}
+
+	/**
+	 * Prepare the buffer for fused diffusion and reaction steps.
+	 * 
+	 * @see PDE#prepareFused()
+	 */
+	void prepareFused() {
+		if (spare == null || spare.length != next.length)
+			spare = new float[next.length];
+	}
+
+	/**
+	 * Complete the fused diffusion and reaction steps: the results of the reaction
+	 * step become the new state.
+	 * 
+	 * @see PDE#finishFused()
+	 */
+	void finishFused() {
+		float[] swap = next;
+		next = spare;
+		spare = swap;
+	}
+
+	/**
+	 * Diffusion step for cells with indices between <code>start</code> (including)
+	 * and <code>end</code> (excluding). The minima, maxima and total densities are
+	 * accumulated in {@code ws}, i.e. the buffers are <em>not</em> reset.
+	 *
+	 * @param start   the first unit to update
+	 * @param end     the end-exclusive unit to update
+	 * @param scaledD the scaled diffusion coefficients
+	 * @param ws      the workspace of the calling thread
+	 * 
+	 * @see PDE#diffuseRange(int, int, double[], double[][], Workspace)
+	 */
+	void diffuseRange(int start, int end, double[] scaledD, Workspace ws) {
+		PDEStencil stencil = pde.stencil;
+		if (stencil == null) {
+			diffuseUnits(start, end, scaledD, ws);
+			return;
+		}
+		boolean isSymmetric = pde.isSymmetric;
+		int cols = stencil.cols;
+		int n = start;
+		while (n < end) {
+			int rowStart = (n / cols) * cols;
+			int rowEnd = Math.min(end, rowStart + cols);
+			int row = n / cols;
+			int[] offs = (isSymmetric ? stencil.symmetric(row) : stencil.offsets(row));
+			if (offs == null) {
+				diffuseBoundary(n, rowEnd, scaledD, ws);
+			} else {
+				int lo = Math.min(rowEnd, Math.max(n, rowStart + stencil.colMargin));
+				int hi = Math.max(lo, Math.min(rowEnd, rowStart + cols - stencil.colMargin));
+				diffuseBoundary(n, lo, scaledD, ws);
+				double kout = stencil.kout(row);
+				if (isSymmetric)
+					diffuseSymmetric(lo, hi, offs, stencil.groups(row), kout, scaledD, ws);
+				else
+					diffuseStandard(lo, hi, offs, kout, scaledD, ws);
+				diffuseBoundary(hi, rowEnd, scaledD, ws);
+			}
+			n = rowEnd;
+		}
+	}
+
+	/**
+	 * Diffusion step for the boundary cells of lattices with indices between
+	 * <code>start</code> (including) and <code>end</code> (excluding). For
+	 * symmetric diffusion on lattices with periodic boundaries the cells are
+	 * processed with the wrapped stencil such that all cells are summed alike.
+	 * Otherwise the neighbourhood arrays of the geometry are used.
+	 *
+	 * @param start   the first unit to update
+	 * @param end     the end-exclusive unit to update
+	 * @param scaledD the scaled diffusion coefficients
+	 * @param ws      the workspace of the calling thread
+	 * 
+	 * @see PDEStencil#wrapped(int, int[])
+	 */
+	private void diffuseBoundary(int start, int end, double[] scaledD, Workspace ws) {
+		PDEStencil stencil = pde.stencil;
+		if (!pde.isSymmetric || !stencil.isPeriodic()) {
+			diffuseUnits(start, end, scaledD, ws);
+			return;
+		}
+		for (int n = start; n < end; n++) {
+			int row = n / stencil.cols;
+			diffuseSymmetric(n, n + 1, stencil.wrapped(n, ws.offs), stencil.groups(row), stencil.kout(row),
+					scaledD, ws);
+		}
+	}
+
+	/**
+	 * Diffusion step for cells with indices between <code>start</code> (including)
+	 * and <code>end</code> (excluding) based on the neighbourhood arrays of the
+	 * geometry. The contributions of the neighbours are accumulated in double
+	 * precision.
+	 *
+	 * @param start   the first unit to update
+	 * @param end     the end-exclusive unit to update
+	 * @param scaledD the scaled diffusion coefficients
+	 * @param ws      the workspace of the calling thread
+	 */
+	private void diffuseUnits(int start, int end, double[] scaledD, Workspace ws) {
+		AbstractGeometry space = pde.space;
+		int[][] in = space.in;
+		boolean isSymmetric = pde.isSymmetric;
+		double[] sum = ws.delta;
+		double[] terms = ws.terms;
+		double[] partials = ws.partials;
+		for (int n = start, sn = start * nDim; n < end; n++, sn += nDim) {
+			int[] neighs = in[n];
+			int nIn = space.kin[n];
+			double kout = -space.kout[n];
+			if (isSymmetric) {
+				for (int k = 0; k < nDim; k++) {
+					terms[0] = next[sn + k] * kout;
+					for (int i = 0; i < nIn; i++)
+						terms[i + 1] = next[neighs[i] * nDim + k];
+					sum[k] = ArrayMath.exactSum(terms, 0, nIn + 1, partials);
+				}
+			} else {
+				for (int k = 0; k < nDim; k++)
+					sum[k] = next[sn + k] * kout;
+				for (int i = 0; i < nIn; i++) {
+					int si = neighs[i] * nDim;
+					for (int k = 0; k < nDim; k++)
+						sum[k] += next[si + k];
+				}
+			}
+			finishDiffusion(sn, sum, scaledD);
+			minmaxmean(density, sn, ws.min, ws.max, ws.mean);
+		}
+	}
+
+	/**
+	 * Complete the diffusion step for the unit with offset {@code sn}: scale the
+	 * accumulated change {@code sum} by the diffusion coefficients, add the
+	 * current state and, if applicable, adjust the dependent trait to maintain
+	 * normalization.
+	 * 
+	 * @param sn      the offset of the unit
+	 * @param sum     the accumulated change of the densities
+	 * @param scaledD the diffusion coefficients scaled for the current time step
+	 */
+	private void finishDiffusion(int sn, double[] sum, double[] scaledD) {
+		double norm = 0.0;
+		for (int k = 0; k < nDim; k++) {
+			double sk = sum[k] * scaledD[k] + next[sn + k];
+			sum[k] = sk;
+			norm += sk;
+		}
+		int dependent = pde.dependent;
+		if (dependent >= 0)
+			sum[dependent] = Math.max(0.0, 1.0 + sum[dependent] - norm);
+		for (int k = 0; k < nDim; k++)
+			density[sn + k] = (float) sum[k];
+	}
+
+	/**
+	 * Standard (non-symmetric) diffusion for interior cells of lattices with
+	 * indices between <code>start</code> (including) and <code>end</code>
+	 * (excluding).
+	 * 
+	 * @param start   the index of the first cell (including)
+	 * @param end     the index of the last cell (excluding)
+	 * @param offs    the offsets of the states of neighbouring cells
+	 * @param kout    the negative number of outgoing links of the cells
+	 * @param scaledD the diffusion coefficients scaled for the current time step
+	 * @param ws      the workspace of the calling thread
+	 * 
+	 * @see PDEStencil#offsets(int)
+	 */
+	private void diffuseStandard(int start, int end, int[] offs, double kout, double[] scaledD, Workspace ws) {
+		int nIn = offs.length;
+		int from = start * nDim;
+		int to = end * nDim;
+		for (int k = 0; k < nDim; k++) {
+			double alpha = scaledD[k];
+			for (int sn = from + k; sn < to; sn += nDim) {
+				double s = next[sn] * kout;
+				for (int i = 0; i < nIn; i++)
+					s += next[sn + offs[i]];
+				density[sn] = (float) (s * alpha + next[sn]);
+			}
+		}
+		finishStencil(from, to, ws);
+	}
+
+	/**
+	 * Symmetric diffusion for interior cells of lattices with indices between
+	 * <code>start</code> (including) and <code>end</code> (excluding). The pairs
+	 * of opposite neighbours in each group are summed pairwise.
+	 * 
+	 * @param start   the index of the first cell (including)
+	 * @param end     the index of the last cell (excluding)
+	 * @param offs    the offsets of the states of neighbouring cells
+	 * @param groups  the number of neighbours in each group
+	 * @param kout    the negative number of outgoing links of the cells
+	 * @param scaledD the diffusion coefficients scaled for the current time step
+	 * @param ws      the workspace of the calling thread
+	 * 
+	 * @see PDEStencil#symmetric(int)
+	 */
+	private void diffuseSymmetric(int start, int end, int[] offs, int[] groups, double kout, double[] scaledD,
+			Workspace ws) {
+		for (int sn = start * nDim, send = end * nDim; sn < send; sn += nDim) {
+			for (int k = 0; k < nDim; k++) {
+				int snk = sn + k;
+				double s = next[snk] * kout;
+				int i = 0;
+				for (int g : groups) {
+					double pair = (double) next[snk + offs[i]] + next[snk + offs[i + 1]];
+					if (g > 2)
+						pair += (double) next[snk + offs[i + 2]] + next[snk + offs[i + 3]];
+					if (g > 4)
+						pair += ((double) next[snk + offs[i + 4]] + next[snk + offs[i + 5]])
+								+ ((double) next[snk + offs[i + 6]] + next[snk + offs[i + 7]]);
+					s += pair;
+					i += g;
+				}
+				density[snk] = (float) (s * scaledD[k] + next[snk]);
+			}
+		}
+		finishStencil(start * nDim, end * nDim, ws);
+	}
+
+	/**
+	 * Complete the diffusion step for interior cells of lattices with offsets
+	 * between {@code from} (including) and {@code to} (excluding): adjust the
+	 * dependent trait, if applicable, and update the extrema and mean densities.
+	 * 
+	 * @param from the offset of the first cell (including)
+	 * @param to   the offset of the last cell (excluding)
+	 * @param ws   the workspace of the calling thread
+	 */
+	private void finishStencil(int from, int to, Workspace ws) {
+		int dependent = pde.dependent;
+		if (dependent >= 0) {
+			for (int sn = from; sn < to; sn += nDim) {
+				double norm = 0.0;
+				for (int k = 0; k < nDim; k++)
+					norm += density[sn + k];
+				int dep = sn + dependent;
+				density[dep] = (float) Math.max(0.0, 1.0 + density[dep] - norm);
+			}
+		}
+		double[] minDens = ws.min;
+		double[] maxDens = ws.max;
+		double[] meanDens = ws.mean;
+		for (int k = 0; k < nDim; k++) {
+			double min = minDens[k];
+			double max = maxDens[k];
+			double mean = meanDens[k];
+			for (int sn = from + k; sn < to; sn += nDim) {
+				double d = density[sn];
+				min = Math.min(d, min);
+				max = Math.max(d, max);
+				mean += d;
+			}
+			minDens[k] = min;
+			maxDens[k] = max;
+			meanDens[k] = mean;
+		}
+	}
+
+	/**
+	 * Reaction step for cells with indices between <code>start</code> (including)
+	 * and <code>end</code> (excluding). The new densities are stored in
+	 * {@code dest} and the minima, maxima and total fitnesses are accumulated in
+	 * {@code ws}, i.e. the buffers are <em>not</em> reset.
+	 * 
+	 * @param start    the index of the first cell (including)
+	 * @param end      the index of the last cell (excluding)
+	 * @param stepSize the integration step to apply
+	 * @param dest     the array for the new densities
+	 * @param ws       the workspace of the calling thread
+	 * @return the accumulated change in state
+	 * 
+	 * @see PDE#react(int, int, double, Workspace)
+	 */
+	double reactRange(int start, int end, double stepSize, float[] dest, Workspace ws) {
+		boolean hasFit = (pde.module instanceof Payoffs);
+		boolean isDensity = pde.isDensity;
+		double time = pde.time;
+		double[] minFit = ws.minFit;
+		double[] maxFit = ws.maxFit;
+		double[] meanFit = ws.meanFit;
+		double[] dytn = ws.change;
+		double[] ytn = ws.state;
+		double[] youtn = ws.update;
+		double[] ftn = (hasFit ? ws.fit : null);
+		double change = 0.0;
+
+		for (int n = start, from = start * nDim; n < end; n++, from += nDim) {
+			for (int k = 0; k < nDim; k++)
+				ytn[k] = density[from + k];
+			pde.getDerivatives(time, ytn, ftn, dytn);
+			ArrayMath.addscale(ytn, dytn, stepSize, youtn); // youtn = ytn+step*dy
+			change += ArrayMath.dot(dytn, dytn) * stepSize * stepSize;
+			if (!isDensity)
+				pde.normalizeState(youtn);
+			for (int k = 0; k < nDim; k++)
+				dest[from + k] = (float) youtn[k];
+			if (!hasFit)
+				continue;
+			for (int k = 0; k < nDim; k++)
+				fitness[from + k] = (float) ftn[k];
+			ArrayMath.min(minFit, ftn);
+			ArrayMath.max(maxFit, ftn);
+			ArrayMath.add(meanFit, ftn);
+		}
+		return change;
+	}
+
+	/**
+	 * Update the trait minimum, maximum and mean based on the state of the unit
+	 * starting at offset {@code from} in the single precision array {@code data}.
+	 * 
+	 * @param data the flat data array to process
+	 * @param from the offset of the unit in {@code data}
+	 * @param min  the array with the minima of each trait
+	 * @param max  the array with the maxima of each trait
+	 * @param mean the array with the trait means
+	 * 
+	 * @see PDE#minmaxmean(double[], int, double[], double[], double[])
+	 */
+	static void minmaxmean(float[] data, int from, double[] min, double[] max, double[] mean) {
+		for (int i = 0; i < min.length; i++) {
+			double d = data[from + i];
+			min[i] = Math.min(d, min[i]);
+			max[i] = Math.max(d, max[i]);
+			mean[i] += d;
+		}
+	}
+}
@@ -0,0 +1,543 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+
+package org.evoludo.simulator.models;
+
+import java.util.Arrays;
+
+import org.evoludo.simulator.geometries.AbstractGeometry;
+import org.evoludo.simulator.geometries.GeometryType;
+
+/**
+ * Stencil of a regular lattice for the diffusion kernels of {@link PDE}. On
+ * lattices the offsets between a unit and its neighbours are the same for all
+ * units away from the boundaries. This saves the lookups in the neighbourhood
+ * arrays {@link AbstractGeometry#in}, {@link AbstractGeometry#kin} and
+ * {@link AbstractGeometry#kout} for each unit and allows to iterate over the
+ * units of a row in memory order. Units in the boundary rows and columns are
+ * not covered by the stencil and must be processed through the neighbourhood
+ * arrays.
+ * <p>
+ * The stencil is derived from the neighbourhood of reference units in the
+ * interior of the lattice and subsequently verified against all interior
+ * units. Neighbours are listed in the same order as in
+ * {@link AbstractGeometry#in}, such that the summation order, and hence the
+ * results, are identical to processing the neighbourhood arrays.
+ * <p>
+ * For symmetric diffusion the neighbours are additionally arranged in pairs of
+ * opposite offsets, grouped by their orbits under the reflections of the
+ * lattice. Summing pairs first and then the pairs of pairs of each group in a
+ * fixed order maps the summation onto itself under reflections of the
+ * lattice. Because floating point addition is commutative, mirror images of a
+ * symmetric state stay exact mirror images without resorting to the
+ * (expensive) order-independent summation of
+ * {@link org.evoludo.math.ArrayMath#exactSum(double[], int, int, double[])
+ * ArrayMath.exactSum(double[], int, int, double[])}. On lattices with periodic
+ * boundaries, reflections may map interior units onto boundary units, e.g.
+ * reflections about the first row for an even number of rows. Boundary units
+ * then use the same arrangement of neighbours with offsets that wrap around
+ * the boundaries, see {@link #wrapped(int, int[])}, such that all units are
+ * summed alike.
+ * 
+ * @author Christoph Hauert
+ * 
+ * @see PDE#diffuseRange(int, int, double[], double[][], PDE.Workspace)
+ */
+final class PDEStencil {
+
+	/**
+	 * The number of units in each row of the lattice.
+	 */
+	final int cols;
+
+	/**
+	 * The number of rows of the lattice.
+	 */
+	final int rows;
+
+	/**
+	 * The number of traits, i.e. the scaling of offsets in the flat state arrays.
+	 */
+	private final int nDim;
+
+	/**
+	 * The number of boundary rows at the top and bottom that are not covered by
+	 * the stencil.
+	 */
+	final int rowMargin;
+
+	/**
+	 * The number of boundary columns at the left and right that are not covered
+	 * by the stencil.
+	 */
+	final int colMargin;
+
+	/**
+	 * The (negative) number of outgoing links of interior units for each row
+	 * parity.
+	 */
+	private final double[] kout;
+
+	/**
+	 * The offsets of the states of neighbouring units in the flat state arrays,
+	 * i.e. scaled by the number of traits. Rows of lattices where neighbourhoods
+	 * alternate between even and odd rows (hexagonal lattices) have their own
+	 * offsets. The number of neighbours is given by the length of the offsets.
+	 */
+	private final int[][] offsets;
+
+	/**
+	 * The offsets of neighbours for symmetric diffusion arranged in pairs of
+	 * opposite offsets and grouped by orbits under reflections of the lattice,
+	 * or {@code null} if the neighbourhood lacks the required symmetry.
+	 */
+	private final int[][] symmetric;
+
+	/**
+	 * The number of neighbours in each group of {@link #symmetric}, either
+	 * {@code 2}, {@code 4} or {@code 8}.
+	 */
+	private final int[][] groups;
+
+	/**
+	 * The row offsets of the neighbours in {@link #symmetric} for each row parity
+	 * or {@code null} if the boundaries are not periodic.
+	 */
+	private final int[][] wrapRows;
+
+	/**
+	 * The column offsets of the neighbours in {@link #symmetric} for each row
+	 * parity or {@code null} if the boundaries are not periodic.
+	 */
+	private final int[][] wrapCols;
+
+	/**
+	 * Create a new stencil.
+	 * 
+	 * @param cols      the number of units per row
+	 * @param rows      the number of rows
+	 * @param nDim      the number of traits
+	 * @param rowMargin the number of boundary rows
+	 * @param colMargin the number of boundary columns
+	 * @param kout      the number of outgoing links of interior units for each
+	 *                  row parity
+	 * @param offsets   the offsets of the states of neighbours for each row
+	 *                  parity
+	 * @param symmetric the offsets of neighbours arranged for symmetric
+	 *                  diffusion for each row parity or {@code null}
+	 * @param groups    the sizes of the groups in {@code symmetric}
+	 * @param wrapRows  the row offsets of the neighbours in {@code symmetric} for
+	 *                  periodic boundaries or {@code null}
+	 * @param wrapCols  the column offsets of the neighbours in {@code symmetric}
+	 *                  for periodic boundaries or {@code null}
+	 */
+	private PDEStencil(int cols, int rows, int nDim, int rowMargin, int colMargin, int[] kout, int[][] offsets,
+			int[][] symmetric, int[][] groups, int[][] wrapRows, int[][] wrapCols) {
+		this.cols = cols;
+		this.rows = rows;
+		this.nDim = nDim;
+		this.rowMargin = rowMargin;
+		this.colMargin = colMargin;
+		this.kout = new double[kout.length];
+		for (int p = 0; p < kout.length; p++)
+			this.kout[p] = -kout[p];
+		this.offsets = offsets;
+		this.symmetric = symmetric;
+		this.groups = groups;
+		this.wrapRows = wrapRows;
+		this.wrapCols = wrapCols;
+	}
+
+	/**
+	 * Get the offsets of the states of neighbours for units in row {@code row}.
+	 * 
+	 * @param row the row of the lattice
+	 * @return the offsets of neighbours or {@code null} if {@code row} is a
+	 *         boundary row
+	 */
+	int[] offsets(int row) {
+		if (row < rowMargin || row >= rows - rowMargin)
+			return null;
+		return offsets[row % offsets.length];
+	}
+
+	/**
+	 * Get the offsets of the states of neighbours for symmetric diffusion of
+	 * units in row {@code row}. The neighbours are arranged in pairs of opposite
+	 * offsets and grouped as specified by {@link #groups(int)}.
+	 * 
+	 * @param row the row of the lattice
+	 * @return the arranged offsets of neighbours or {@code null} if {@code row}
+	 *         is a boundary row or the neighbourhood is not symmetric
+	 */
+	int[] symmetric(int row) {
+		if (symmetric == null || row < rowMargin || row >= rows - rowMargin)
+			return null;
+		return symmetric[row % symmetric.length];
+	}
+
+	/**
+	 * Check whether the lattice has periodic boundaries and admits symmetric
+	 * diffusion with wrapped offsets for boundary units.
+	 * 
+	 * @return {@code true} if {@link #wrapped(int, int[])} is available
+	 */
+	boolean isPeriodic() {
+		return wrapRows != null;
+	}
+
+	/**
+	 * Get the offsets of the states of neighbours for symmetric diffusion of the
+	 * boundary unit {@code n} on lattices with periodic boundaries. The neighbours
+	 * are arranged as for interior units, see {@link #symmetric(int)}, but the
+	 * offsets wrap around the boundaries.
+	 * 
+	 * @param n    the index of the unit
+	 * @param offs the array to store the offsets
+	 * @return the array {@code offs} or {@code null} if the boundaries are not
+	 *         periodic or the neighbourhood is not symmetric
+	 */
+	int[] wrapped(int n, int[] offs) {
+		if (wrapRows == null)
+			return null;
+		int row = n / cols;
+		int col = n % cols;
+		int[] dRow = wrapRows[row % wrapRows.length];
+		int[] dCol = wrapCols[row % wrapCols.length];
+		for (int i = 0; i < dRow.length; i++) {
+			int r = (row + dRow[i] + rows) % rows;
+			int c = (col + dCol[i] + cols) % cols;
+			offs[i] = (r * cols + c - n) * nDim;
+		}
+		return offs;
+	}
+
+	/**
+	 * Get the sizes of the groups of neighbours in {@link #symmetric(int)} for
+	 * units in row {@code row}.
+	 * 
+	 * @param row the (interior) row of the lattice
+	 * @return the number of neighbours in each group
+	 */
+	int[] groups(int row) {
+		return groups[row % groups.length];
+	}
+
+	/**
+	 * Get the negative number of outgoing links of interior units in row
+	 * {@code row}.
+	 * 
+	 * @param row the (interior) row of the lattice
+	 * @return the negative number of outgoing links
+	 */
+	double kout(int row) {
+		return kout[row % kout.length];
+	}
+
+	/**
+	 * Create the stencil for the geometry {@code space} with {@code nDim} traits
+	 * per unit. Stencils are available for linear, square (including von Neumann
+	 * and Moore neighbourhoods) and hexagonal lattices with fixed or periodic
+	 * boundaries.
+	 * 
+	 * @param space the geometry of the PDE
+	 * @param nDim  the number of traits
+	 * @return the stencil or {@code null} if not available for {@code space}
+	 */
+	static PDEStencil create(AbstractGeometry space, int nDim) {
+		if (space == null || space.in == null || space.isInterspecies())
+			return null;
+		int size = space.getSize();
+		int cols;
+		int period = 1;
+		switch (space.getType()) {
+			case LINEAR:
+				cols = size;
+				break;
+			case HEXAGONAL:
+				period = 2;
+				//$FALL-THROUGH$
+			case SQUARE:
+			case SQUARE_NEUMANN:
+			case SQUARE_MOORE:
+				cols = (int) Math.floor(Math.sqrt(size) + 0.5);
+				if (cols * cols != size)
+					return null;
+				break;
+			default:
+				return null;
+		}
+		int rows = size / cols;
+		// derive neighbourhood and extent of stencil from units in the centre
+		int ref = (rows / 2) * cols + cols / 2;
+		int rowMargin = 0;
+		int colMargin = 0;
+		int[] kout = new int[period];
+		int[][] offsets = new int[period][];
+		int[][] rowOffs = new int[period][];
+		int[][] colOffs = new int[period][];
+		for (int p = 0; p < period; p++) {
+			int pref = ref + ((p - rows / 2 % period + period) % period) * cols;
+			if (pref >= size)
+				return null;
+			int kin = space.kin[pref];
+			kout[p] = space.kout[pref];
+			int[] neighs = space.in[pref];
+			int[] offs = new int[kin];
+			int[] dRow = new int[kin];
+			int[] dCol = new int[kin];
+			for (int i = 0; i < kin; i++) {
+				int nb = neighs[i];
+				int dr = wrap(nb / cols - pref / cols, rows);
+				int dc = wrap(nb % cols - pref % cols, cols);
+				rowMargin = Math.max(rowMargin, Math.abs(dr));
+				colMargin = Math.max(colMargin, Math.abs(dc));
+				offs[i] = dr * cols + dc;
+				dRow[i] = dr;
+				dCol[i] = dc;
+			}
+			offsets[p] = offs;
+			rowOffs[p] = dRow;
+			colOffs[p] = dCol;
+		}
+		if (rows <= 2 * rowMargin || cols <= 2 * colMargin)
+			return null;
+		// verify stencil for all interior units
+		for (int r = rowMargin; r < rows - rowMargin; r++) {
+			int[] offs = offsets[r % period];
+			int kin = offs.length;
+			for (int c = colMargin; c < cols - colMargin; c++) {
+				int n = r * cols + c;
+				if (space.kin[n] != kin || space.kout[n] != kout[r % period])
+					return null;
+				int[] neighs = space.in[n];
+				for (int i = 0; i < kin; i++) {
+					if (neighs[i] != n + offs[i])
+						return null;
+				}
+			}
+		}
+		int[][] symmetric = new int[period][];
+		int[][] groups = new int[period][];
+		int[][] wrapRows = new int[period][];
+		int[][] wrapCols = new int[period][];
+		for (int p = 0; p < period; p++) {
+			if (!arrange(rowOffs[p], colOffs[p], space.getType() == GeometryType.LINEAR, p, wrapRows, wrapCols,
+					groups)) {
+				symmetric = null;
+				groups = null;
+				wrapRows = null;
+				wrapCols = null;
+				break;
+			}
+			int[] dRow = wrapRows[p];
+			int[] dCol = wrapCols[p];
+			int[] offs = new int[dRow.length];
+			for (int i = 0; i < offs.length; i++)
+				offs[i] = dRow[i] * cols + dCol[i];
+			symmetric[p] = offs;
+		}
+		if (wrapRows != null && !isPeriodic(space, cols, rowMargin, colMargin, kout, wrapRows, wrapCols)) {
+			wrapRows = null;
+			wrapCols = null;
+		}
+		for (int[] offs : offsets) {
+			for (int i = 0; i < offs.length; i++)
+				offs[i] *= nDim;
+		}
+		if (symmetric != null) {
+			for (int[] offs : symmetric) {
+				for (int i = 0; i < offs.length; i++)
+					offs[i] *= nDim;
+			}
+		}
+		return new PDEStencil(cols, rows, nDim, rowMargin, colMargin, kout, offsets, symmetric, groups, wrapRows,
+				wrapCols);
+	}
+
+	/**
+	 * Arrange the neighbours with row offsets {@code dRow} and column offsets
+	 * {@code dCol} for symmetric diffusion. Neighbours are paired with their
+	 * opposites and pairs are grouped by their orbits under reflections of the
+	 * lattice, i.e. by the absolute row and column offsets (in either order,
+	 * unless the lattice is linear). Within groups of four pairs, the pairs with
+	 * the same absolute row offset come first. This ensures that the pairwise
+	 * summation of each group is invariant under reflections. Pairs and groups
+	 * are ordered by increasing distance.
+	 * 
+	 * @param dRow    the row offsets of the neighbours
+	 * @param dCol    the column offsets of the neighbours
+	 * @param linear  the flag indicating a linear lattice
+	 * @param p       the row parity
+	 * @param symRows the array to store the arranged row offsets for parity
+	 *                {@code p}
+	 * @param symCols the array to store the arranged column offsets for parity
+	 *                {@code p}
+	 * @param groups  the array to store the group sizes for parity {@code p}
+	 * @return {@code true} if the neighbourhood admits a symmetric arrangement
+	 */
+	private static boolean arrange(int[] dRow, int[] dCol, boolean linear, int p, int[][] symRows,
+			int[][] symCols, int[][] groups) {
+		int kin = dRow.length;
+		// representatives of pairs (first non-zero offset positive)
+		int[] rep = new int[kin];
+		int nPairs = 0;
+		for (int i = 0; i < kin; i++) {
+			int dr = dRow[i];
+			int dc = dCol[i];
+			if (dr == 0 && dc == 0)
+				return false;
+			int opp = -1;
+			for (int j = 0; j < kin; j++) {
+				if (dRow[j] == -dr && dCol[j] == -dc) {
+					opp = j;
+					break;
+				}
+			}
+			if (opp < 0)
+				return false;
+			if (dr > 0 || (dr == 0 && dc > 0))
+				rep[nPairs++] = i;
+		}
+		if (2 * nPairs != kin)
+			return false;
+		// sort pairs by orbit (distance, larger absolute offset) and then by
+		// absolute row offset; insertion sort suffices for small neighbourhoods
+		long[] keys = new long[nPairs];
+		for (int n = 0; n < nPairs; n++) {
+			long ar = Math.abs(dRow[rep[n]]);
+			long ac = Math.abs(dCol[rep[n]]);
+			keys[n] = ((ar * ar + ac * ac) << 32) | (Math.max(ar, ac) << 16) | ar;
+		}
+		for (int n = 1; n < nPairs; n++) {
+			long key = keys[n];
+			int r = rep[n];
+			int m = n - 1;
+			while (m >= 0 && keys[m] > key) {
+				keys[m + 1] = keys[m];
+				rep[m + 1] = rep[m];
+				m--;
+			}
+			keys[m + 1] = key;
+			rep[m + 1] = r;
+		}
+		int[] rowOffs = new int[kin];
+		int[] colOffs = new int[kin];
+		int[] sizes = new int[nPairs];
+		int nGroups = 0;
+		for (int n = 0; n < nPairs;) {
+			long orbit = keys[n] >> 16;
+			int m = n;
+			while (m < nPairs && keys[m] >> 16 == orbit)
+				m++;
+			// number of pairs in orbit: reflection only (linear lattices) or
+			// reflections and transposition (square lattices)
+			int ar = Math.abs(dRow[rep[n]]);
+			int ac = Math.abs(dCol[rep[n]]);
+			int size = 4;
+			if (linear)
+				size = 1;
+			else if (ar == 0 || ac == 0 || ar == ac)
+				size = 2;
+			if (m - n != size)
+				return false;
+			for (int i = n; i < m; i++) {
+				int r = rep[i];
+				rowOffs[2 * i] = dRow[r];
+				colOffs[2 * i] = dCol[r];
+				rowOffs[2 * i + 1] = -dRow[r];
+				colOffs[2 * i + 1] = -dCol[r];
+			}
+			sizes[nGroups++] = 2 * size;
+			n = m;
+		}
+		symRows[p] = rowOffs;
+		symCols[p] = colOffs;
+		groups[p] = Arrays.copyOf(sizes, nGroups);
+		return true;
+	}
+
+	/**
+	 * Check whether the boundaries of the lattice {@code space} are periodic, i.e.
+	 * whether all boundary units have the same neighbourhood as interior units
+	 * once the offsets {@code dRow} and {@code dCol} wrap around the boundaries.
+	 * 
+	 * @param space     the geometry of the PDE
+	 * @param cols      the number of units per row
+	 * @param rowMargin the number of boundary rows
+	 * @param colMargin the number of boundary columns
+	 * @param kout      the number of outgoing links of interior units for each
+	 *                  row parity
+	 * @param dRow      the row offsets of the neighbours for each row parity
+	 * @param dCol      the column offsets of the neighbours for each row parity
+	 * @return {@code true} if the boundaries are periodic
+	 */
+	private static boolean isPeriodic(AbstractGeometry space, int cols, int rowMargin, int colMargin, int[] kout,
+			int[][] dRow, int[][] dCol) {
+		int rows = space.getSize() / cols;
+		for (int n = 0; n < space.getSize(); n++) {
+			int row = n / cols;
+			int col = n % cols;
+			if (row >= rowMargin && row < rows - rowMargin && col >= colMargin && col < cols - colMargin)
+				continue;
+			int p = row % dRow.length;
+			int kin = dRow[p].length;
+			if (space.kin[n] != kin || space.kout[n] != kout[p])
+				return false;
+			int[] neighs = space.in[n];
+			for (int i = 0; i < kin; i++) {
+				int nb = ((row + dRow[p][i] + rows) % rows) * cols + (col + dCol[p][i] + cols) % cols;
+				int j = 0;
+				while (j < kin && neighs[j] != nb)
+					j++;
+				if (j == kin)
+					return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Map the difference {@code d} of two coordinates along a periodic dimension
+	 * of extent {@code len} to the shortest distance.
+	 * 
+	 * @param d   the difference in coordinates
+	 * @param len the extent of the dimension
+	 * @return the shortest signed distance
+	 */
+	private static int wrap(int d, int len) {
+		if (d > len / 2)
+			return d - len;
+		if (d < -len / 2)
+			return d + len;
+		return d;
+	}
+}
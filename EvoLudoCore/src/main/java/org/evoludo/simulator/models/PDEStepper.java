@@ -0,0 +1,519 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+package org.evoludo.simulator.models;
+
+import org.evoludo.math.ArrayMath;
+import org.evoludo.util.CLOption;
+
+/**
+ * Control of the time increments of {@link PDE} models. By default PDE models
+ * advance in fixed increments {@code dt}. Alternatively, the time increments
+ * are adjusted to the dynamics or the iterations are accelerated toward a
+ * steady state.
+ * <p>
+ * Adaptive steps estimate the local error through step doubling: a single step
+ * of size {@code h} is compared to two steps of size {@code h/2}. The combined
+ * reaction, diffusion and advection step is first order in {@code h} and hence
+ * the difference between the two results scales as {@code h²}. The step is
+ * accepted if the difference of every entry {@code y} remains below
+ * {@code tol (1+|y|)}, i.e. the tolerance {@code tol} is absolute for small and
+ * relative for large densities, and the next step size is adjusted
+ * accordingly. The global error scales as {@code √tol}, hence the tolerance
+ * must be much smaller than the desired accuracy. Steps never exceed the
+ * stability limit of explicit diffusion or advection steps. Small steps
+ * resolve fast transients, while large steps cover the slow approach to
+ * stationary patterns.
+ * <p>
+ * If only the final pattern is of interest, the steady state is a fixed point
+ * of the map {@code y → G(y)} that advances the state by one step of fixed
+ * size {@code dt}. Anderson acceleration extrapolates the next iterate from
+ * the last {@link #DEPTH} iterates and their residuals {@code G(y)-y}, which
+ * typically reduces the number of steps to convergence by an order of
+ * magnitude. The history is discarded whenever the residual increases, such
+ * that the iteration falls back on plain steps, e.g. for oscillating patterns
+ * that never settle. The intermediate states do not represent the dynamics
+ * and time merely counts the steps taken. Anderson acceleration may also
+ * converge to unstable fixed points, e.g. the center of oscillations, which the
+ * dynamics never reach. Hence, convergence is confirmed by {@link #VERIFY}
+ * plain steps, whose residuals must not increase, or a warning is issued.
+ * 
+ * @author Christoph Hauert
+ * 
+ * @see PDE#cloPdeStep
+ */
+class PDEStepper {
+
+	/**
+	 * The default tolerance for the local error of adaptive steps.
+	 * 
+	 * @see PDE#cloPdeTolerance
+	 */
+	static final double TOLERANCE = 1e-3;
+
+	/**
+	 * The safety margin for adjusting the size of adaptive steps.
+	 */
+	static final double SAFETY = 0.9;
+
+	/**
+	 * The maximum factor for increasing the size of adaptive steps.
+	 */
+	static final double MAX_GROW = 4.0;
+
+	/**
+	 * The maximum factor for decreasing the size of adaptive steps.
+	 */
+	static final double MAX_SHRINK = 0.1;
+
+	/**
+	 * The number of previous iterates used for Anderson acceleration.
+	 */
+	static final int DEPTH = 5;
+
+	/**
+	 * The number of plain steps to confirm convergence of Anderson acceleration.
+	 */
+	static final int VERIFY = 10;
+
+	/**
+	 * The scheme of the stepper.
+	 */
+	final Type type;
+
+	/**
+	 * The number of traits.
+	 */
+	final int nDim;
+
+	/**
+	 * The index of the dependent trait or {@code -1}.
+	 */
+	final int dependent;
+
+	/**
+	 * The flag indicating whether the state refers to densities or frequencies.
+	 */
+	final boolean isDensity;
+
+	/**
+	 * The state at the beginning of the current step.
+	 */
+	final double[] start;
+
+	/**
+	 * Adaptive steps: the result of the single full step. Anderson acceleration:
+	 * the extrapolated state for the next iteration.
+	 */
+	final double[] trial;
+
+	/**
+	 * The differences of subsequent residuals and images, respectively, stored
+	 * in a ring buffer. Only used for Anderson acceleration.
+	 */
+	private final double[][] dF, dG;
+
+	/**
+	 * The residual and image of the previous iteration. Only used for Anderson
+	 * acceleration.
+	 */
+	private final double[] fPrev, gPrev;
+
+	/**
+	 * The normal equations of the least squares problem for Anderson
+	 * acceleration and its right hand side and solution.
+	 */
+	private final double[][] gram;
+
+	/**
+	 * The right hand side and the solution of the normal equations.
+	 */
+	private final double[] rhs, gamma;
+
+	/**
+	 * The number of differences in the history.
+	 */
+	private int count;
+
+	/**
+	 * The index of the next slot in the ring buffer.
+	 */
+	private int head;
+
+	/**
+	 * The squared norm of the previous residual or {@code -1} if there is no
+	 * previous iteration.
+	 */
+	private double resPrev;
+
+	/**
+	 * The step size of the iterations for Anderson acceleration.
+	 */
+	private double stepSize;
+
+	/**
+	 * The flag indicating whether {@link #trial} holds the next iterate for
+	 * Anderson acceleration.
+	 */
+	private boolean pending;
+
+	/**
+	 * Create a new stepper of type {@code type} for PDE states with
+	 * {@code size} entries.
+	 * 
+	 * @param type      the scheme of the stepper
+	 * @param size      the number of entries of the state
+	 * @param nDim      the number of traits
+	 * @param dependent the index of the dependent trait or {@code -1}
+	 * @param isDensity {@code true} if the state refers to densities
+	 */
+	PDEStepper(Type type, int size, int nDim, int dependent, boolean isDensity) {
+		this.type = type;
+		this.nDim = nDim;
+		this.dependent = dependent;
+		this.isDensity = isDensity;
+		start = new double[size];
+		trial = new double[size];
+		if (type == Type.STEADY) {
+			dF = new double[DEPTH][size];
+			dG = new double[DEPTH][size];
+			fPrev = new double[size];
+			gPrev = new double[size];
+			gram = new double[DEPTH][DEPTH];
+			rhs = new double[DEPTH];
+			gamma = new double[DEPTH];
+		} else {
+			dF = dG = null;
+			fPrev = gPrev = rhs = gamma = null;
+			gram = null;
+		}
+		reset(0.0);
+	}
+
+	/**
+	 * Check whether the stepper is compatible with the requested scheme and the
+	 * PDE state.
+	 * 
+	 * @param req       the requested scheme
+	 * @param size      the number of entries of the state
+	 * @param dep       the index of the dependent trait or {@code -1}
+	 * @param densities {@code true} if the state refers to densities
+	 * @return {@code true} if the stepper can be reused
+	 */
+	boolean matches(Type req, int size, int dep, boolean densities) {
+		return type == req && start.length == size && dependent == dep && isDensity == densities;
+	}
+
+	/**
+	 * Error of an adaptive step relative to the tolerance {@code tol}. The state
+	 * at the beginning of the step is in {@link #start}, the single full step is
+	 * in {@link #trial} and the two half steps are in {@code y}. The differences
+	 * are scaled by {@code tol (1+|y|)}, with {@code |y|} the larger magnitude of
+	 * the entry at the beginning and the end of the step.
+	 * 
+	 * @param y   the result of the two half steps
+	 * @param tol the tolerance for the local error
+	 * @return the error relative to the tolerance, i.e. the step is accepted if
+	 *         {@code ≤1}
+	 */
+	double error(double[] y, double tol) {
+		double err = 0.0;
+		for (int i = 0; i < y.length; i++) {
+			double yi = y[i];
+			double scale = 1.0 + Math.max(Math.abs(start[i]), Math.abs(yi));
+			err = Math.max(err, Math.abs(yi - trial[i]) / scale);
+		}
+		// NaN if the step blew up
+		return (err == err ? err / tol : Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Size of the next step after a step of size {@code h} with error
+	 * {@code err} relative to the tolerance. The error scales as {@code h²}.
+	 * 
+	 * @param h   the size of the last step
+	 * @param err the error relative to the tolerance
+	 * @return the size of the next step
+	 * 
+	 * @see #error(double[])
+	 */
+	static double adjust(double h, double err) {
+		double factor = SAFETY / Math.sqrt(err);
+		return h * Math.max(MAX_SHRINK, Math.min(MAX_GROW, factor));
+	}
+
+	/**
+	 * Discard the history of Anderson acceleration and set the step size of the
+	 * iterations to {@code h}.
+	 * 
+	 * @param h the step size of the iterations
+	 */
+	void reset(double h) {
+		stepSize = h;
+		count = 0;
+		head = 0;
+		resPrev = -1.0;
+		pending = false;
+	}
+
+	/**
+	 * Prepare the next iteration of Anderson acceleration with step size
+	 * {@code h}. The extrapolated iterate, if any, is copied to {@code y}. The
+	 * history is discarded if the step size has changed, e.g. for the last step
+	 * before a reporting time that is not a multiple of {@code dt}.
+	 * 
+	 * @param y the current state
+	 * @param h the step size of the iteration
+	 */
+	void prepare(double[] y, double h) {
+		if (Math.abs(h - stepSize) > 1e-8 * stepSize) {
+			reset(h);
+		} else if (pending) {
+			System.arraycopy(trial, 0, y, 0, y.length);
+			pending = false;
+		}
+		System.arraycopy(y, 0, start, 0, y.length);
+	}
+
+	/**
+	 * Anderson acceleration for the iterate in {@link #start} and its image
+	 * {@code g} under one step. The extrapolated iterate is stored in
+	 * {@link #trial} and applied at the start of the next iteration, such that
+	 * the current state remains the result of a regular step.
+	 * 
+	 * @param g the image of the iterate in {@link #start}
+	 * @return the squared norm of the residual {@code g-start}
+	 * 
+	 * @see #prepare(double[], double)
+	 */
+	double accelerate(double[] g) {
+		int size = g.length;
+		double res = residual(g);
+		if (resPrev >= 0.0) {
+			if (res > resPrev) {
+				// no progress - restart with plain iterations
+				count = 0;
+				head = 0;
+			} else {
+				double[] df = dF[head];
+				double[] dg = dG[head];
+				for (int i = 0; i < size; i++) {
+					double f = g[i] - start[i];
+					df[i] = f - fPrev[i];
+					dg[i] = g[i] - gPrev[i];
+				}
+				head = (head + 1) % DEPTH;
+				count = Math.min(count + 1, DEPTH);
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			fPrev[i] = g[i] - start[i];
+			gPrev[i] = g[i];
+		}
+		resPrev = res;
+		if (count == 0 || !solve(count)) {
+			count = 0;
+			return res;
+		}
+		// extrapolated iterate: g - sum_j gamma_j dG_j
+		System.arraycopy(g, 0, trial, 0, size);
+		for (int j = 0; j < count; j++)
+			ArrayMath.addscale(trial, dG[j], -gamma[j], trial);
+		project(trial);
+		pending = true;
+		return res;
+	}
+
+	/**
+	 * The squared norm of the residual {@code g-start} for the iterate in
+	 * {@link #start} and its image {@code g} under one step.
+	 * 
+	 * @param g the image of the iterate in {@link #start}
+	 * @return the squared norm of the residual
+	 */
+	double residual(double[] g) {
+		double res = 0.0;
+		for (int i = 0; i < g.length; i++) {
+			double f = g[i] - start[i];
+			res += f * f;
+		}
+		return res;
+	}
+
+	/**
+	 * Solve the least squares problem {@code min |f - dF gamma|} through its
+	 * (slightly regularized) normal equations by Gaussian elimination with
+	 * partial pivoting.
+	 * 
+	 * @param m the number of differences in the history
+	 * @return {@code true} if the normal equations are regular
+	 */
+	private boolean solve(int m) {
+		double trace = 0.0;
+		for (int i = 0; i < m; i++) {
+			double[] dfi = dF[i];
+			for (int j = 0; j <= i; j++) {
+				double dot = ArrayMath.dot(dfi, dF[j]);
+				gram[i][j] = dot;
+				gram[j][i] = dot;
+			}
+			rhs[i] = ArrayMath.dot(dfi, fPrev);
+			trace += gram[i][i];
+		}
+		if (trace <= 0.0)
+			return false;
+		double reg = 1e-12 * trace;
+		for (int i = 0; i < m; i++)
+			gram[i][i] += reg;
+		// forward elimination
+		for (int k = 0; k < m; k++) {
+			int pivot = k;
+			for (int i = k + 1; i < m; i++) {
+				if (Math.abs(gram[i][k]) > Math.abs(gram[pivot][k]))
+					pivot = i;
+			}
+			if (gram[pivot][k] == 0.0)
+				return false;
+			if (pivot != k) {
+				double[] row = gram[k];
+				gram[k] = gram[pivot];
+				gram[pivot] = row;
+				double b = rhs[k];
+				rhs[k] = rhs[pivot];
+				rhs[pivot] = b;
+			}
+			double[] rk = gram[k];
+			for (int i = k + 1; i < m; i++) {
+				double[] ri = gram[i];
+				double l = ri[k] / rk[k];
+				for (int j = k; j < m; j++)
+					ri[j] -= l * rk[j];
+				rhs[i] -= l * rhs[k];
+			}
+		}
+		// back substitution
+		for (int k = m - 1; k >= 0; k--) {
+			double[] rk = gram[k];
+			double s = rhs[k];
+			for (int j = k + 1; j < m; j++)
+				s -= rk[j] * gamma[j];
+			gamma[k] = s / rk[k];
+		}
+		return true;
+	}
+
+	/**
+	 * Project the extrapolated state {@code y} back onto admissible states:
+	 * densities and frequencies remain non-negative, the dependent trait, if
+	 * any, maintains normalization and frequencies add up to one.
+	 * 
+	 * @param y the state to project
+	 */
+	private void project(double[] y) {
+		for (int from = 0; from < y.length; from += nDim) {
+			double norm = 0.0;
+			for (int k = 0; k < nDim; k++) {
+				if (k == dependent)
+					continue;
+				double yk = Math.max(0.0, y[from + k]);
+				y[from + k] = yk;
+				norm += yk;
+			}
+			if (dependent >= 0)
+				y[from + dependent] = Math.max(0.0, 1.0 - norm);
+			if (!isDensity)
+				ArrayMath.normalize(y, from, from + nDim);
+		}
+	}
+
+	/**
+	 * The schemes for advancing the time of PDE models.
+	 * 
+	 * @see PDE#cloPdeStep
+	 */
+	public enum Type implements CLOption.Key {
+
+		/**
+		 * Fixed time increments {@code dt} (default).
+		 */
+		FIXED("fixed", "fixed time increments dt"),
+
+		/**
+		 * Adaptive time increments with error control through step doubling. The
+		 * time increment {@code dt} serves as the initial step size.
+		 */
+		ADAPTIVE("adaptive", "adaptive time increments, step doubling"),
+
+		/**
+		 * Anderson acceleration of steps with fixed time increments {@code dt}
+		 * toward a steady state. Only the final pattern is meaningful.
+		 */
+		STEADY("steady", "accelerate toward steady state, Anderson");
+
+		/**
+		 * Key of stepping scheme. Used when parsing command line options.
+		 * 
+		 * @see PDE#cloPdeStep
+		 */
+		String key;
+
+		/**
+		 * Brief description of stepping scheme for help display.
+		 * 
+		 * @see org.evoludo.simulator.EvoLudo#getCLOHelp()
+		 */
+		String title;
+
+		/**
+		 * Instantiate new stepping scheme.
+		 * 
+		 * @param key   identifier for parsing of command line option
+		 * @param title summary of stepping scheme
+		 */
+		Type(String key, String title) {
+			this.key = key;
+			this.title = title;
+		}
+
+		@Override
+		public String getKey() {
+			return key;
+		}
+
+		@Override
+		public String getTitle() {
+			return title;
+		}
+
+		@Override
+		public String toString() {
+			return key;
+		}
+	}
+}
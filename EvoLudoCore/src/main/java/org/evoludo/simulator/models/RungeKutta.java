@@ -33,13 +33,20 @@ package org.evoludo.simulator.models;
 import java.util.logging.Level;
 
 import org.evoludo.math.ArrayMath;
+import org.evoludo.math.LinearAlgebra;
 import org.evoludo.simulator.EvoLudo;
 import org.evoludo.simulator.modules.Module;
+import org.evoludo.util.CLODelegate;
+import org.evoludo.util.CLOParser;
+import org.evoludo.util.CLOption;
+import org.evoludo.util.CLOCategory;
 
 /**
  * Implementation of Runge-Kutta method with adaptive step size for the
- * numerical integration of systems of differential equations. Adapted from
- * numerical recipes in C.
+ * numerical integration of systems of differential equations. For stiff
+ * dynamics, e.g. ecological models with fast birth and death rates, the
+ * integrator optionally uses a fourth-order Rosenbrock method, see
+ * {@link #cloStiff}. Adapted from numerical recipes in C.
  * 
  * @author Christoph Hauert
  */
@@ -64,6 +71,14 @@ public class RungeKutta extends ODE {
 	 */
 	boolean doEuler = false;
 
+	/**
+	 * <code>true</code> to use the implicit Rosenbrock method for stiff dynamics
+	 * instead of the explicit Cash-Karp Runge-Kutta method.
+	 * 
+	 * @see #cloStiff
+	 */
+	boolean stiff = false;
+
 	/**
 	 * Constructs a new model for the numerical integration of the system of
 	 * ordinary differential equations representing the dynamics specified by the
@@ -82,6 +97,9 @@ public class RungeKutta extends ODE {
 	public void unload() {
 		yerr = ytmp = ftmp = null;
 		ak2 = ak3 = ak4 = ak5 = ak6 = null;
+		jacobian = lu = null;
+		luIndex = null;
+		luScale = null;
 		super.unload();
 	}
 
@@ -100,6 +118,12 @@ public class RungeKutta extends ODE {
 			ak5 = new double[nDim];
 			ak6 = new double[nDim];
 		}
+		if (stiff && (jacobian == null || jacobian.length != nDim)) {
+			jacobian = new double[nDim][nDim];
+			lu = new double[nDim][nDim];
+			luIndex = new int[nDim];
+			luScale = new double[nDim];
+		}
 	}
 
 	/**
@@ -127,6 +151,27 @@ public class RungeKutta extends ODE {
 		return autoDt;
 	}
 
+	/**
+	 * Sets whether the implicit Rosenbrock method for stiff dynamics should be
+	 * used.
+	 * 
+	 * @param stiff the flag to indicate whether the dynamics is stiff
+	 * 
+	 * @see #cloStiff
+	 */
+	public void setStiff(boolean stiff) {
+		this.stiff = stiff;
+	}
+
+	/**
+	 * Gets whether the implicit Rosenbrock method for stiff dynamics is used.
+	 *
+	 * @return {@code true} if using the Rosenbrock method
+	 */
+	public boolean isStiff() {
+		return stiff;
+	}
+
 	@Override
 	public boolean check() {
 		boolean doReset = super.check();
@@ -142,7 +187,7 @@ public class RungeKutta extends ODE {
 	 * The safety margin for adjusting time steps. Magic number from Numerical
 	 * Recipes in C.
 	 */
-	private static final double SAFETY = 0.9;
+	static final double SAFETY = 0.9;
 
 	/**
 	 * The exponent for increasing the time step if error outside margin. Magic
@@ -150,7 +195,7 @@ public class RungeKutta extends ODE {
 	 * 
 	 * @see #ERRCON
 	 */
-	private static final double PGROW = -0.2;
+	static final double PGROW = -0.2;
 
 	/**
 	 * The exponent for decreasing the time step if error outside margin. Magic
@@ -158,19 +203,19 @@ public class RungeKutta extends ODE {
 	 * 
 	 * @see #ACCURACY
 	 */
-	private static final double PSHRNK = -0.25;
+	static final double PSHRNK = -0.25;
 
 	/**
 	 * The maximum error in a single step. The value {@code ERRCON} equals
 	 * {@code (5/SAFETY)^(1/PGROW)}. Magic number from Numerical Recipes in C.
 	 */
-	private static final double ERRCON = 1.89e-4;
+	static final double ERRCON = 1.89e-4;
 
 	/**
 	 * The accuracy required for the integration. Magic number from Numerical
 	 * Recipes in C.
 	 */
-	private static final double ACCURACY = 1e-7;
+	static final double ACCURACY = 1e-7;
 
 	/**
 	 * Helper variables and temporary storage for errors, states and fitness when
@@ -181,12 +226,12 @@ public class RungeKutta extends ODE {
 	/**
 	 * Temporary state vector.
 	 */
-	private double[] ytmp;
+	double[] ytmp;
 
 	/**
 	 * Temporary derivative vector.
 	 */
-	private double[] ftmp;
+	double[] ftmp;
 
 	/**
 	 * {@inheritDoc}
@@ -215,6 +260,8 @@ public class RungeKutta extends ODE {
 	protected double deStep(double step) {
 		if (doEuler)
 			return super.deStep(step);
+		if (stiff)
+			return stiffStep(step);
 		double errmax;
 		double h = step; // set step size to the initial trial value.
 		double[] yscal = yt; // constant fractional errors
@@ -330,27 +377,27 @@ public class RungeKutta extends ODE {
 	 * Temporary variables for intermediate results required to implement the
 	 * fifth-order Cash-Karp Runge-Kutta method.
 	 */
-	private double[] ak2;
+	double[] ak2;
 
 	/**
 	 * Third stage derivative vector.
 	 */
-	private double[] ak3;
+	double[] ak3;
 
 	/**
 	 * Fourth stage derivative vector.
 	 */
-	private double[] ak4;
+	double[] ak4;
 
 	/**
 	 * Fifth stage derivative vector.
 	 */
-	private double[] ak5;
+	double[] ak5;
 
 	/**
 	 * Sixth stage derivative vector.
 	 */
-	private double[] ak6;
+	double[] ak6;
 
 	/**
 	 * Given values for n variables y[1..n] and their derivatives dydx[1..n] known
@@ -451,4 +498,242 @@ public class RungeKutta extends ODE {
 			yerr[i] = h * (DC1 * dyt[i] + DC3 * ak3[i] + DC4 * ak4[i] + DC5 * ak5[i] + DC6 * ak6[i]);
 		return true;
 	}
+
+	/**
+	 * The safety margin for adjusting time steps of the Rosenbrock method. Magic
+	 * number from Numerical Recipes in C.
+	 */
+	private static final double ROS_SAFETY = 0.9;
+
+	/**
+	 * The maximum factor for increasing the time step of the Rosenbrock method.
+	 * Magic number from Numerical Recipes in C.
+	 */
+	private static final double ROS_GROW = 1.5;
+
+	/**
+	 * The exponent for increasing the time step of the Rosenbrock method. Magic
+	 * number from Numerical Recipes in C.
+	 */
+	private static final double ROS_PGROW = -0.25;
+
+	/**
+	 * The minimum factor for decreasing the time step of the Rosenbrock method.
+	 * Magic number from Numerical Recipes in C.
+	 */
+	private static final double ROS_SHRNK = 0.5;
+
+	/**
+	 * The exponent for decreasing the time step of the Rosenbrock method. Magic
+	 * number from Numerical Recipes in C.
+	 */
+	private static final double ROS_PSHRNK = -1.0 / 3.0;
+
+	/**
+	 * The maximum error in a single step of the Rosenbrock method. The value
+	 * {@code ROS_ERRCON} equals {@code (ROS_GROW/ROS_SAFETY)^(1/ROS_PGROW)}.
+	 * Magic number from Numerical Recipes in C.
+	 */
+	private static final double ROS_ERRCON = 0.1296;
+
+	/**
+	 * The maximum number of attempts to take a step with the Rosenbrock method.
+	 */
+	private static final int ROS_MAXTRY = 40;
+
+	/** Rosenbrock (Shampine) diagonal coefficient. */
+	private static final double GAM = 1.0 / 2.0;
+	/** Rosenbrock coefficient for the second stage state. */
+	private static final double RA21 = 2.0;
+	/** Rosenbrock coefficient for the third stage state. */
+	private static final double RA31 = 48.0 / 25.0;
+	/** Rosenbrock coefficient for the third stage state. */
+	private static final double RA32 = 6.0 / 25.0;
+	/** Rosenbrock coefficient for the second stage increment. */
+	private static final double RC21 = -8.0;
+	/** Rosenbrock coefficient for the third stage increment. */
+	private static final double RC31 = 372.0 / 25.0;
+	/** Rosenbrock coefficient for the third stage increment. */
+	private static final double RC32 = 12.0 / 5.0;
+	/** Rosenbrock coefficient for the fourth stage increment. */
+	private static final double RC41 = -112.0 / 125.0;
+	/** Rosenbrock coefficient for the fourth stage increment. */
+	private static final double RC42 = -54.0 / 125.0;
+	/** Rosenbrock coefficient for the fourth stage increment. */
+	private static final double RC43 = -2.0 / 5.0;
+	/** Rosenbrock fourth-order output coefficient. */
+	private static final double RB1 = 19.0 / 9.0;
+	/** Rosenbrock fourth-order output coefficient. */
+	private static final double RB2 = 1.0 / 2.0;
+	/** Rosenbrock fourth-order output coefficient. */
+	private static final double RB3 = 25.0 / 108.0;
+	/** Rosenbrock fourth-order output coefficient. */
+	private static final double RB4 = 125.0 / 108.0;
+	/** Rosenbrock error estimate coefficient. */
+	private static final double RE1 = 17.0 / 54.0;
+	/** Rosenbrock error estimate coefficient. */
+	private static final double RE2 = 7.0 / 36.0;
+	/** Rosenbrock error estimate coefficient. */
+	private static final double RE4 = 125.0 / 108.0;
+	/** Rosenbrock coefficient for the second stage time. */
+	private static final double RA2X = 1.0;
+	/** Rosenbrock coefficient for the third stage time. */
+	private static final double RA3X = 3.0 / 5.0;
+
+	/**
+	 * The Jacobian of the derivatives with respect to the state.
+	 */
+	private double[][] jacobian;
+
+	/**
+	 * The LU decomposition of the matrix {@code 1/(GAM h) - J}.
+	 */
+	private double[][] lu;
+
+	/**
+	 * The row permutations of the LU decomposition.
+	 */
+	private int[] luIndex;
+
+	/**
+	 * Temporary storage for the implicit scaling of rows in the LU decomposition.
+	 */
+	private double[] luScale;
+
+	/**
+	 * Fourth-order Rosenbrock step with monitoring of local truncation error to
+	 * ensure accuracy and adjust step size. The Jacobian is evaluated once per
+	 * step, see {@link #getJacobian(double, double[], double[], double[][])}, and
+	 * the dynamics are assumed to be autonomous, i.e. not explicitly depend on
+	 * time.
+	 * <p>
+	 * Adapted from Numerical Recipes in C, chapter 16.6, p.739f
+	 * 
+	 * @param step the time step to attempt
+	 * @return squared distance between this state and previous one,
+	 *         <code>(yt-yout)<sup>2</sup></code>, or {@code -1} if the step
+	 *         failed.
+	 */
+	private double stiffStep(double step) {
+		double h = step;
+		double[] yscal = yt; // constant fractional errors
+		getJacobian(time, yt, dyt, jacobian);
+		for (int jtry = 0; jtry < ROS_MAXTRY; jtry++) {
+			if (!ros(h)) {
+				// step failed - decrease step width and try again
+				h /= 2.0;
+			} else {
+				double errmax = 0.0; // evaluate accuracy.
+				for (int i = 0; i < nDim; i++) {
+					if (yscal[i] > 1e-6) // ignore component if variable is zero.
+						errmax = Math.max(errmax, Math.abs(yerr[i] / yscal[i]));
+				}
+				errmax /= ACCURACY; // scale relative to required tolerance.
+				if (errmax <= 1.0) {
+					// step succeeded - compute size of next step.
+					time += h;
+					h = Math.abs(h);
+					dtTry = (errmax > ROS_ERRCON ? ROS_SAFETY * h * Math.pow(errmax, ROS_PGROW) : ROS_GROW * h);
+					dtTaken = h;
+					normalizeState(yout);
+					// the new state is in yout - swap and determine new fitness
+					double[] swap = yt;
+					yt = yout;
+					yout = swap;
+					getDerivatives(time, yt, ft, dyt);
+					return ArrayMath.distSq(yout, yt);
+				}
+				// truncation error too large, reduce step size.
+				double htemp = ROS_SAFETY * h * Math.pow(errmax, ROS_PSHRNK);
+				h = (h >= 0.0 ? Math.max(htemp, ROS_SHRNK * h) : Math.min(htemp, ROS_SHRNK * h));
+			}
+			if (time + h == time)
+				break;
+		}
+		if (logger.isLoggable(Level.WARNING))
+			logger.warning("stepsize underflow in ODE method RungeKutta.stiffStep() at time " + time + ".");
+		dtTaken = 0.0;
+		return -1.0;
+	}
+
+	/**
+	 * Given the state {@code yt}, its derivatives {@code dyt} and the Jacobian at
+	 * {@code time}, use the fourth-order Rosenbrock method with parameters by
+	 * Shampine to advance the solution over an interval {@code h} and return the
+	 * incremented state in {@code yout}. Also return an estimate of the local
+	 * truncation error in {@code yerr} using the embedded third-order method.
+	 * <p>
+	 * Adapted from Numerical Recipes in C, chapter 16.6, p.739f
+	 * 
+	 * <h3>Implementation Notes:</h3>
+	 * For replicator dynamics the new state must remain a valid frequency
+	 * distribution and for density based dynamics densities must not become
+	 * negative, otherwise reject.
+	 * 
+	 * @param h the step to try to take
+	 * @return <code>true</code> if step successful
+	 */
+	private boolean ros(double h) {
+		// set up the matrix 1/(GAM h) - J and decompose
+		double diag = 1.0 / (GAM * h);
+		for (int i = 0; i < nDim; i++) {
+			double[] ji = jacobian[i];
+			double[] ai = lu[i];
+			for (int j = 0; j < nDim; j++)
+				ai[j] = -ji[j];
+			ai[i] += diag;
+		}
+		if (!LinearAlgebra.luDecompose(lu, nDim, luIndex, luScale))
+			return false;
+		// the stage increments g1, g2, g3 and g4 are stored in ak2, ak3, ak4 and
+		// ak5, respectively
+		System.arraycopy(dyt, 0, ak2, 0, nDim);
+		LinearAlgebra.luSolve(lu, nDim, luIndex, ak2);
+		for (int i = 0; i < nDim; i++)
+			ytmp[i] = yt[i] + RA21 * ak2[i];
+		getDerivatives(time + RA2X * h, ytmp, ftmp, ak6);
+		for (int i = 0; i < nDim; i++)
+			ak3[i] = ak6[i] + RC21 * ak2[i] / h;
+		LinearAlgebra.luSolve(lu, nDim, luIndex, ak3);
+		for (int i = 0; i < nDim; i++)
+			ytmp[i] = yt[i] + RA31 * ak2[i] + RA32 * ak3[i];
+		getDerivatives(time + RA3X * h, ytmp, ftmp, ak6);
+		for (int i = 0; i < nDim; i++)
+			ak4[i] = ak6[i] + (RC31 * ak2[i] + RC32 * ak3[i]) / h;
+		LinearAlgebra.luSolve(lu, nDim, luIndex, ak4);
+		for (int i = 0; i < nDim; i++)
+			ak5[i] = ak6[i] + (RC41 * ak2[i] + RC42 * ak3[i] + RC43 * ak4[i]) / h;
+		LinearAlgebra.luSolve(lu, nDim, luIndex, ak5);
+		double ytmax = -Double.MAX_VALUE;
+		double ytmin = Double.MAX_VALUE;
+		for (int i = 0; i < nDim; i++) {
+			double y = yt[i] + RB1 * ak2[i] + RB2 * ak3[i] + RB3 * ak4[i] + RB4 * ak5[i];
+			yout[i] = y;
+			ytmax = Math.max(ytmax, y);
+			ytmin = Math.min(ytmin, y);
+			yerr[i] = RE1 * ak2[i] + RE2 * ak3[i] + RE4 * ak5[i];
+		}
+		return !(ytmin < 0.0 || (!isDensity && ytmax > 1.0));
+	}
+
+	/**
+	 * Command line option to request the implicit Rosenbrock method for stiff
+	 * dynamics, e.g. for ecological models with fast birth and death rates.
+	 * 
+	 * @see #setStiff(boolean)
+	 */
+	public final CLOption cloStiff = new CLOption("stiff", CLOCategory.Model,
+			"--stiff         implicit Rosenbrock integration for stiff dynamics", new CLODelegate() {
+				@Override
+				public boolean parse(boolean isSet) {
+					setStiff(isSet);
+					return true;
+				}
+			});
+
+	@Override
+	public void collectCLO(CLOParser parser) {
+		super.collectCLO(parser);
+		parser.addCLO(cloStiff);
+	}
 }
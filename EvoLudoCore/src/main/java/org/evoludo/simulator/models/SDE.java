@@ -36,12 +36,17 @@ import org.evoludo.simulator.models.ODEInitialize.InitType;
 import org.evoludo.simulator.modules.Module;
 import org.evoludo.simulator.modules.Mutation;
 import org.evoludo.simulator.views.HasHistogram;
+import org.evoludo.util.CLOCategory;
+import org.evoludo.util.CLODelegate;
 import org.evoludo.util.CLOParser;
 import org.evoludo.util.CLOption;
 
 /**
  * Integrator for stochastic differential equations (SDE) based on Euler's
  * method.
+ * <p>
+ * For sample statistics, such as fixation probabilities and times, many
+ * independent replicas can be integrated in lockstep, see {@link #cloEnsemble}.
  * 
  * @author Christoph Hauert
  */
@@ -53,6 +58,25 @@ public class SDE extends ODE {
 	 */
 	protected Module<?> module;
 
+	/**
+	 * The number of replicas integrated in lockstep for sample statistics.
+	 * 
+	 * @see #cloEnsemble
+	 */
+	private int ensembleSize = 1;
+
+	/**
+	 * The ensemble of replicas for sample statistics or {@code null} if
+	 * statistics samples are generated one trajectory at a time. Allocated on
+	 * demand.
+	 */
+	private SDEEnsemble ensemble;
+
+	/**
+	 * Temporary storage for the correlated noise of three traits.
+	 */
+	private final double[] noise3 = new double[2];
+
 	/**
 	 * Constructs a new model for the numerical integration of the system of
 	 * stochastic differential equations representing the dynamics specified by the
@@ -81,6 +105,7 @@ public class SDE extends ODE {
 	@Override
 	public synchronized void unload() {
 		module = null;
+		discardEnsemble();
 		super.unload();
 	}
 
@@ -104,7 +129,7 @@ public class SDE extends ODE {
 		int dim = nDim - 1;
 		// only one or two traits acceptable or, alternatively, two or three
 		// traits for replicator dynamics (for SDE but not SDEN)
-		if (!getClass().getSuperclass().equals(SDE.class) && (dim < 1 || dim > 2))
+		if (!permitsManyTraits() && (dim < 1 || dim > 2))
 			return revertToODE("max. 3 traits incl. dependent - revert to ODE (use SDEN).");
 		if (isAdjustedDynamics) {
 			// XXX check min/max fitness instead
@@ -113,9 +138,23 @@ public class SDE extends ODE {
 					+ " - adjusted dynamics for SDE's not (yet) implemented (revert to standard dynamics).");
 			isAdjustedDynamics = false;
 		}
+		// parameters may have changed; discard replicas
+		discardEnsemble();
 		return doReset;
 	}
 
+	/**
+	 * Indicates whether the integrator handles more than two dynamical variables,
+	 * i.e. more than three traits including the dependent trait. The optimized
+	 * integrators of this class are restricted to at most two.
+	 *
+	 * @return <code>true</code> if more than two dynamical variables are
+	 *         supported
+	 */
+	protected boolean permitsManyTraits() {
+		return false;
+	}
+
 	/**
 	 * Indicates whether the current single-species module satisfies the dependent
 	 * trait requirement for SDE models.
@@ -153,6 +192,8 @@ public class SDE extends ODE {
 	public boolean next(double step) {
 		// start new statistics sample if required
 		if (mode == Mode.STATISTICS_SAMPLE && statisticsSampleNew) {
+			if (ensembleSize > 1 && SDEEnsemble.permits(this))
+				return nextEnsemble();
 			reset();
 			init();
 			initStatisticsSample();
@@ -162,6 +203,73 @@ public class SDE extends ODE {
 		return super.next(step);
 	}
 
+	/**
+	 * Generate the next statistics sample from the ensemble of replicas.
+	 * Replicas are integrated with the fixed time increment {@code dt} until
+	 * one reaches an absorbing state, which then becomes the current state of
+	 * the model.
+	 * 
+	 * @return {@code false} because the sample is complete
+	 * 
+	 * @see SDEEnsemble
+	 */
+	private boolean nextEnsemble() {
+		if (ensemble == null || ensemble.size != ensembleSize) {
+			reset();
+			discardEnsemble();
+			ensemble = createEnsemble(ensembleSize);
+		}
+		initStatisticsSample();
+		init();
+		long pending = (nSamples > 0.0 ? (long) nSamples - nStatisticsSamples : Long.MAX_VALUE);
+		time = ensemble.next(dt, pending, yt);
+		getDerivatives(time, yt, ft, dyt);
+		converged = true;
+		update();
+		return false;
+	}
+
+	/**
+	 * Create a new ensemble of {@code size} replicas. Subclasses may provide
+	 * ensembles that integrate the replicas in parallel.
+	 * 
+	 * @param size the number of replicas
+	 * @return the new ensemble
+	 */
+	SDEEnsemble createEnsemble(int size) {
+		return new SDEEnsemble(this, size);
+	}
+
+	/**
+	 * Discard the ensemble of replicas, if any, and release its resources.
+	 */
+	private void discardEnsemble() {
+		if (ensemble != null)
+			ensemble.dispose();
+		ensemble = null;
+	}
+
+	/**
+	 * Set the number of replicas that are integrated in lockstep for sample
+	 * statistics. With {@code size<=1} samples are generated one trajectory at a
+	 * time.
+	 * 
+	 * @param size the number of replicas
+	 */
+	public void setEnsembleSize(int size) {
+		ensembleSize = Math.max(1, size);
+	}
+
+	/**
+	 * Get the number of replicas that are integrated in lockstep for sample
+	 * statistics.
+	 * 
+	 * @return the number of replicas
+	 */
+	public int getEnsembleSize() {
+		return ensembleSize;
+	}
+
 	@Override
 	public boolean setMode(Mode mode) {
 		if (mode == Mode.STATISTICS_SAMPLE && fixData == null) {
@@ -373,13 +481,62 @@ public class SDE extends ODE {
 		// e.g. yt[2] would fail)
 		double x = yt[0];
 		double y = yt[1];
-		double x2 = x * x;
-		double xy = x * y;
-		double y2 = y * y;
 
 		// mutations to only other traits
 		double mu = mutation[0].getProbability();
-		double effnoise = getEffectiveNoise(module, 0);
+		double r1 = rng.nextGaussian() * sqrtdt;
+		double r2 = rng.nextGaussian() * sqrtdt;
+		noise3Traits(x, y, yt[2], mu, getEffectiveNoise(module, 0), r1, r2, noise3);
+		double nx = noise3[0];
+		double ny = noise3[1];
+
+		// combine deterministic and stochastic terms - noise must not push us beyond
+		// boundaries of simplex
+		if (mu > 0.0) {
+			// the deterministic drift term also depends on mutations
+			ArrayMath.multiply(dyt, 1.0 - mu);
+			// mutations to any of the _other_ 2 traits
+			double mudt = mu * 0.5;
+			double mx = mudt * (1.0 - 3.0 * x) + nx;
+			double my = mudt * (1.0 - 3.0 * y) + ny;
+			dyt[0] += mx;
+			dyt[1] += my;
+			dyt[2] -= mx + my;
+			ArrayMath.addscale(yt, dyt, step, yout);
+		} else {
+			dyt[0] += nx;
+			dyt[1] += ny;
+			if (yt[2] > 0.0)
+				dyt[2] -= nx + ny;
+			// in the absence of mutations, extinct traits (or species) must not make
+			// a sudden reappearance due to roundoff errors!
+			applyStep(0, nDim, step);
+		}
+	}
+
+	/**
+	 * Correlated noise for replicator systems with three traits. The covariance
+	 * matrix \(B\) of the demographic noise is decomposed into \(C C^T=B\)
+	 * based on the eigenvalues and eigenvectors of \(B\), and the noise
+	 * returned in {@code noise} is given by \(C (r_1, r_2)^T\). The noise for
+	 * the third trait is the negative sum of the two.
+	 * 
+	 * @param x        the frequency of the first trait
+	 * @param y        the frequency of the second trait
+	 * @param z        the frequency of the third trait
+	 * @param mu       the mutation rate
+	 * @param effnoise the effective noise
+	 * @param r1       the first Gaussian random number (scaled by
+	 *                 {@code sqrt(dt)})
+	 * @param r2       the second Gaussian random number (scaled by
+	 *                 {@code sqrt(dt)})
+	 * @param noise    the array to return the noise for the first two traits
+	 */
+	static void noise3Traits(double x, double y, double z, double mu, double effnoise, double r1, double r2,
+			double[] noise) {
+		double x2 = x * x;
+		double xy = x * y;
+		double y2 = y * y;
 		double bxx = (x - x2 + mu * ((1.0 - x) * 0.5 + x2)) * effnoise;
 		double bxy = -(xy + mu * ((x + y) * 0.5 - xy)) * effnoise;
 		double byx = bxy;
@@ -399,7 +556,7 @@ public class SDE extends ODE {
 		double v1;
 		double v2;
 		// avoid problems due to roundoff errors
-		if (yt[2] <= 0.0 || e2 < 0.0)
+		if (z <= 0.0 || e2 < 0.0)
 			e2 = 0.0;
 		if (Math.abs(bxy) > 1e-12) {
 			u1 = e1 - byy;
@@ -434,34 +591,9 @@ public class SDE extends ODE {
 		double cyx = cxy;
 		double cyy = sqrte1 * u2 * u2 + sqrte2 * v2 * v2;
 
-		// noise (note this scales with sqrt(dt) - for efficiency applied here)
-		double r1 = rng.nextGaussian() * sqrtdt;
-		double r2 = rng.nextGaussian() * sqrtdt;
-		double nx = cxx * r1 + cxy * r2;
-		double ny = cyx * r1 + cyy * r2;
+		noise[0] = cxx * r1 + cxy * r2;
+		noise[1] = cyx * r1 + cyy * r2;
 
-		// combine deterministic and stochastic terms - noise must not push us beyond
-		// boundaries of simplex
-		if (mu > 0.0) {
-			// the deterministic drift term also depends on mutations
-			ArrayMath.multiply(dyt, 1.0 - mu);
-			// mutations to any of the _other_ 2 traits
-			double mudt = mu * 0.5;
-			double mx = mudt * (1.0 - 3.0 * x) + nx;
-			double my = mudt * (1.0 - 3.0 * y) + ny;
-			dyt[0] += mx;
-			dyt[1] += my;
-			dyt[2] -= mx + my;
-			ArrayMath.addscale(yt, dyt, step, yout);
-		} else {
-			dyt[0] += nx;
-			dyt[1] += ny;
-			if (yt[2] > 0.0)
-				dyt[2] -= nx + ny;
-			// in the absence of mutations, extinct traits (or species) must not make
-			// a sudden reappearance due to roundoff errors!
-			applyStep(0, nDim, step);
-		}
 	}
 
 	/**
@@ -474,7 +606,8 @@ public class SDE extends ODE {
 		int skip = 0;
 		if (isDensity) {
 			int index = 0;
-			for (Module<?> mod : species) {
+			for (int i = 0; i < nSpecies; i++) {
+				Module<?> mod = species.get(i);
 				if (mod.getVacantIdx() >= 0) {
 					processEcologyDensity(mod, index, skip, sqrtdt);
 				} else {
@@ -491,7 +624,8 @@ public class SDE extends ODE {
 		}
 		// frequency dynamics: demographic noise from ecological events only
 		int index = 0;
-		for (Module<?> mod : species) {
+		for (int i = 0; i < nSpecies; i++) {
+			Module<?> mod = species.get(i);
 			if (mod.getVacantIdx() >= 0) {
 				processEcologyFrequency(mod, index++, skip, sqrtdt);
 				applyStep(skip, skip + mod.getNTraits(), step);
@@ -639,6 +773,8 @@ public class SDE extends ODE {
 				}
 			}
 		}
+		// well-mixed populations: all locations are equivalent
+		fixData.mutantNode = 0;
 		fixData.timeFixed = time;
 		fixData.updatesFixed = time;
 		fixData.probRead = false;
@@ -648,6 +784,8 @@ public class SDE extends ODE {
 	@Override
 	public void resetStatisticsSample() {
 		super.resetStatisticsSample();
+		if (ensemble != null)
+			ensemble.reset();
 		if (fixData != null) {
 			fixData.reset();
 			// this needs to be revised for vacant sites
@@ -682,9 +820,25 @@ public class SDE extends ODE {
 		return true;
 	}
 
+	/**
+	 * Command line option to set the number of replicas integrated in lockstep
+	 * for sample statistics.
+	 * 
+	 * @see SDEEnsemble
+	 */
+	public final CLOption cloEnsemble = new CLOption("ensemble", "1", CLOCategory.Model,
+			"--ensemble <m>  number of replicas integrated in lockstep for statistics", new CLODelegate() {
+				@Override
+				public boolean parse(String arg) {
+					setEnsembleSize(CLOParser.parseInteger(arg));
+					return true;
+				}
+			});
+
 	@Override
 	public void collectCLO(CLOParser parser) {
 		super.collectCLO(parser);
+		parser.addCLO(cloEnsemble);
 		// mutant initialization and statistics is ok for SDE's
 		cloInit.addKey(InitType.MUTANT);
 		// SDE's currently are restricted to single species modules and implement
@@ -0,0 +1,468 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+
+package org.evoludo.simulator.models;
+
+import org.evoludo.math.RNGDistribution;
+
+/**
+ * Ensemble of independent replicas of the stochastic differential equations of
+ * an {@link SDE} model integrated in lockstep. The ensemble speeds up sample
+ * statistics, such as fixation probabilities and absorption times, by
+ * advancing many trajectories per step rather than one trajectory at a time.
+ * <p>
+ * The state of the replicas is stored in structure-of-arrays layout, i.e. one
+ * array per trait holding the frequencies of that trait in all replicas, such
+ * that the noise and Euler updates are tight loops over replicas. The Gaussian
+ * noise for all replicas is drawn in a single block. Replicas that reached an
+ * absorbing state are retired and their slots refilled with fresh replicas as
+ * long as more samples are requested. Once no more replicas are needed the
+ * remaining replicas are compacted to keep the loops dense.
+ * <p>
+ * The Euler steps of disjoint ranges of replicas are independent, see
+ * {@link #integrate(int, int, double, Workspace)}, provided that each range
+ * uses its own {@link Workspace}, including its own random number generator.
+ * This allows subclasses to integrate the replicas in parallel, whereas
+ * launching and retiring replicas always happens on the calling thread.
+ * <p>
+ * <strong>Note:</strong> the ensemble is restricted to single species,
+ * frequency based modules with two or three traits and no mutations, which
+ * covers all settings that permit sample statistics for SDE models. Because
+ * replicas are only launched as long as more samples are requested, all
+ * launched replicas eventually complete and absorption times are not biased
+ * towards short trajectories.
+ * 
+ * @author Christoph Hauert
+ * 
+ * @see SDE#setEnsembleSize(int)
+ */
+class SDEEnsemble {
+
+	/**
+	 * The SDE model of the replicas.
+	 */
+	private final SDE sde;
+
+	/**
+	 * The maximum number of replicas integrated simultaneously.
+	 */
+	final int size;
+
+	/**
+	 * The number of traits.
+	 */
+	private final int nDim;
+
+	/**
+	 * The effective demographic noise, i.e. the inverse of the population size.
+	 */
+	private final double noise;
+
+	/**
+	 * The states of the replicas. {@code state[n][r]} denotes the frequency of
+	 * trait {@code n} in replica {@code r}.
+	 */
+	private final double[][] state;
+
+	/**
+	 * The rates of change of the replicas, including noise. Same layout as
+	 * {@link #state}.
+	 */
+	private final double[][] change;
+
+	/**
+	 * The elapsed time of each replica.
+	 */
+	private final double[] time;
+
+	/**
+	 * The block of Gaussian random numbers for one step of all replicas.
+	 */
+	private final double[] gauss;
+
+	/**
+	 * The workspace for integrating all replicas on the calling thread.
+	 */
+	private final Workspace ws;
+
+	/**
+	 * The number of active replicas. Active replicas occupy the slots
+	 * {@code [0, nActive)}.
+	 */
+	private int nActive = 0;
+
+	/**
+	 * The number of replicas that remain to be launched.
+	 */
+	private long nPending = 0L;
+
+	/**
+	 * The final states of completed replicas (row-major).
+	 */
+	private final double[] doneState;
+
+	/**
+	 * The absorption times of completed replicas.
+	 */
+	private final double[] doneTime;
+
+	/**
+	 * The number of completed replicas.
+	 */
+	private int nDone = 0;
+
+	/**
+	 * The index of the next completed replica to report.
+	 */
+	private int nextDone = 0;
+
+	/**
+	 * Create a new ensemble of (at most) {@code size} replicas of the SDE model
+	 * {@code sde}.
+	 * 
+	 * @param sde  the SDE model
+	 * @param size the number of replicas
+	 */
+	SDEEnsemble(SDE sde, int size) {
+		this.sde = sde;
+		this.size = size;
+		nDim = sde.nDim;
+		noise = 1.0 / sde.module.getNPopulation();
+		state = new double[nDim][size];
+		change = new double[nDim][size];
+		time = new double[size];
+		gauss = new double[(nDim - 1) * size];
+		ws = new Workspace(sde.rng, nDim);
+		doneState = new double[nDim * size];
+		doneTime = new double[size];
+	}
+
+	/**
+	 * Check whether the ensemble can be used for the SDE model {@code sde}.
+	 * 
+	 * @param sde the SDE model
+	 * @return {@code true} if the ensemble is applicable
+	 */
+	static boolean permits(SDE sde) {
+		return (sde.nSpecies == 1 && !sde.isDensity && (sde.nDim == 2 || sde.nDim == 3)
+				&& sde.module.getVacantIdx() < 0 && sde.module.getMutation().getProbability() <= 0.0);
+	}
+
+	/**
+	 * Release resources held by the ensemble, if any. Called when the ensemble is
+	 * discarded.
+	 */
+	void dispose() {
+	}
+
+	/**
+	 * Get the number of traits.
+	 * 
+	 * @return the number of traits
+	 */
+	int getNDim() {
+		return nDim;
+	}
+
+	/**
+	 * Get the number of active replicas. Active replicas occupy the slots
+	 * {@code [0, nActive)}.
+	 * 
+	 * @return the number of active replicas
+	 */
+	int getNActive() {
+		return nActive;
+	}
+
+	/**
+	 * Discard all replicas, for example, after the statistics have been reset.
+	 */
+	void reset() {
+		nActive = 0;
+		nPending = 0L;
+		nDone = 0;
+		nextDone = 0;
+	}
+
+	/**
+	 * Get the next completed replica. If none is available, the replicas are
+	 * advanced with Euler steps of size {@code dt} until at least one replica
+	 * reached an absorbing state. If no replicas are active, a new batch of up to
+	 * {@code nSamples} replicas is launched.
+	 * 
+	 * @param dt       the time increment
+	 * @param nSamples the number of samples still requested
+	 * @param y        the array to return the final state of the replica
+	 * @return the absorption time of the replica
+	 */
+	double next(double dt, long nSamples, double[] y) {
+		while (nextDone == nDone) {
+			nDone = 0;
+			nextDone = 0;
+			if (nActive == 0) {
+				nPending = Math.max(1L, nSamples);
+				while (nActive < size && nPending > 0L) {
+					launch(nActive++);
+					nPending--;
+				}
+			}
+			step(dt);
+		}
+		System.arraycopy(doneState, nextDone * nDim, y, 0, nDim);
+		return doneTime[nextDone++];
+	}
+
+	/**
+	 * Launch a new replica in slot {@code r} using the initial configuration of
+	 * the SDE model.
+	 * 
+	 * @param r the slot of the replica
+	 */
+	private void launch(int r) {
+		sde.init();
+		double[] yt = sde.yt;
+		for (int n = 0; n < nDim; n++)
+			state[n][r] = yt[n];
+		time[r] = 0.0;
+	}
+
+	/**
+	 * Advance all active replicas by one Euler step of size {@code dt} and retire
+	 * those that reached an absorbing state.
+	 * 
+	 * @param dt the time increment
+	 */
+	private void step(double dt) {
+		integrate(dt);
+		retire();
+	}
+
+	/**
+	 * Advance all active replicas by one Euler step of size {@code dt}.
+	 * Subclasses may split the replicas into ranges and integrate them in
+	 * parallel.
+	 * 
+	 * @param dt the time increment
+	 * 
+	 * @see #integrate(int, int, double, Workspace)
+	 */
+	void integrate(double dt) {
+		integrate(0, nActive, dt, ws);
+	}
+
+	/**
+	 * Advance the replicas in slots {@code [from, to)} by one Euler step of size
+	 * {@code dt} using the workspace {@code w}. Steps of disjoint ranges with
+	 * separate workspaces may proceed concurrently.
+	 * 
+	 * @param from the first slot (inclusive)
+	 * @param to   the last slot (exclusive)
+	 * @param dt   the time increment
+	 * @param w    the workspace
+	 */
+	void integrate(int from, int to, double dt, Workspace w) {
+		double[] ystate = w.state;
+		double[] yfit = w.fit;
+		double[] ychange = w.change;
+		// deterministic part of dynamics
+		for (int r = from; r < to; r++) {
+			for (int n = 0; n < nDim; n++)
+				ystate[n] = state[n][r];
+			sde.getDerivatives(time[r], ystate, yfit, ychange);
+			for (int n = 0; n < nDim; n++)
+				change[n][r] = ychange[n];
+		}
+		// noise (note this scales with sqrt(dt) - for efficiency applied here)
+		double sqrtdt = Math.sqrt(dt) / dt;
+		w.rng.nextGaussian(gauss, (nDim - 1) * from, (nDim - 1) * to);
+		double[] x = state[0];
+		double[] y = state[1];
+		double[] dx = change[0];
+		double[] dy = change[1];
+		if (nDim == 2) {
+			for (int r = from; r < to; r++) {
+				double xr = x[r];
+				double nr = Math.sqrt(xr * (1.0 - xr) * noise) * gauss[r] * sqrtdt;
+				dx[r] += nr;
+				dy[r] -= nr;
+			}
+		} else {
+			double[] z = state[2];
+			double[] dz = change[2];
+			double[] ynoise = w.noise;
+			for (int r = from; r < to; r++) {
+				int r2 = r + r;
+				double zr = z[r];
+				SDE.noise3Traits(x[r], y[r], zr, 0.0, noise, gauss[r2] * sqrtdt, gauss[r2 + 1] * sqrtdt,
+						ynoise);
+				double nx = ynoise[0];
+				double ny = ynoise[1];
+				dx[r] += nx;
+				dy[r] += ny;
+				if (zr > 0.0)
+					dz[r] -= nx + ny;
+			}
+		}
+		for (int r = from; r < to; r++)
+			advance(r, dt, ystate);
+	}
+
+	/**
+	 * Apply the Euler step of size {@code dt} to replica {@code r}. Same as
+	 * {@link SDE#deStep(double)}: extinct traits must not make a sudden
+	 * reappearance and steps that would result in negative frequencies are
+	 * truncated at the boundary.
+	 * 
+	 * @param r      the slot of the replica
+	 * @param dt     the time increment
+	 * @param ystate the scratch array for the new state of the replica
+	 */
+	private void advance(int r, double dt, double[] ystate) {
+		int imin = 0;
+		for (int n = 0; n < nDim; n++) {
+			double yn = state[n][r];
+			ystate[n] = (yn > 0.0) ? yn + dt * change[n][r] : 0.0;
+			if (ystate[n] < ystate[imin])
+				imin = n;
+		}
+		double step = dt;
+		if (ystate[imin] < 0.0) {
+			// step too big, resulted in negative frequencies
+			step = -state[imin][r] / change[imin][r];
+			for (int n = 0; n < nDim; n++)
+				ystate[n] = state[n][r] + step * change[n][r];
+			ystate[imin] = 0.0; // avoid roundoff errors
+		}
+		int imax = 0;
+		for (int n = 1; n < nDim; n++)
+			if (ystate[n] > ystate[imax])
+				imax = n;
+		if (ystate[imax] > 1.0) {
+			// step too big, resulted in frequencies >1
+			step = (1.0 - state[imax][r]) / change[imax][r];
+			for (int n = 0; n < nDim; n++)
+				ystate[n] = state[n][r] + step * change[n][r];
+			ystate[imax] = 1.0; // avoid roundoff errors
+		}
+		double sum = 0.0;
+		for (int n = 0; n < nDim; n++)
+			sum += ystate[n];
+		double isum = 1.0 / sum;
+		for (int n = 0; n < nDim; n++)
+			state[n][r] = ystate[n] * isum;
+		time[r] += step;
+	}
+
+	/**
+	 * Retire all replicas that reached an absorbing state, i.e. fixation of one
+	 * trait, or the time limit of the model. Slots of retired replicas are
+	 * refilled with new replicas, if needed, or filled with the last active
+	 * replica otherwise.
+	 */
+	private void retire() {
+		double fixed = 1.0 - sde.accuracy;
+		// same tolerance for reaching the time limit as ODE.next(double)
+		double timeStop = sde.getTimeStop() - 1e-8;
+		for (int r = nActive - 1; r >= 0; r--) {
+			double max = 0.0;
+			for (int n = 0; n < nDim; n++)
+				max = Math.max(max, state[n][r]);
+			if (max < fixed && (timeStop <= 0.0 || time[r] <= timeStop))
+				continue;
+			int offset = nDone * nDim;
+			for (int n = 0; n < nDim; n++)
+				doneState[offset + n] = state[n][r];
+			doneTime[nDone++] = time[r];
+			if (nPending > 0L) {
+				launch(r);
+				nPending--;
+				continue;
+			}
+			// compact active replicas
+			int last = --nActive;
+			if (r == last)
+				continue;
+			for (int n = 0; n < nDim; n++)
+				state[n][r] = state[n][last];
+			time[r] = time[last];
+		}
+	}
+
+	/**
+	 * The scratch memory for integrating a range of replicas. Each range that is
+	 * integrated concurrently requires its own workspace.
+	 */
+	static final class Workspace {
+
+		/**
+		 * The random number generator for the noise of the replicas.
+		 */
+		final RNGDistribution rng;
+
+		/**
+		 * The state of a single replica for calculating the deterministic
+		 * derivatives.
+		 */
+		final double[] state;
+
+		/**
+		 * The fitness of a single replica.
+		 */
+		final double[] fit;
+
+		/**
+		 * The rates of change of a single replica.
+		 */
+		final double[] change;
+
+		/**
+		 * The correlated noise of a single replica with three traits.
+		 * 
+		 * @see SDE#noise3Traits(double, double, double, double, double, double,
+		 *      double, double[])
+		 */
+		final double[] noise = new double[2];
+
+		/**
+		 * Create a new workspace for replicas with {@code nDim} traits using the
+		 * random number generator {@code rng}.
+		 * 
+		 * @param rng  the random number generator
+		 * @param nDim the number of traits
+		 */
+		Workspace(RNGDistribution rng, int nDim) {
+			this.rng = rng;
+			state = new double[nDim];
+			fit = new double[nDim];
+			change = new double[nDim];
+		}
+	}
+}
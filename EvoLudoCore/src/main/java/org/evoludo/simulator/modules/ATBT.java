@@ -613,6 +613,7 @@ public class ATBT extends TBT implements HasS3, HasPhase2D {
 	public List<ModelType> getModelTypes() {
 		List<ModelType> types = new ArrayList<>(super.getModelTypes());
 		types.remove(ModelType.EM);
+		types.remove(ModelType.DP5);
 		return types;
 	}
 
@@ -34,9 +34,11 @@ import java.awt.Color;
 
 import org.evoludo.geom.Point2D;
 import org.evoludo.math.ArrayMath;
+import org.evoludo.math.FlatMatrix;
 import org.evoludo.simulator.ColorMap;
 import org.evoludo.simulator.EvoLudo;
 import org.evoludo.simulator.models.Model.HasIBS;
+import org.evoludo.simulator.modules.Features.MatrixGame;
 import org.evoludo.simulator.modules.Features.Payoffs;
 import org.evoludo.simulator.views.HasMean;
 import org.evoludo.simulator.views.HasPop2D;
@@ -51,7 +53,7 @@ import org.evoludo.util.CLOCategory;
 /**
  * The Centipede class provides an EvoLudo module for the centipede game.
  */
-public class Centipede extends Discrete implements Payoffs,
+public class Centipede extends Discrete implements Payoffs, MatrixGame,
 		HasIBS.DPairs,
 		HasPop2D.Traits, HasPop2D.Fitness, HasPop3D.Traits, HasPop3D.Fitness,
 		HasS3, HasMean.Traits, HasMean.Fitness {
@@ -234,6 +236,15 @@ public class Centipede extends Discrete implements Payoffs,
 		}
 	}
 
+	@Override
+	public FlatMatrix getPayoffMatrix() {
+		double[][] payoffs = new double[nTraits][nTraits];
+		for (int n = 0; n < nTraits; n++)
+			for (int i = 0; i < nTraits; i++)
+				payoffs[n][i] = getPayFirst(n, i) + getPaySecond(n, i);
+		return FlatMatrix.of(payoffs);
+	}
+
 	@Override
 	public double getMonoPayoff(int trait) {
 		return getPayFirst(trait, trait) + getPaySecond(trait, trait);
@@ -30,6 +30,7 @@
 
 package org.evoludo.simulator.modules;
 
+import org.evoludo.math.FlatMatrix;
 import org.evoludo.simulator.models.Model;
 
 /**
@@ -179,6 +180,34 @@ public interface Features {
 		}
 	}
 
+	/**
+	 * Modules with pairwise interactions whose payoffs are given by a payoff
+	 * matrix may implement this interface to expose the matrix. Models then
+	 * calculate the scores through matrix-vector products instead of calling the
+	 * module, which is considerably faster for large numbers of traits. The
+	 * scores must be consistent with the module, i.e. the average scores in
+	 * differential equation models are given by \(\pi_i=\sum_j a_{ij}x_j\) and
+	 * the scores in well-mixed, finite populations by
+	 * \(\pi_i=(\sum_j a_{ij}n_j-a_{ii})/(N-1)\), where \(x_j\) denotes the
+	 * frequency of trait \(j\), \(n_j\) its count and \(N=\sum_j n_j\). The
+	 * random games with many traits are an example, see
+	 * {@code org.evoludo.simulator.modules.Traits}.
+	 */
+	interface MatrixGame extends Pairs {
+
+		/**
+		 * Gets the payoff matrix, where element {@code (i, j)} denotes the payoff of
+		 * trait {@code i} interacting with trait {@code j}. Models request the matrix
+		 * whenever parameters may have changed and hence modules can (and should)
+		 * create a new matrix on each request.
+		 * 
+		 * @return the payoff matrix or {@code null} if not available
+		 * 
+		 * @see FlatMatrix#of(double[][])
+		 */
+		public FlatMatrix getPayoffMatrix();
+	}
+
 	/**
 	 * All modules that admit interactions in larger groups (as opposed to
 	 * interactions in pairs) should implement this interface. The voluntary public
@@ -434,8 +434,11 @@ public abstract class Module<T extends Module<T>>
 			types.add(ModelType.IBS);
 		if (this instanceof HasDE.ODE)
 			types.add(ModelType.ODE);
-		if (this instanceof HasDE.RK5)
+		if (this instanceof HasDE.RK5) {
 			types.add(ModelType.RK5);
+			// Dormand-Prince shares the requirements of Runge-Kutta
+			types.add(ModelType.DP5);
+		}
 		if (this instanceof HasDE.EM)
 			types.add(ModelType.EM);
 		if (this instanceof HasDE.SDE)
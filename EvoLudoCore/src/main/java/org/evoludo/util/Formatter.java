@@ -31,6 +31,10 @@
 package org.evoludo.util;
 
 import java.text.DecimalFormat;
+import java.util.logging.Logger;
+
+import org.evoludo.math.MersenneTwister;
+import org.evoludo.math.MersenneTwister.Chronometer;
 
 /**
  * Collection of convenience methods for formatting numbers, vectors and
@@ -104,6 +108,21 @@ public class Formatter {
 	private Formatter() {
 	}
 
+	/**
+	 * Format {@code aDouble} with the shared {@code formatter}. {@link DecimalFormat}
+	 * is not thread-safe but the formatters are shared by all engines, e.g. when
+	 * running several simulations in parallel in the same JVM.
+	 *
+	 * @param formatter the formatter to use
+	 * @param aDouble   the number to format
+	 * @return the formatted number
+	 */
+	private static String formatWith(DecimalFormat formatter, double aDouble) {
+		synchronized (formatter) {
+			return formatter.format(aDouble);
+		}
+	}
+
 	/**
 	 * Format the vector <code>aVector</code> of type {@code T} as String with
 	 * elements separated by '{@value #VECTOR_DELIMITER}'.
@@ -145,7 +164,7 @@ public class Formatter {
 	 * @return formatted <code>int</code> as String
 	 */
 	public static String format(int anInteger) {
-		return (myFormatters[0]).format(anInteger);
+		return formatWith(myFormatters[0], anInteger);
 	}
 
 	/**
@@ -161,11 +180,7 @@ public class Formatter {
 		int len = aVector.length;
 		if (len == 0)
 			return "";
-		StringBuilder sb = new StringBuilder();
-		sb.append(format(aVector[0]));
-		for (int i = 1; i < len; i++)
-			sb.append(VECTOR_DELIMITER).append(format(aVector[i]));
-		return sb.toString();
+		return append(new StringBuilder(len * 3), aVector).toString();
 	}
 
 	/**
@@ -200,7 +215,7 @@ public class Formatter {
 	public static String format(double aDouble, int digits) {
 		// at least zero, at most six decimal digits
 		digits = Math.max(Math.min(digits, MAX_DIGITS), 0);
-		return (myFormatters[digits]).format(aDouble);
+		return formatWith(myFormatters[digits], aDouble);
 	}
 
 	/**
@@ -232,12 +247,7 @@ public class Formatter {
 		int len = aVector.length;
 		if (len == 0)
 			return "";
-		digits = Math.max(Math.min(digits, MAX_DIGITS), 0);
-		StringBuilder sb = new StringBuilder();
-		sb.append((myFormatters[digits]).format(aVector[0]));
-		for (int i = 1; i < len; i++)
-			sb.append(VECTOR_DELIMITER).append((myFormatters[digits]).format(aVector[i]));
-		return sb.toString();
+		return append(new StringBuilder(len * (digits + 4)), aVector, digits).toString();
 	}
 
 	/**
@@ -280,9 +290,9 @@ public class Formatter {
 			return "";
 		digits = Math.max(Math.min(digits, MAX_DIGITS), 0);
 		StringBuilder sb = new StringBuilder();
-		sb.append((myFormatters[digits]).format(aVector[0]));
+		sb.append(formatWith(myFormatters[digits], aVector[0]));
 		for (int i = 1; i < len; i++)
-			sb.append(VECTOR_DELIMITER).append((myFormatters[digits]).format(aVector[i]));
+			sb.append(VECTOR_DELIMITER).append(formatWith(myFormatters[digits], aVector[i]));
 		return sb.toString();
 	}
 
@@ -320,7 +330,7 @@ public class Formatter {
 	public static String formatFix(double aDouble, int digits) {
 		// at least zero, at most six decimal digits
 		digits = Math.max(Math.min(digits, MAX_DIGITS), 0);
-		return (myFixFormatters[digits]).format(aDouble);
+		return formatWith(myFixFormatters[digits], aDouble);
 	}
 
 	/**
@@ -338,12 +348,7 @@ public class Formatter {
 		int len = aVector.length;
 		if (len == 0)
 			return "";
-		digits = Math.max(Math.min(digits, MAX_DIGITS), 0);
-		StringBuilder sb = new StringBuilder();
-		sb.append((myFixFormatters[digits]).format(aVector[0]));
-		for (int i = 1; i < len; i++)
-			sb.append(VECTOR_DELIMITER).append((myFixFormatters[digits]).format(aVector[i]));
-		return sb.toString();
+		return appendFix(new StringBuilder(len * (digits + 4)), aVector, digits).toString();
 	}
 
 	/**
@@ -381,7 +386,7 @@ public class Formatter {
 	public static String formatSci(double aDouble, int digits) {
 		// at least zero, at most six decimal digits
 		digits = Math.max(Math.min(digits, MAX_DIGITS), 0);
-		return (mySciFormatters[digits]).format(aDouble);
+		return formatWith(mySciFormatters[digits], aDouble);
 	}
 
 	/**
@@ -402,9 +407,9 @@ public class Formatter {
 			return "";
 		digits = Math.max(Math.min(digits, MAX_DIGITS), 0);
 		StringBuilder sb = new StringBuilder();
-		sb.append((mySciFormatters[digits]).format(aVector[0]));
+		sb.append(formatWith(mySciFormatters[digits], aVector[0]));
 		for (int i = 1; i < len; i++)
-			sb.append(VECTOR_DELIMITER).append((mySciFormatters[digits]).format(aVector[i]));
+			sb.append(VECTOR_DELIMITER).append(formatWith(mySciFormatters[digits], aVector[i]));
 		return sb.toString();
 	}
 
@@ -467,20 +472,20 @@ public class Formatter {
 		double abs = Math.abs(aDouble);
 		// catch zero
 		if (abs < Double.MIN_VALUE)
-			return myFormatters[digits].format(aDouble);
+			return formatWith(myFormatters[digits], aDouble);
 		if (abs > thresh[1] || abs < thresh[0]) {
-			String sci = mySciFormatters[digits].format(aDouble);
+			String sci = formatWith(mySciFormatters[digits], aDouble);
 			int expPos = sci.indexOf('E');
 			if (expPos > -1 && expPos + 1 < sci.length()) {
 				int exp = Integer.parseInt(sci.substring(expPos + 1));
 				if (exp == 1)
-					return myFormatters[digits].format(aDouble);
+					return formatWith(myFormatters[digits], aDouble);
 				if (exp == -1)
-					return myFormatters[Math.min(digits, MAX_DIGITS)].format(aDouble);
+					return formatWith(myFormatters[Math.min(digits, MAX_DIGITS)], aDouble);
 			}
 			return sci.replace("E", pre) + post;
 		}
-		return myFormatters[digits].format(aDouble);
+		return formatWith(myFormatters[digits], aDouble);
 	}
 
 	/**
@@ -561,6 +566,324 @@ public class Formatter {
 	public static String formatPercent(double aDouble, int digits) {
 		// at least zero, at most six decimal digits
 		digits = Math.max(Math.min(digits, MAX_DIGITS), 0);
-		return (myPercentFormatters[digits]).format(aDouble);
+		return formatWith(myPercentFormatters[digits], aDouble);
+	}
+	/**
+	 * The decimal separator of the formatters. Determined at runtime to be
+	 * consistent with the (locale dependent) formatters.
+	 */
+	private static final char DECIMAL_SEPARATOR = myFixFormatters[1].format(0.5).charAt(1);
+
+	/**
+	 * The minus sign of the formatters. Determined at runtime to be consistent
+	 * with the (locale dependent) formatters.
+	 */
+	private static final char MINUS_SIGN = myFormatters[0].format(-1.0).charAt(0);
+
+	/**
+	 * The flag to indicate whether the formatters report negative numbers that
+	 * round to zero with a minus sign, i.e. as {@code -0}.
+	 */
+	private static final boolean SIGNED_ZERO = myFormatters[0].format(-0.1).charAt(0) == MINUS_SIGN;
+
+	/**
+	 * The powers of ten up to {@code 10<sup>MAX_DIGITS</sup>}.
+	 */
+	private static final long[] POW10 = { 1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L,
+			1000000000L, 10000000000L, 100000000000L, 1000000000000L };
+
+	/**
+	 * The upper limit of scaled numbers that are formatted directly. Beyond this
+	 * limit the resolution of {@code double}s is insufficient to reliably round
+	 * the last digit.
+	 */
+	private static final double FAST_LIMIT = 1e12;
+
+	/**
+	 * Append double <code>aDouble</code> to the string builder <code>sb</code>
+	 * with at most <code>digits</code> decimal places (trailing zeroes are
+	 * suppressed). The result is identical to {@link #format(double, int)} but no
+	 * intermediate objects are created.
+	 * 
+	 * @param sb      the string builder to append to
+	 * @param aDouble number to format
+	 * @param digits  number of decimal places
+	 * @return the string builder <code>sb</code>
+	 */
+	public static StringBuilder append(StringBuilder sb, double aDouble, int digits) {
+		digits = Math.max(Math.min(digits, MAX_DIGITS), 0);
+		if (!appendDirect(sb, aDouble, digits, false))
+			sb.append(formatWith(myFormatters[digits], aDouble));
+		return sb;
+	}
+
+	/**
+	 * Append array/vector of doubles <code>aVector</code> to the string builder
+	 * <code>sb</code>. Elements are separated by '{@value #VECTOR_DELIMITER}' and
+	 * formatted with at most <code>digits</code> decimal places (trailing zeroes
+	 * are suppressed). The result is identical to {@link #format(double[], int)}
+	 * but no intermediate objects are created.
+	 * 
+	 * @param sb      the string builder to append to
+	 * @param aVector array to format
+	 * @param digits  number of decimal places
+	 * @return the string builder <code>sb</code>
+	 */
+	public static StringBuilder append(StringBuilder sb, double[] aVector, int digits) {
+		if (aVector == null)
+			return sb;
+		int len = aVector.length;
+		for (int i = 0; i < len; i++) {
+			if (i > 0)
+				sb.append(VECTOR_DELIMITER);
+			append(sb, aVector[i], digits);
+		}
+		return sb;
+	}
+
+	/**
+	 * Append array/vector of integers <code>aVector</code> to the string builder
+	 * <code>sb</code>. Elements are separated by '{@value #VECTOR_DELIMITER}'. The
+	 * result is identical to {@link #format(int[])} but no intermediate objects
+	 * are created.
+	 * 
+	 * @param sb      the string builder to append to
+	 * @param aVector array to format
+	 * @return the string builder <code>sb</code>
+	 */
+	public static StringBuilder append(StringBuilder sb, int[] aVector) {
+		if (aVector == null)
+			return sb;
+		int len = aVector.length;
+		for (int i = 0; i < len; i++) {
+			if (i > 0)
+				sb.append(VECTOR_DELIMITER);
+			appendInt(sb, aVector[i]);
+		}
+		return sb;
+	}
+
+	/**
+	 * Append double <code>aDouble</code> to the string builder <code>sb</code>
+	 * with <code>digits</code> decimal places (trailing zeroes are included). The
+	 * result is identical to {@link #formatFix(double, int)} but no intermediate
+	 * objects are created.
+	 * 
+	 * @param sb      the string builder to append to
+	 * @param aDouble number to format
+	 * @param digits  number of decimal places
+	 * @return the string builder <code>sb</code>
+	 */
+	public static StringBuilder appendFix(StringBuilder sb, double aDouble, int digits) {
+		digits = Math.max(Math.min(digits, MAX_DIGITS), 0);
+		if (!appendDirect(sb, aDouble, digits, true))
+			sb.append(formatWith(myFixFormatters[digits], aDouble));
+		return sb;
+	}
+
+	/**
+	 * Append array/vector of doubles <code>aVector</code> to the string builder
+	 * <code>sb</code>. Elements are separated by '{@value #VECTOR_DELIMITER}' and
+	 * formatted with <code>digits</code> decimal places (trailing zeroes are
+	 * included). The result is identical to {@link #formatFix(double[], int)} but
+	 * no intermediate objects are created.
+	 * 
+	 * @param sb      the string builder to append to
+	 * @param aVector array to format
+	 * @param digits  number of decimal places
+	 * @return the string builder <code>sb</code>
+	 */
+	public static StringBuilder appendFix(StringBuilder sb, double[] aVector, int digits) {
+		if (aVector == null)
+			return sb;
+		int len = aVector.length;
+		for (int i = 0; i < len; i++) {
+			if (i > 0)
+				sb.append(VECTOR_DELIMITER);
+			appendFix(sb, aVector[i], digits);
+		}
+		return sb;
+	}
+
+	/**
+	 * Helper method to append the integer <code>anInteger</code> to the string
+	 * builder <code>sb</code> consistent with {@link #format(int)}.
+	 * 
+	 * @param sb        the string builder to append to
+	 * @param anInteger the number to format
+	 */
+	private static void appendInt(StringBuilder sb, int anInteger) {
+		if (anInteger < 0) {
+			sb.append(MINUS_SIGN);
+			// note: -Integer.MIN_VALUE overflows
+			sb.append(-(long) anInteger);
+			return;
+		}
+		sb.append(anInteger);
+	}
+
+	/**
+	 * Helper method to append the double <code>aDouble</code> with
+	 * <code>digits</code> decimal places to the string builder <code>sb</code>
+	 * without creating intermediate objects. The number is scaled by
+	 * {@code 10<sup>digits</sup>} and rounded to the nearest integer, which is
+	 * then split into integer and fractional parts. Rounding follows the
+	 * {@code HALF_EVEN} convention of the formatters.
+	 * <p>
+	 * Numbers that are not finite, too large, or too close to a tie in rounding
+	 * the last digit, such that the rounding error of the scaling could affect
+	 * the result, are declined and must be handled by the formatters.
+	 * 
+	 * @param sb      the string builder to append to
+	 * @param aDouble the number to format
+	 * @param digits  the number of decimal places
+	 * @param fixed   {@code true} to include trailing zeroes
+	 * @return {@code true} if the number was appended
+	 */
+	private static boolean appendDirect(StringBuilder sb, double aDouble, int digits, boolean fixed) {
+		double scaled = Math.abs(aDouble) * POW10[digits];
+		// note: comparison fails for NaN
+		if (!(scaled < FAST_LIMIT))
+			return false;
+		double floor = Math.floor(scaled);
+		double frac = scaled - floor;
+		double tie = frac - 0.5;
+		if (Math.abs(tie) <= 4.0 * Math.ulp(scaled))
+			return false;
+		long rounded = (long) floor + (tie > 0.0 ? 1L : 0L);
+		if ((rounded > 0L || SIGNED_ZERO) && (aDouble < 0.0 || 1.0 / aDouble < 0.0))
+			sb.append(MINUS_SIGN);
+		long pow = POW10[digits];
+		sb.append(rounded / pow);
+		long decimals = rounded % pow;
+		if (!fixed) {
+			if (decimals == 0L)
+				return true;
+			while (decimals % 10L == 0L) {
+				decimals /= 10L;
+				pow /= 10L;
+			}
+		}
+		if (digits == 0)
+			return true;
+		sb.append(DECIMAL_SEPARATOR);
+		// leading zeroes
+		for (long lead = pow / 10L; lead > decimals && lead > 1L; lead /= 10L)
+			sb.append('0');
+		sb.append(decimals);
+		return true;
+	}
+
+	/**
+	 * The seed of the random number generator for tests.
+	 */
+	private static final long TEST_SEED = 4357L;
+
+	/**
+	 * Tests if appending numbers to string builders yields the same results as
+	 * formatting numbers through the formatters.
+	 * 
+	 * @param logger   for reporting progress and results
+	 * @param nSamples number of random samples to compare
+	 * @return {@code true} if all tests passed
+	 */
+	public static boolean testCorrectness(Logger logger, int nSamples) {
+		MersenneTwister rng = new MersenneTwister(TEST_SEED);
+		StringBuilder sb = new StringBuilder();
+		int failed = 0;
+		for (int n = 0; n < nSamples; n++) {
+			// cover wide range of magnitudes including ties and integers
+			double x;
+			switch (n % 4) {
+				case 0:
+					x = (rng.nextDouble() - 0.5) * Math.pow(10.0, rng.nextInt(16) - 8);
+					break;
+				case 1:
+					x = (rng.nextInt(20001) - 10000) * 0.125;
+					break;
+				case 2:
+					x = rng.nextInt(2001) - 1000;
+					break;
+				default:
+					x = Math.round((rng.nextDouble() - 0.5) * 1e6) * 1e-6;
+			}
+			int digits = rng.nextInt(MAX_DIGITS + 1);
+			sb.setLength(0);
+			String ref = format(x, digits);
+			if (!ref.equals(append(sb, x, digits).toString())) {
+				failed++;
+				logger.warning("append(" + x + ", " + digits + "): " + sb + " but format: " + ref);
+			}
+			sb.setLength(0);
+			ref = formatWith(myFixFormatters[digits], x);
+			if (!ref.equals(appendFix(sb, x, digits).toString())) {
+				failed++;
+				logger.warning("appendFix(" + x + ", " + digits + "): " + sb + " but formatFix: " + ref);
+			}
+		}
+		logger.info("Check Formatter.append: " + (failed == 0 ? "Passed!" : "FAILED " + failed + " times."));
+		return failed == 0;
+	}
+
+	/**
+	 * Tests speed of appending numbers to string builders as compared to
+	 * formatting vectors through the formatters.
+	 * 
+	 * @param logger   for reporting progress and results
+	 * @param clock    device for measuring elapsed time
+	 * @param nSamples number of vectors to format
+	 */
+	public static void testSpeed(Logger logger, Chronometer clock, int nSamples) {
+		MersenneTwister rng = new MersenneTwister(TEST_SEED);
+		double[] vec = new double[100];
+		for (int i = 0; i < vec.length; i++)
+			vec[i] = rng.nextDouble();
+		int digits = 4;
+		long check = 0L;
+		int ms = clock.elapsedTimeMsec();
+		for (int n = 0; n < nSamples; n++)
+			check += formatVector(vec, digits).length();
+		int formatter = clock.elapsedTimeMsec() - ms;
+		StringBuilder sb = new StringBuilder();
+		ms = clock.elapsedTimeMsec();
+		for (int n = 0; n < nSamples; n++) {
+			sb.setLength(0);
+			check -= append(sb, vec, digits).length();
+		}
+		int appender = clock.elapsedTimeMsec() - ms;
+		logger.info("Check speed of Formatter.append (comparison to DecimalFormat):\n"
+				+ "DecimalFormat: " + formatter + "msec, append: " + appender + "msec for "
+				+ formatSci(nSamples, 0) + " vectors of length " + vec.length
+				+ " (checksum: " + check + ") - speedup is " + formatFix(formatter / Math.max(appender, 1.0), 2)
+				+ " fold!");
+	}
+
+	/**
+	 * Helper method to format the vector {@code aVector} through the formatters
+	 * (as done prior to {@link #append(StringBuilder, double[], int)}). Used
+	 * only for speed comparisons.
+	 * 
+	 * @param aVector array to format
+	 * @param digits  number of decimal places
+	 * @return formatted <code>double[]</code> as String
+	 */
+	private static String formatVector(double[] aVector, int digits) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(formatWith(myFormatters[digits], aVector[0]));
+		for (int i = 1; i < aVector.length; i++)
+			sb.append(VECTOR_DELIMITER).append(formatWith(myFormatters[digits], aVector[i]));
+		return sb.toString();
+	}
+
+	/**
+	 * Tests the code.
+	 * 
+	 * @param args command line arguments - ignored
+	 */
+	public static void main(String[] args) {
+		Logger logger = Logger.getLogger(Formatter.class.getName());
+		long start = System.currentTimeMillis();
+		testCorrectness(logger, 1000000);
+		testSpeed(logger, () -> (int) (System.currentTimeMillis() - start), 100000);
 	}
 }
@@ -30,6 +30,7 @@
 
 package org.evoludo.util;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
@@ -51,6 +52,13 @@ import org.evoludo.math.Combinatorics;
 @SuppressWarnings("serial")
 public class Plist extends HashMap<String, Object> {
 
+	/**
+	 * The version of serialized property lists. Property lists are serialized to
+	 * compute the hashes of test references, which must not change with the
+	 * methods of this class.
+	 */
+	private static final long serialVersionUID = 9216073919729598263L;
+
 	/**
 	 * The flag to indicate if the comparison should fail fast, i.e. after first
 	 * issue encountered.
@@ -139,6 +147,21 @@ public class Plist extends HashMap<String, Object> {
 		nRepeat = 0;
 	}
 
+	/**
+	 * The stream for reporting differences. Not serialized, see
+	 * {@link #serialVersionUID}.
+	 */
+	private transient PrintStream report = System.err;
+
+	/**
+	 * Set the stream for reporting differences (defaults to {@code System.err}).
+	 * 
+	 * @param report the stream for reporting differences
+	 */
+	public void setReport(PrintStream report) {
+		this.report = (report == null ? System.err : report);
+	}
+
 	/**
 	 * Check if in fail-fast mode.
 	 * 
@@ -503,7 +526,7 @@ public class Plist extends HashMap<String, Object> {
 				return;
 		}
 		if (nRepeat > 0)
-			System.err.println((new Date().toString()) + " - Plist.diff: " + msg);
+			report.println((new Date().toString()) + " - Plist.diff: " + msg);
 	}
 
 	/**
@@ -627,6 +650,28 @@ public class Plist extends HashMap<String, Object> {
 		return KEY_OPEN + key + KEY_CLOSE + encodeArray(matrix);
 	}
 
+	/**
+	 * Utility method to encode the flat <code>double</code> array
+	 * <code>array</code> as a matrix with <code>rows</code> rows of
+	 * <code>cols</code> consecutive entries each with tag <code>key</code>. The
+	 * encoding is the same as for the corresponding <code>double[][]</code>
+	 * matrix.
+	 * <p>
+	 * <strong>Note:</strong> floating point values are saved as bit strings to
+	 * avoid rounding errors when saving/restoring the state of the model.
+	 * 
+	 * @param key   tag name
+	 * @param array flat <code>double[]</code> matrix in row-major order
+	 * @param rows  number of rows
+	 * @param cols  number of columns
+	 * @return encoded String
+	 * 
+	 * @see #encodeKey(String, double[][])
+	 */
+	public static String encodeKey(String key, double[] array, int rows, int cols) {
+		return KEY_OPEN + key + KEY_CLOSE + encodeArray(array, rows, cols);
+	}
+
 	/**
 	 * Utility method to encode <code>String</code> array with tag <code>key</code>.
 	 * 
@@ -658,12 +703,7 @@ public class Plist extends HashMap<String, Object> {
 	 * @return encoded String
 	 */
 	private static String encodeArray(int[] array) {
-		StringBuilder plist = new StringBuilder(ARRAY_OPEN);
-		for (int a : array)
-			plist.append(INTEGER_OPEN)
-					.append(a)
-					.append(INTEGER_CLOSE);
-		return plist.append(ARRAY_CLOSE).toString();
+		return encodeArray(array, array.length);
 	}
 
 	/**
@@ -675,7 +715,9 @@ public class Plist extends HashMap<String, Object> {
 	 * @return encoded String
 	 */
 	private static String encodeArray(int[] array, int len) {
-		StringBuilder plist = new StringBuilder(ARRAY_OPEN);
+		StringBuilder plist = new StringBuilder(ARRAY_OPEN.length() + ARRAY_CLOSE.length()
+				+ len * (INTEGER_OPEN.length() + INTEGER_CLOSE.length() + 2));
+		plist.append(ARRAY_OPEN);
 		for (int n = 0; n < len; n++)
 			plist.append(INTEGER_OPEN)
 					.append(array[n])
@@ -693,12 +735,7 @@ public class Plist extends HashMap<String, Object> {
 	 * @return encoded String
 	 */
 	private static String encodeArray(double[] array) {
-		StringBuilder plist = new StringBuilder(ARRAY_OPEN);
-		for (double a : array)
-			plist.append(REAL_OPEN)
-					.append(Long.toString(Double.doubleToLongBits(a)))
-					.append(REAL_CLOSE);
-		return plist.append(ARRAY_CLOSE).toString();
+		return encodeArray(array, array.length);
 	}
 
 	/**
@@ -713,12 +750,8 @@ public class Plist extends HashMap<String, Object> {
 	 * @return encoded String
 	 */
 	private static String encodeArray(double[] array, int len) {
-		StringBuilder plist = new StringBuilder(ARRAY_OPEN);
-		for (int n = 0; n < len; n++)
-			plist.append(REAL_OPEN)
-					.append(Long.toString(Double.doubleToLongBits(array[n])))
-					.append(REAL_CLOSE);
-		return plist.append(ARRAY_CLOSE).toString();
+		StringBuilder plist = new StringBuilder(encodedLength(len));
+		return appendArray(plist, array, len).toString();
 	}
 
 	/**
@@ -728,12 +761,80 @@ public class Plist extends HashMap<String, Object> {
 	 * @return encoded String
 	 */
 	private static String encodeArray(double[][] array) {
-		StringBuilder plist = new StringBuilder(ARRAY_OPEN);
+		int size = ARRAY_OPEN.length() + ARRAY_CLOSE.length();
+		for (double[] a : array)
+			size += encodedLength(a.length);
+		StringBuilder plist = new StringBuilder(size);
+		plist.append(ARRAY_OPEN);
 		for (double[] a : array)
-			plist.append(encodeArray(a));
+			appendArray(plist, a, a.length);
 		return plist.append(ARRAY_CLOSE).toString();
 	}
 
+	/**
+	 * Helper method to encode flat <code>double</code> matrix with
+	 * <code>rows</code> rows of <code>cols</code> entries each.
+	 * 
+	 * @param array flat <code>double[]</code> matrix in row-major order
+	 * @param rows  number of rows
+	 * @param cols  number of columns
+	 * @return encoded String
+	 */
+	private static String encodeArray(double[] array, int rows, int cols) {
+		StringBuilder plist = new StringBuilder(
+				ARRAY_OPEN.length() + ARRAY_CLOSE.length() + rows * encodedLength(cols));
+		plist.append(ARRAY_OPEN);
+		for (int r = 0; r < rows; r++)
+			appendArray(plist, array, r * cols, cols);
+		return plist.append(ARRAY_CLOSE).toString();
+	}
+
+	/**
+	 * Helper method to append the encoding of the first <code>len</code> elements
+	 * of <code>double</code> array to <code>plist</code>. The bit strings are
+	 * appended directly without creating intermediate strings.
+	 * 
+	 * @param plist the string builder to append to
+	 * @param array <code>double[]</code> value
+	 * @param len   number elements to encode
+	 * @return the string builder <code>plist</code>
+	 */
+	private static StringBuilder appendArray(StringBuilder plist, double[] array, int len) {
+		return appendArray(plist, array, 0, len);
+	}
+
+	/**
+	 * Helper method to append the encoding of the <code>len</code> elements of
+	 * <code>double</code> array starting at index <code>from</code> to
+	 * <code>plist</code>.
+	 * 
+	 * @param plist the string builder to append to
+	 * @param array <code>double[]</code> value
+	 * @param from  index of first element to encode
+	 * @param len   number elements to encode
+	 * @return the string builder <code>plist</code>
+	 */
+	private static StringBuilder appendArray(StringBuilder plist, double[] array, int from, int len) {
+		plist.append(ARRAY_OPEN);
+		for (int n = from; n < from + len; n++)
+			plist.append(REAL_OPEN)
+					.append(Double.doubleToLongBits(array[n]))
+					.append(REAL_CLOSE);
+		return plist.append(ARRAY_CLOSE);
+	}
+
+	/**
+	 * Helper method to estimate the length of the encoding of a
+	 * <code>double</code> array with <code>len</code> elements. Bit strings of
+	 * {@code double}s have typically 19 digits.
+	 * 
+	 * @param len number elements to encode
+	 * @return the estimated length of the encoding
+	 */
+	private static int encodedLength(int len) {
+		return ARRAY_OPEN.length() + ARRAY_CLOSE.length() + len * (REAL_OPEN.length() + REAL_CLOSE.length() + 20);
+	}
+
 	/**
 	 * Helper method to encode <code>String</code> array
 	 * 
@@ -717,6 +717,17 @@ public class EvoLudoGWT extends EvoLudo {
 		return elapsedTime.elapsedMillis();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * GWT implementation based on {@link Duration#currentTimeMillis()}, which
+	 * provides sub-millisecond resolution in most browsers.
+	 */
+	@Override
+	public double timeStampMsec() {
+		return Duration.currentTimeMillis();
+	}
+
 	@Override
 	public Network2D createNetwork2D(AbstractGeometry geometry) {
 		return new Network2DGWT(this, geometry);
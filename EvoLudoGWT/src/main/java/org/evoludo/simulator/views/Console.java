@@ -36,6 +36,7 @@ import java.util.logging.Level;
 import org.evoludo.graphics.AbstractGraph;
 import org.evoludo.simulator.EvoLudoGWT;
 import org.evoludo.simulator.models.Data;
+import org.evoludo.simulator.models.Model;
 import org.evoludo.ui.ContextMenu;
 import org.evoludo.ui.ContextMenuItem;
 import org.evoludo.util.RingBuffer;
@@ -208,6 +209,20 @@ public class Console extends AbstractView<AbstractGraph<?>> implements ContextMe
 		log(Level.INFO, engine.getVersion());
 	}
 
+	/**
+	 * Log the performance counters of the active model.
+	 * 
+	 * @see org.evoludo.simulator.models.Counters
+	 */
+	public void logCounters() {
+		Model model = engine.getModel();
+		if (model == null)
+			return;
+		log(Level.INFO, "Performance counters:");
+		for (String line : model.getCounters().format("  ").split("\n"))
+			log(Level.INFO, line);
+	}
+
 	@Override
 	protected boolean allocateGraphs() {
 		// console entertains no graphs
@@ -337,6 +352,8 @@ public class Console extends AbstractView<AbstractGraph<?>> implements ContextMe
 	public void populateContextMenu(ContextMenu menu) {
 		ContextMenuItem clearMenu = new ContextMenuItem("Clear", this::clearLog);
 		menu.add(clearMenu);
+		ContextMenuItem countersMenu = new ContextMenuItem("Counters", this::logCounters);
+		menu.add(countersMenu);
 		super.populateContextMenu(menu);
 	}
 
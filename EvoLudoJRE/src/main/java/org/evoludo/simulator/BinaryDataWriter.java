@@ -0,0 +1,505 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Writer for binary, columnar time series of simulation data. Each data stream
+ * is written to its own file, which starts with a self-describing header
+ * followed by fixed size records. All numbers are little-endian.
+ * <p>
+ * The header is structured as follows:
+ * <ol>
+ * <li>{@code byte[8]} magic {@value #MAGIC}
+ * <li>{@code int32} format version ({@value #VERSION})
+ * <li>{@code int32} header size in bytes (offset of first record)
+ * <li>{@code int32} encoding of data elements (see {@link Encoding})
+ * <li>{@code int32} record size in bytes
+ * <li>{@code str} key of data stream
+ * <li>{@code int32} number of blocks, typically one per species
+ * <li>for each block: {@code str} block name, {@code int32} number of columns,
+ * {@code int32} number of column names and the column names as {@code str}.
+ * If the number of names is less than the number of columns the names repeat,
+ * e.g. the names of the traits of every individual.
+ * <li>{@code int32} number of attributes followed by the key and value of each
+ * attribute as {@code str}, e.g. the shape of the spatial domain of PDE models
+ * </ol>
+ * Strings {@code str} are encoded as {@code int32} length followed by the UTF-8
+ * bytes. The header is padded with zeros to a multiple of eight bytes.
+ * <p>
+ * Each record starts with the time as a {@code float64} followed by the
+ * columns of all blocks in the specified encoding. Records are padded with
+ * zeros to a multiple of eight bytes such that the file can be mapped directly
+ * into a structured array, e.g. {@code numpy.memmap} or Arrow, without
+ * parsing.
+ * <p>
+ * Data is written through a {@link FileChannel} using a large direct buffer or,
+ * optionally, through memory-mapped regions of the file.
+ *
+ * @author Christoph Hauert
+ */
+public class BinaryDataWriter implements Closeable {
+
+	/**
+	 * The magic bytes at the start of every binary data file.
+	 */
+	public static final String MAGIC = "EVLDDATA";
+
+	/**
+	 * The version of the binary format.
+	 */
+	public static final int VERSION = 2;
+
+	/**
+	 * The encodings of data elements.
+	 */
+	public enum Encoding {
+
+		/**
+		 * Double precision floating point numbers.
+		 */
+		FLOAT64(0, Double.BYTES),
+
+		/**
+		 * Signed 32bit integers.
+		 */
+		INT32(1, Integer.BYTES),
+
+		/**
+		 * Single precision floating point numbers.
+		 */
+		FLOAT32(2, Float.BYTES);
+
+		/**
+		 * The identifier of the encoding in the header.
+		 */
+		final int id;
+
+		/**
+		 * The number of bytes per element.
+		 */
+		final int bytes;
+
+		/**
+		 * Instantiate new encoding.
+		 *
+		 * @param id    the identifier of the encoding
+		 * @param bytes the number of bytes per element
+		 */
+		Encoding(int id, int bytes) {
+			this.id = id;
+			this.bytes = bytes;
+		}
+	}
+
+	/**
+	 * The size of the direct buffer for writing through the file channel.
+	 */
+	static final int BUFFER_SIZE = 1 << 22;
+
+	/**
+	 * The size of memory-mapped regions of the file.
+	 */
+	static final int MAP_SIZE = 1 << 26;
+
+	/**
+	 * The file channel for writing.
+	 */
+	final FileChannel channel;
+
+	/**
+	 * The encoding of the data elements.
+	 */
+	final Encoding encoding;
+
+	/**
+	 * The flag to indicate whether the file is memory-mapped.
+	 */
+	final boolean mapped;
+
+	/**
+	 * The number of bytes per record including padding.
+	 */
+	final int recordSize;
+
+	/**
+	 * The number of elements per record (excluding time).
+	 */
+	final int nElements;
+
+	/**
+	 * The buffer for writing, either a direct buffer or the currently mapped
+	 * region of the file.
+	 */
+	ByteBuffer buffer;
+
+	/**
+	 * The position in the file of the start of {@code buffer}.
+	 */
+	long bufferStart;
+
+	/**
+	 * The number of elements written in the current record or {@code -1} if no
+	 * record is open.
+	 */
+	int count = -1;
+
+	/**
+	 * Create a new binary writer for the data stream {@code key} to
+	 * {@code file}. The layout of the records is specified by the blocks of
+	 * columns. Existing files are overwritten.
+	 *
+	 * @param file        the file for writing
+	 * @param key         the key of the data stream
+	 * @param encoding    the encoding of the data elements
+	 * @param blockNames  the names of the blocks of columns
+	 * @param blockCols   the number of columns in each block
+	 * @param columnNames the (repeating) names of columns in each block (may be
+	 *                    {@code null})
+	 * @param mmap        {@code true} to write through memory-mapped regions
+	 * @throws IOException if the file cannot be opened or written
+	 */
+	public BinaryDataWriter(File file, String key, Encoding encoding, String[] blockNames, int[] blockCols,
+			String[][] columnNames, boolean mmap) throws IOException {
+		this(file, key, encoding, blockNames, blockCols, columnNames, null, mmap);
+	}
+
+	/**
+	 * Create a new binary writer for the data stream {@code key} to
+	 * {@code file}. The layout of the records is specified by the blocks of
+	 * columns. The attributes provide additional information to interpret the
+	 * records, e.g. the shape of the spatial domain. Existing files are
+	 * overwritten.
+	 *
+	 * @param file        the file for writing
+	 * @param key         the key of the data stream
+	 * @param encoding    the encoding of the data elements
+	 * @param blockNames  the names of the blocks of columns
+	 * @param blockCols   the number of columns in each block
+	 * @param columnNames the (repeating) names of columns in each block (may be
+	 *                    {@code null})
+	 * @param attributes  the attributes of the data stream (may be {@code null})
+	 * @param mmap        {@code true} to write through memory-mapped regions
+	 * @throws IOException if the file cannot be opened or written
+	 */
+	public BinaryDataWriter(File file, String key, Encoding encoding, String[] blockNames, int[] blockCols,
+			String[][] columnNames, Map<String, String> attributes, boolean mmap) throws IOException {
+		this.encoding = encoding;
+		this.mapped = mmap;
+		int n = 0;
+		for (int cols : blockCols)
+			n += cols;
+		nElements = n;
+		recordSize = pad(Double.BYTES + n * encoding.bytes);
+		// note: mapping regions for writing requires read access too
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		ByteBuffer header = encodeHeader(key, blockNames, blockCols, columnNames, attributes);
+		while (header.hasRemaining())
+			channel.write(header);
+		bufferStart = channel.position();
+		if (mmap) {
+			map();
+			return;
+		}
+		buffer = ByteBuffer.allocateDirect(Math.max(BUFFER_SIZE, recordSize)).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Helper method to encode the header.
+	 *
+	 * @param key         the key of the data stream
+	 * @param blockNames  the names of the blocks of columns
+	 * @param blockCols   the number of columns in each block
+	 * @param columnNames the (repeating) names of columns in each block
+	 * @param attributes  the attributes of the data stream
+	 * @return the buffer with the encoded header ready for writing
+	 */
+	private ByteBuffer encodeHeader(String key, String[] blockNames, int[] blockCols, String[][] columnNames,
+			Map<String, String> attributes) {
+		int size = MAGIC.length() + 4 * Integer.BYTES + strlen(key) + 2 * Integer.BYTES;
+		int nBlocks = blockNames.length;
+		for (int b = 0; b < nBlocks; b++) {
+			size += strlen(blockNames[b]) + 2 * Integer.BYTES;
+			if (columnNames == null || columnNames[b] == null)
+				continue;
+			for (String name : columnNames[b])
+				size += strlen(name);
+		}
+		if (attributes != null) {
+			for (Map.Entry<String, String> attr : attributes.entrySet())
+				size += strlen(attr.getKey()) + strlen(attr.getValue());
+		}
+		int headerSize = pad(size);
+		ByteBuffer header = ByteBuffer.allocate(headerSize).order(ByteOrder.LITTLE_ENDIAN);
+		header.put(MAGIC.getBytes(StandardCharsets.US_ASCII));
+		header.putInt(VERSION);
+		header.putInt(headerSize);
+		header.putInt(encoding.id);
+		header.putInt(recordSize);
+		putString(header, key);
+		header.putInt(nBlocks);
+		for (int b = 0; b < nBlocks; b++) {
+			putString(header, blockNames[b]);
+			header.putInt(blockCols[b]);
+			String[] names = (columnNames == null ? null : columnNames[b]);
+			if (names == null) {
+				header.putInt(0);
+				continue;
+			}
+			header.putInt(names.length);
+			for (String name : names)
+				putString(header, name);
+		}
+		header.putInt(attributes == null ? 0 : attributes.size());
+		if (attributes != null) {
+			for (Map.Entry<String, String> attr : attributes.entrySet()) {
+				putString(header, attr.getKey());
+				putString(header, attr.getValue());
+			}
+		}
+		// zero padding already present in freshly allocated buffer
+		header.position(0);
+		return header;
+	}
+
+	/**
+	 * Helper method to determine the number of bytes required to encode the string
+	 * {@code str}.
+	 *
+	 * @param str the string to encode
+	 * @return the number of bytes
+	 */
+	private static int strlen(String str) {
+		return Integer.BYTES + (str == null ? 0 : str.getBytes(StandardCharsets.UTF_8).length);
+	}
+
+	/**
+	 * Helper method to encode the string {@code str} in {@code buf}.
+	 *
+	 * @param buf the buffer for encoding
+	 * @param str the string to encode
+	 */
+	private static void putString(ByteBuffer buf, String str) {
+		byte[] bytes = (str == null ? new byte[0] : str.getBytes(StandardCharsets.UTF_8));
+		buf.putInt(bytes.length);
+		buf.put(bytes);
+	}
+
+	/**
+	 * Helper method to round {@code size} up to the next multiple of eight.
+	 *
+	 * @param size the number of bytes
+	 * @return the padded number of bytes
+	 */
+	private static int pad(int size) {
+		return (size + 7) & ~7;
+	}
+
+	/**
+	 * Get the number of bytes per record (including padding).
+	 *
+	 * @return the record size
+	 */
+	public int getRecordSize() {
+		return recordSize;
+	}
+
+	/**
+	 * Start a new record at time {@code time}.
+	 *
+	 * @param time the time of the record
+	 * @throws IOException if writing fails
+	 */
+	public void startRecord(double time) throws IOException {
+		if (count >= 0)
+			throw new IllegalStateException("previous record not completed.");
+		ensure(Double.BYTES);
+		buffer.putDouble(time);
+		count = 0;
+	}
+
+	/**
+	 * Append the value {@code value} to the current record.
+	 *
+	 * @param value the value to append
+	 * @throws IOException if writing fails
+	 */
+	public void put(double value) throws IOException {
+		ensure(encoding.bytes);
+		switch (encoding) {
+			case FLOAT32:
+				buffer.putFloat((float) value);
+				break;
+			case INT32:
+				buffer.putInt((int) value);
+				break;
+			case FLOAT64:
+			default:
+				buffer.putDouble(value);
+		}
+		count++;
+	}
+
+	/**
+	 * Append the value {@code value} to the current record.
+	 *
+	 * @param value the value to append
+	 * @throws IOException if writing fails
+	 */
+	public void put(int value) throws IOException {
+		if (encoding != Encoding.INT32) {
+			put((double) value);
+			return;
+		}
+		ensure(Integer.BYTES);
+		buffer.putInt(value);
+		count++;
+	}
+
+	/**
+	 * Append the values {@code values} to the current record.
+	 *
+	 * @param values the values to append
+	 * @throws IOException if writing fails
+	 */
+	public void put(double[] values) throws IOException {
+		for (double value : values)
+			put(value);
+	}
+
+	/**
+	 * Complete the current record. Pads the record with zeros, if necessary.
+	 *
+	 * @throws IOException if writing fails
+	 * @throws IllegalStateException if the number of elements does not match the
+	 *                               layout specified in the header
+	 */
+	public void endRecord() throws IOException {
+		if (count != nElements)
+			throw new IllegalStateException("record has " + count + " elements but " + nElements + " expected.");
+		int padding = recordSize - Double.BYTES - nElements * encoding.bytes;
+		if (padding > 0) {
+			ensure(padding);
+			for (int i = 0; i < padding; i++)
+				buffer.put((byte) 0);
+		}
+		count = -1;
+	}
+
+	/**
+	 * Helper method to ensure that at least {@code bytes} are available in the
+	 * buffer. Writes the buffer to the file or maps the next region of the file.
+	 *
+	 * @param bytes the number of bytes required
+	 * @throws IOException if writing fails
+	 */
+	private void ensure(int bytes) throws IOException {
+		if (buffer.remaining() >= bytes)
+			return;
+		if (mapped) {
+			bufferStart += buffer.position();
+			map();
+			return;
+		}
+		drain();
+	}
+
+	/**
+	 * Helper method to map the next region of the file starting at
+	 * {@code bufferStart}.
+	 *
+	 * @throws IOException if mapping fails
+	 */
+	private void map() throws IOException {
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, bufferStart, Math.max(MAP_SIZE, recordSize))
+				.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Helper method to write the content of the direct buffer to the file.
+	 *
+	 * @throws IOException if writing fails
+	 */
+	private void drain() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Flush all completed records to the file.
+	 *
+	 * @throws IOException if writing fails
+	 */
+	public void flush() throws IOException {
+		if (mapped) {
+			((MappedByteBuffer) buffer).force();
+			return;
+		}
+		drain();
+		channel.force(false);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Writes all pending data and truncates memory-mapped files to the size of the
+	 * data written.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!channel.isOpen())
+			return;
+		try {
+			if (mapped) {
+				((MappedByteBuffer) buffer).force();
+				long end = bufferStart + buffer.position();
+				buffer = null;
+				channel.truncate(end);
+			} else
+				drain();
+		} finally {
+			channel.close();
+		}
+	}
+}
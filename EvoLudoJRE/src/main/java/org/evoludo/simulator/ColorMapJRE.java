@@ -206,7 +206,7 @@ public abstract class ColorMapJRE extends ColorMap<Color> {
 		 * @param nIncr the number of intermediate colors
 		 * 
 		 * @see #setRange(double, double)
-		 * @see #translate(double[][], Object[]) translate(double[][], G[])
+		 * @see #translate(double[], int, Object[]) translate(double[], int, G[])
 		 */
 		public Gradient1D(Color start, Color end, int trait, int nIncr) {
 			super(new Color[] { start, end }, trait, new Color[nIncr]);
@@ -38,13 +38,19 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipInputStream;
@@ -68,7 +74,9 @@ import org.evoludo.simulator.models.Model;
 import org.evoludo.simulator.models.ModelType;
 import org.evoludo.simulator.models.PDE;
 import org.evoludo.simulator.models.PDEJRE;
+import org.evoludo.simulator.models.SDEJRE;
 import org.evoludo.simulator.models.SDEN;
+import org.evoludo.simulator.modules.Features.Payoffs;
 import org.evoludo.simulator.modules.Module;
 import org.evoludo.simulator.modules.Traits;
 import org.evoludo.simulator.views.MultiView;
@@ -131,6 +139,64 @@ public class EvoLudoJRE extends EvoLudo implements Runnable {
 		return (int) (System.currentTimeMillis() - startmsec);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * JRE implementation based on {@link System#nanoTime()}.
+	 */
+	@Override
+	public double timeStampMsec() {
+		return System.nanoTime() * 1e-6;
+	}
+
+	/**
+	 * The bean for querying the memory allocated by threads or {@code null} if
+	 * not supported by the JVM.
+	 */
+	private static final com.sun.management.ThreadMXBean threadBean = getThreadBean();
+
+	/**
+	 * Helper method to get the bean for querying the memory allocated by threads.
+	 * 
+	 * @return the bean or {@code null} if not supported
+	 */
+	private static com.sun.management.ThreadMXBean getThreadBean() {
+		if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean))
+			return null;
+		com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		if (!bean.isThreadAllocatedMemorySupported() || !bean.isThreadAllocatedMemoryEnabled())
+			return null;
+		return bean;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * JRE implementation based on
+	 * {@link com.sun.management.ThreadMXBean#getCurrentThreadAllocatedBytes()},
+	 * provided that the JVM supports it.
+	 */
+	@Override
+	public double allocatedBytes() {
+		if (threadBean == null)
+			return -1.0;
+		return threadBean.getCurrentThreadAllocatedBytes();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * JRE implementation emits Java Flight Recorder events, provided that the
+	 * event for {@code phase} is enabled in an active recording.
+	 * 
+	 * @see PhaseEvents
+	 */
+	@Override
+	public PhaseTrace beginTrace(PhaseTrace.Phase phase) {
+		return PhaseEvents.begin(phase);
+	}
+
 	/**
 	 * The pacemaker for running EvoLudo.
 	 */
@@ -147,6 +213,11 @@ public class EvoLudoJRE extends EvoLudo implements Runnable {
 	 */
 	Thread executeThread = null; // command execution thread
 
+	/**
+	 * The worker threads hired by models, e.g. for integrating PDEs in parallel.
+	 */
+	private final List<Thread> workers = new CopyOnWriteArrayList<>();
+
 	/**
 	 * Constructor for JRE application. This constructor is used when running
 	 * EvoLudo as a JRE application.
@@ -207,6 +278,39 @@ public class EvoLudoJRE extends EvoLudo implements Runnable {
 		engineThread.start();
 	}
 
+	/**
+	 * Get the engine thread, which runs the model.
+	 * 
+	 * @return the engine thread
+	 */
+	public Thread getEngineThread() {
+		return engineThread;
+	}
+
+	/**
+	 * Register the worker thread {@code worker} that processes parts of a model
+	 * step on behalf of the engine thread. Registered workers are accounted for
+	 * when profiling the engine, e.g. measuring the memory allocated per step.
+	 * 
+	 * @param worker the worker thread
+	 */
+	public void registerWorker(Thread worker) {
+		workers.add(worker);
+	}
+
+	/**
+	 * Get the registered worker threads that are still alive. Terminated workers
+	 * are dropped from the registry.
+	 * 
+	 * @return the list of live worker threads
+	 * 
+	 * @see #registerWorker(Thread)
+	 */
+	public List<Thread> getWorkers() {
+		workers.removeIf(worker -> !worker.isAlive());
+		return List.copyOf(workers);
+	}
+
 	/**
 	 * Create a managed helper thread for the JRE engine.
 	 * <p>
@@ -241,6 +345,7 @@ public class EvoLudoJRE extends EvoLudo implements Runnable {
 					int dim = (((Model.HasDE) activeModule).getDependent() < 0 ? nt : nt - 1);
 					if (dim > 2)
 						return new SDEN(this);
+					return new SDEJRE(this);
 				}
 				break;
 			default:
@@ -527,6 +632,8 @@ public class EvoLudoJRE extends EvoLudo implements Runnable {
 		// print data legend (for dynamical reports) and initialize variables (for
 		// statistics reports)
 		for (MultiView.DataTypes data : dataTypes) {
+			if (openBinaryWriter(data, traitNames, meantrait.length, meanfit.length))
+				continue;
 			switch (data) {
 				case MEAN:
 					output.println("# time,\t" + data.getKey() + ",\t" + Formatter.format(traitNames)
@@ -537,6 +644,11 @@ public class EvoLudoJRE extends EvoLudo implements Runnable {
 							+ (isContinuous ? ", sdev" : ", Population"));
 					break;
 				case TRAITS:
+					if (model instanceof PDE) {
+						output.println("# time,\t" + data.getKey() + ",\t" + Formatter.format(traitNames)
+								+ " of all units");
+						break;
+					}
 					output.println("# time,\t" + data.getKey() + (module.getNSpecies() > 1 ? "\tSpecies" : "")
 							+ ",\tTraits of all Individuals");
 					break;
@@ -545,6 +657,11 @@ public class EvoLudoJRE extends EvoLudo implements Runnable {
 							+ ",\tScores of all Individuals");
 					break;
 				case FITNESS:
+					if (model instanceof PDE) {
+						output.println("# time,\t" + data.getKey() + ",\tFitness of " + Formatter.format(traitNames)
+								+ " of all units");
+						break;
+					}
 					output.println("# time,\t" + data.getKey() + (module.getNSpecies() > 1 ? "\tSpecies" : "")
 							+ ",\tFitness of all Individuals");
 					break;
@@ -586,55 +703,54 @@ public class EvoLudoJRE extends EvoLudo implements Runnable {
 
 			case DYNAMICS:
 				boolean cont = true;
+				// reuse string builder to avoid allocations when formatting data
+				StringBuilder line = new StringBuilder(1024);
 				while (true) {
-					String time = Formatter.format(model.getUpdates(), dataDigits);
 					// report dynamical data
 					for (MultiView.DataTypes data : dataTypes) {
+						if (writeBinary(data, meantrait, meanfit))
+							continue;
 						switch (data) {
 							case MEAN:
 								model.getMeanTraits(meantrait);
-								output.println(time + ",\t" + data.getKey() + ",\t"
-										+ Formatter.format(meantrait, dataDigits));
+								Formatter.append(dataLine(line, data, null), meantrait, dataDigits);
+								output.println(line);
 								break;
 							case FITMEAN:
 								model.getMeanFitness(meanfit);
-								output.println(time + ",\t" + data.getKey() + ",\t"
-										+ Formatter.format(meanfit, dataDigits));
+								Formatter.append(dataLine(line, data, null), meanfit, dataDigits);
+								output.println(line);
 								break;
 							case TRAITS:
 								if (model instanceof IBSD) {
-									boolean isMultispecies = (module.getNSpecies() > 1);
 									for (Module<?> mod : module.getSpecies()) {
 										IBSDPopulation pop = (IBSDPopulation) mod.getIBSPopulation();
-										output.println(time + ",\t" + data.getKey()
-												+ (isMultispecies ? "\t" + mod.getName() : "") + ",\t"
-												+ pop.getTraits());
+										pop.appendTraits(dataLine(line, data, mod));
+										output.println(line);
 									}
 									break;
 								}
 								if (model instanceof IBSC) {
-									boolean isMultispecies = (module.getNSpecies() > 1);
 									for (Module<?> mod : module.getSpecies()) {
 										IBSMCPopulation pop = (IBSMCPopulation) mod.getIBSPopulation();
-										output.println(time + ",\t" + data.getKey()
-												+ (isMultispecies ? "\t" + mod.getName() : "") + ",\t"
-												+ pop.getTraits(dataDigits));
+										pop.appendTraits(dataLine(line, data, mod), dataDigits);
+										output.println(line);
 									}
 									break;
 								}
 								if (model instanceof PDE) {
-									output.println("How to best report trait distribution in PDE?");
+									pdeField = ((PDE) model).getTraitField(pdeField);
+									Formatter.append(dataLine(line, data, null), pdeField, dataDigits);
+									output.println(line);
 									break;
 								}
 								throw new IllegalStateException("This never happens.");
 							case SCORES:
 								if (model instanceof IBS) {
-									boolean isMultispecies = (module.getNSpecies() > 1);
 									for (Module<?> mod : module.getSpecies()) {
 										IBSPopulation<?, ?> pop = mod.getIBSPopulation();
-										output.println(time + ",\t" + data.getKey()
-												+ (isMultispecies ? "\t" + mod.getName() : "") + ",\t"
-												+ pop.getScores(dataDigits));
+										pop.appendScores(dataLine(line, data, mod), dataDigits);
+										output.println(line);
 									}
 									break;
 								}
@@ -645,17 +761,21 @@ public class EvoLudoJRE extends EvoLudo implements Runnable {
 								throw new IllegalStateException("This never happens.");
 							case FITNESS:
 								if (model instanceof IBS) {
-									boolean isMultispecies = (module.getNSpecies() > 1);
 									for (Module<?> mod : module.getSpecies()) {
 										IBSPopulation<?, ?> pop = mod.getIBSPopulation();
-										output.println(time + ",\t" + data.getKey()
-												+ (isMultispecies ? "\t" + mod.getName() : "") + ",\t"
-												+ pop.getFitness(dataDigits));
+										pop.appendFitness(dataLine(line, data, mod), dataDigits);
+										output.println(line);
 									}
 									break;
 								}
 								if (model instanceof PDE) {
-									output.println("How to best report fitness distribution in PDE?");
+									pdeField = ((PDE) model).getFitnessField(pdeField);
+									if (pdeField == null) {
+										output.println("# fitness not available in PDE.");
+										break;
+									}
+									Formatter.append(dataLine(line, data, null), pdeField, dataDigits);
+									output.println(line);
 									break;
 								}
 								throw new IllegalStateException("This never happens.");
@@ -784,10 +904,290 @@ public class EvoLudoJRE extends EvoLudo implements Runnable {
 			default:
 				throw new UnsupportedOperationException("Mode not recognized.");
 		}
+		closeBinaryWriters();
 		writeFooter();
 		exit(0);
 	}
 
+	/**
+	 * The writers for data types reported in binary format.
+	 * 
+	 * @see #cloBinary
+	 */
+	EnumMap<MultiView.DataTypes, BinaryDataWriter> binaryWriters = new EnumMap<>(MultiView.DataTypes.class);
+
+	/**
+	 * Helper method to open the binary writer for the data type {@code data}, if
+	 * requested. The layout of the records is deduced from the active module and
+	 * model. Data types that cannot be reported in binary format are reported as
+	 * text.
+	 * 
+	 * @param data       the data type to report
+	 * @param traitNames the names of traits of all species
+	 * @param nMean      the number of entries of mean traits
+	 * @param nFit       the number of entries of mean fitness
+	 * @return {@code true} if the binary writer was opened
+	 * 
+	 * @see BinaryDataWriter
+	 */
+	private boolean openBinaryWriter(MultiView.DataTypes data, String[] traitNames, int nMean, int nFit) {
+		if (binaryTypes == null || !binaryTypes.contains(data))
+			return false;
+		Module<?> module = getModule();
+		Model model = getModel();
+		List<? extends Module<?>> species = module.getSpecies();
+		int nSpecies = species.size();
+		String[] blockNames = new String[nSpecies];
+		int[] blockCols = new int[nSpecies];
+		String[][] columnNames = new String[nSpecies][];
+		BinaryDataWriter.Encoding encoding = (binarySingle ? BinaryDataWriter.Encoding.FLOAT32
+				: BinaryDataWriter.Encoding.FLOAT64);
+		Map<String, String> attributes = null;
+		switch (data) {
+			case MEAN:
+			case FITMEAN:
+				int nTraits = traitNames.length;
+				int nCols = (data == MultiView.DataTypes.MEAN ? nMean : nFit);
+				String[] names = new String[nCols];
+				for (int i = 0; i < nCols; i++) {
+					if (i < nTraits)
+						names[i] = traitNames[i];
+					else
+						names[i] = (model.isContinuous() ? traitNames[i - nTraits] + " sdev" : "Population");
+				}
+				blockNames = new String[] { data.getKey() };
+				blockCols = new int[] { nCols };
+				columnNames = new String[][] { names };
+				break;
+			case TRAITS:
+				if (model instanceof PDE) {
+					attributes = pdeAttributes((PDE) model);
+					blockNames = new String[] { module.getName() };
+					blockCols = new int[] { ((PDE) model).getGeometry().getSize() * module.getNTraits() };
+					columnNames = new String[][] { module.getTraitNames() };
+					break;
+				}
+				if (!(model instanceof IBSD || model instanceof IBSC))
+					return false;
+				if (model instanceof IBSD)
+					encoding = BinaryDataWriter.Encoding.INT32;
+				for (int n = 0; n < nSpecies; n++) {
+					Module<?> mod = species.get(n);
+					int nt = (model instanceof IBSC ? mod.getNTraits() : 1);
+					blockNames[n] = mod.getName();
+					blockCols[n] = mod.getNPopulation() * nt;
+					columnNames[n] = (model instanceof IBSC ? mod.getTraitNames() : null);
+				}
+				break;
+			case FITNESS:
+				if (model instanceof PDE) {
+					if (!(module instanceof Payoffs))
+						return false;
+					attributes = pdeAttributes((PDE) model);
+					blockNames = new String[] { module.getName() };
+					blockCols = new int[] { ((PDE) model).getGeometry().getSize() * module.getNTraits() };
+					columnNames = new String[][] { module.getTraitNames() };
+					break;
+				}
+				//$FALL-THROUGH$
+			case SCORES:
+				if (!(model instanceof IBS))
+					return false;
+				for (int n = 0; n < nSpecies; n++) {
+					Module<?> mod = species.get(n);
+					blockNames[n] = mod.getName();
+					blockCols[n] = mod.getNPopulation();
+				}
+				break;
+			default:
+				return false;
+		}
+		File file = binaryFile(data);
+		if (file == null)
+			return false;
+		try {
+			binaryWriters.put(data,
+					new BinaryDataWriter(file, data.getKey(), encoding, blockNames, blockCols, columnNames, attributes,
+							binaryMapped));
+		} catch (IOException e) {
+			logger.warning("failed to open '" + file.getPath() + "' for binary output of " + data.getKey()
+					+ " - reverting to text.");
+			return false;
+		}
+		output.println("# time,\t" + data.getKey() + ",\tbinary data in '" + file.getPath() + "'");
+		return true;
+	}
+
+	/**
+	 * The buffer for reporting the densities or fitness of all traits in all
+	 * units of PDE models.
+	 */
+	private double[] pdeField;
+
+	/**
+	 * Helper method to describe the spatial domain of the PDE model {@code pde}
+	 * in the header of binary output. The attributes comprise the key of the
+	 * model and the geometry, the shape of the domain (see
+	 * {@link PDE#getShape()}), the number of units and the linear extension of
+	 * the domain.
+	 * 
+	 * @param pde the PDE model
+	 * @return the attributes of the spatial domain
+	 */
+	private static Map<String, String> pdeAttributes(PDE pde) {
+		Map<String, String> attributes = new LinkedHashMap<>();
+		attributes.put("model", pde.getType().getKey());
+		attributes.put("geometry", pde.getGeometry().getType().getKey());
+		StringBuilder shape = new StringBuilder();
+		for (int dim : pde.getShape())
+			shape.append(shape.length() > 0 ? "," : "").append(dim);
+		attributes.put("shape", shape.toString());
+		attributes.put("units", Integer.toString(pde.getGeometry().getSize()));
+		attributes.put("extension", Double.toString(pde.getLinearExtension()));
+		return attributes;
+	}
+
+	/**
+	 * Helper method to determine the file for binary output of data type
+	 * {@code data}. The name is derived from the file name for {@code --output} or
+	 * {@code --append}, if set, and {@code evoludo} otherwise, followed by the key
+	 * of the data type and the extension {@code .bin}.
+	 * 
+	 * @param data the data type to report
+	 * @return the file for binary output or {@code null} if no unique file could be
+	 *         created
+	 */
+	private File binaryFile(MultiView.DataTypes data) {
+		String base = "evoludo";
+		if (cloAppend.isSet())
+			base = cloAppend.getArg();
+		else if (cloOutput.isSet())
+			base = cloOutput.getArg();
+		int ext = base.lastIndexOf('.');
+		if (ext > base.lastIndexOf(File.separatorChar))
+			base = base.substring(0, ext);
+		return uniqueFile(base + "-" + data.getKey(), "bin");
+	}
+
+	/**
+	 * Helper method to write a record with the current data of type {@code data} in
+	 * binary format, if requested. If writing fails the binary writer is closed and
+	 * reporting reverts to text.
+	 * 
+	 * @param data      the data type to report
+	 * @param meantrait the storage for the mean traits
+	 * @param meanfit   the storage for the mean fitness
+	 * @return {@code true} if the data was written in binary format
+	 */
+	private boolean writeBinary(MultiView.DataTypes data, double[] meantrait, double[] meanfit) {
+		BinaryDataWriter writer = binaryWriters.get(data);
+		if (writer == null)
+			return false;
+		Model model = getModel();
+		try {
+			writer.startRecord(model.getUpdates());
+			switch (data) {
+				case MEAN:
+					model.getMeanTraits(meantrait);
+					writer.put(meantrait);
+					break;
+				case FITMEAN:
+					model.getMeanFitness(meanfit);
+					writer.put(meanfit);
+					break;
+				case TRAITS:
+					if (model instanceof PDE) {
+						pdeField = ((PDE) model).getTraitField(pdeField);
+						writer.put(pdeField);
+						break;
+					}
+					for (Module<?> mod : getModule().getSpecies()) {
+						int nPop = mod.getNPopulation();
+						if (model instanceof IBSD) {
+							IBSDPopulation pop = (IBSDPopulation) mod.getIBSPopulation();
+							for (int n = 0; n < nPop; n++)
+								writer.put(pop.getTraitAt(n));
+							continue;
+						}
+						IBSMCPopulation pop = (IBSMCPopulation) mod.getIBSPopulation();
+						int nt = mod.getNTraits();
+						for (int n = 0; n < nPop; n++)
+							for (int d = 0; d < nt; d++)
+								writer.put(pop.getTraitAt(n, d));
+					}
+					break;
+				case SCORES:
+					for (Module<?> mod : getModule().getSpecies()) {
+						IBSPopulation<?, ?> pop = mod.getIBSPopulation();
+						int nPop = mod.getNPopulation();
+						for (int n = 0; n < nPop; n++)
+							writer.put(pop.getScoreAt(n));
+					}
+					break;
+				case FITNESS:
+					if (model instanceof PDE) {
+						pdeField = ((PDE) model).getFitnessField(pdeField);
+						writer.put(pdeField);
+						break;
+					}
+					for (Module<?> mod : getModule().getSpecies()) {
+						IBSPopulation<?, ?> pop = mod.getIBSPopulation();
+						int nPop = mod.getNPopulation();
+						for (int n = 0; n < nPop; n++)
+							writer.put(pop.getFitnessAt(n));
+					}
+					break;
+				default:
+					throw new IllegalStateException("This never happens.");
+			}
+			writer.endRecord();
+		} catch (IOException e) {
+			logger.warning("binary output of " + data.getKey() + " failed (" + e.getMessage()
+					+ ") - reverting to text.");
+			binaryWriters.remove(data);
+			try {
+				writer.close();
+			} catch (IOException ce) {
+				// not much we can do...
+			}
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Close all binary writers. Pending data is written to the respective files.
+	 */
+	void closeBinaryWriters() {
+		for (BinaryDataWriter writer : binaryWriters.values()) {
+			try {
+				writer.close();
+			} catch (IOException e) {
+				logger.warning("failed to close binary output (" + e.getMessage() + ").");
+			}
+		}
+		binaryWriters.clear();
+	}
+
+	/**
+	 * Helper method to start a new line of data of type {@code data} in the
+	 * string builder {@code line}. The line starts with the current time, the key
+	 * of the data type and, for multi-species modules, the name of the species
+	 * {@code mod}.
+	 * 
+	 * @param line the string builder for the line (cleared)
+	 * @param data the data type to report
+	 * @param mod  the species to report or {@code null}
+	 * @return the string builder {@code line}
+	 */
+	private StringBuilder dataLine(StringBuilder line, MultiView.DataTypes data, Module<?> mod) {
+		line.setLength(0);
+		Formatter.append(line, getModel().getUpdates(), dataDigits).append(",\t").append(data.getKey());
+		if (mod != null && getModule().getNSpecies() > 1)
+			line.append("\t").append(mod.getName());
+		return line.append(",\t");
+	}
+
 	/**
 	 * Generate a single, valid statistics sample.
 	 * 
@@ -1107,6 +1507,9 @@ public class EvoLudoJRE extends EvoLudo implements Runnable {
 		DecimalFormat twodigits = new DecimalFormat("00");
 		output.println("# runningtime:          " + deltahour + ":" + twodigits.format(deltamin) + ":"
 				+ twodigits.format(deltasec) + "." + twodigits.format(deltamilli % 1000));
+		if (activeModel != null)
+			output.print(activeModel.getCounters().format("# "));
+		output.flush();
 	}
 
 	/**
@@ -1404,6 +1807,101 @@ public class EvoLudoJRE extends EvoLudo implements Runnable {
 				}
 			});
 
+	/**
+	 * The data types reported in binary format.
+	 * 
+	 * @see #cloBinary
+	 * @see BinaryDataWriter
+	 */
+	ArrayList<MultiView.DataTypes> binaryTypes;
+
+	/**
+	 * The flag to indicate whether binary data is written through memory-mapped
+	 * files.
+	 * 
+	 * @see #cloMmap
+	 */
+	boolean binaryMapped;
+
+	/**
+	 * Command line option to report data types in binary format. Each data type is
+	 * written to a separate file with a self-describing header followed by fixed
+	 * size records of little-endian numbers. Only data types of the dynamics that
+	 * report the state of the population(s) are supported, i.e. the mean traits
+	 * and fitness as well as the traits, scores and fitness of all individuals or,
+	 * for PDE models, the densities and fitness of all units.
+	 * 
+	 * @see BinaryDataWriter
+	 */
+	public final CLOption cloBinary = new CLOption("binary", null, CLOCategory.Simulation,
+			"--binary <d[,d1,...]>  data types reported in binary format", new CLODelegate() {
+				@Override
+				public boolean parse(String arg) {
+					binaryTypes = null;
+					if (arg == null || arg.isEmpty())
+						return true;
+					boolean success = true;
+					binaryTypes = new ArrayList<>();
+					for (String type : arg.split(CLOParser.VECTOR_DELIMITER)) {
+						MultiView.DataTypes data = (MultiView.DataTypes) cloBinary.match(type);
+						if (data == null)
+							return false;
+						switch (data) {
+							case MEAN:
+							case FITMEAN:
+							case TRAITS:
+							case SCORES:
+							case FITNESS:
+								if (!binaryTypes.contains(data))
+									binaryTypes.add(data);
+								break;
+							default:
+								logger.warning("binary output of '" + data.getKey() + "' not supported - ignored.");
+								success = false;
+						}
+					}
+					return success;
+				}
+			});
+
+	/**
+	 * The flag to indicate whether floating point numbers are reported in single
+	 * precision in binary format.
+	 * 
+	 * @see #cloFloat32
+	 */
+	boolean binarySingle;
+
+	/**
+	 * Command line option to report floating point numbers in single precision in
+	 * binary format. Halves the size of large data sets, such as the densities of
+	 * PDE models on large lattices, at the expense of precision.
+	 * 
+	 * @see #cloBinary
+	 */
+	public final CLOption cloFloat32 = new CLOption("float32", CLOCategory.Simulation,
+			"--float32       single precision for binary output", new CLODelegate() {
+				@Override
+				public boolean parse(boolean isSet) {
+					binarySingle = isSet;
+					return true;
+				}
+			});
+
+	/**
+	 * Command line option to write binary data through memory-mapped files.
+	 * 
+	 * @see #cloBinary
+	 */
+	public final CLOption cloMmap = new CLOption("mmap", CLOCategory.Simulation,
+			"--mmap          memory-map files for binary output", new CLODelegate() {
+				@Override
+				public boolean parse(boolean isSet) {
+					binaryMapped = isSet;
+					return true;
+				}
+			});
+
 	/**
 	 * Command line option to set the data reported by simulations.
 	 */
@@ -1429,6 +1927,11 @@ public class EvoLudoJRE extends EvoLudo implements Runnable {
 			cloData.clearKeys();
 			cloData.addKeys(MultiView.getAvailableDataTypes(activeModule, activeModel));
 			prsr.addCLO(cloDigits);
+			prsr.addCLO(cloBinary);
+			cloBinary.clearKeys();
+			cloBinary.addKeys(MultiView.getAvailableDataTypes(activeModule, activeModel));
+			prsr.addCLO(cloMmap);
+			prsr.addCLO(cloFloat32);
 		}
 		prsr.addCLO(cloRestore);
 		super.collectCLO(prsr);
@@ -1738,6 +2241,7 @@ public class EvoLudoJRE extends EvoLudo implements Runnable {
 		 */
 		@Override
 		public void run() {
+			engine.closeBinaryWriters();
 			engine.exportState("panic-t%d-" + new Date().toString());
 		}
 	}
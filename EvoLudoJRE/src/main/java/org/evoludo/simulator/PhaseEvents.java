@@ -0,0 +1,281 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for tracing the phases of EvoLudo simulations.
+ * Each {@link PhaseTrace.Phase} has its own event type, which can be enabled or
+ * disabled separately in JFR settings. All events belong to the category
+ * {@code EvoLudo} and record the size of the population (or the number of units
+ * for PDEs), the number of updates advanced (in generations) and further
+ * details of the phase. For example, record a simulation with
+ * <pre>
+ * java -XX:StartFlightRecording=filename=evoludo.jfr -jar EvoLudo.jar ...
+ * </pre>
+ * and inspect the events with {@code jfr print --categories EvoLudo evoludo.jfr}
+ * or JDK Mission Control. Events are only created if enabled in one of the
+ * active recordings and hence the overhead is negligible otherwise.
+ *
+ * @author Christoph Hauert
+ *
+ * @see EvoLudoJRE#beginTrace(PhaseTrace.Phase)
+ */
+final class PhaseEvents {
+
+	/**
+	 * The event types of the phases.
+	 */
+	private static final Map<PhaseTrace.Phase, EventType> TYPES = new EnumMap<>(PhaseTrace.Phase.class);
+
+	static {
+		for (PhaseTrace.Phase phase : PhaseTrace.Phase.values())
+			TYPES.put(phase, EventType.getEventType(eventClass(phase)));
+	}
+
+	/**
+	 * Ensure non-instantiability with private default constructor.
+	 */
+	private PhaseEvents() {
+	}
+
+	/**
+	 * Begin the event for {@code phase} if enabled.
+	 *
+	 * @param phase the phase to trace
+	 * @return the started event or {@code null} if not enabled
+	 */
+	static PhaseTrace begin(PhaseTrace.Phase phase) {
+		if (!TYPES.get(phase).isEnabled())
+			return null;
+		PhaseEvent event = create(phase);
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Get the event class for {@code phase}. The switch is exhaustive such that
+	 * new phases without a matching event are caught by the compiler.
+	 *
+	 * @param phase the phase to trace
+	 * @return the event class
+	 */
+	private static Class<? extends PhaseEvent> eventClass(PhaseTrace.Phase phase) {
+		return switch (phase) {
+			case MODEL_STEP -> ModelStep.class;
+			case STATISTICS_SAMPLE -> StatisticsSample.class;
+			case GEOMETRY_INIT -> GeometryInit.class;
+			case GEOMETRY_REWIRE -> GeometryRewire.class;
+			case NETWORK_LAYOUT -> NetworkLayout.class;
+			case PDE_REACT -> PDEReact.class;
+			case PDE_DIFFUSE -> PDEDiffuse.class;
+			case PDE_STEP -> PDEStep.class;
+			case STATE_EXPORT -> StateExport.class;
+			case STATE_RESTORE -> StateRestore.class;
+			case MODEL_CHANGED -> ModelChanged.class;
+		};
+	}
+
+	/**
+	 * Create a new event for {@code phase}.
+	 *
+	 * @param phase the phase to trace
+	 * @return the new event
+	 */
+	private static PhaseEvent create(PhaseTrace.Phase phase) {
+		return switch (phase) {
+			case MODEL_STEP -> new ModelStep();
+			case STATISTICS_SAMPLE -> new StatisticsSample();
+			case GEOMETRY_INIT -> new GeometryInit();
+			case GEOMETRY_REWIRE -> new GeometryRewire();
+			case NETWORK_LAYOUT -> new NetworkLayout();
+			case PDE_REACT -> new PDEReact();
+			case PDE_DIFFUSE -> new PDEDiffuse();
+			case PDE_STEP -> new PDEStep();
+			case STATE_EXPORT -> new StateExport();
+			case STATE_RESTORE -> new StateRestore();
+			case MODEL_CHANGED -> new ModelChanged();
+		};
+	}
+
+	/**
+	 * The common base of all events. Records the size of the population, the
+	 * number of updates advanced and details of the phase.
+	 * <p>
+	 * <strong>Note:</strong> event classes must not refer to their subclasses,
+	 * otherwise instrumenting them for JFR fails.
+	 */
+	@Category("EvoLudo")
+	@StackTrace(false)
+	abstract static class PhaseEvent extends Event implements PhaseTrace {
+
+		/**
+		 * The size of the population or the number of units.
+		 */
+		@Label("Size")
+		@Description("Population size or number of units")
+		int size;
+
+		/**
+		 * The number of updates advanced.
+		 */
+		@Label("Updates")
+		@Description("Number of updates advanced (in generations)")
+		double updates;
+
+		/**
+		 * Details about the phase.
+		 */
+		@Label("Detail")
+		@Description("Further details of the phase, e.g. type of model or geometry, or outcome")
+		String detail;
+
+		@Override
+		public void record(int size, double updates, String detail) {
+			end();
+			if (!shouldCommit())
+				return;
+			this.size = size;
+			this.updates = updates;
+			this.detail = detail;
+			commit();
+		}
+	}
+
+	/**
+	 * Single step of the model.
+	 */
+	@Name("org.evoludo.ModelStep")
+	@Label("Model Step")
+	@Description("Single step of the model")
+	static class ModelStep extends PhaseEvent {
+	}
+
+	/**
+	 * Single sample for statistics.
+	 */
+	@Name("org.evoludo.StatisticsSample")
+	@Label("Statistics Sample")
+	@Description("Single sample for statistics from start to fixation or failure")
+	static class StatisticsSample extends PhaseEvent {
+	}
+
+	/**
+	 * Construction of a geometry.
+	 */
+	@Name("org.evoludo.GeometryInit")
+	@Label("Geometry Init")
+	@Description("Construction of a geometry")
+	static class GeometryInit extends PhaseEvent {
+	}
+
+	/**
+	 * Rewiring of a geometry.
+	 */
+	@Name("org.evoludo.GeometryRewire")
+	@Label("Geometry Rewire")
+	@Description("Rewiring or adding links to a geometry")
+	static class GeometryRewire extends PhaseEvent {
+	}
+
+	/**
+	 * Layout of a network.
+	 */
+	@Name("org.evoludo.NetworkLayout")
+	@Label("Network Layout")
+	@Description("Layout of a network for visualization")
+	static class NetworkLayout extends PhaseEvent {
+	}
+
+	/**
+	 * Reaction step of a PDE.
+	 */
+	@Name("org.evoludo.PDEReact")
+	@Label("PDE React")
+	@Description("Reaction step of a PDE")
+	static class PDEReact extends PhaseEvent {
+	}
+
+	/**
+	 * Diffusion step of a PDE.
+	 */
+	@Name("org.evoludo.PDEDiffuse")
+	@Label("PDE Diffuse")
+	@Description("Diffusion (and advection) step of a PDE")
+	static class PDEDiffuse extends PhaseEvent {
+	}
+
+	/**
+	 * Fused diffusion and reaction step of a PDE.
+	 */
+	@Name("org.evoludo.PDEStep")
+	@Label("PDE Step")
+	@Description("Fused diffusion (and advection) and reaction step of a PDE")
+	static class PDEStep extends PhaseEvent {
+	}
+
+	/**
+	 * Export of the state.
+	 */
+	@Name("org.evoludo.StateExport")
+	@Label("State Export")
+	@Description("Encoding the state of the model")
+	static class StateExport extends PhaseEvent {
+	}
+
+	/**
+	 * Restore of the state.
+	 */
+	@Name("org.evoludo.StateRestore")
+	@Label("State Restore")
+	@Description("Restoring the state of the model")
+	static class StateRestore extends PhaseEvent {
+	}
+
+	/**
+	 * Notification of listeners.
+	 */
+	@Name("org.evoludo.ModelChanged")
+	@Label("Model Changed")
+	@Description("Notification of listeners about changes of the model")
+	static class ModelChanged extends PhaseEvent {
+	}
+}
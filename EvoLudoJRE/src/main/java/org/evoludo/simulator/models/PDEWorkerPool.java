@@ -28,48 +28,47 @@
 // The formatting may be adjusted to comply with publisher requirements.
 //
 
+
 package org.evoludo.simulator.models;
 
 import java.awt.GraphicsEnvironment;
-import java.util.List;
-import java.util.function.BiFunction;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.evoludo.simulator.EvoLudo;
 import org.evoludo.simulator.EvoLudoJRE;
+import org.evoludo.simulator.models.PDE.Workspace;
+import org.evoludo.simulator.modules.Features.Payoffs;
 
 /**
- * Shared helper for JRE PDE worker thread lifecycle.
+ * Shared scheduler for processing the reaction and diffusion steps of JRE PDE
+ * models in parallel. The PDE domain is split into tiles, which are processed
+ * by a work-stealing {@link ForkJoinPool} such that no worker stalls while
+ * others are still busy. Each tile has its own workspace. Once all tiles are
+ * done, the calling thread combines the minima, maxima and means of all tiles
+ * in a fixed order, which requires no synchronization between workers.
+ * <p>
+ * The actions for processing the tiles are created once and reused for every
+ * step. The calling thread parks until the workers are done instead of joining
+ * the actions, because joining from outside the pool allocates a wait node
+ * whenever the calling thread blocks.
  */
 final class PDEWorkerPool {
 
 	/**
-	 * Common interface for worker thread lifecycle hooks.
-	 */
-	interface WorkerControl {
-
-		/**
-		 * Request this worker to terminate.
-		 */
-		void exit();
-	}
-
-	/**
-	 * The list of possible tasks that {@link RDWorker}s can carry out:
+	 * The list of possible tasks that can be carried out on each tile:
 	 * <ul>
-	 * <li>The idle task. Await further instructions.
 	 * <li>The reaction task. Process one reaction step.
 	 * <li>The diffuse task. Process one diffusion step.
-	 * <li>The exit task. Stop working.
+	 * <li>The fused task. Process one diffusion step followed by one reaction
+	 * step.
 	 * </ul>
 	 */
 	enum Task {
-		/**
-		 * The idle task. Await further instructions.
-		 */
-		IDLE,
-
 		/**
 		 * The reaction task. Process one reaction step.
 		 */
@@ -81,97 +80,297 @@ final class PDEWorkerPool {
 		DIFFUSE,
 
 		/**
-		 * The exit task. Stop working.
+		 * The fused task. Process one diffusion step followed by one reaction step.
 		 */
-		EXIT
+		FUSED
 	}
 
 	/**
-	 * Utility class should not be instantiated.
+	 * The minimum number of units to process by one worker.
 	 */
-	private PDEWorkerPool() {
-	}
+	static final int MIN_WORKLOAD = 1000;
 
 	/**
-	 * Stop all workers and clear the workforce.
+	 * The minimum number of units in one tile.
+	 */
+	static final int MIN_TILE = 256;
+
+	/**
+	 * The number of tiles per worker. More tiles than workers allow idle workers
+	 * to steal tiles from busy ones.
+	 */
+	static final int TILES_PER_WORKER = 8;
+
+	/**
+	 * The PDE model processed by the workers.
+	 */
+	private final PDE pde;
+
+	/**
+	 * The pool of worker threads.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * The boundaries of the tiles. Tile {@code t} processes units
+	 * {@code bounds[t]} (including) through {@code bounds[t + 1]} (excluding).
+	 */
+	private final int[] bounds;
+
+	/**
+	 * The workspaces of the tiles.
+	 */
+	private final Workspace[] ws;
+
+	/**
+	 * The change in state accumulated over the reaction step of each tile.
+	 */
+	private final double[] change;
+
+	/**
+	 * The root of the tree of actions for processing all tiles. The tree is built
+	 * once and reused for every step.
+	 */
+	private final Tiles root;
+
+	/**
+	 * The thread waiting for the workers to complete the current task.
+	 */
+	private Thread caller;
+
+	/**
+	 * The flag indicating that all tiles have been processed.
+	 */
+	private volatile boolean done;
+
+	/**
+	 * The exception or error raised while processing the tiles, if any.
+	 */
+	private Throwable failure;
+
+	/**
+	 * The task currently processed.
+	 */
+	private Task task;
+
+	/**
+	 * Scaled diffusion coefficients currently processed.
+	 */
+	private double[] scaledD;
+
+	/**
+	 * Scaled advection coefficients currently processed, if any.
+	 */
+	private double[][] scaledA;
+
+	/**
+	 * Integration step currently processed.
+	 */
+	private double stepSize;
+
+	/**
+	 * Create a new scheduler for processing the domain of {@code pde} with
+	 * {@code nWorkers} worker threads split into {@code nTiles} tiles.
 	 *
-	 * @param workers the active workers
-	 * @param <W>     the worker type
+	 * @param engine   the engine for registering the worker threads
+	 * @param pde      the PDE model to process
+	 * @param nWorkers the number of worker threads
+	 * @param nTiles   the number of tiles
 	 */
-	static <W extends WorkerControl> void fireWorkers(List<W> workers) {
-		for (W worker : workers)
-			worker.exit();
-		workers.clear();
+	private PDEWorkerPool(EvoLudo engine, PDE pde, int nWorkers, int nTiles) {
+		this.pde = pde;
+		int nUnits = pde.getGeometry().getSize();
+		bounds = new int[nTiles + 1];
+		ws = new Workspace[nTiles];
+		for (int t = 0; t < nTiles; t++) {
+			bounds[t + 1] = (int) ((long) nUnits * (t + 1) / nTiles);
+			ws[t] = pde.createWorkspace();
+		}
+		change = new double[nTiles];
+		root = new Tiles(0, nTiles);
+		pool = new ForkJoinPool(nWorkers, fjp -> newWorkerThread(fjp, engine), null, false);
 	}
 
 	/**
-	 * Hire worker threads and assign contiguous PDE ranges to them.
+	 * Hire worker threads for processing the domain of {@code pde}. Returns
+	 * {@code null} if the domain is too small to benefit from more than a single
+	 * thread. In that case the calling thread should process the entire domain.
 	 *
-	 * @param engine      the engine for logging context
-	 * @param workers     the worker list to populate
-	 * @param nUnits      the number of PDE units
-	 * @param minWorkload the minimum work assigned to one worker
-	 * @param factory     factory creating the worker for its start/end indices
-	 * @param <W>         the worker type
-	 */
-	static <W extends Runnable & WorkerControl> void hireWorkers(EvoLudo engine, List<W> workers, int nUnits,
-			int minWorkload, BiFunction<Integer, Integer, W> factory) {
+	 * @param engine the engine for logging context
+	 * @param pde    the PDE model to process
+	 * @return the new scheduler or {@code null}
+	 */
+	static PDEWorkerPool hire(EvoLudo engine, PDE pde) {
+		int nUnits = pde.getGeometry().getSize();
 		int nWorkers = Runtime.getRuntime().availableProcessors();
 		if (nWorkers > 2 && !GraphicsEnvironment.isHeadless())
 			nWorkers--;
-		nWorkers = Math.clamp(nWorkers, 1, nUnits / minWorkload);
-		logWorkers(engine, nWorkers, nUnits);
-		int end = 0;
-		int incr = nUnits / nWorkers;
-		for (int i = 0; i < nWorkers - 1; i++) {
-			int start = end;
-			end = start + incr;
-			W worker = factory.apply(start, end);
-			newWorkerThread(engine, worker, "RDWorker-" + (i + 1)).start();
-			workers.add(worker);
-		}
-		W worker = factory.apply(end, nUnits);
-		newWorkerThread(engine, worker, "RDWorker-" + nWorkers).start();
-		workers.add(worker);
+		nWorkers = Math.max(1, Math.min(nWorkers, nUnits / MIN_WORKLOAD));
+		if (nWorkers == 1)
+			return null;
+		int nTiles = Math.max(nWorkers, Math.min(nWorkers * TILES_PER_WORKER, nUnits / MIN_TILE));
+		logWorkers(engine, nWorkers, nTiles, nUnits);
+		return new PDEWorkerPool(engine, pde, nWorkers, nTiles);
+	}
+
+	/**
+	 * Stop all workers.
+	 *
+	 * @param workers the scheduler to stop, may be {@code null}
+	 */
+	static void fire(PDEWorkerPool workers) {
+		if (workers != null)
+			workers.pool.shutdownNow();
 	}
 
 	/**
-	 * Create a PDE worker thread.
-	 * <p>
-	 * Headless simulations should not stay alive because worker threads remain
-	 * blocked after the launcher thread has completed.
+	 * Create a PDE worker thread for the pool {@code pool}. Worker threads are
+	 * daemon threads and hence do not keep headless simulations alive. In JRE
+	 * engines the worker is registered with the engine.
 	 *
-	 * @param engine the engine requesting the worker
-	 * @param worker the worker runnable
-	 * @param name   the thread name
-	 * @return the configured worker thread
+	 * @param pool   the pool requesting the worker
+	 * @param engine the engine running the PDE model
+	 * @return the new worker thread
+	 * 
+	 * @see EvoLudoJRE#registerWorker(Thread)
 	 */
-	private static Thread newWorkerThread(EvoLudo engine, Runnable worker, String name) {
-		Thread thread = new Thread(worker, name);
+	private static ForkJoinWorkerThread newWorkerThread(ForkJoinPool pool, EvoLudo engine) {
+		ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+		thread.setName("RDWorker-" + (thread.getPoolIndex() + 1));
 		if (engine instanceof EvoLudoJRE jre)
-			thread.setDaemon(jre.isHeadless());
+			jre.registerWorker(thread);
 		return thread;
 	}
 
 	/**
-	 * Record completion of one worker task.
+	 * Perform the reaction step across the entire PDE domain.
+	 *
+	 * @param step the integration step to apply
+	 * @return the accumulated total change in state
+	 * 
+	 * @see PDE#react(double)
+	 */
+	double react(double step) {
+		stepSize = step;
+		run(Task.REACT);
+		combineFitness();
+		return totalChange();
+	}
+
+	/**
+	 * Perform the diffusion step across the entire PDE domain.
+	 *
+	 * @param diff the scaled diffusion coefficients
+	 * @param adv  the scaled advection coefficients, if any
+	 * 
+	 * @see PDE#diffuse(double[], double[][])
+	 */
+	void diffuse(double[] diff, double[][] adv) {
+		scaledD = diff;
+		scaledA = adv;
+		run(Task.DIFFUSE);
+		combineDensity();
+	}
+
+	/**
+	 * Perform the fused diffusion and reaction step across the entire PDE domain.
 	 *
-	 * @param pending the current number of pending workers
-	 * @return the remaining number of pending workers
+	 * @param diff the scaled diffusion coefficients
+	 * @param adv  the scaled advection coefficients, if any
+	 * @param step the integration step to apply
+	 * @return the accumulated total change in state
+	 * 
+	 * @see PDE#diffuseReact(double[], double[][], double)
 	 */
-	static int done(int pending) {
-		return pending - 1;
+	double diffuseReact(double[] diff, double[][] adv, double step) {
+		scaledD = diff;
+		scaledA = adv;
+		stepSize = step;
+		pde.prepareFused();
+		run(Task.FUSED);
+		pde.finishFused();
+		combineDensity();
+		combineFitness();
+		return totalChange();
 	}
 
 	/**
-	 * Accumulate change reported by one worker.
+	 * Process {@code todo} on all tiles and wait for completion.
 	 *
-	 * @param change the current cumulative change
-	 * @param incr   the additional worker contribution
-	 * @return the updated cumulative change
+	 * @param todo the task to process
 	 */
-	static double done(double change, double incr) {
-		return change + incr;
+	private void run(Task todo) {
+		task = todo;
+		caller = Thread.currentThread();
+		failure = null;
+		done = false;
+		root.reinitialize();
+		pool.execute(root);
+		while (!done)
+			LockSupport.park(this);
+		// the root is marked done only after signalling; it must not be reinitialized
+		// before then
+		while (!root.isDone())
+			Thread.yield();
+		if (failure instanceof Error)
+			throw (Error) failure;
+		if (failure != null)
+			throw (RuntimeException) failure;
+	}
+
+	/**
+	 * Process the current task on tile {@code t}.
+	 *
+	 * @param t the index of the tile
+	 */
+	void process(int t) {
+		int start = bounds[t];
+		int end = bounds[t + 1];
+		switch (task) {
+			case REACT:
+				change[t] = pde.react(start, end, stepSize, ws[t]);
+				break;
+			case DIFFUSE:
+				pde.diffuse(start, end, scaledD, scaledA, ws[t]);
+				break;
+			case FUSED:
+			default:
+				change[t] = pde.diffuseReact(start, end, scaledD, scaledA, stepSize, ws[t]);
+		}
+	}
+
+	/**
+	 * Combine the minima, maxima and means of the densities of all tiles.
+	 */
+	private void combineDensity() {
+		pde.resetDensity();
+		for (Workspace w : ws)
+			pde.updateDensity(w.min, w.max, w.mean);
+		pde.normalizeMeanDensity();
+	}
+
+	/**
+	 * Combine the minima, maxima and means of the fitnesses of all tiles.
+	 */
+	private void combineFitness() {
+		if (!(pde.module instanceof Payoffs))
+			return;
+		pde.resetFitness();
+		for (Workspace w : ws)
+			pde.updateFitness(w.minFit, w.maxFit, w.meanFit);
+		pde.normalizeMeanFitness();
+	}
+
+	/**
+	 * Sum the changes in state of all tiles.
+	 *
+	 * @return the total change in state
+	 */
+	private double totalChange() {
+		double total = 0.0;
+		for (double c : change)
+			total += c;
+		return total;
 	}
 
 	/**
@@ -179,12 +378,96 @@ final class PDEWorkerPool {
 	 *
 	 * @param engine   the engine providing the logger
 	 * @param nWorkers the number of workers
+	 * @param nTiles   the number of tiles
 	 * @param nUnits   the number of PDE units
 	 */
-	private static void logWorkers(EvoLudo engine, int nWorkers, int nUnits) {
+	private static void logWorkers(EvoLudo engine, int nWorkers, int nTiles, int nUnits) {
 		Logger logger = engine.getLogger();
 		if (!logger.isLoggable(Level.INFO))
 			return;
-		logger.info("Using " + nWorkers + " threads for integrating " + nUnits + " PDE units.");
+		logger.info("Using " + nWorkers + " threads for integrating " + nUnits + " PDE units in " + nTiles
+				+ " tiles.");
+	}
+
+	/**
+	 * Recursively split the range of tiles until single tiles remain, which
+	 * allows idle workers to steal work from busy ones. The children are created
+	 * once and reinitialized before each step such that no actions are allocated
+	 * while integrating.
+	 */
+	private class Tiles extends RecursiveAction {
+
+		private static final long serialVersionUID = 20260101L;
+
+		/**
+		 * The index of the first tile (including).
+		 */
+		private final int lo;
+
+		/**
+		 * The index of the last tile (excluding).
+		 */
+		private final int hi;
+
+		/**
+		 * The action for processing the lower half of the tiles or {@code null} for
+		 * single tiles.
+		 */
+		private final Tiles left;
+
+		/**
+		 * The action for processing the upper half of the tiles or {@code null} for
+		 * single tiles.
+		 */
+		private final Tiles right;
+
+		/**
+		 * Create a new action for processing tiles {@code lo} through {@code hi}
+		 * together with the actions for processing its halves.
+		 *
+		 * @param lo the index of the first tile (including)
+		 * @param hi the index of the last tile (excluding)
+		 */
+		Tiles(int lo, int hi) {
+			this.lo = lo;
+			this.hi = hi;
+			if (hi - lo == 1) {
+				left = null;
+				right = null;
+				return;
+			}
+			int mid = (lo + hi) >>> 1;
+			left = new Tiles(lo, mid);
+			right = new Tiles(mid, hi);
+		}
+
+		@Override
+		protected void compute() {
+			if (this != root) {
+				split();
+				return;
+			}
+			try {
+				split();
+			} catch (RuntimeException | Error e) {
+				failure = e;
+			} finally {
+				done = true;
+				LockSupport.unpark(caller);
+			}
+		}
+
+		/**
+		 * Process single tile or split the range of tiles in two halves.
+		 */
+		private void split() {
+			if (left == null) {
+				process(lo);
+				return;
+			}
+			left.reinitialize();
+			right.reinitialize();
+			invokeAll(left, right);
+		}
 	}
 }
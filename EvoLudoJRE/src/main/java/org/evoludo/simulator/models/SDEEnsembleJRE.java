@@ -0,0 +1,333 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator.models;
+
+import java.awt.GraphicsEnvironment;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.evoludo.math.MersenneTwister;
+import org.evoludo.math.RNGDistribution;
+import org.evoludo.simulator.EvoLudo;
+import org.evoludo.simulator.EvoLudoJRE;
+
+/**
+ * Ensemble of replicas of SDE models that splits the replicas into tiles and
+ * integrates the tiles in parallel using a work-stealing {@link ForkJoinPool}.
+ * Each tile has its own workspace and its own random number generator, seeded
+ * from the shared random number generator of the model. The number of tiles
+ * depends only on the size of the ensemble, not on the number of workers, such
+ * that results are reproducible regardless of the number of processors.
+ * Launching and retiring replicas happens on the calling thread.
+ * <p>
+ * Same as for {@link PDEWorkerPool}, the actions for processing the tiles are
+ * created once and reused for every step and the calling thread parks until
+ * the workers are done.
+ *
+ * @author Christoph Hauert
+ * 
+ * @see SDEJRE
+ */
+final class SDEEnsembleJRE extends SDEEnsemble {
+
+	/**
+	 * The minimum number of replicas in one tile.
+	 */
+	static final int MIN_TILE = 256;
+
+	/**
+	 * The maximum number of tiles.
+	 */
+	static final int MAX_TILES = 64;
+
+	/**
+	 * The boundaries of the tiles. Tile {@code t} processes the slots
+	 * {@code bounds[t]} (including) through {@code bounds[t + 1]} (excluding).
+	 */
+	private final int[] bounds;
+
+	/**
+	 * The workspaces of the tiles.
+	 */
+	private final Workspace[] ws;
+
+	/**
+	 * The pool of worker threads or {@code null} if the tiles are processed by
+	 * the calling thread.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * The root of the tree of actions for processing all tiles. The tree is built
+	 * once and reused for every step.
+	 */
+	private final Tiles root;
+
+	/**
+	 * The thread waiting for the workers to complete the current step.
+	 */
+	private Thread caller;
+
+	/**
+	 * The flag indicating that all tiles have been processed.
+	 */
+	private volatile boolean done;
+
+	/**
+	 * The exception or error raised while processing the tiles, if any.
+	 */
+	private Throwable failure;
+
+	/**
+	 * The number of active replicas in the current step.
+	 */
+	private int nActive;
+
+	/**
+	 * The time increment of the current step.
+	 */
+	private double stepSize;
+
+	/**
+	 * Create a new ensemble of {@code size} replicas of the SDE model {@code sde}
+	 * split into {@code nTiles} tiles that are processed by {@code nWorkers}
+	 * worker threads.
+	 *
+	 * @param engine   the engine for registering the worker threads
+	 * @param sde      the SDE model
+	 * @param size     the number of replicas
+	 * @param nWorkers the number of worker threads
+	 * @param nTiles   the number of tiles
+	 */
+	private SDEEnsembleJRE(EvoLudo engine, SDE sde, int size, int nWorkers, int nTiles) {
+		super(sde, size);
+		bounds = new int[nTiles + 1];
+		ws = new Workspace[nTiles];
+		for (int t = 0; t < nTiles; t++) {
+			bounds[t + 1] = (int) ((long) size * (t + 1) / nTiles);
+			ws[t] = new Workspace(new RNGDistribution.Uniform(new MersenneTwister(sde.rng.nextInt()), 0.0, 1.0),
+					getNDim());
+		}
+		root = new Tiles(0, nTiles);
+		pool = (nWorkers > 1 ? new ForkJoinPool(nWorkers, fjp -> newWorkerThread(fjp, engine), null, false)
+				: null);
+	}
+
+	/**
+	 * Create an ensemble of {@code size} replicas of {@code sde} that integrates
+	 * the replicas in parallel. Returns {@code null} if the ensemble is too small
+	 * to be split into tiles. In that case all replicas should be integrated by
+	 * the calling thread.
+	 *
+	 * @param engine the engine for logging context
+	 * @param sde    the SDE model
+	 * @param size   the number of replicas
+	 * @return the new ensemble or {@code null}
+	 */
+	static SDEEnsembleJRE hire(EvoLudo engine, SDE sde, int size) {
+		int nTiles = Math.min(MAX_TILES, size / MIN_TILE);
+		if (nTiles < 2)
+			return null;
+		int nWorkers = Runtime.getRuntime().availableProcessors();
+		if (nWorkers > 2 && !GraphicsEnvironment.isHeadless())
+			nWorkers--;
+		nWorkers = Math.max(1, Math.min(nWorkers, nTiles));
+		logWorkers(engine, nWorkers, nTiles, size);
+		return new SDEEnsembleJRE(engine, sde, size, nWorkers, nTiles);
+	}
+
+	@Override
+	void dispose() {
+		if (pool != null)
+			pool.shutdownNow();
+	}
+
+	/**
+	 * Create an SDE worker thread for the pool {@code pool}. Worker threads are
+	 * daemon threads and hence do not keep headless simulations alive. In JRE
+	 * engines the worker is registered with the engine.
+	 *
+	 * @param pool   the pool requesting the worker
+	 * @param engine the engine running the SDE model
+	 * @return the new worker thread
+	 * 
+	 * @see EvoLudoJRE#registerWorker(Thread)
+	 */
+	private static ForkJoinWorkerThread newWorkerThread(ForkJoinPool pool, EvoLudo engine) {
+		ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+		thread.setName("SDEWorker-" + (thread.getPoolIndex() + 1));
+		if (engine instanceof EvoLudoJRE jre)
+			jre.registerWorker(thread);
+		return thread;
+	}
+
+	@Override
+	void integrate(double dt) {
+		nActive = getNActive();
+		stepSize = dt;
+		if (pool == null) {
+			// process tiles in order on the calling thread; same results
+			int nTiles = ws.length;
+			for (int t = 0; t < nTiles; t++)
+				process(t);
+			return;
+		}
+		caller = Thread.currentThread();
+		failure = null;
+		done = false;
+		root.reinitialize();
+		pool.execute(root);
+		while (!done)
+			LockSupport.park(this);
+		// the root is marked done only after signalling; it must not be reinitialized
+		// before then
+		while (!root.isDone())
+			Thread.yield();
+		if (failure instanceof Error)
+			throw (Error) failure;
+		if (failure != null)
+			throw (RuntimeException) failure;
+	}
+
+	/**
+	 * Integrate the active replicas of tile {@code t}.
+	 *
+	 * @param t the index of the tile
+	 */
+	void process(int t) {
+		int from = bounds[t];
+		int to = Math.min(bounds[t + 1], nActive);
+		if (from < to)
+			integrate(from, to, stepSize, ws[t]);
+	}
+
+	/**
+	 * Helper to log the number of worker threads and their workload.
+	 *
+	 * @param engine   the engine providing the logger
+	 * @param nWorkers the number of workers
+	 * @param nTiles   the number of tiles
+	 * @param size     the number of replicas
+	 */
+	private static void logWorkers(EvoLudo engine, int nWorkers, int nTiles, int size) {
+		Logger logger = engine.getLogger();
+		if (!logger.isLoggable(Level.INFO))
+			return;
+		logger.info("Using " + nWorkers + " threads for integrating " + size + " SDE replicas in " + nTiles
+				+ " tiles.");
+	}
+
+	/**
+	 * Recursively split the range of tiles until single tiles remain, which
+	 * allows idle workers to steal work from busy ones. The children are created
+	 * once and reinitialized before each step such that no actions are allocated
+	 * while integrating.
+	 */
+	private class Tiles extends RecursiveAction {
+
+		private static final long serialVersionUID = 20260101L;
+
+		/**
+		 * The index of the first tile (including).
+		 */
+		private final int lo;
+
+		/**
+		 * The index of the last tile (excluding).
+		 */
+		private final int hi;
+
+		/**
+		 * The action for processing the lower half of the tiles or {@code null} for
+		 * single tiles.
+		 */
+		private final Tiles left;
+
+		/**
+		 * The action for processing the upper half of the tiles or {@code null} for
+		 * single tiles.
+		 */
+		private final Tiles right;
+
+		/**
+		 * Create a new action for processing tiles {@code lo} through {@code hi}
+		 * together with the actions for processing its halves.
+		 *
+		 * @param lo the index of the first tile (including)
+		 * @param hi the index of the last tile (excluding)
+		 */
+		Tiles(int lo, int hi) {
+			this.lo = lo;
+			this.hi = hi;
+			if (hi - lo == 1) {
+				left = null;
+				right = null;
+				return;
+			}
+			int mid = (lo + hi) >>> 1;
+			left = new Tiles(lo, mid);
+			right = new Tiles(mid, hi);
+		}
+
+		@Override
+		protected void compute() {
+			if (this != root) {
+				split();
+				return;
+			}
+			try {
+				split();
+			} catch (RuntimeException | Error e) {
+				failure = e;
+			} finally {
+				done = true;
+				LockSupport.unpark(caller);
+			}
+		}
+
+		/**
+		 * Process single tile or split the range of tiles in two halves.
+		 */
+		private void split() {
+			if (left == null) {
+				process(lo);
+				return;
+			}
+			left.reinitialize();
+			right.reinitialize();
+			invokeAll(left, right);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator.models;
+
+import org.evoludo.simulator.EvoLudo;
+
+/**
+ * JRE SDE implementation that integrates ensembles of replicas for sample
+ * statistics using a pool of worker threads.
+ *
+ * @author Christoph Hauert
+ * 
+ * @see SDEEnsembleJRE
+ */
+public class SDEJRE extends SDE {
+
+	/**
+	 * Creates a new JRE SDE model with threaded ensembles.
+	 *
+	 * @param engine the pacemaker for running the model
+	 */
+	public SDEJRE(EvoLudo engine) {
+		super(engine);
+	}
+
+	@Override
+	SDEEnsemble createEnsemble(int size) {
+		SDEEnsemble ensemble = SDEEnsembleJRE.hire(engine, this, size);
+		if (ensemble == null)
+			return super.createEnsemble(size);
+		return ensemble;
+	}
+}
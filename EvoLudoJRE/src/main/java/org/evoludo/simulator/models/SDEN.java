@@ -34,77 +34,93 @@ import java.util.logging.Logger;
 import java.util.logging.Level;
 
 import org.evoludo.math.ArrayMath;
+import org.evoludo.math.LinearAlgebra;
 import org.evoludo.simulator.EvoLudo;
 import org.evoludo.simulator.modules.Module;
 import org.evoludo.simulator.modules.Mutation;
+import org.evoludo.util.CLOCategory;
+import org.evoludo.util.CLODelegate;
 import org.evoludo.util.CLOParser;
+import org.evoludo.util.CLOption;
 import org.evoludo.util.Formatter;
 
-import no.uib.cipr.matrix.DenseMatrix;
-import no.uib.cipr.matrix.DenseVector;
-import no.uib.cipr.matrix.Matrices;
-import no.uib.cipr.matrix.SymmDenseEVD;
-import no.uib.cipr.matrix.UpperSPDDenseMatrix;
-
 /**
  * Integrator for stochastic differential equations (SDE) based on Euler's
  * method for more than three traits (dynamical variables) and replicator type
- * dynamics. This requires the <code>no.uib.cipr.matrix</code>-library for
- * numerical matrix manipulations. Due to this library dependence this model is
- * available only to JRE. For a possible GWT port check out
- * <a href="https://mathjs.org">MathJS</a>.
+ * dynamics.
+ * <p>
+ * The correlated noise is generated from the Cholesky factor \(\mathbf{L}\) of
+ * the diffusion matrix \(\mathbf{B = L\ L^\trans}\) in the Fokker-Planck
+ * equation. The factorization requires \(O(d^3)\) operations for \(d\)
+ * traits but changes only little between integration steps. Hence, the factor
+ * is reused until any entry of \(\mathbf{B}\) has changed by more than the
+ * relative tolerance {@link #refactor} since the last factorization, i.e.
+ * until \(|\Delta B_{ij}| > t \sqrt{B_{ii} B_{jj}}\) for some \(i,j\) with
+ * the diagonal entries at the time of the factorization. This reduces the
+ * costs of most steps to \(O(d^2)\). The scaling of
+ * \(\mathbf{B}\) with the population size is applied to the noise and does
+ * not require a new factorization.
  * 
  * @author Christoph Hauert
+ * 
+ * @see LinearAlgebra#cholesky(double[][], int)
  */
 public class SDEN extends SDE {
 
 	/**
-	 * Diffusion matrix \(\mathbf{B}\) in the Fokker-Planck equation. \(\mathbf{B}\)
-	 * is symmetric with \(b_{ij}=b_{ji}\).
+	 * The default relative tolerance for changes in the diffusion matrix before
+	 * a new factorization is required.
 	 */
-	UpperSPDDenseMatrix matB;
+	static final double REFACTOR_TOLERANCE = 0.01;
 
 	/**
-	 * Transformation matrix \(\mathbf{U}\), such that \(\mathbf{B = U\ L\
-	 * U^\trans}\).
+	 * Cholesky factor \(\mathbf{L}\) of the diffusion matrix \(\mathbf{B}\) in
+	 * the Fokker-Planck equation, excluding the scaling with the population size,
+	 * such that \(\mathbf{B = L\ L^\trans}\). The lower triangle holds
+	 * \(\mathbf{L}\). This is the noise matrix in the Langevin equation.
 	 */
-	DenseMatrix matU;
+	double[][] matL;
 
 	/**
-	 * Diagonal matrix \(\mathbf{L}\) with the eigenvalues on the diagonal.
+	 * The diagonal of the diffusion matrix \(\mathbf{B}\) at the time of the last
+	 * factorization.
 	 */
-	DenseMatrix matL;
+	double[] diagB;
 
 	/**
-	 * Noise matrix \(\mathbf{C}\) in the Langevin equation with \(\mathbf{C = U\ l\
-	 * U^\trans}\), where \(l\) is a matrix with the square roots of the eigenvalues
-	 * on the diagonal. This is the equivalent of \(\mathbf{B}\) in the
-	 * Fokker-Planck equation.
+	 * The state at the time of the last factorization. Determines all entries of
+	 * the diffusion matrix \(\mathbf{B}\) used for the factorization.
 	 */
-	DenseMatrix matC;
+	double[] yFactor;
 
 	/**
-	 * Matrix to store intermediate results.
+	 * The mutation rate at the time of the last factorization.
 	 */
-	DenseMatrix matTmp;
+	double muFactor;
 
 	/**
 	 * Gaussian noise vector.
 	 */
-	DenseVector gaussian;
+	double[] gaussian;
 
 	/**
-	 * State vector. The current frequencies of the system, equivalent to
-	 * <code>yt</code>.
-	 * 
-	 * @see ODE#yt
+	 * Correlated noise vector.
+	 */
+	double[] noise;
+
+	/**
+	 * The flag indicating whether the Cholesky factor {@link #matL} is valid.
 	 */
-	DenseVector vecyt;
+	boolean isFactored = false;
 
 	/**
-	 * Numerical solver to calculate the eigenvalues and eigenvectors of a matrix.
+	 * The relative tolerance for changes in the entries of the diffusion matrix
+	 * before a new factorization is required. With a tolerance of zero the
+	 * diffusion matrix is factored in every step.
+	 * 
+	 * @see #cloSdeRefactor
 	 */
-	SymmDenseEVD solver;
+	double refactor = REFACTOR_TOLERANCE;
 
 	/**
 	 * Constructs a new model for the numerical integration of the system of
@@ -132,6 +148,11 @@ public class SDEN extends SDE {
 		super.unload();
 	}
 
+	@Override
+	protected boolean permitsManyTraits() {
+		return true;
+	}
+
 	@Override
 	protected boolean hasRequiredDependentTrait() {
 		if (((HasDE) module).getDependent() < 0 && module.getNTraits() >= 3) {
@@ -144,10 +165,10 @@ public class SDEN extends SDE {
 	}
 
 	private void destroy() {
-		matB = null;
-		matU = matL = matC = matTmp = null;
-		solver = null;
-		gaussian = vecyt = null;
+		matL = null;
+		diagB = yFactor = null;
+		gaussian = noise = null;
+		isFactored = false;
 	}
 
 	@Override
@@ -159,16 +180,21 @@ public class SDEN extends SDE {
 			destroy();
 			return;
 		}
-		if (matB != null && matB.numRows() == d1)
+		isFactored = false;
+		if (matL != null && matL.length == d1)
 			return;
 
-		matB = new UpperSPDDenseMatrix(d1);
-		matL = Matrices.identity(d1);
-		matC = new DenseMatrix(d1, d1);
-		matTmp = new DenseMatrix(d1, d1);
-		solver = new SymmDenseEVD(d1, true);
-		gaussian = new DenseVector(d1);
-		vecyt = new DenseVector(d1);
+		matL = new double[d1][d1];
+		diagB = new double[d1];
+		yFactor = new double[d1];
+		gaussian = new double[d1];
+		noise = new double[d1];
+	}
+
+	@Override
+	public void init() {
+		super.init();
+		isFactored = false;
 	}
 
 	/**
@@ -226,33 +252,19 @@ public class SDEN extends SDE {
 		// NOTE: if not replicator equation some adjustments are required (references to
 		// e.g. yt[2] would fail)
 		int d1 = nDim - 1;
-		double d2 = nDim - 2.0;
-		double muid1 = mu / (nDim - 1.0);
-		double mu1 = 1.0 - mu;
+		if (!isFactored || mustRefactor(mu))
+			factor(mu);
+		// generate noise vector
+		rng.nextGaussian(gaussian, 0, d1);
+		double scale = Math.sqrt(effnoise) * sqrtdt;
 		for (int i = 0; i < d1; i++) {
-			matB.set(i, i, (yt[i] * (1.0 - yt[i]) * mu1 + muid1 * (1.0 + yt[i] * d2)) * effnoise);
-			for (int j = i + 1; j < d1; j++)
-				matB.set(i, j, (-yt[i] * yt[j] * mu1 - muid1 * (yt[i] + yt[j])) * effnoise);
-		}
-		try {
-			solver.factor(matB);
-		} catch (no.uib.cipr.matrix.NotConvergedException nce) {
-			engine.getLogger().warning("matrix factorization failed...");
+			double[] li = matL[i];
+			double sum = 0.0;
+			for (int j = 0; j <= i; j++)
+				sum += li[j] * gaussian[j];
+			noise[i] = sum * scale;
 		}
-		double[] ev = solver.getEigenvalues();
-		// IMPORTANT: this procedure fails if one (or more) type(s) goes extinct with
-		// mu=0 (results in eigenvalues of zero);
-		// check() above needs to address/prevents this
-		for (int i = 0; i < d1; i++)
-			matL.set(i, i, Math.sqrt(ev[i]));
-		matU = solver.getEigenvectors();
-		matU.mult(matL, matTmp);
-		matTmp.transBmult(matU, matC);
-		// generate noise vector
-		for (int i = 0; i < d1; i++)
-			gaussian.set(i, rng.nextGaussian() * sqrtdt);
-		matC.mult(gaussian, vecyt);
-		double[] vecytraw = vecyt.getData();
+		double mu1 = 1.0 - mu;
 		if (mu > 0.0) {
 			// the deterministic drift term also depends on mutations
 			ArrayMath.multiply(dyt, 1.0 - mu);
@@ -266,7 +278,7 @@ public class SDEN extends SDE {
 			double sum = 0.0;
 			double dtmu1 = mu1;
 			for (int i = 0; i < d1; i++) {
-				double dmu = mudt * (1.0 - nDim * yt[i]) + vecytraw[i];
+				double dmu = mudt * (1.0 - nDim * yt[i]) + noise[i];
 				sum += dmu;
 				dyt[i] = dyt[i] * dtmu1 + dmu;
 			}
@@ -275,7 +287,7 @@ public class SDEN extends SDE {
 		} else {
 			double sum = 0.0;
 			for (int i = 0; i < d1; i++) {
-				double dmu = vecytraw[i];
+				double dmu = noise[i];
 				sum += dmu;
 				dyt[i] += dmu;
 			}
@@ -312,9 +324,114 @@ public class SDEN extends SDE {
 		return ArrayMath.distSq(yout, yt);
 	}
 
+	/**
+	 * Check whether any entry of the diffusion matrix has changed by more than the
+	 * relative tolerance {@link #refactor} since the last factorization. The
+	 * change of entry \(B_{ij}\) is measured relative to
+	 * \(\sqrt{B_{ii} B_{jj}}\) at the time of the factorization, which bounds
+	 * \(|B_{ij}|\) for positive semi-definite matrices. The check requires
+	 * \(O(d^2)\) operations, just as the generation of the noise.
+	 * 
+	 * @param mu the mutation rate
+	 * @return {@code true} if a new factorization is required
+	 */
+	private boolean mustRefactor(double mu) {
+		if (mu != muFactor)
+			return true;
+		int d1 = nDim - 1;
+		double d2 = nDim - 2.0;
+		double muid1 = mu / (nDim - 1.0);
+		double mu1 = 1.0 - mu;
+		double tol2 = refactor * refactor;
+		for (int i = 0; i < d1; i++) {
+			double yi = yt[i];
+			double dyi = yi - yFactor[i];
+			double bii = yi * (1.0 - yi) * mu1 + muid1 * (1.0 + yi * d2);
+			double dbii = bii - diagB[i];
+			if (dbii * dbii > tol2 * diagB[i] * diagB[i])
+				return true;
+			for (int j = 0; j < i; j++) {
+				// change of off-diagonal entry -y_i y_j (1-mu) - mu/(d-1) (y_i + y_j)
+				double dbij = (yFactor[i] * yFactor[j] - yi * yt[j]) * mu1 - muid1 * (dyi + yt[j] - yFactor[j]);
+				if (dbij * dbij > tol2 * diagB[i] * diagB[j])
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Calculate the diffusion matrix \(\mathbf{B}\) for the current state,
+	 * excluding the scaling with the population size, and its Cholesky factor
+	 * {@link #matL}.
+	 * 
+	 * @param mu the mutation rate
+	 */
+	private void factor(double mu) {
+		int d1 = nDim - 1;
+		double d2 = nDim - 2.0;
+		double muid1 = mu / (nDim - 1.0);
+		double mu1 = 1.0 - mu;
+		for (int i = 0; i < d1; i++) {
+			double[] li = matL[i];
+			for (int j = 0; j < i; j++)
+				li[j] = -yt[i] * yt[j] * mu1 - muid1 * (yt[i] + yt[j]);
+			double bii = yt[i] * (1.0 - yt[i]) * mu1 + muid1 * (1.0 + yt[i] * d2);
+			li[i] = bii;
+			diagB[i] = bii;
+			yFactor[i] = yt[i];
+		}
+		muFactor = mu;
+		// IMPORTANT: the diffusion matrix is singular if one (or more) type(s) goes
+		// extinct with mu=0; check() above needs to address/prevents this
+		if (!LinearAlgebra.cholesky(matL, d1)) {
+			Logger logger = engine.getLogger();
+			if (logger.isLoggable(Level.FINE))
+				logger.fine("diffusion matrix singular - noise restricted to non-degenerate directions.");
+		}
+		isFactored = true;
+	}
+
+	/**
+	 * Sets the relative tolerance for changes in the entries of the diffusion
+	 * matrix before a new factorization is required.
+	 * 
+	 * @param refactor the relative tolerance
+	 */
+	public void setRefactor(double refactor) {
+		this.refactor = Math.max(0.0, refactor);
+	}
+
+	/**
+	 * Gets the relative tolerance for changes in the entries of the diffusion
+	 * matrix before a new factorization is required.
+	 * 
+	 * @return the relative tolerance
+	 */
+	public double getRefactor() {
+		return refactor;
+	}
+
+	/**
+	 * Command line option to set the relative tolerance for reusing the
+	 * factorization of the diffusion matrix.
+	 * 
+	 * @see #setRefactor(double)
+	 */
+	public final CLOption cloSdeRefactor = new CLOption("sderefactor", Double.toString(REFACTOR_TOLERANCE),
+			CLOCategory.Model, "--sderefactor <t>  tolerance for refactoring noise (0: every step)",
+			new CLODelegate() {
+				@Override
+				public boolean parse(String arg) {
+					setRefactor(CLOParser.parseDouble(arg));
+					return true;
+				}
+			});
+
 	@Override
 	public void collectCLO(CLOParser parser) {
 		super.collectCLO(parser);
+		parser.addCLO(cloSdeRefactor);
 		// SDE's with d>3 traits currently require mutations.
 		if (module.getNActive() > 3) {
 			mutation[0].clo.removeKey(Mutation.Discrete.Type.NONE);
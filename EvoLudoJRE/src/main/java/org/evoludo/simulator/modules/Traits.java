@@ -31,10 +31,12 @@
 package org.evoludo.simulator.modules;
 
 import org.evoludo.math.ArrayMath;
+import org.evoludo.math.FlatMatrix;
 import org.evoludo.math.RNGDistribution;
 import org.evoludo.simulator.EvoLudo;
 import org.evoludo.simulator.models.Model.HasDE;
 import org.evoludo.simulator.models.Model.HasIBS;
+import org.evoludo.simulator.modules.Features.MatrixGame;
 import org.evoludo.simulator.modules.Features.Payoffs;
 import org.evoludo.simulator.views.HasHistogram;
 import org.evoludo.simulator.views.HasMean;
@@ -62,7 +64,7 @@ import org.evoludo.util.Formatter;
  * 
  * @author Christoph Hauert
  */
-public class Traits extends Discrete implements Payoffs,
+public class Traits extends Discrete implements Payoffs, MatrixGame,
 		HasIBS.DPairs, HasDE.DPairs, HasDE.EM, HasDE.RK5, HasDE.SDE, HasDE.PDERD, HasDE.PDEADV,
 		HasPop2D.Traits, HasPop3D.Traits, HasMean.Traits, HasPop2D.Fitness, HasPop3D.Fitness, HasMean.Fitness,
 		HasHistogram.Fitness, HasHistogram.Degree {
@@ -142,9 +144,18 @@ public class Traits extends Discrete implements Payoffs,
 
 	@Override
 	public void avgScores(double[] density, double[] avgscores) {
-		for (int i = 0; i < nTraits; i++)
+		for (int i = 0; i < nTraits; i++) {
+			double[] pi = payoff[i];
+			double avg = 0.0;
 			for (int j = 0; j < nTraits; j++)
-				avgscores[i] += density[j] * payoff[i][j];
+				avg += density[j] * pi[j];
+			avgscores[i] = avg;
+		}
+	}
+
+	@Override
+	public FlatMatrix getPayoffMatrix() {
+		return FlatMatrix.of(payoff);
 	}
 
 	@Override
@@ -52,6 +52,7 @@ import javax.swing.text.StyleConstants;
 import javax.swing.text.StyleContext;
 
 import org.evoludo.simulator.EvoLudoLab;
+import org.evoludo.simulator.models.Model;
 
 public class MVConsole extends JComponent implements MultiView {
 
@@ -75,6 +76,7 @@ public class MVConsole extends JComponent implements MultiView {
 	}
 
 	protected static final String MENU_CLEAR = "clear";
+	protected static final String MENU_COUNTERS = "counters";
 
 	// note: specified in GraphStyle as the default - how do we access this
 	// information here?
@@ -101,6 +103,11 @@ public class MVConsole extends JComponent implements MultiView {
 		menuItem.addActionListener(handler);
 		menuItem.setFont(menuFont);
 		menu.add(menuItem);
+		menuItem = new JMenuItem("Counters");
+		menuItem.setActionCommand(MENU_COUNTERS);
+		menuItem.addActionListener(handler);
+		menuItem.setFont(menuFont);
+		menu.add(menuItem);
 		text.setComponentPopupMenu(menu);
 		add(scroll, BorderLayout.CENTER);
 		clear();
@@ -116,6 +123,10 @@ public class MVConsole extends JComponent implements MultiView {
 				clear();
 				return;
 			}
+			if (cmd.equals(MENU_COUNTERS)) {
+				logCounters();
+				return;
+			}
 		}
 	}
 
@@ -126,6 +137,20 @@ public class MVConsole extends JComponent implements MultiView {
 		text.setEditable(false);
 	}
 
+	/**
+	 * Log the performance counters of the active model.
+	 * 
+	 * @see org.evoludo.simulator.models.Counters
+	 */
+	protected void logCounters() {
+		Model model = lab.getEngine().getModel();
+		if (model == null)
+			return;
+		log(Level.INFO, "Performance counters:");
+		for (String line : model.getCounters().format("  ").split("\n"))
+			log(Level.INFO, line);
+	}
+
 	public void log(Level level, String msg) {
 		String pretty = msg;
 		AttributeSet attr = message;
@@ -0,0 +1,668 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator.exec;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+import org.evoludo.simulator.EvoLudoJRE;
+import org.evoludo.simulator.models.Model;
+import org.evoludo.simulator.models.RunListener;
+import org.evoludo.simulator.modules.Module;
+import org.evoludo.util.CLOParser;
+import org.evoludo.util.Formatter;
+
+/**
+ * Generic parameter sweep over command line options. Any option of the
+ * selected module or model can be given a range or a list of values. The
+ * cartesian product of all values defines the points of the sweep. Each point
+ * is simulated on one of a pool of independent engines running in parallel
+ * until {@code --timestop} is reached (or the model stops otherwise) and the
+ * final mean traits and mean fitness are reported as one row per point.
+ * <p>
+ * The sweep accepts the following command line options (all other options are
+ * passed on to the engines):
+ * <ul>
+ * <li>{@code --sweep "<options>"}: options to sweep, e.g.
+ * {@code --sweep "--popsize 100:1000:100 --rewire 0,0.1,0.5"}. Ranges are
+ * specified as {@code <start>:<end>[:<incr>[l]]}, where {@code l} denotes
+ * logarithmic increments, and lists as comma separated values. For options
+ * with vector arguments use {@code |} to separate values in lists.
+ * <li>{@code --threads <n>}: number of engines running in parallel (defaults
+ * to the number of available processors)
+ * <li>{@code --output <filename>}: file for reporting the results. If the file
+ * exists, points already reported are skipped and the new results are appended.
+ * <li>{@code --seed <s>}: base seed. The seed of each point is derived from
+ * {@code s} and the options of the point, which renders the results of a point
+ * reproducible regardless of the sweep it is part of.
+ * <li>{@code --help}, {@code -h}: this help screen
+ * </ul>
+ * <strong>Note:</strong> {@code --data}, {@code --export}, {@code --append}
+ * and {@code --binary} are ignored for the individual points.
+ *
+ * @author Christoph Hauert
+ *
+ * @see scanCSD
+ */
+public class scanCLO implements Runnable {
+
+	/**
+	 * The delimiter for lists of values with vector arguments.
+	 */
+	public static final String LIST_DELIMITER = "|";
+
+	/**
+	 * The options that would interfere with reporting the results of the sweep and
+	 * are hence ignored for the individual points.
+	 */
+	static final String[] IGNORE_OPTIONS = { "data", "export", "append", "binary", "output", "restore" };
+
+	/**
+	 * The names of the swept options.
+	 */
+	List<String> names = new ArrayList<>();
+
+	/**
+	 * The values of the swept options. The values of option {@code names.get(i)}
+	 * are stored in {@code values.get(i)}.
+	 */
+	List<String[]> values = new ArrayList<>();
+
+	/**
+	 * The command line options shared by all points of the sweep.
+	 */
+	String baseCLO = "";
+
+	/**
+	 * The base seed for deriving the seeds of the individual points.
+	 */
+	long baseSeed = 0L;
+
+	/**
+	 * The number of engines running in parallel.
+	 */
+	int nThreads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * The file for reporting the results or {@code null} to report to
+	 * {@code System.out}.
+	 */
+	File outfile;
+
+	/**
+	 * The output stream for reporting results.
+	 */
+	PrintStream output = System.out;
+
+	/**
+	 * The keys of points already reported in {@code outfile}.
+	 */
+	Set<String> completed = new HashSet<>();
+
+	/**
+	 * The index of the next point to simulate.
+	 */
+	AtomicInteger nextPoint = new AtomicInteger();
+
+	/**
+	 * The total number of points in the sweep.
+	 */
+	int nPoints;
+
+	/**
+	 * The number of points reported so far.
+	 */
+	int nDone;
+
+	/**
+	 * The flag to indicate whether the legend has been printed.
+	 */
+	boolean hasLegend;
+
+	/**
+	 * Lock to serialize parsing of options and resetting models. Parsing relies
+	 * on shared formatters and is cheap compared to running the models.
+	 */
+	static final Object SETUP_LOCK = new Object();
+
+	/**
+	 * Parse the command line options {@code args}.
+	 *
+	 * @param args the command line options
+	 * @return {@code true} if parsing was successful
+	 */
+	public boolean parse(String[] args) {
+		String sweep = null;
+		StringBuilder base = new StringBuilder();
+		int nArgs = args.length;
+		for (int i = 0; i < nArgs; i++) {
+			String arg = args[i];
+			if (arg.startsWith("-h") || arg.startsWith("--help")) {
+				help();
+				return false;
+			}
+			if (arg.equals("--sweep")) {
+				if (i + 1 == nArgs) {
+					logError("sweep: options missing.");
+					return false;
+				}
+				sweep = args[++i];
+				continue;
+			}
+			if (arg.equals("--threads")) {
+				if (i + 1 == nArgs) {
+					logError("threads: number missing.");
+					return false;
+				}
+				nThreads = Math.max(1, CLOParser.parseInteger(args[++i]));
+				continue;
+			}
+			if (arg.equals("--output")) {
+				if (i + 1 == nArgs) {
+					logError("output: filename missing.");
+					return false;
+				}
+				outfile = new File(args[++i]);
+				continue;
+			}
+			if (arg.equals("--seed")) {
+				// seed is optional for engines but required here
+				if (i + 1 < nArgs && !args[i + 1].startsWith("--"))
+					baseSeed = Long.parseLong(args[++i]);
+				continue;
+			}
+			if (arg.startsWith("--") && isIgnored(arg.substring(2))) {
+				logWarning("option '" + arg + "' ignored for sweeps.");
+				// skip argument(s) of ignored option
+				while (i + 1 < nArgs && !args[i + 1].startsWith("--"))
+					i++;
+				continue;
+			}
+			base.append(arg).append(' ');
+		}
+		baseCLO = base.toString().trim();
+		if (sweep == null) {
+			logError("no options to sweep - use --sweep \"<options>\".");
+			return false;
+		}
+		if (!parseSweep(sweep))
+			return false;
+		nPoints = 1;
+		for (String[] vals : values)
+			nPoints *= vals.length;
+		return true;
+	}
+
+	/**
+	 * Check if option {@code name} is ignored for the individual points.
+	 *
+	 * @param name the name of the option
+	 * @return {@code true} if {@code name} is ignored
+	 */
+	static boolean isIgnored(String name) {
+		for (String ignore : IGNORE_OPTIONS)
+			if (ignore.equals(name))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Parse the options to sweep, {@code sweep}, which has the format
+	 * {@code --<name> <values> [--<name> <values> ...]}.
+	 *
+	 * @param sweep the options to sweep
+	 * @return {@code true} if parsing was successful
+	 */
+	boolean parseSweep(String sweep) {
+		String[] opts = sweep.trim().split("\\s*--");
+		for (String opt : opts) {
+			opt = opt.trim();
+			if (opt.isEmpty())
+				continue;
+			String[] nameArg = opt.split("\\s+", 2);
+			if (nameArg.length < 2) {
+				logError("sweep: values for option '--" + nameArg[0] + "' missing.");
+				return false;
+			}
+			String[] vals = parseValues(nameArg[1].trim());
+			if (vals == null) {
+				logError("sweep: failed to parse values '" + nameArg[1] + "' for option '--" + nameArg[0] + "'.");
+				return false;
+			}
+			if (isIgnored(nameArg[0]) || nameArg[0].equals("seed")) {
+				logError("sweep: option '--" + nameArg[0] + "' cannot be swept.");
+				return false;
+			}
+			names.add(nameArg[0]);
+			values.add(vals);
+		}
+		if (names.isEmpty()) {
+			logError("sweep: no options to sweep.");
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Parse the values {@code arg} of a swept option. Ranges are specified as
+	 * {@code <start>:<end>[:<incr>[l]]}, where {@code l} indicates logarithmic
+	 * increments (defaults to {@code 1}), and lists as values separated by
+	 * {@code ,} or by {@code |} if individual values are vectors.
+	 *
+	 * @param arg the values of the option
+	 * @return the array of values or {@code null} if the range is invalid
+	 */
+	static String[] parseValues(String arg) {
+		if (arg.contains(LIST_DELIMITER))
+			return arg.split("\\s*\\" + LIST_DELIMITER + "\\s*");
+		if (!arg.contains(":"))
+			return arg.split("\\s*" + CLOParser.VECTOR_DELIMITER + "\\s*");
+		String[] range = arg.split(":");
+		if (range.length < 2 || range.length > 3)
+			return null;
+		double start = CLOParser.parseDouble(range[0]);
+		double end = CLOParser.parseDouble(range[1]);
+		double incr = 1.0;
+		boolean log = false;
+		if (range.length == 3) {
+			String incrArg = range[2].trim();
+			log = incrArg.endsWith("l");
+			if (log)
+				incrArg = incrArg.substring(0, incrArg.length() - 1);
+			incr = Math.abs(CLOParser.parseDouble(incrArg));
+		}
+		int n;
+		if (log) {
+			// ignore sign of logarithmic increments
+			if (incr <= 0.0 || incr == 1.0 || start == 0.0 || end / start <= 0.0)
+				return null;
+			n = (int) Math.floor(Math.log(end / start) / Math.log(incr) + 1e-8);
+			if (n < 0) {
+				incr = 1.0 / incr;
+				n = -n;
+			}
+		} else {
+			// ignore specified sign; set sign of increment based on start and end
+			if (incr <= 0.0)
+				return null;
+			if (end < start)
+				incr = -incr;
+			n = (int) Math.floor((end - start) / incr + 1e-8);
+		}
+		String[] vals = new String[n + 1];
+		for (int i = 0; i <= n; i++) {
+			// avoid accumulation of rounding errors
+			double val = (log ? start * Math.pow(incr, i) : start + i * incr);
+			vals[i] = Formatter.format(val, 8);
+		}
+		return vals;
+	}
+
+	/**
+	 * Get the values of the swept options for point {@code idx}. The last option
+	 * varies fastest.
+	 *
+	 * @param idx the index of the point
+	 * @return the values of the swept options
+	 */
+	String[] getPoint(int idx) {
+		int nNames = names.size();
+		String[] point = new String[nNames];
+		for (int n = nNames - 1; n >= 0; n--) {
+			String[] vals = values.get(n);
+			point[n] = vals[idx % vals.length];
+			idx /= vals.length;
+		}
+		return point;
+	}
+
+	/**
+	 * Get the key identifying {@code point} in the output, which corresponds to the
+	 * leading columns of each row.
+	 *
+	 * @param point the values of the swept options
+	 * @return the key of the point
+	 */
+	static String getKey(String[] point) {
+		return Formatter.format(point, "\t");
+	}
+
+	/**
+	 * Get the seed for the point with key {@code key}. The seed depends only on the
+	 * base seed and the values of the swept options but not on the other points of
+	 * the sweep.
+	 *
+	 * @param key the key of the point
+	 * @return the seed
+	 */
+	long getSeed(String key) {
+		// mix bits of key hash (splitmix64 finalizer) to decorrelate seeds of
+		// neighbouring points
+		long z = baseSeed + 0x9e3779b97f4a7c15L * (key.hashCode() + 1L);
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return (z ^ (z >>> 31)) & Long.MAX_VALUE;
+	}
+
+	/**
+	 * Open output for reporting results. If the output file exists, the keys of
+	 * points already reported are read and the output is appended.
+	 *
+	 * @return {@code true} if successful
+	 */
+	boolean openOutput() {
+		if (outfile == null)
+			return true;
+		if (outfile.exists()) {
+			int nKeys = names.size();
+			try (Scanner scanner = new Scanner(outfile)) {
+				while (scanner.hasNextLine()) {
+					String line = scanner.nextLine();
+					if (line.isEmpty())
+						continue;
+					if (line.startsWith("#")) {
+						hasLegend = true;
+						continue;
+					}
+					String[] cols = line.split("\t");
+					if (cols.length <= nKeys)
+						continue;
+					completed.add(getKey(Arrays.copyOf(cols, nKeys)));
+				}
+			} catch (FileNotFoundException e) {
+				logError("failed to read '" + outfile.getPath() + "'.");
+				return false;
+			}
+		}
+		try {
+			output = new PrintStream(new FileOutputStream(outfile, true), true);
+		} catch (FileNotFoundException e) {
+			logError("failed to open '" + outfile.getPath() + "' for writing.");
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public void run() {
+		if (!openOutput())
+			return;
+		if (!completed.isEmpty())
+			logMessage("resuming sweep: " + completed.size() + " out of " + nPoints + " points completed.");
+		nDone = completed.size();
+		long start = System.currentTimeMillis();
+		// allocate engines up front; note: each engine runs models in its own thread
+		List<Worker> workers = new ArrayList<>(nThreads);
+		for (int n = 0; n < nThreads; n++)
+			workers.add(new Worker(new EvoLudoJRE()));
+		ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+		for (Worker worker : workers)
+			pool.execute(worker);
+		pool.shutdown();
+		try {
+			while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+				// keep waiting
+			}
+		} catch (InterruptedException e) {
+			pool.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+		logMessage("sweep completed: " + nDone + " out of " + nPoints + " points in "
+				+ Formatter.format((System.currentTimeMillis() - start) * 0.001, 1) + " sec.");
+		if (output != System.out)
+			output.close();
+	}
+
+	/**
+	 * Report the results {@code row} for the point {@code key}. Prints the
+	 * legend if needed.
+	 *
+	 * @param engine the engine that simulated the point
+	 * @param key    the key of the point
+	 * @param seed   the seed of the point
+	 * @return {@code true} if successful
+	 */
+	synchronized boolean report(EvoLudoJRE engine, String key, long seed) {
+		Model model = engine.getModel();
+		Module<?> module = engine.getModule();
+		int totTraits = 0;
+		for (Module<?> specie : module.getSpecies())
+			totTraits += specie.getNTraits();
+		boolean isContinuous = model.isContinuous();
+		// population fitness only for single species with discrete traits
+		boolean hasPopulation = (!isContinuous && module.getSpecies().size() == 1);
+		if (!hasLegend) {
+			String[] traitNames = new String[totTraits];
+			int offset = 0;
+			for (Module<?> specie : module.getSpecies()) {
+				int nt = specie.getNTraits();
+				System.arraycopy(specie.getTraitNames(), 0, traitNames, offset, nt);
+				offset += nt;
+			}
+			output.println("# " + module.getTitle() + "\n# " + engine.getVersion() + "\n# today:                "
+					+ (new Date().toString()));
+			output.println("# arguments:            " + baseCLO);
+			output.println("# sweep:                " + Formatter.format(names.toArray(new String[0]), ", "));
+			output.println("# " + Formatter.format(names.toArray(new String[0]), "\t")
+					+ "\tseed\ttime\tmean (" + Formatter.format(traitNames) + (isContinuous ? ", sdev" : "")
+					+ ")\tfitness (" + Formatter.format(traitNames) + (isContinuous ? ", sdev" : "")
+					+ (hasPopulation ? ", Population" : "")
+					+ ")");
+			hasLegend = true;
+		}
+		double[] meantrait = isContinuous ? new double[2 * totTraits] : new double[totTraits];
+		double[] meanfit = isContinuous ? new double[2 * totTraits]
+				: new double[hasPopulation ? totTraits + 1 : totTraits];
+		model.getMeanTraits(meantrait);
+		model.getMeanFitness(meanfit);
+		// IBS report the population fitness but DE models do not; derive it from
+		// the mean traits and their fitness
+		if (hasPopulation && !model.isIBS()) {
+			double sum = 0.0;
+			for (int n = 0; n < totTraits; n++)
+				sum += meantrait[n] * meanfit[n];
+			meanfit[totTraits] = sum;
+		}
+		StringBuilder line = new StringBuilder(256);
+		line.append(key).append('\t').append(seed).append('\t');
+		Formatter.append(line, model.getUpdates(), 4);
+		Formatter.append(line.append('\t'), meantrait, 6);
+		Formatter.append(line.append('\t'), meanfit, 6);
+		output.println(line);
+		nDone++;
+		engine.logProgress(nDone + "/" + nPoints + " done");
+		return !output.checkError();
+	}
+
+	/**
+	 * Worker running points of the sweep on its own engine until all points are
+	 * simulated.
+	 */
+	class Worker implements Runnable, RunListener {
+
+		/**
+		 * The engine of this worker.
+		 */
+		EvoLudoJRE engine;
+
+		/**
+		 * The flag to indicate whether the engine is running.
+		 */
+		boolean isRunning;
+
+		/**
+		 * Create a new worker running points of the sweep on {@code engine}.
+		 *
+		 * @param engine the engine of this worker
+		 */
+		Worker(EvoLudoJRE engine) {
+			this.engine = engine;
+			engine.getLogger().setLevel(Level.WARNING);
+			engine.addRunListener(this);
+		}
+
+		@Override
+		public void run() {
+			int idx;
+			while ((idx = nextPoint.getAndIncrement()) < nPoints) {
+				String[] point = getPoint(idx);
+				String key = getKey(point);
+				if (completed.contains(key))
+					continue;
+				long seed = getSeed(key);
+				StringBuilder clo = new StringBuilder(baseCLO);
+				for (int n = 0; n < point.length; n++)
+					clo.append(" --").append(names.get(n)).append(' ').append(point[n]);
+				// later instances of repeated options take precedence
+				clo.append(" --seed ").append(seed).append(" --delay 0");
+				if (!runPoint(clo.toString())) {
+					logError("point '" + clo + "' failed - skipped.");
+					continue;
+				}
+				if (!report(engine, key, seed)) {
+					logError("failed to write results - sweep aborted.");
+					return;
+				}
+			}
+		}
+
+		/**
+		 * Load and run module with parameters {@code clo}.
+		 *
+		 * @param clo the command line options for running the point
+		 * @return {@code true} if the module ran successfully
+		 */
+		boolean runPoint(String clo) {
+			synchronized (SETUP_LOCK) {
+				engine.addCLOProvider(engine);
+				engine.unloadModule();
+				engine.setCLO(clo);
+				if (engine.parseCLO() > 0)
+					return false;
+				double timeStop = engine.getModel().getTimeStop();
+				if (timeStop <= 0.0 || Double.isInfinite(timeStop)) {
+					logError("sweeps require --timestop.");
+					return false;
+				}
+				engine.setSuspended(true);
+				engine.modelReset();
+			}
+			isRunning = engine.isSuspended();
+			while (isRunning) {
+				synchronized (this) {
+					engine.run();
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public synchronized void modelStopped() {
+			isRunning = false;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Print help screen.
+	 */
+	public void help() {
+		System.out.println(
+				"EvoLudo sweeps\nUsage: java -jar scanCLO.jar --sweep \"<options>\" [options] <model options>\n" + //
+						"       --sweep \"<options>\": options to sweep, e.g. \"--popsize 100:1000:100 --rewire 0,0.1,0.5\"\n" + //
+						"              <start>:<end>[:<incr>[l]]: range of values (l for logarithmic increments)\n" + //
+						"              <v1>,<v2>,...: list of values (use | for vector values)\n" + //
+						"       --threads <n>: number of simulations running in parallel\n" + //
+						"       --output <filename>: file for results (resumes if file exists)\n" + //
+						"       --seed <s>: base seed for deriving seeds of points\n" + //
+						"       --help, -h: this help screen");
+	}
+
+	/**
+	 * Log message to {@code System.err}.
+	 *
+	 * @param msg the message to log
+	 */
+	static void logMessage(String msg) {
+		System.err.println(msg);
+	}
+
+	/**
+	 * Log warning message to {@code System.err}.
+	 *
+	 * @param msg the warning to log
+	 */
+	static void logWarning(String msg) {
+		logMessage("WARNING: " + msg);
+	}
+
+	/**
+	 * Log error message to {@code System.err}.
+	 *
+	 * @param msg the error to log
+	 */
+	static void logError(String msg) {
+		logMessage("ERROR: " + msg);
+	}
+
+	/**
+	 * Main method to run the sweep.
+	 *
+	 * @param args the array of command line arguments
+	 */
+	public static void main(String[] args) {
+		scanCLO sweep = new scanCLO();
+		if (!sweep.parse(args))
+			System.exit(1);
+		sweep.run();
+		System.exit(0);
+	}
+}
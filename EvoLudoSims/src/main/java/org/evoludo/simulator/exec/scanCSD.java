@@ -236,6 +236,7 @@ public class scanCSD extends CSD {
 		double lowmean = -1.0;
 		double lowstdev = -1.0;
 		double[] lowstatistics = null;
+		double[] tmp = new double[2 * nTraits];
 		double b1 = b1Start;
 		boolean isBistable = false;
 		while (Math.abs(b1) - Math.abs(b1End) < 1e-4) {
@@ -280,7 +281,6 @@ public class scanCSD extends CSD {
 							// maximum has been reached more precisely, whether mean trait <lowMonoThreshold
 							// or >highMonoThreshold
 							if (g % 1000 == 0) {
-								double[] tmp = new double[2 * nTraits];
 								double mean = cpop.getMeanTraits(tmp)[0];
 								double tmin = getTraitMin()[0];
 								double tmax = getTraitMax()[0];
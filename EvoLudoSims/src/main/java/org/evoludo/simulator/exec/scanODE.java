@@ -0,0 +1,791 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator.exec;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.logging.Level;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.evoludo.math.ArrayMath;
+import org.evoludo.math.LinearAlgebra;
+import org.evoludo.simulator.EvoLudoJRE;
+import org.evoludo.simulator.models.Model;
+import org.evoludo.simulator.models.ODE;
+import org.evoludo.simulator.modules.Module;
+import org.evoludo.util.Formatter;
+
+/**
+ * Continuation of fixed points of ODE models across a range of values of a
+ * command line option. Branches of fixed points are tracked by
+ * pseudo-arclength continuation: the scanned option is treated as a continuous
+ * parameter {@code p} by linearly interpolating the numbers of consecutive
+ * values, and each step predicts the next point along the tangent of the
+ * branch and corrects it using Newton's method subject to the arclength
+ * constraint. The derivatives of the fixed point equations, see
+ * {@link ODE#getEquilibriumSystem(double[], double[], double[][])}, with
+ * respect to {@code p} are approximated by finite differences between nearby
+ * parameter settings. This tracks branches through fold points (saddle-node
+ * bifurcations), where the branch turns back and no fixed point exists on one
+ * side.
+ * <p>
+ * Fixed points are reported whenever the branch crosses one of the specified
+ * values, together with their stability based on the eigenvalues of the
+ * Jacobian. After a fold the same value may be reported again for the
+ * returning branch. Folds as well as changes in stability between consecutive
+ * reports indicate bifurcations. If tracking fails or the branch leaves the
+ * scanned range, the continuation stops and the values that were not reached
+ * are reported without fixed points.
+ * <p>
+ * The continuation accepts the following command line options (all other
+ * options are passed on to the engine):
+ * <ul>
+ * <li>{@code --scan "--<name> <values>"}: option to scan, e.g.
+ * {@code --scan "--paymatrix 0,-1,1;1,0,-1;-1,1,0|0,-1,1.1;1.1,0,-1;-1,1.1,0"}
+ * or {@code --scan "--deathrate 0.1:1:0.05"}. Values are specified as in
+ * {@link scanCLO} and must differ only in their numbers.
+ * <li>{@code --output <filename>}: file for reporting the results
+ * <li>{@code --help}, {@code -h}: this help screen
+ * </ul>
+ * <strong>Note:</strong> {@code --data}, {@code --export}, {@code --append}
+ * and {@code --binary} are ignored.
+ *
+ * @author Christoph Hauert
+ *
+ * @see scanCLO
+ */
+public class scanODE implements Runnable {
+
+	/**
+	 * The name of the scanned option.
+	 */
+	String name;
+
+	/**
+	 * The values of the scanned option.
+	 */
+	String[] values;
+
+	/**
+	 * The command line options shared by all values.
+	 */
+	String baseCLO = "";
+
+	/**
+	 * The file for reporting the results or {@code null} to report to
+	 * {@code System.out}.
+	 */
+	File outfile;
+
+	/**
+	 * The output stream for reporting results.
+	 */
+	PrintStream output = System.out;
+
+	/**
+	 * The engine for locating fixed points.
+	 */
+	EvoLudoJRE engine;
+
+	/**
+	 * The flag to indicate whether the legend has been printed.
+	 */
+	boolean hasLegend;
+
+	/**
+	 * The number of traits in all species.
+	 */
+	int nDim;
+
+	/**
+	 * The values of the fixed point equations.
+	 */
+	double[] residual;
+
+	/**
+	 * The values of the fixed point equations for the finite difference
+	 * approximation of their derivatives with respect to the parameter.
+	 */
+	double[] shifted;
+
+	/**
+	 * The Jacobian of the fixed point equations extended by the derivatives with
+	 * respect to the parameter and the arclength constraint.
+	 */
+	double[][] bordered;
+
+	/**
+	 * The permutation of rows of the LU decomposition of {@link #bordered}.
+	 */
+	int[] index;
+
+	/**
+	 * The scaling of rows of the LU decomposition of {@link #bordered}.
+	 */
+	double[] scale;
+
+	/**
+	 * The stability of the last reported fixed point.
+	 */
+	String prevStability;
+
+	/**
+	 * The value of the last reported fixed point.
+	 */
+	String prevValue;
+
+	/**
+	 * The number of reported values.
+	 */
+	int nReported;
+
+	/**
+	 * The number of reported values with fixed points.
+	 */
+	int nFound;
+
+	/**
+	 * The pattern of numbers in the values of the scanned option.
+	 */
+	static final Pattern NUMBER = Pattern.compile("[-+]?(\\d+\\.?\\d*|\\.\\d+)([eE][-+]?\\d+)?");
+
+	/**
+	 * The increment of the parameter for the finite difference approximation of
+	 * the derivatives with respect to the parameter.
+	 */
+	static final double DELTA = 1e-6;
+
+	/**
+	 * The maximal step size along the branch in units of the distance between
+	 * consecutive values.
+	 */
+	static final double MAX_STEP = 0.5;
+
+	/**
+	 * The minimal step size along the branch before tracking is abandoned.
+	 */
+	static final double MIN_STEP = 1e-6;
+
+	/**
+	 * The minimal cosine of the angle between the tangents at the start and the
+	 * end of a step.
+	 */
+	static final double MIN_ALIGNMENT = 0.9;
+
+	/**
+	 * The maximal number of Newton iterations for correcting a step.
+	 */
+	static final int MAX_ITERATIONS = 10;
+
+	/**
+	 * The accuracy of the corrected fixed points.
+	 */
+	static final double ACCURACY = 1e-10;
+
+	/**
+	 * The maximal number of continuation steps per value.
+	 */
+	static final int MAX_STEPS = 100;
+
+	/**
+	 * Parse the command line options {@code args}.
+	 *
+	 * @param args the command line options
+	 * @return {@code true} if parsing was successful
+	 */
+	public boolean parse(String[] args) {
+		String scan = null;
+		StringBuilder base = new StringBuilder();
+		int nArgs = args.length;
+		for (int i = 0; i < nArgs; i++) {
+			String arg = args[i];
+			if (arg.startsWith("-h") || arg.startsWith("--help")) {
+				help();
+				return false;
+			}
+			if (arg.equals("--scan")) {
+				if (i + 1 == nArgs) {
+					logError("scan: option missing.");
+					return false;
+				}
+				scan = args[++i];
+				continue;
+			}
+			if (arg.equals("--output")) {
+				if (i + 1 == nArgs) {
+					logError("output: filename missing.");
+					return false;
+				}
+				outfile = new File(args[++i]);
+				continue;
+			}
+			if (arg.startsWith("--") && scanCLO.isIgnored(arg.substring(2))) {
+				scanCLO.logWarning("option '" + arg + "' ignored for scans.");
+				// skip argument(s) of ignored option
+				while (i + 1 < nArgs && !args[i + 1].startsWith("--"))
+					i++;
+				continue;
+			}
+			base.append(arg).append(' ');
+		}
+		baseCLO = base.toString().trim();
+		if (scan == null) {
+			logError("no option to scan - use --scan \"--<name> <values>\".");
+			return false;
+		}
+		String[] nameArg = scan.trim().replaceFirst("^--", "").split("\\s+", 2);
+		if (nameArg.length < 2) {
+			logError("scan: values for option '--" + nameArg[0] + "' missing.");
+			return false;
+		}
+		name = nameArg[0];
+		if (scanCLO.isIgnored(name)) {
+			logError("scan: option '--" + name + "' cannot be scanned.");
+			return false;
+		}
+		values = scanCLO.parseValues(nameArg[1].trim());
+		if (values == null) {
+			logError("scan: failed to parse values '" + nameArg[1] + "' for option '--" + name + "'.");
+			return false;
+		}
+		for (int n = 1; n < values.length; n++) {
+			if (interpolate(values[n - 1], values[n], 0.5) == null) {
+				logError("scan: values '" + values[n - 1] + "' and '" + values[n] + "' of option '--" + name
+						+ "' must differ only in their numbers.");
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void run() {
+		if (outfile != null) {
+			try {
+				output = new PrintStream(outfile);
+			} catch (FileNotFoundException e) {
+				logError("failed to open '" + outfile.getPath() + "' for writing.");
+				return;
+			}
+		}
+		engine = new EvoLudoJRE();
+		engine.getLogger().setLevel(Level.WARNING);
+		int nValues = values.length;
+		// locate the fixed point of the first value where one exists
+		int start = 0;
+		double[] x = null;
+		for (; start < nValues; start++) {
+			ODE ode = load(values[start]);
+			if (ode == null) {
+				close();
+				return;
+			}
+			alloc();
+			if (ode.findEquilibrium()) {
+				x = new double[nDim];
+				ode.getMeanTraits(x);
+				reportFixedPoint(values[start], x, ode);
+				break;
+			}
+			reportFixedPoint(values[start], null, ode);
+		}
+		if (x == null || start == nValues - 1) {
+			close();
+			return;
+		}
+		// continuation variables y = (x, p) with the parameter p in units of the
+		// index of values
+		int nVars = nDim + 1;
+		double pEnd = nValues - 1.0;
+		double[] y = Arrays.copyOf(x, nVars);
+		y[nDim] = start;
+		double[] tangent = new double[nVars];
+		tangent[nDim] = 1.0;
+		if (!tangent(y, tangent)) {
+			scanCLO.logWarning("failed to determine direction of branch at --" + name + " " + values[start] + ".");
+			reportNone(start + 1, nValues);
+			close();
+			return;
+		}
+		double[] next = new double[nVars];
+		double[] nextTangent = new double[nVars];
+		double ds = MAX_STEP;
+		// largest parameter reached
+		double pMax = start;
+		int maxSteps = MAX_STEPS * nValues;
+		int nSteps = 0;
+		while (true) {
+			if (++nSteps > maxSteps) {
+				scanCLO.logWarning("too many continuation steps near --" + name + " " + valueAt(y[nDim]) + ".");
+				reportNone((int) Math.floor(pMax) + 1, nValues);
+				break;
+			}
+			// limit steps to the scanned range
+			double pPred = y[nDim] + ds * tangent[nDim];
+			double bound = -1.0;
+			if (pPred >= pEnd)
+				bound = pEnd;
+			else if (pPred <= 0.0)
+				bound = 0.0;
+			double step = (bound < 0.0 ? ds : (bound - y[nDim]) / tangent[nDim]);
+			System.arraycopy(tangent, 0, nextTangent, 0, nVars);
+			if (!correct(y, tangent, step, next) || !tangent(next, nextTangent)
+					|| ArrayMath.dot(tangent, nextTangent) < MIN_ALIGNMENT) {
+				// reject step; smaller steps avoid jumping between branches
+				ds *= 0.5;
+				if (ds < MIN_STEP) {
+					scanCLO.logWarning("lost track of branch of fixed points near --" + name + " "
+							+ valueAt(y[nDim]) + " - continuation stopped.");
+					reportNone((int) Math.floor(pMax) + 1, nValues);
+					break;
+				}
+				continue;
+			}
+			if (tangent[nDim] * nextTangent[nDim] < 0.0) {
+				// parameter reverses direction along the branch
+				double pFold = y[nDim] + (next[nDim] - y[nDim]) * tangent[nDim] / (tangent[nDim] - nextTangent[nDim]);
+				scanCLO.logMessage("fold of branch of fixed points near --" + name + " " + valueAt(pFold)
+						+ " (saddle-node bifurcation).");
+			}
+			if (bound >= 0.0) {
+				reportCrossings(y, next, (int) bound);
+				// polish fixed point at the boundary value of the scanned range
+				int idx = (int) bound;
+				ODE ode = load(values[idx]);
+				System.arraycopy(next, 0, x, 0, nDim);
+				if (ode != null && ode.findEquilibrium(x)) {
+					ode.getMeanTraits(x);
+					reportFixedPoint(values[idx], x, ode);
+				} else
+					reportFixedPoint(values[idx], null, ode);
+				if (bound == 0.0) {
+					scanCLO.logMessage("branch of fixed points turned back to --" + name + " " + values[0]
+							+ " - continuation stopped.");
+					reportNone((int) Math.floor(pMax) + 1, nValues);
+				}
+				break;
+			}
+			reportCrossings(y, next, -1);
+			pMax = Math.max(pMax, next[nDim]);
+			double[] swap = y;
+			y = next;
+			next = swap;
+			swap = tangent;
+			tangent = nextTangent;
+			nextTangent = swap;
+			ds = Math.min(1.5 * ds, MAX_STEP);
+		}
+		close();
+	}
+
+	/**
+	 * Allocate the memory for the continuation, if needed.
+	 */
+	void alloc() {
+		nDim = getNDim();
+		if (residual != null && residual.length == nDim)
+			return;
+		residual = new double[nDim];
+		shifted = new double[nDim];
+		bordered = new double[nDim + 1][nDim + 1];
+		index = new int[nDim + 1];
+		scale = new double[nDim + 1];
+	}
+
+	/**
+	 * Close the output and report summary.
+	 */
+	void close() {
+		scanCLO.logMessage("scan completed: fixed points found for " + nFound + " out of " + nReported
+				+ " reported values.");
+		if (output != System.out)
+			output.close();
+	}
+
+	/**
+	 * Set up the bordered Jacobian of the fixed point equations at {@code y},
+	 * extended by the derivatives with respect to the parameter and the row
+	 * {@code border}, and evaluate the fixed point equations into
+	 * {@link #residual}.
+	 *
+	 * @param y      the fixed point and parameter
+	 * @param border the last row of the bordered Jacobian
+	 * @return {@code true} if successful
+	 */
+	boolean border(double[] y, double[] border) {
+		double p = y[nDim];
+		ODE ode = load(valueAt(p + DELTA));
+		if (ode == null || getNDim() != nDim)
+			return false;
+		ode.getEquilibriumSystem(y, shifted, null);
+		ode = load(valueAt(p));
+		if (ode == null)
+			return false;
+		ode.getEquilibriumSystem(y, residual, bordered);
+		for (int i = 0; i < nDim; i++)
+			bordered[i][nDim] = (shifted[i] - residual[i]) / DELTA;
+		System.arraycopy(border, 0, bordered[nDim], 0, nDim + 1);
+		return LinearAlgebra.luDecompose(bordered, nDim + 1, index, scale);
+	}
+
+	/**
+	 * Determine the unit tangent of the branch at {@code y}. On input
+	 * {@code tangent} holds the previous tangent, which determines the
+	 * orientation of the new tangent.
+	 *
+	 * @param y       the fixed point and parameter
+	 * @param tangent the previous tangent, replaced by the new tangent
+	 * @return {@code true} if successful
+	 */
+	boolean tangent(double[] y, double[] tangent) {
+		if (!border(y, tangent))
+			return false;
+		Arrays.fill(tangent, 0.0);
+		tangent[nDim] = 1.0;
+		LinearAlgebra.luSolve(bordered, nDim + 1, index, tangent);
+		double norm = Math.sqrt(ArrayMath.dot(tangent, tangent));
+		if (!(norm > 0.0) || Double.isInfinite(norm))
+			return false;
+		for (int i = 0; i <= nDim; i++)
+			tangent[i] /= norm;
+		return true;
+	}
+
+	/**
+	 * Predict the next point on the branch at a distance {@code ds} from
+	 * {@code y} along {@code tangent} and correct it using Newton's method
+	 * subject to the arclength constraint, i.e. the corrected point lies on the
+	 * hyperplane through the prediction orthogonal to the tangent.
+	 *
+	 * @param y       the current fixed point and parameter
+	 * @param tangent the unit tangent of the branch at {@code y}
+	 * @param ds      the step size
+	 * @param next    the array for returning the next fixed point and parameter
+	 * @return {@code true} if the correction converged
+	 */
+	boolean correct(double[] y, double[] tangent, double ds, double[] next) {
+		int nVars = nDim + 1;
+		double[] pred = new double[nVars];
+		for (int i = 0; i < nVars; i++)
+			pred[i] = y[i] + ds * tangent[i];
+		System.arraycopy(pred, 0, next, 0, nVars);
+		double[] step = new double[nVars];
+		for (int iter = 0; iter < MAX_ITERATIONS; iter++) {
+			if (!border(next, tangent))
+				return false;
+			double arc = 0.0;
+			for (int i = 0; i < nVars; i++)
+				arc += tangent[i] * (next[i] - pred[i]);
+			double norm = 0.0;
+			for (int i = 0; i < nDim; i++) {
+				step[i] = -residual[i];
+				norm = Math.max(norm, Math.abs(residual[i]));
+			}
+			step[nDim] = -arc;
+			if (!(norm < Double.MAX_VALUE))
+				return false;
+			LinearAlgebra.luSolve(bordered, nVars, index, step);
+			double change = 0.0;
+			for (int i = 0; i < nVars; i++) {
+				next[i] += step[i];
+				change = Math.max(change, Math.abs(step[i]));
+			}
+			// fixed points must lie in the positive orthant
+			for (int i = 0; i < nDim; i++)
+				next[i] = Math.max(0.0, next[i]);
+			// corrections exceeding the step size suggest convergence to another
+			// branch
+			if (Math.sqrt(ArrayMath.distSq(next, pred)) > ds)
+				return false;
+			if (norm < ACCURACY && change < Math.sqrt(ACCURACY))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Report the fixed points where the branch between {@code from} and
+	 * {@code to} crosses values of the scanned option, except for the value with
+	 * index {@code skip}. The fixed points are located using Newton's method
+	 * starting from the linear interpolation between {@code from} and {@code to}.
+	 *
+	 * @param from the fixed point and parameter at the start of the step
+	 * @param to   the fixed point and parameter at the end of the step
+	 * @param skip the index of the value to skip or {@code -1}
+	 */
+	void reportCrossings(double[] from, double[] to, int skip) {
+		double pFrom = from[nDim];
+		double pTo = to[nDim];
+		boolean up = pTo > pFrom;
+		// values strictly after pFrom up to and including pTo
+		int first = (int) (up ? Math.floor(pFrom) + 1 : Math.ceil(pFrom) - 1);
+		int last = (int) (up ? Math.floor(pTo) : Math.ceil(pTo));
+		int incr = up ? 1 : -1;
+		double[] guess = new double[nDim];
+		for (int k = first; up ? k <= last : k >= last; k += incr) {
+			if (k == skip || k < 0 || k >= values.length)
+				continue;
+			double f = (k - pFrom) / (pTo - pFrom);
+			for (int i = 0; i < nDim; i++)
+				guess[i] = from[i] + f * (to[i] - from[i]);
+			ODE ode = load(values[k]);
+			if (ode != null && ode.findEquilibrium(guess)) {
+				ode.getMeanTraits(guess);
+				reportFixedPoint(values[k], guess, ode);
+			} else {
+				scanCLO.logWarning("failed to locate fixed point on branch at --" + name + " " + values[k] + ".");
+				reportFixedPoint(values[k], null, ode);
+			}
+		}
+	}
+
+	/**
+	 * Report values with indices {@code from} (inclusive) to {@code to}
+	 * (exclusive) without fixed points.
+	 *
+	 * @param from the index of the first value
+	 * @param to   the index after the last value
+	 */
+	void reportNone(int from, int to) {
+		for (int k = from; k < to; k++)
+			reportFixedPoint(values[k], null, null);
+	}
+
+	/**
+	 * Report the fixed point {@code state} for {@code value} of the scanned
+	 * option and log changes in stability since the last report.
+	 *
+	 * @param value the value of the scanned option
+	 * @param state the fixed point or {@code null} if none was found
+	 * @param ode   the model
+	 */
+	void reportFixedPoint(String value, double[] state, ODE ode) {
+		report(value, state, ode);
+		nReported++;
+		if (state == null) {
+			prevStability = null;
+			return;
+		}
+		nFound++;
+		String stability = getStability(ode);
+		if (prevStability != null && !stability.equals(prevStability))
+			scanCLO.logMessage("stability changed from " + prevStability + " to " + stability + " between --"
+					+ name + " " + prevValue + " and " + value + " (bifurcation).");
+		prevStability = stability;
+		prevValue = value;
+	}
+
+	/**
+	 * Get the value of the scanned option for the parameter {@code p}, where
+	 * integer parameters refer to the specified values and non-integer parameters
+	 * to the linear interpolation between the adjacent values. Parameters outside
+	 * the scanned range are extrapolated.
+	 *
+	 * @param p the parameter
+	 * @return the value of the scanned option
+	 */
+	String valueAt(double p) {
+		int last = values.length - 1;
+		int k = Math.min(Math.max((int) Math.floor(p), 0), last - 1);
+		double f = p - k;
+		if (f == 0.0)
+			return values[k];
+		if (f == 1.0)
+			return values[k + 1];
+		return interpolate(values[k], values[k + 1], f);
+	}
+
+	/**
+	 * Interpolate the numbers in the values {@code a} and {@code b} of the scanned
+	 * option, {@code a + f (b - a)}.
+	 *
+	 * @param a the first value
+	 * @param b the second value
+	 * @param f the fraction of the distance from {@code a} to {@code b}
+	 * @return the interpolated value or {@code null} if {@code a} and {@code b}
+	 *         differ in more than their numbers
+	 */
+	static String interpolate(String a, String b, double f) {
+		Matcher ma = NUMBER.matcher(a);
+		Matcher mb = NUMBER.matcher(b);
+		StringBuilder value = new StringBuilder(a.length() + 32);
+		int ia = 0;
+		int ib = 0;
+		while (ma.find()) {
+			if (!mb.find())
+				return null;
+			String sep = a.substring(ia, ma.start());
+			if (!sep.equals(b.substring(ib, mb.start())))
+				return null;
+			double va = Double.parseDouble(ma.group());
+			double vb = Double.parseDouble(mb.group());
+			value.append(sep).append(va + f * (vb - va));
+			ia = ma.end();
+			ib = mb.end();
+		}
+		if (mb.find() || !a.substring(ia).equals(b.substring(ib)))
+			return null;
+		return value.append(a.substring(ia)).toString();
+	}
+
+	/**
+	 * Load the module with the option {@link #name} set to {@code value} and
+	 * reset the model.
+	 *
+	 * @param value the value of the scanned option
+	 * @return the ODE model or {@code null} if loading failed
+	 */
+	ODE load(String value) {
+		engine.addCLOProvider(engine);
+		engine.unloadModule();
+		// later instances of repeated options take precedence
+		engine.setCLO(baseCLO + " --" + name + " " + value + " --delay 0");
+		if (engine.parseCLO() > 0) {
+			logError("failed to parse options for --" + name + " " + value + ".");
+			return null;
+		}
+		Model model = engine.getModel();
+		if (!model.isODE()) {
+			logError("scans require ODE models.");
+			return null;
+		}
+		engine.modelReset();
+		return (ODE) model;
+	}
+
+	/**
+	 * Get the total number of traits in all species.
+	 *
+	 * @return the number of traits
+	 */
+	int getNDim() {
+		int nDim = 0;
+		for (Module<?> specie : engine.getModule().getSpecies())
+			nDim += specie.getNTraits();
+		return nDim;
+	}
+
+	/**
+	 * Get the stability of the last fixed point of {@code ode}.
+	 *
+	 * @param ode the model
+	 * @return {@code stable}, {@code unstable}, {@code neutral} or {@code unknown}
+	 */
+	static String getStability(ODE ode) {
+		if (Double.isNaN(ode.getMaxEigenvalue()))
+			return "unknown";
+		if (ode.isStable())
+			return "stable";
+		return ode.isUnstable() ? "unstable" : "neutral";
+	}
+
+	/**
+	 * Report the fixed point {@code state} for {@code value} of the scanned
+	 * option. Prints the legend first.
+	 *
+	 * @param value the value of the scanned option
+	 * @param state the fixed point or {@code null} if none was found
+	 * @param ode   the model
+	 */
+	void report(String value, double[] state, ODE ode) {
+		Module<?> module = engine.getModule();
+		if (!hasLegend) {
+			String[] traitNames = new String[nDim];
+			int offset = 0;
+			for (Module<?> specie : module.getSpecies()) {
+				int nt = specie.getNTraits();
+				System.arraycopy(specie.getTraitNames(), 0, traitNames, offset, nt);
+				offset += nt;
+			}
+			output.println("# " + module.getTitle() + "\n# " + engine.getVersion() + "\n# today:                "
+					+ (new Date().toString()));
+			output.println("# arguments:            " + baseCLO);
+			output.println("# scan:                 " + name);
+			output.println("# " + name + "\tfixed point (" + Formatter.format(traitNames)
+					+ ")\tmax. eigenvalue\tstability");
+			hasLegend = true;
+		}
+		StringBuilder line = new StringBuilder(256);
+		line.append(value).append('\t');
+		if (state == null) {
+			double[] nan = new double[nDim];
+			Arrays.fill(nan, Double.NaN);
+			Formatter.append(line, nan, 6);
+			line.append("\tNaN\tnone");
+		} else {
+			Formatter.append(line, state, 6);
+			Formatter.append(line.append('\t'), ode.getMaxEigenvalue(), 6);
+			line.append('\t').append(getStability(ode));
+		}
+		output.println(line);
+	}
+
+	/**
+	 * Print help screen.
+	 */
+	public void help() {
+		System.out.println(
+				"EvoLudo continuation of fixed points\nUsage: java -jar scanODE.jar --scan \"--<name> <values>\" [options] <model options>\n" + //
+						"       --scan \"--<name> <values>\": option to scan, e.g. \"--deathrate 0.1:1:0.05\"\n" + //
+						"              <start>:<end>[:<incr>[l]]: range of values (l for logarithmic increments)\n" + //
+						"              <v1>,<v2>,...: list of values (use | for vector values)\n" + //
+						"              values must differ only in their numbers, which are interpolated\n" + //
+						"              to track branches of fixed points by pseudo-arclength continuation\n" + //
+						"       --output <filename>: file for results\n" + //
+						"       --help, -h: this help screen");
+	}
+
+	/**
+	 * Log error message to {@code System.err}.
+	 *
+	 * @param msg the error to log
+	 */
+	static void logError(String msg) {
+		scanCLO.logError(msg);
+	}
+
+	/**
+	 * Main method to run the continuation.
+	 *
+	 * @param args the array of command line arguments
+	 */
+	public static void main(String[] args) {
+		scanODE scan = new scanODE();
+		if (!scan.parse(args))
+			System.exit(1);
+		scan.run();
+		System.exit(0);
+	}
+}
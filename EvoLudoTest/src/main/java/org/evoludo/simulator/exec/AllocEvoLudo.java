@@ -0,0 +1,427 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator.exec;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+import org.evoludo.simulator.EvoLudoJRE;
+import org.evoludo.simulator.models.Model;
+import org.evoludo.util.CLOParser;
+
+/**
+ * AllocEvoLudo checks that advancing models in steady state does not allocate
+ * memory. For each scenario the model is reset and warmed up before the memory
+ * allocated during a number of steps is measured with
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long[])}. Only
+ * the thread advancing the model and the worker threads registered with the
+ * engine, e.g. of PDE models, are measured, such that allocations of unrelated
+ * threads of the JVM do not affect the verdict. After the warmup the model
+ * keeps running until no code was compiled during the last {@code steps} steps
+ * (but at most {@value #MAX_SETTLE} times), because compiling and replacing
+ * running code occasionally allocates on the thread executing it. Because
+ * compilations may still complete at any time, the measurement is repeated up
+ * to {@value #MAX_ROUNDS} times and the smallest allocation per step is
+ * reported. Allocations in steady state recur in every round. Scenarios that
+ * allocate are reported and the exit status is non-zero, which renders the
+ * check suitable for regression tests. The following command line options
+ * are accepted:
+ * <ul>
+ * <li>{@code --scenarios <s1,s2,...>}: scenarios to check (defaults to all, see
+ * {@link Scenario})
+ * <li>{@code --warmup <n>}: number of steps to warm up (defaults to
+ * {@code 200})
+ * <li>{@code --steps <n>}: number of steps to measure (defaults to
+ * {@code 100})
+ * <li>{@code --tolerance <b>}: number of bytes per step tolerated (defaults to
+ * {@code 0})
+ * <li>{@code --help}, {@code -h}: this help screen
+ * </ul>
+ * 
+ * @author Christoph Hauert
+ */
+public class AllocEvoLudo {
+
+	/**
+	 * The scenarios for checking allocations. Covers the different model types
+	 * and population updates.
+	 */
+	public enum Scenario {
+
+		/**
+		 * Individual based simulation with asynchronous updates on a lattice.
+		 */
+		IBS_ASYNC("ibs-async",
+				"--module 2x2 --model IBS --geometry n --popsize 2500 --popupdate async --playerupdate thermal 0.1 --init frequency 1,1 --mutation 0.01 other --paymatrix 1,0;1.25,0.25"),
+
+		/**
+		 * Individual based simulation with synchronous updates on a lattice.
+		 */
+		IBS_SYNC("ibs-sync",
+				"--module 2x2 --model IBS --geometry n --popsize 2500 --popupdate sync --playerupdate thermal 0.1 --init frequency 1,1 --mutation 0.01 other --paymatrix 1,0;1.25,0.25"),
+
+		/**
+		 * Individual based simulation of the Moran process in well-mixed
+		 * populations.
+		 */
+		IBS_MORAN("ibs-moran",
+				"--module 2x2 --model IBS --geometry M --popsize 1000 --popupdate Bd --init frequency 1,1 --mutation 0.01 other --paymatrix 1,0;1.25,0.25"),
+
+		/**
+		 * Individual based simulation of continuous traits in well-mixed
+		 * populations.
+		 */
+		IBS_CONTINUOUS("ibs-continuous",
+				"--module cSD --model IBS --geometry M --popsize 1000 --interactions random 1 --popupdate async --playerupdate imitate 0.1 --init uniform --mutation 0.1 gaussian 0.01 --benefits 11 6,-1.4 --costs 1 4.56,-1.6"),
+
+		/**
+		 * Ordinary differential equations.
+		 */
+		ODE("ode",
+				"--module RSP --model ODE --init frequency 1,1,2 --paymatrix 0,-1,1.1;1.1,0,-1;-1,1.1,0"),
+
+		/**
+		 * Stochastic differential equations.
+		 */
+		SDE("sde",
+				"--module RSP --model SDE --popsize 10000 --init frequency 1,1,2 --paymatrix 0,-1,1.1;1.1,0,-1;-1,1.1,0"),
+
+		/**
+		 * Partial differential equations.
+		 */
+		PDE("pde",
+				"--module RSP --model PDE --geometry n --pdeN 2500 --pdeD 0.1,0.1,0.1 --init random 1,1,1 --paymatrix 0,-1,1.1;1.1,0,-1;-1,1.1,0"),
+
+		/**
+		 * Partial differential equations with advection.
+		 */
+		PDE_ADVECTION("pde-advection",
+				"--module RSP --model PDEA --geometry n --pdeN 2500 --pdeD 0.1,0.1,0.1 --pdeA 0.1,0;0,0.1 --init random 1,1,1 --paymatrix 0,-1,1.1;1.1,0,-1;-1,1.1,0");
+
+		/**
+		 * The key of the scenario.
+		 */
+		final String key;
+
+		/**
+		 * The command line options of the scenario.
+		 */
+		final String clo;
+
+		/**
+		 * Create a new scenario with key {@code key} and command line options
+		 * {@code clo}.
+		 * 
+		 * @param key the key of the scenario
+		 * @param clo the command line options of the scenario
+		 */
+		Scenario(String key, String clo) {
+			this.key = key;
+			this.clo = clo;
+		}
+
+		/**
+		 * Get the scenario with key {@code key}.
+		 * 
+		 * @param key the key of the scenario
+		 * @return the scenario or {@code null} if no match found
+		 */
+		static Scenario parse(String key) {
+			for (Scenario s : values())
+				if (s.key.equals(key))
+					return s;
+			return null;
+		}
+	}
+
+	/**
+	 * The maximum number of times the warmup is extended while code is still
+	 * being compiled.
+	 */
+	static final int MAX_SETTLE = 50;
+
+	/**
+	 * The maximum number of measurements. The smallest allocation per step is
+	 * reported.
+	 */
+	static final int MAX_ROUNDS = 3;
+
+	/**
+	 * The engine running the scenarios.
+	 */
+	EvoLudoJRE engine;
+
+	/**
+	 * The bean for measuring the memory allocated by threads.
+	 */
+	com.sun.management.ThreadMXBean threadBean;
+
+	/**
+	 * The bean for monitoring the compilation of code or {@code null} if not
+	 * supported.
+	 */
+	CompilationMXBean jitBean;
+
+	/**
+	 * The scenarios to check.
+	 */
+	List<Scenario> scenarios = new ArrayList<>();
+
+	/**
+	 * The number of steps to warm up.
+	 */
+	int warmup = 200;
+
+	/**
+	 * The number of steps to measure.
+	 */
+	int steps = 100;
+
+	/**
+	 * The number of bytes per step tolerated.
+	 */
+	double tolerance = 0.0;
+
+	/**
+	 * Create a new allocation check.
+	 */
+	public AllocEvoLudo() {
+		engine = new EvoLudoJRE();
+		engine.getLogger().setLevel(Level.WARNING);
+	}
+
+	/**
+	 * Parse the command line arguments {@code args}.
+	 * 
+	 * @param args the array of command line arguments
+	 * @return {@code true} if the check is ready to run
+	 */
+	public boolean parse(String[] args) {
+		int nArgs = args.length;
+		for (int i = 0; i < nArgs; i++) {
+			String arg = args[i];
+			if (arg.startsWith("-h") || arg.startsWith("--help")) {
+				help();
+				return false;
+			}
+			if (i + 1 == nArgs) {
+				logError("argument missing for option '" + arg + "'.");
+				return false;
+			}
+			String value = args[++i];
+			switch (arg) {
+				case "--scenarios":
+					for (String key : value.split(",")) {
+						Scenario s = Scenario.parse(key.trim());
+						if (s == null) {
+							logError("unknown scenario '" + key + "'.");
+							return false;
+						}
+						scenarios.add(s);
+					}
+					break;
+				case "--warmup":
+					warmup = CLOParser.parseInteger(value);
+					break;
+				case "--steps":
+					steps = Math.max(1, CLOParser.parseInteger(value));
+					break;
+				case "--tolerance":
+					tolerance = CLOParser.parseDouble(value);
+					break;
+				default:
+					logError("unknown option '" + arg + "'.");
+					return false;
+			}
+		}
+		if (scenarios.isEmpty())
+			scenarios.addAll(List.of(Scenario.values()));
+		if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+			logError("measuring allocations not supported by JVM.");
+			return false;
+		}
+		threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if (!threadBean.isThreadAllocatedMemorySupported()) {
+			logError("measuring allocations not supported by JVM.");
+			return false;
+		}
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+		jitBean = ManagementFactory.getCompilationMXBean();
+		if (jitBean != null && !jitBean.isCompilationTimeMonitoringSupported())
+			jitBean = null;
+		return true;
+	}
+
+	/**
+	 * Check all scenarios.
+	 * 
+	 * @return {@code true} if no scenario allocates in steady state
+	 */
+	public boolean run() {
+		System.out.println("# EvoLudo allocation check, " + engine.getVersion() + ", java "
+				+ System.getProperty("java.version"));
+		System.out.println("# scenario\tsteps\tbytes/step\tstatus");
+		boolean success = true;
+		for (Scenario scenario : scenarios)
+			success &= checkScenario(scenario);
+		return success;
+	}
+
+	/**
+	 * Check that steady state steps of {@code scenario} do not allocate.
+	 * 
+	 * @param scenario the scenario to check
+	 * @return {@code true} if the check passed
+	 */
+	boolean checkScenario(Scenario scenario) {
+		engine.addCLOProvider(engine);
+		engine.unloadModule();
+		engine.setCLO(scenario.clo + " --seed 0 --delay 0");
+		if (engine.parseCLO() > 0) {
+			logError(scenario.key + ": parsing issues with command line arguments - review!");
+			return false;
+		}
+		engine.modelReset();
+		Model model = engine.getModel();
+		double dt = model.getTimeStep();
+		int done = 0;
+		boolean running = true;
+		for (int n = 0; n < warmup && running; n++)
+			running = model.next(dt);
+		// wait for compiler to settle
+		for (int r = 0; r < MAX_SETTLE && running && jitBean != null; r++) {
+			long compiled = jitBean.getTotalCompilationTime();
+			for (int n = 0; n < steps && running; n++)
+				running = model.next(dt);
+			if (jitBean.getTotalCompilationTime() == compiled)
+				break;
+		}
+		long[] ids = threadIds();
+		double perStep = Double.POSITIVE_INFINITY;
+		for (int r = 0; r < MAX_ROUNDS && running && perStep > tolerance; r++) {
+			// the measurement itself allocates; calibrate
+			long before = allocatedBytes(ids);
+			long calibrate = allocatedBytes(ids) - before;
+			before = allocatedBytes(ids);
+			int n = 0;
+			for (; n < steps; n++) {
+				if (!model.next(dt)) {
+					running = false;
+					break;
+				}
+			}
+			long bytes = allocatedBytes(ids) - before - calibrate;
+			if (n == 0)
+				break;
+			done = n;
+			perStep = Math.min(perStep, (double) bytes / n);
+		}
+		if (done == 0) {
+			logError(scenario.key + ": model converged during warmup - review!");
+			return false;
+		}
+		boolean pass = perStep <= tolerance;
+		System.out.println(scenario.key + "\t" + done + "\t" + perStep + "\t" + (pass ? "ok" : "FAILED"));
+		return pass;
+	}
+
+	/**
+	 * Get the ids of the threads to measure: the calling thread, which advances
+	 * the model, and the worker threads registered with the engine.
+	 * 
+	 * @return the array of thread ids
+	 * 
+	 * @see EvoLudoJRE#getWorkers()
+	 */
+	long[] threadIds() {
+		List<Thread> workers = engine.getWorkers();
+		long[] ids = new long[workers.size() + 1];
+		ids[0] = Thread.currentThread().threadId();
+		int n = 1;
+		for (Thread worker : workers)
+			ids[n++] = worker.threadId();
+		return ids;
+	}
+
+	/**
+	 * Get the total number of bytes allocated by the threads with ids
+	 * {@code ids}.
+	 * 
+	 * @param ids the ids of the threads
+	 * @return the number of bytes allocated
+	 */
+	long allocatedBytes(long[] ids) {
+		long total = 0L;
+		for (long bytes : threadBean.getThreadAllocatedBytes(ids))
+			total += Math.max(bytes, 0L);
+		return total;
+	}
+
+	/**
+	 * Print help screen.
+	 */
+	public void help() {
+		StringBuilder keys = new StringBuilder();
+		for (Scenario s : Scenario.values())
+			keys.append("\n              ").append(s.key).append(": ").append(s.clo);
+		System.out.println(
+				"EvoLudo allocation check\nUsage: java -cp EvoLudoTest.jar org.evoludo.simulator.exec.AllocEvoLudo [options]\n" + //
+						"       --scenarios <s1,s2,...>: scenarios to check (defaults to all)" + keys + "\n" + //
+						"       --warmup <n>: number of steps to warm up\n" + //
+						"       --steps <n>: number of steps to measure\n" + //
+						"       --tolerance <b>: number of bytes per step tolerated\n" + //
+						"       --help, -h: this help screen");
+	}
+
+	/**
+	 * Log error message to {@code System.err}.
+	 *
+	 * @param msg the error to log
+	 */
+	static void logError(String msg) {
+		System.err.println("ERROR: " + msg);
+	}
+
+	/**
+	 * Main method to run the allocation check.
+	 *
+	 * @param args the array of command line arguments
+	 */
+	public static void main(String[] args) {
+		AllocEvoLudo check = new AllocEvoLudo();
+		if (!check.parse(args))
+			System.exit(1);
+		System.exit(check.run() ? 0 : 1);
+	}
+}
@@ -0,0 +1,643 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator.exec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+import org.evoludo.simulator.EvoLudoJRE;
+import org.evoludo.simulator.geometries.GeometryType;
+import org.evoludo.simulator.models.Model;
+import org.evoludo.simulator.models.PDE;
+import org.evoludo.util.Formatter;
+
+/**
+ * NumericsEvoLudo checks numerical properties of PDE models that comparisons
+ * with reference data cannot establish. Reference data only reveal that the
+ * results changed but not whether they are right. Instead, each scenario runs
+ * a model and asserts a property of the resulting density field. Scenarios
+ * that fail are reported and the exit status is non-zero, which renders the
+ * check suitable for regression tests. The following properties are checked:
+ * <ul>
+ * <li>{@link Property#SYMMETRY}: with {@code --pdeSymmetry} and a symmetric
+ * initial configuration the density field remains an exact mirror image under
+ * all reflections of the lattice.
+ * <li>{@link Property#CONVERGENCE}: the deviation of the density field from a
+ * reference with small time steps shrinks with the expected order as the time
+ * step is halved or the tolerance of adaptive time increments is quartered.
+ * <li>{@link Property#PRECISION}: with {@code --pdeSingle} the density field
+ * deviates from that in double precision by no more than a bound.
+ * </ul>
+ * The following command line options are accepted:
+ * <ul>
+ * <li>{@code --scenarios <s1,s2,...>}: scenarios to check (defaults to all, see
+ * {@link Scenario})
+ * <li>{@code --help}, {@code -h}: this help screen
+ * </ul>
+ * 
+ * @author Christoph Hauert
+ */
+public class NumericsEvoLudo {
+
+	/**
+	 * The numerical properties of PDE models to check.
+	 */
+	public enum Property {
+
+		/**
+		 * The density field is an exact mirror image under all reflections of the
+		 * lattice that leave the initial configuration invariant.
+		 */
+		SYMMETRY,
+
+		/**
+		 * The deviation from a reference run with small time steps decreases with
+		 * the expected order. The variants of the scenario halve the time step,
+		 * or quarter the tolerance of adaptive time increments, from one to the
+		 * next.
+		 */
+		CONVERGENCE,
+
+		/**
+		 * The density field with the state stored in single precision deviates
+		 * from that in double precision by no more than the bound.
+		 */
+		PRECISION;
+	}
+
+	/**
+	 * The scenarios for checking numerical properties.
+	 */
+	public enum Scenario {
+
+		/**
+		 * Symmetric diffusion on a periodic von Neumann lattice with an even number
+		 * of units along each side.
+		 */
+		SYMMETRY_N("symmetry-n", Property.SYMMETRY,
+				"--module RSP --model PDE --geometry n --pdeN 1600 --pdeD 0.1,0.1,0.1 --pdeSymmetry --init square 0.2,0.3,0.5;0.4,0.3,0.3 --paymatrix 0,-1,1.1;1.1,0,-1;-1,1.1,0 --timestop 1000"),
+
+		/**
+		 * Symmetric diffusion on a Moore lattice with fixed boundaries and an odd
+		 * number of units along each side.
+		 */
+		SYMMETRY_M("symmetry-m", Property.SYMMETRY,
+				"--module RSP --model PDE --geometry mf --pdeN 1681 --pdeD 0.1,0.1,0.1 --pdeSymmetry --init square 0.2,0.3,0.5;0.4,0.3,0.3 --paymatrix 0,-1,1.1;1.1,0,-1;-1,1.1,0 --timestop 1000"),
+
+		/**
+		 * Symmetric diffusion on a periodic hexagonal lattice.
+		 */
+		SYMMETRY_H("symmetry-h", Property.SYMMETRY,
+				"--module RSP --model PDE --geometry h --pdeN 1600 --pdeD 0.1,0.1,0.1 --pdeSymmetry --init square 0.2,0.3,0.5;0.4,0.3,0.3 --paymatrix 0,-1,1.1;1.1,0,-1;-1,1.1,0 --timestop 1000"),
+
+		/**
+		 * Implicit advection converges to the explicit solution with first order in
+		 * the time step.
+		 */
+		ADVECTION_IMPLICIT("advection-implicit", Property.CONVERGENCE,
+				"--module CDL --model PDEADV --geometry n --pdeN 400 --pdeA 0.5,0.1;0.2,0.3 --init random 6,2,2 --accuracy 0 --timestop 2",
+				"--dt 0.0001", new String[] { "--pdeASolver implicit --dt 0.008", "--pdeASolver implicit --dt 0.004",
+						"--pdeASolver implicit --dt 0.002", "--pdeASolver implicit --dt 0.001" },
+				1.0),
+
+		/**
+		 * Implicit advection together with Crank-Nicolson diffusion converges to
+		 * the explicit solution with first order in the time step, which is
+		 * limited by the splitting of advection, diffusion and reaction.
+		 */
+		ADVECTION_IMPLICIT_CN("advection-implicit-cn", Property.CONVERGENCE,
+				"--module CDL --model PDEADV --geometry n --pdeN 400 --pdeA 0.5,0.1;0.2,0.3 --init random 6,2,2 --accuracy 0 --timestop 2",
+				"--dt 0.0001",
+				new String[] { "--pdeASolver implicit --pdeSolver cn --dt 0.008",
+						"--pdeASolver implicit --pdeSolver cn --dt 0.004",
+						"--pdeASolver implicit --pdeSolver cn --dt 0.002",
+						"--pdeASolver implicit --pdeSolver cn --dt 0.001" },
+				1.0),
+
+		/**
+		 * Adaptive time increments converge to the solution with small fixed time
+		 * increments. The step sizes scale with the square root of the tolerance,
+		 * hence quartering the tolerance halves the deviation.
+		 */
+		ADAPTIVE("adaptive", Property.CONVERGENCE,
+				"--module CDL --model PDE --geometry n --pdeN 400 --playerupdate thermal 0.1 --groupsize 5 --init random 6,2,2 --accuracy 0 --timestop 5",
+				"--dt 0.0001",
+				new String[] { "--pdeStep adaptive --pdeTolerance 1.6e-5", "--pdeStep adaptive --pdeTolerance 4e-6",
+						"--pdeStep adaptive --pdeTolerance 1e-6" },
+				1.0),
+
+		/**
+		 * Single precision storage of rock-scissors-paper dynamics on a von Neumann
+		 * lattice. All precision scenarios take at most {@code n=200} steps and the
+		 * deviations must remain below {@code n·2<sup>-25</sup>≈6·10<sup>-6</sup>},
+		 * the bound for diffusion dominated dynamics.
+		 * 
+		 * @see org.evoludo.simulator.models.PDE#cloPdeSingle
+		 */
+		PRECISION_RSP("precision-rsp", Property.PRECISION,
+				"--module RSP --model PDE --geometry n --pdeN 2500 --init random 1,1,1 --accuracy 0 --timestop 20", "",
+				new String[] { "--pdeSingle" }, 6e-6),
+
+		/**
+		 * Single precision storage of voluntary public goods games on a von Neumann
+		 * lattice.
+		 */
+		PRECISION_CDL("precision-cdl", Property.PRECISION,
+				"--module CDL --model PDE --geometry n --pdeN 2500 --playerupdate thermal 0.1 --groupsize 5 --init random 6,2,2 --accuracy 0 --timestop 20",
+				"", new String[] { "--pdeSingle" }, 6e-6),
+
+		/**
+		 * Single precision storage of densities in ecological public goods games on
+		 * a Moore lattice.
+		 */
+		PRECISION_EPGG("precision-epgg", Property.PRECISION,
+				"--module ePGG --model PDE --geometry m --pdeN 2500 --accuracy 0 --timestop 20", "",
+				new String[] { "--pdeSingle" }, 6e-6);
+
+		/**
+		 * The key of the scenario.
+		 */
+		final String key;
+
+		/**
+		 * The property to check.
+		 */
+		final Property property;
+
+		/**
+		 * The command line options of the scenario.
+		 */
+		final String clo;
+
+		/**
+		 * The command line options added to {@link #clo} for the reference run or
+		 * {@code null} if no reference is needed.
+		 */
+		final String reference;
+
+		/**
+		 * The command line options added to {@link #clo} for the runs compared to
+		 * the reference.
+		 */
+		final String[] variants;
+
+		/**
+		 * The bound of the property: the expected order for
+		 * {@link Property#CONVERGENCE} and the maximum deviation for
+		 * {@link Property#PRECISION}.
+		 */
+		final double bound;
+
+		/**
+		 * Create a new scenario with key {@code key} for checking {@code property}
+		 * with command line options {@code clo}.
+		 * 
+		 * @param key      the key of the scenario
+		 * @param property the property to check
+		 * @param clo      the command line options of the scenario
+		 */
+		Scenario(String key, Property property, String clo) {
+			this(key, property, clo, null, new String[0], 0.0);
+		}
+
+		/**
+		 * Create a new scenario with key {@code key} for checking {@code property}
+		 * with command line options {@code clo}. The runs with the options
+		 * {@code variants} are compared to the run with options {@code reference}.
+		 * 
+		 * @param key       the key of the scenario
+		 * @param property  the property to check
+		 * @param clo       the command line options of the scenario
+		 * @param reference the options for the reference run
+		 * @param variants  the options for the runs compared to the reference
+		 * @param bound     the bound of the property
+		 */
+		Scenario(String key, Property property, String clo, String reference, String[] variants, double bound) {
+			this.key = key;
+			this.property = property;
+			this.clo = clo;
+			this.reference = reference;
+			this.variants = variants;
+			this.bound = bound;
+		}
+
+		/**
+		 * Get the scenario with key {@code key}.
+		 * 
+		 * @param key the key of the scenario
+		 * @return the scenario or {@code null} if no match found
+		 */
+		static Scenario parse(String key) {
+			for (Scenario s : values())
+				if (s.key.equals(key))
+					return s;
+			return null;
+		}
+	}
+
+	/**
+	 * The reflections of lattices. Units are arranged row by row. Reflections
+	 * map row (or column) {@code i} onto {@code (c - i) mod l}, where {@code l}
+	 * denotes the number of rows (or columns) and {@code c = 2 (l / 2)} is twice
+	 * the central row (or column) of symmetric initial configurations. For odd
+	 * {@code l} this is the reflection about the central row (or column), while
+	 * for even {@code l} it requires periodic boundaries.
+	 */
+	enum Reflection {
+
+		/**
+		 * Reflect columns, i.e. left-right.
+		 */
+		COLUMNS,
+
+		/**
+		 * Reflect rows, i.e. top-bottom.
+		 */
+		ROWS,
+
+		/**
+		 * Reflect about the main diagonal, i.e. swap rows and columns.
+		 */
+		TRANSPOSE;
+
+		/**
+		 * Get the reflections that leave the lattice of type {@code type} invariant.
+		 * Hexagonal lattices shift every other row by half a unit. This breaks
+		 * reflections of columns and hence also transposition.
+		 * 
+		 * @param type the type of the lattice
+		 * @return the reflections or {@code null} if the lattice is not supported
+		 */
+		static Reflection[] of(GeometryType type) {
+			switch (type) {
+				case SQUARE_NEUMANN:
+				case SQUARE_NEUMANN_2ND:
+				case SQUARE_MOORE:
+				case SQUARE:
+					return values();
+				case HEXAGONAL:
+					return new Reflection[] { ROWS };
+				case LINEAR:
+					return new Reflection[] { COLUMNS };
+				default:
+					return null;
+			}
+		}
+
+		/**
+		 * Get the index of the unit that unit {@code idx} maps onto on a lattice
+		 * with {@code rows} rows and {@code cols} columns.
+		 * 
+		 * @param idx  the index of the unit
+		 * @param rows the number of rows
+		 * @param cols the number of columns
+		 * @return the index of the reflected unit
+		 */
+		int map(int idx, int rows, int cols) {
+			int r = idx / cols;
+			int c = idx % cols;
+			switch (this) {
+				case COLUMNS:
+					return r * cols + (2 * (cols / 2) - c + cols) % cols;
+				case ROWS:
+					return ((2 * (rows / 2) - r + rows) % rows) * cols + c;
+				case TRANSPOSE:
+				default:
+					return c * cols + r;
+			}
+		}
+	}
+
+	/**
+	 * The tolerated deviation of the observed order of convergence from the
+	 * expected order.
+	 */
+	static final double ORDER_TOLERANCE = 0.2;
+
+	/**
+	 * The engine running the scenarios.
+	 */
+	EvoLudoJRE engine;
+
+	/**
+	 * The scenarios to check.
+	 */
+	List<Scenario> scenarios = new ArrayList<>();
+
+	/**
+	 * Create a new check of numerical properties.
+	 */
+	public NumericsEvoLudo() {
+		engine = new EvoLudoJRE();
+		engine.getLogger().setLevel(Level.WARNING);
+	}
+
+	/**
+	 * Parse the command line arguments {@code args}.
+	 * 
+	 * @param args the array of command line arguments
+	 * @return {@code true} if the check is ready to run
+	 */
+	public boolean parse(String[] args) {
+		int nArgs = args.length;
+		for (int i = 0; i < nArgs; i++) {
+			String arg = args[i];
+			if (arg.startsWith("-h") || arg.startsWith("--help")) {
+				help();
+				return false;
+			}
+			if (i + 1 == nArgs) {
+				logError("argument missing for option '" + arg + "'.");
+				return false;
+			}
+			String value = args[++i];
+			switch (arg) {
+				case "--scenarios":
+					for (String key : value.split(",")) {
+						Scenario s = Scenario.parse(key.trim());
+						if (s == null) {
+							logError("unknown scenario '" + key + "'.");
+							return false;
+						}
+						scenarios.add(s);
+					}
+					break;
+				default:
+					logError("unknown option '" + arg + "'.");
+					return false;
+			}
+		}
+		if (scenarios.isEmpty())
+			scenarios.addAll(List.of(Scenario.values()));
+		return true;
+	}
+
+	/**
+	 * Check all scenarios.
+	 * 
+	 * @return {@code true} if all scenarios passed
+	 */
+	public boolean run() {
+		System.out.println("# EvoLudo numerics check, " + engine.getVersion() + ", java "
+				+ System.getProperty("java.version"));
+		System.out.println("# scenario\tproperty\ttime\tresult\tstatus");
+		boolean success = true;
+		for (Scenario scenario : scenarios) {
+			switch (scenario.property) {
+				case CONVERGENCE:
+					success &= checkConvergence(scenario);
+					break;
+				case PRECISION:
+					success &= checkPrecision(scenario);
+					break;
+				case SYMMETRY:
+				default:
+					success &= checkSymmetry(scenario);
+			}
+		}
+		return success;
+	}
+
+	/**
+	 * Check that the density field of {@code scenario} is an exact mirror image
+	 * under all reflections of the lattice. For asymmetric fields the result lists
+	 * the number of entries of the density field that differ from their mirror
+	 * image together with the largest difference.
+	 * 
+	 * @param scenario the scenario to check
+	 * @return {@code true} if the check passed
+	 */
+	boolean checkSymmetry(Scenario scenario) {
+		PDE pde = runPDE(scenario, scenario.clo);
+		if (pde == null)
+			return false;
+		Reflection[] reflections = Reflection.of(pde.getGeometry().getType());
+		if (reflections == null) {
+			logError(scenario.key + ": lattice " + pde.getGeometry().getType() + " not supported - review!");
+			return false;
+		}
+		int[] shape = pde.getShape();
+		int rows = (shape.length > 1 ? shape[0] : 1);
+		int cols = shape[shape.length - 1];
+		double[] field = pde.getTraitField(null);
+		int nDim = field.length / (rows * cols);
+		int asymmetric = 0;
+		double maxDiff = 0.0;
+		for (Reflection reflection : reflections) {
+			for (int n = 0; n < rows * cols; n++) {
+				int m = reflection.map(n, rows, cols);
+				for (int k = 0; k < nDim; k++) {
+					double diff = Math.abs(field[n * nDim + k] - field[m * nDim + k]);
+					// note: diff is NaN if densities are NaN
+					if (!(diff == 0.0)) {
+						asymmetric++;
+						maxDiff = Math.max(maxDiff, diff);
+					}
+				}
+			}
+		}
+		boolean pass = (asymmetric == 0);
+		report(scenario, pde,
+				pass ? "exact" : asymmetric + " asymmetric (max " + Formatter.formatSci(maxDiff, 2) + ")", pass);
+		return pass;
+	}
+
+	/**
+	 * Check that the deviations of the variants of {@code scenario} from the
+	 * reference decrease with the expected order. The time step is halved (or the
+	 * tolerance of adaptive steps quartered) from one variant to the next, hence
+	 * the observed order is the binary logarithm of the ratio of subsequent
+	 * deviations. The result lists the maximum deviations of
+	 * the density fields followed by the observed orders.
+	 * 
+	 * @param scenario the scenario to check
+	 * @return {@code true} if the check passed
+	 */
+	boolean checkConvergence(Scenario scenario) {
+		PDE pde = runPDE(scenario, scenario.clo + " " + scenario.reference);
+		if (pde == null)
+			return false;
+		double[] ref = pde.getTraitField(null);
+		double[] field = null;
+		double[] errs = new double[scenario.variants.length];
+		double[] orders = new double[Math.max(0, errs.length - 1)];
+		boolean pass = true;
+		for (int n = 0; n < errs.length; n++) {
+			pde = runPDE(scenario, scenario.clo + " " + scenario.variants[n]);
+			if (pde == null)
+				return false;
+			field = pde.getTraitField(field);
+			errs[n] = maxDeviation(ref, field);
+			if (n == 0)
+				continue;
+			orders[n - 1] = Math.log(errs[n - 1] / errs[n]) / Math.log(2.0);
+			// note: orders are NaN if deviations vanish or are NaN
+			pass &= Math.abs(orders[n - 1] - scenario.bound) <= ORDER_TOLERANCE;
+		}
+		report(scenario, pde,
+				"deviations " + Formatter.formatSci(errs, 2) + " (orders " + Formatter.formatFix(orders, 2) + ")",
+				pass);
+		return pass;
+	}
+
+	/**
+	 * Check that the density fields of the variants of {@code scenario}, which
+	 * store the state in single precision, deviate from the reference in double
+	 * precision by no more than the bound. The result lists the maximum
+	 * deviations of the density fields.
+	 * 
+	 * @param scenario the scenario to check
+	 * @return {@code true} if the check passed
+	 */
+	boolean checkPrecision(Scenario scenario) {
+		PDE pde = runPDE(scenario, scenario.clo + " " + scenario.reference);
+		if (pde == null)
+			return false;
+		double[] ref = pde.getTraitField(null);
+		double[] field = null;
+		double[] errs = new double[scenario.variants.length];
+		boolean pass = true;
+		for (int n = 0; n < errs.length; n++) {
+			pde = runPDE(scenario, scenario.clo + " " + scenario.variants[n]);
+			if (pde == null)
+				return false;
+			if (!pde.isSingle()) {
+				logError(scenario.key + ": single precision not available - review!");
+				return false;
+			}
+			field = pde.getTraitField(field);
+			errs[n] = maxDeviation(ref, field);
+			// note: fails if deviations are NaN
+			pass &= errs[n] <= scenario.bound;
+		}
+		report(scenario, pde, "deviations " + Formatter.formatSci(errs, 2) + " (bound "
+				+ Formatter.formatSci(scenario.bound, 2) + ")", pass);
+		return pass;
+	}
+
+	/**
+	 * Get the maximum absolute difference between the fields {@code a} and
+	 * {@code b}.
+	 * 
+	 * @param a the first field
+	 * @param b the second field
+	 * @return the maximum deviation (or {@code NaN} if any difference is
+	 *         {@code NaN})
+	 */
+	static double maxDeviation(double[] a, double[] b) {
+		double max = 0.0;
+		for (int n = 0; n < a.length; n++) {
+			double diff = Math.abs(a[n] - b[n]);
+			if (!(diff <= max))
+				max = diff;
+		}
+		return max;
+	}
+
+	/**
+	 * Report the {@code result} of checking {@code scenario} after running
+	 * {@code pde}.
+	 * 
+	 * @param scenario the scenario checked
+	 * @param pde      the PDE model
+	 * @param result   the result of the check
+	 * @param pass     {@code true} if the check passed
+	 */
+	void report(Scenario scenario, PDE pde, String result, boolean pass) {
+		System.out.println(scenario.key + "\t" + scenario.property.name().toLowerCase() + "\t"
+				+ Formatter.format(pde.getTime(), 2) + "\t" + result + "\t" + (pass ? "ok" : "FAILED"));
+	}
+
+	/**
+	 * Load and run the PDE model of {@code scenario} with command line options
+	 * {@code clo} until the model halts or converges. The options
+	 * {@code --seed 0} is prepended and {@code --delay 0} appended to {@code clo}.
+	 * 
+	 * @param scenario the scenario to run
+	 * @param clo      the command line options
+	 * @return the PDE model or {@code null} if the model failed to run
+	 */
+	PDE runPDE(Scenario scenario, String clo) {
+		engine.addCLOProvider(engine);
+		engine.unloadModule();
+		engine.setCLO("--seed 0 " + clo + " --delay 0");
+		if (engine.parseCLO() > 0) {
+			logError(scenario.key + ": parsing issues with command line arguments - review!");
+			return null;
+		}
+		engine.modelReset();
+		Model model = engine.getModel();
+		if (!(model instanceof PDE)) {
+			logError(scenario.key + ": not a PDE model - review!");
+			return null;
+		}
+		double dt = model.getTimeStep();
+		while (model.next(dt)) {
+			// run until halted or converged
+		}
+		return (PDE) model;
+	}
+
+	/**
+	 * Print help screen.
+	 */
+	public void help() {
+		StringBuilder keys = new StringBuilder();
+		for (Scenario s : Scenario.values())
+			keys.append("\n              ").append(s.key).append(": ").append(s.clo);
+		System.out.println(
+				"EvoLudo numerics check\nUsage: java -cp EvoLudoTest.jar org.evoludo.simulator.exec.NumericsEvoLudo [options]\n" + //
+						"       --scenarios <s1,s2,...>: scenarios to check (defaults to all)" + keys + "\n" + //
+						"       --help, -h: this help screen");
+	}
+
+	/**
+	 * Log error message to {@code System.err}.
+	 *
+	 * @param msg the error to log
+	 */
+	static void logError(String msg) {
+		System.err.println("ERROR: " + msg);
+	}
+
+	/**
+	 * Main method to run the check of numerical properties.
+	 *
+	 * @param args the array of command line arguments
+	 */
+	public static void main(String[] args) {
+		NumericsEvoLudo check = new NumericsEvoLudo();
+		if (!check.parse(args))
+			System.exit(1);
+		System.exit(check.run() ? 0 : 1);
+	}
+}
@@ -0,0 +1,555 @@
+//
+// EvoLudo Project
+//
+// Copyright 2010-2026 Christoph Hauert
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//	http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+//
+// For publications in any form, you are kindly requested to attribute the
+// author and project as follows:
+//
+//	Hauert, Christoph (<year>) EvoLudo Project, https://www.evoludo.org
+//			(doi: 10.5281/zenodo.14591549 [, <version>])
+//
+//	<year>:    year of release (or download), and
+//	<version>: optional version number (as reported in output header
+//			or GUI console) to simplify replication of reported results.
+//
+// The formatting may be adjusted to comply with publisher requirements.
+//
+
+package org.evoludo.simulator.exec;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+import org.evoludo.simulator.EvoLudoJRE;
+import org.evoludo.simulator.models.Model;
+import org.evoludo.simulator.models.PDE;
+import org.evoludo.simulator.models.RunListener;
+import org.evoludo.util.CLOParser;
+
+/**
+ * ScaleEvoLudo runs canonical scenarios across a range of population sizes to
+ * measure the end-to-end performance of EvoLudo. In contrast to the micro
+ * benchmarks in {@code EvoLudoBench}, this includes setting up the model, e.g.
+ * the construction of geometries, and runs of multiple generations. The results
+ * are reported as tab separated values, one line for each scenario and size,
+ * which is suitable for sizing hardware and detecting scaling cliffs. The
+ * following command line options are accepted:
+ * <ul>
+ * <li>{@code --scenarios <s1,s2,...>}: scenarios to run (defaults to all, see
+ * {@link Scenario})
+ * <li>{@code --sizes <n1,n2,...>}: population sizes, or number of units for
+ * PDEs (defaults to {@code 1000,10000,100000,1000000,10000000})
+ * <li>{@code --generations <g>}: number of generations for each run (defaults
+ * to {@code 10})
+ * <li>{@code --output <filename>}: file for the report (defaults to
+ * {@code System.out})
+ * <li>{@code --timeout <s>}: maximum time in seconds for each run (defaults
+ * to {@code 3600})
+ * <li>{@code --help}, {@code -h}: this help screen
+ * </ul>
+ * The report lists the scenario, the requested and actual size, the time for
+ * setting up the model, the number of generations completed, the running time,
+ * the (microscopic) updates per second, the generations per second, the time to
+ * fixation or extinction (or {@code NaN} if the population did not reach an
+ * absorbing state), the heap memory retained by the model per individual (or
+ * unit) and the time spent and the number of garbage
+ * collections. Runs that exceed the available memory, fail or time out are
+ * reported with {@code NaN} entries and larger sizes of the same scenario are
+ * skipped. Errors on the engine thread, e.g. running out of memory, terminate
+ * the engine thread and the remaining runs continue with a new engine.
+ * 
+ * @author Christoph Hauert
+ */
+public class ScaleEvoLudo implements RunListener {
+
+	/**
+	 * The canonical scenarios for scaling benchmarks. The size of each run is
+	 * appended as {@code --popsize} for individual based simulations or as
+	 * {@code --pdeN} for PDEs.
+	 */
+	public enum Scenario {
+
+		/**
+		 * Prisoner's dilemma with asynchronous updates on a square lattice.
+		 */
+		TBT_LATTICE("tbt-lattice",
+				"--module 2x2 --model IBS --geometry n --popupdate async --playerupdate thermal 0.1 --init frequency 1,1 --mutation 0.01 other --paymatrix 1,0;1.25,0.25",
+				"--popsize"),
+
+		/**
+		 * Fixation of a single mutant in the Moran process on a scale-free network.
+		 */
+		MORAN_SCALEFREE("moran-scalefree",
+				"--module Moran --model IBS --geometry f 4 --popupdate Bd --init mutant 1,0 --fitness 1,1.1",
+				"--popsize"),
+
+		/**
+		 * Optional public goods games with cooperators, defectors and loners in
+		 * well-mixed populations.
+		 */
+		CDL_WELLMIXED("cdl-wellmixed",
+				"--module CDL --model IBS --geometry M --popupdate async --playerupdate thermal 0.1 --init frequency 6,2,2 --interest 3 --groupsize 5 --mutation 0.01 other",
+				"--popsize"),
+
+		/**
+		 * Continuous snowdrift game in well-mixed populations.
+		 */
+		CSD_CONTINUOUS("csd-continuous",
+				"--module cSD --model IBS --geometry M --interactions random 1 --popupdate async --playerupdate imitate 0.1 --init uniform --mutation 0.1 gaussian 0.01 --benefits 11 6,-1.4 --costs 1 4.56,-1.6",
+				"--popsize"),
+
+		/**
+		 * Reaction-diffusion of the prisoner's dilemma on a square lattice.
+		 */
+		PDE_RD("pde-rd",
+				"--module 2x2 --model PDE --geometry n --playerupdate thermal 0.1 --init random 99,1 --paymatrix 1,0;1.25,0.25",
+				"--pdeN");
+
+		/**
+		 * The key of the scenario.
+		 */
+		final String key;
+
+		/**
+		 * The command line options of the scenario.
+		 */
+		final String clo;
+
+		/**
+		 * The option to set the size of the scenario.
+		 */
+		final String size;
+
+		/**
+		 * Create a new scenario with key {@code key}, command line options
+		 * {@code clo} and {@code size} for setting the size.
+		 * 
+		 * @param key  the key of the scenario
+		 * @param clo  the command line options of the scenario
+		 * @param size the option to set the size
+		 */
+		Scenario(String key, String clo, String size) {
+			this.key = key;
+			this.clo = clo;
+			this.size = size;
+		}
+
+		/**
+		 * Get the scenario with key {@code key}.
+		 * 
+		 * @param key the key of the scenario
+		 * @return the scenario or {@code null} if no match found
+		 */
+		static Scenario parse(String key) {
+			for (Scenario s : values())
+				if (s.key.equals(key))
+					return s;
+			return null;
+		}
+	}
+
+	/**
+	 * The default population sizes.
+	 */
+	static final int[] DEFAULT_SIZES = { 1000, 10000, 100000, 1000000, 10000000 };
+
+	/**
+	 * The engine running the scenarios.
+	 */
+	EvoLudoJRE engine;
+
+	/**
+	 * The scenarios to run.
+	 */
+	List<Scenario> scenarios = new ArrayList<>();
+
+	/**
+	 * The population sizes (or number of units for PDEs).
+	 */
+	int[] sizes = DEFAULT_SIZES;
+
+	/**
+	 * The number of generations for each run.
+	 */
+	double generations = 10.0;
+
+	/**
+	 * The output stream for the report.
+	 */
+	PrintStream output = System.out;
+
+	/**
+	 * The heap memory in use before loading any module.
+	 */
+	long baseHeap;
+
+	/**
+	 * The maximum time in seconds for each run.
+	 */
+	double timeout = 3600.0;
+
+	/**
+	 * The flag to indicate whether the engine is running.
+	 */
+	boolean isRunning;
+
+	/**
+	 * The error that terminated the engine thread or {@code null} if the run
+	 * succeeded.
+	 */
+	Throwable failure;
+
+	/**
+	 * Create a new scaling benchmark.
+	 */
+	public ScaleEvoLudo() {
+		engine = createEngine();
+	}
+
+	/**
+	 * Create a new engine for running the scenarios. The listeners are
+	 * registered separately, see {@link #attach()}.
+	 * 
+	 * @return the new engine
+	 */
+	static EvoLudoJRE createEngine() {
+		EvoLudoJRE jre = new EvoLudoJRE();
+		jre.getLogger().setLevel(Level.WARNING);
+		return jre;
+	}
+
+	/**
+	 * Register the benchmark as a listener of the engine and to errors that
+	 * terminate the engine thread.
+	 */
+	void attach() {
+		engine.addRunListener(this);
+		engine.getEngineThread().setUncaughtExceptionHandler((thread, error) -> engineFailed(error));
+	}
+
+	/**
+	 * Parse the command line arguments {@code args}.
+	 * 
+	 * @param args the array of command line arguments
+	 * @return {@code true} if the benchmark is ready to run
+	 */
+	public boolean parse(String[] args) {
+		int nArgs = args.length;
+		for (int i = 0; i < nArgs; i++) {
+			String arg = args[i];
+			if (arg.startsWith("-h") || arg.startsWith("--help")) {
+				help();
+				return false;
+			}
+			if (i + 1 == nArgs) {
+				logError("argument missing for option '" + arg + "'.");
+				return false;
+			}
+			String value = args[++i];
+			switch (arg) {
+				case "--scenarios":
+					for (String key : value.split(",")) {
+						Scenario s = Scenario.parse(key.trim());
+						if (s == null) {
+							logError("unknown scenario '" + key + "'.");
+							return false;
+						}
+						scenarios.add(s);
+					}
+					break;
+				case "--sizes":
+					sizes = CLOParser.parseIntVector(value);
+					break;
+				case "--generations":
+					generations = CLOParser.parseDouble(value);
+					if (generations <= 0.0) {
+						logError("generations must be positive.");
+						return false;
+					}
+					break;
+				case "--timeout":
+					timeout = CLOParser.parseDouble(value);
+					if (timeout <= 0.0) {
+						logError("timeout must be positive.");
+						return false;
+					}
+					break;
+				case "--output":
+					try {
+						output = new PrintStream(new File(value));
+					} catch (FileNotFoundException e) {
+						logError("failed to open '" + value + "'.");
+						return false;
+					}
+					break;
+				default:
+					logError("unknown option '" + arg + "'.");
+					return false;
+			}
+		}
+		if (scenarios.isEmpty())
+			scenarios.addAll(List.of(Scenario.values()));
+		return true;
+	}
+
+	/**
+	 * Run all scenarios for all sizes and write the report.
+	 */
+	public void run() {
+		output.println("# EvoLudo scaling benchmark, " + engine.getVersion() + ", java "
+				+ System.getProperty("java.version") + ", " + Runtime.getRuntime().availableProcessors()
+				+ " processors, max heap " + (Runtime.getRuntime().maxMemory() >> 20) + " MB");
+		output.println("# scenario\tsize\tunits\tsetup [s]\tgenerations\ttime [s]\tupdates/sec\tgenerations/sec"
+				+ "\tfixation [gen]\theap/unit [bytes]\tgc [ms]\tgc [count]");
+		attach();
+		baseHeap = usedHeap();
+		for (Scenario scenario : scenarios) {
+			for (int size : sizes) {
+				if (!runScenario(scenario, size)) {
+					logWarning(scenario.key + ": larger sizes skipped.");
+					break;
+				}
+			}
+		}
+		output.flush();
+	}
+
+	/**
+	 * Run {@code scenario} with size {@code size} and report the measurements.
+	 * 
+	 * @param scenario the scenario to run
+	 * @param size     the size of the population (or number of units)
+	 * @return {@code false} if the run failed
+	 */
+	boolean runScenario(Scenario scenario, int size) {
+		engine.addCLOProvider(engine);
+		engine.unloadModule();
+		long[] gcBefore = gcStats();
+		long startNanos = System.nanoTime();
+		long setupNanos;
+		try {
+			engine.setCLO(scenario.clo + " " + scenario.size + " " + size + " --timestop " + generations
+					+ " --seed 0 --delay 0");
+			if (engine.parseCLO() > 0) {
+				logError(scenario.key + ": parsing issues with command line arguments - review!");
+				return false;
+			}
+			engine.setSuspended(true);
+			engine.modelReset();
+			setupNanos = System.nanoTime() - startNanos;
+			if (!await()) {
+				reportFailure(scenario, size);
+				return false;
+			}
+		} catch (OutOfMemoryError e) {
+			engine.unloadModule();
+			failure = e;
+			reportFailure(scenario, size);
+			return false;
+		}
+		long runNanos = System.nanoTime() - startNanos - setupNanos;
+		long[] gcAfter = gcStats();
+		int units = getUnits();
+		double gens = engine.getModel().getUpdates();
+		double secs = runNanos * 1e-9;
+		double fixation = (engine.getModel().hasConverged() ? gens : Double.NaN);
+		// note: unloading does not release the model until options are parsed
+		// again; use heap in use before loading any module as reference
+		long heap = usedHeap() - baseHeap;
+		output.println(scenario.key + "\t" + size + "\t" + units + "\t" + (setupNanos * 1e-9) + "\t" + gens + "\t"
+				+ secs + "\t" + (gens * units / secs) + "\t" + (gens / secs) + "\t" + fixation + "\t"
+				+ ((double) heap / units) + "\t" + (gcAfter[0] - gcBefore[0]) + "\t" + (gcAfter[1] - gcBefore[1]));
+		output.flush();
+		return true;
+	}
+
+	/**
+	 * Run the engine and wait until the model stops, the engine thread fails or
+	 * the run times out.
+	 * 
+	 * @return {@code true} if the model stopped normally
+	 */
+	boolean await() {
+		long deadline = System.nanoTime() + (long) (timeout * 1e9);
+		boolean timedOut = false;
+		synchronized (this) {
+			isRunning = engine.isSuspended();
+			if (isRunning)
+				engine.run();
+			while (isRunning && failure == null) {
+				long remaining = (deadline - System.nanoTime()) / 1000000L;
+				if (remaining <= 0L && !timedOut) {
+					// stop takes effect once the current step is completed
+					timedOut = true;
+					engine.stop();
+				}
+				try {
+					wait(timedOut ? 0L : remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					if (!timedOut)
+						engine.stop();
+					timedOut = true;
+					break;
+				}
+			}
+		}
+		if (failure != null) {
+			// engine thread terminated - continue with new engine
+			engine = createEngine();
+			attach();
+			return false;
+		}
+		// listeners are notified while the engine holds its lock; the engine must not
+		// be reconfigured before all listeners are notified
+		synchronized (engine) {
+			engine.getModel();
+		}
+		return !timedOut;
+	}
+
+	/**
+	 * Report the failed run of {@code scenario} with size {@code size} with
+	 * {@code NaN} entries.
+	 * 
+	 * @param scenario the scenario that failed
+	 * @param size     the size of the population (or number of units)
+	 */
+	void reportFailure(Scenario scenario, int size) {
+		if (failure instanceof OutOfMemoryError)
+			logError(scenario.key + ": out of memory for size " + size + ".");
+		else if (failure != null)
+			logError(scenario.key + ": engine failed for size " + size + " (" + failure + ").");
+		else
+			logError(scenario.key + ": timed out or interrupted for size " + size + ".");
+		output.println(scenario.key + "\t" + size + "\tNaN\tNaN\tNaN\tNaN\tNaN\tNaN\tNaN\tNaN\tNaN\tNaN");
+		output.flush();
+		failure = null;
+	}
+
+	/**
+	 * Get the number of individuals of the active module or the number of units
+	 * for PDEs.
+	 * 
+	 * @return the number of individuals or units
+	 */
+	int getUnits() {
+		Model model = engine.getModel();
+		if (model instanceof PDE)
+			return ((PDE) model).getGeometry().getSize();
+		return engine.getModule().getNPopulation();
+	}
+
+	/**
+	 * Get the heap memory in use after requesting garbage collection.
+	 * 
+	 * @return the used heap memory in bytes
+	 */
+	static long usedHeap() {
+		MemoryMXBean bean = ManagementFactory.getMemoryMXBean();
+		// garbage collection is not guaranteed; repeat to settle heap
+		for (int n = 0; n < 3; n++)
+			bean.gc();
+		return bean.getHeapMemoryUsage().getUsed();
+	}
+
+	/**
+	 * Get the accumulated time and number of garbage collections.
+	 * 
+	 * @return the array with the time in milliseconds and the number of
+	 *         collections
+	 */
+	static long[] gcStats() {
+		long[] stats = new long[2];
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			stats[0] += Math.max(bean.getCollectionTime(), 0L);
+			stats[1] += Math.max(bean.getCollectionCount(), 0L);
+		}
+		return stats;
+	}
+
+	@Override
+	public synchronized void modelStopped() {
+		isRunning = false;
+		notifyAll();
+	}
+
+	/**
+	 * Record the error {@code error} that terminated the engine thread and wake
+	 * up the waiting driver.
+	 * 
+	 * @param error the error that terminated the engine thread
+	 */
+	synchronized void engineFailed(Throwable error) {
+		failure = error;
+		notifyAll();
+	}
+
+	/**
+	 * Print help screen.
+	 */
+	public void help() {
+		StringBuilder keys = new StringBuilder();
+		for (Scenario s : Scenario.values())
+			keys.append("\n              ").append(s.key).append(": ").append(s.clo);
+		System.out.println(
+				"EvoLudo scaling benchmark\nUsage: java -cp EvoLudoTest.jar org.evoludo.simulator.exec.ScaleEvoLudo [options]\n" + //
+						"       --scenarios <s1,s2,...>: scenarios to run (defaults to all)" + keys + "\n" + //
+						"       --sizes <n1,n2,...>: population sizes or number of PDE units\n" + //
+						"       --generations <g>: number of generations for each run\n" + //
+						"       --output <filename>: file for report (defaults to stdout)\n" + //
+						"       --timeout <s>: maximum time in seconds for each run (defaults to 3600)\n" + //
+						"       --help, -h: this help screen");
+	}
+
+	/**
+	 * Log warning message to {@code System.err}.
+	 *
+	 * @param msg the warning to log
+	 */
+	static void logWarning(String msg) {
+		System.err.println("WARNING: " + msg);
+	}
+
+	/**
+	 * Log error message to {@code System.err}.
+	 *
+	 * @param msg the error to log
+	 */
+	static void logError(String msg) {
+		System.err.println("ERROR: " + msg);
+	}
+
+	/**
+	 * Main method to run the scaling benchmark.
+	 *
+	 * @param args the array of command line arguments
+	 */
+	public static void main(String[] args) {
+		ScaleEvoLudo bench = new ScaleEvoLudo();
+		if (!bench.parse(args))
+			System.exit(1);
+		bench.run();
+		System.exit(0);
+	}
+}
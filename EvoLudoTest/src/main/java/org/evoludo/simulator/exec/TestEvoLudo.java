@@ -37,6 +37,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
 import java.text.DecimalFormat;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.FileSystems;
@@ -44,11 +45,25 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.logging.Handler;
 import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -57,6 +72,8 @@ import org.evoludo.simulator.models.RunListener;
 import org.evoludo.util.Plist;
 import org.evoludo.util.PlistParser;
 
+import com.sun.management.ThreadMXBean;
+
 /**
  * TestEvoLudo is a test suite for EvoLudo. It generates test cases from a
  * generator file or directory and compares the results with reference files.
@@ -74,6 +91,17 @@ import org.evoludo.util.PlistParser;
  * <li>{@code --compress}: compress generated test files
  * <li>{@code --minor}: dump differences for minor failures
  * <li>{@code --verb}: verbose mode
+ * <li>{@code --parallel [<n>]}: run independent tests in parallel on {@code n}
+ * engines (defaults to the number of available processors). The output of
+ * tests is reported in the same order as for sequential runs.
+ * <li>{@code --perf [<filename>]}: track running time, updates per second and
+ * memory allocated by each test and compare with the baseline in
+ * {@code filename} (defaults to {@value #PERF_BASELINE} in the references
+ * directory). The baseline is created if it does not exist.
+ * <li>{@code --perftol <t>}: relative tolerance for flagging tests that got
+ * slower (defaults to {@code 0.25})
+ * <li>{@code --perfupdate}: update the performance baseline with the current
+ * measurements
  * <li>{@code --help}, {@code -h} or no arguments: this help screen
  * </ul>
  * 
@@ -86,6 +114,11 @@ public class TestEvoLudo implements RunListener {
 	 */
 	static final Collection<String> SHA_EXCLUDE = Arrays.asList("Export date", "Version", "JavaVersion", "CLO");
 
+	/**
+	 * The default name of the performance baseline file.
+	 */
+	static final String PERF_BASELINE = "performance.tsv";
+
 	/**
 	 * The prefix to mark the beginning of the SHA hash in the filename.
 	 */
@@ -187,6 +220,58 @@ public class TestEvoLudo implements RunListener {
 	 */
 	int nTestWarnings;
 
+	/**
+	 * The number of tests that got slower compared to the performance baseline.
+	 */
+	int nPerfRegressions;
+
+	/**
+	 * The flag to indicate whether to track the performance of tests.
+	 */
+	boolean trackPerformance = false;
+
+	/**
+	 * The flag to indicate whether to update the performance baseline.
+	 */
+	boolean updateBaseline = false;
+
+	/**
+	 * The relative tolerance for performance regressions.
+	 */
+	double perfTolerance = 0.25;
+
+	/**
+	 * Differences in running time below this threshold (in nanoseconds) are
+	 * ignored.
+	 */
+	static final long PERF_MIN_NANOS = 50_000_000L;
+
+	/**
+	 * Differences in allocated memory below this threshold are ignored.
+	 */
+	static final long PERF_MIN_BYTES = 1L << 20;
+
+	/**
+	 * The file with the performance baseline.
+	 */
+	File perfFile;
+
+	/**
+	 * The performance baseline of tests. The insertion order is retained to keep
+	 * the baseline file stable.
+	 */
+	Map<String, Performance> baseline = new LinkedHashMap<>();
+
+	/**
+	 * The performance measurements of the current run.
+	 */
+	List<Performance> measurements = new ArrayList<>();
+
+	/**
+	 * The performance of the current test or {@code null} if not measured.
+	 */
+	Performance measured;
+
 	/**
 	 * Constructor for TestEvoLudo.
 	 */
@@ -197,6 +282,217 @@ public class TestEvoLudo implements RunListener {
 		engine.addRunListener(this);
 	}
 
+	/**
+	 * The number of tests running in parallel.
+	 */
+	int nThreads = 1;
+
+	/**
+	 * The pool of workers for running tests in parallel or {@code null} for
+	 * running tests sequentially.
+	 */
+	ExecutorService pool;
+
+	/**
+	 * The idle workers for the threads in the {@code pool}. Each worker runs tests
+	 * on its own engine. All workers are created up front on the calling thread
+	 * because engines are not safe to construct concurrently (their IDs, and hence
+	 * their loggers, could clash).
+	 */
+	BlockingQueue<TestEvoLudo> workers;
+
+	/**
+	 * The reports of tests submitted to the {@code pool} in the order of
+	 * submission.
+	 */
+	List<Future<Report>> pending = new ArrayList<>();
+
+	/**
+	 * Constructor for workers running tests in parallel for the test suite
+	 * {@code suite}. The worker has its own engine and captures all output and log
+	 * messages, which are reported by the {@code suite} in the order the tests
+	 * were submitted.
+	 * 
+	 * @param suite the test suite
+	 */
+	TestEvoLudo(TestEvoLudo suite) {
+		this();
+		referencesDir = suite.referencesDir;
+		reportsDir = suite.reportsDir;
+		useCompression = suite.useCompression;
+		dumpMinor = suite.dumpMinor;
+		verbose = suite.verbose;
+		skipSHA = suite.skipSHA;
+		performTest = suite.performTest;
+		trackPerformance = suite.trackPerformance;
+		perfTolerance = suite.perfTolerance;
+		baseline = suite.baseline;
+		capture = new ByteArrayOutputStream();
+		output = new PrintStream(capture, true);
+		Logger logger = engine.getLogger();
+		logger.setLevel(suite.engine.getLogger().getLevel());
+		logger.setUseParentHandlers(false);
+		logger.addHandler(new Handler() {
+			@Override
+			public void publish(LogRecord log) {
+				logMessage(log.getLevel() + ": " + log.getMessage());
+			}
+
+			@Override
+			public void flush() {
+				output.flush();
+			}
+
+			@Override
+			public void close() throws SecurityException {
+				// ignore - nothing to close
+			}
+		});
+	}
+
+	/**
+	 * The buffer capturing the output of workers.
+	 */
+	ByteArrayOutputStream capture;
+
+	/**
+	 * Run the test {@code task} or submit it to the {@code pool} of workers when
+	 * running tests in parallel.
+	 * 
+	 * @param task the test to run
+	 */
+	void submit(Consumer<TestEvoLudo> task) {
+		if (pool == null) {
+			task.accept(this);
+			return;
+		}
+		long start = suiteStartNanos;
+		pending.add(pool.submit(() -> {
+			TestEvoLudo worker = workers.take();
+			try {
+				return worker.runTask(task, start);
+			} finally {
+				workers.put(worker);
+			}
+		}));
+	}
+
+	/**
+	 * Run the test {@code task} on this worker and report the results.
+	 * 
+	 * @param task  the test to run
+	 * @param start the time when the test suite started
+	 * @return the report of the test
+	 */
+	Report runTask(Consumer<TestEvoLudo> task, long start) {
+		capture.reset();
+		suiteStartNanos = start;
+		nTests = 0;
+		nTestFailures = 0;
+		nTestMinor = 0;
+		nTestWarnings = 0;
+		nPerfRegressions = 0;
+		measurements = new ArrayList<>();
+		try {
+			task.accept(this);
+		} catch (RuntimeException e) {
+			reportTestFailure(currentTestLabel("Testing") + ": " + e);
+			nTestFailures++;
+			nTests++;
+		}
+		output.flush();
+		Report report = new Report(capture.toString(), nTests, nTestFailures, nTestMinor, nTestWarnings);
+		report.nPerfRegressions = nPerfRegressions;
+		report.measurements = measurements;
+		return report;
+	}
+
+	/**
+	 * Collect the reports of all pending tests in the order of submission, print
+	 * their output and add up the results.
+	 */
+	void collect() {
+		for (Future<Report> future : pending) {
+			try {
+				Report report = future.get();
+				output.print(report.log);
+				nTests += report.nTests;
+				nTestFailures += report.nTestFailures;
+				nTestMinor += report.nTestMinor;
+				nTestWarnings += report.nTestWarnings;
+				nPerfRegressions += report.nPerfRegressions;
+				measurements.addAll(report.measurements);
+			} catch (ExecutionException e) {
+				logError("test aborted: " + e.getCause());
+				nTestFailures++;
+				nTests++;
+			} catch (InterruptedException e) {
+				logError("testing interrupted.");
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		pending.clear();
+	}
+
+	/**
+	 * The report of a test run by a worker.
+	 */
+	static class Report {
+
+		/**
+		 * The captured output and log messages.
+		 */
+		final String log;
+
+		/**
+		 * The number of tests.
+		 */
+		final int nTests;
+
+		/**
+		 * The number of failed tests.
+		 */
+		final int nTestFailures;
+
+		/**
+		 * The number of tests failing with minor errors.
+		 */
+		final int nTestMinor;
+
+		/**
+		 * The number of tests with warnings.
+		 */
+		final int nTestWarnings;
+
+		/**
+		 * The number of tests that got slower.
+		 */
+		int nPerfRegressions;
+
+		/**
+		 * The performance measurements of the tests.
+		 */
+		List<Performance> measurements;
+
+		/**
+		 * Create a new report.
+		 * 
+		 * @param log           the captured output
+		 * @param nTests        the number of tests
+		 * @param nTestFailures the number of failed tests
+		 * @param nTestMinor    the number of tests with minor errors
+		 * @param nTestWarnings the number of tests with warnings
+		 */
+		Report(String log, int nTests, int nTestFailures, int nTestMinor, int nTestWarnings) {
+			this.log = log;
+			this.nTests = nTests;
+			this.nTestFailures = nTestFailures;
+			this.nTestMinor = nTestMinor;
+			this.nTestWarnings = nTestWarnings;
+		}
+	}
+
 	/**
 	 * Generate test cases from generator file or directory.
 	 */
@@ -233,75 +529,8 @@ public class TestEvoLudo implements RunListener {
 				// skip comments and empty lines
 				if (cloLine.isEmpty() || cloLine.startsWith("#"))
 					continue;
-				// run module
-				if (!runModule("Testing", cloLine)) {
-					nTest++;
-					continue;
-				}
-				// check result against references
-				String result = engine.encodeState();
-				Plist plist = PlistParser.parse(result);
-				String dest = generateBasename(cloLine, ++nTest);
-				File ref = checkReference(referencesDir, plist, dest);
-				if (ref != null && ref != referencesDir)
-					// check passed
-					continue;
-				if (ref == null) {
-					// copy failed test to reports directory
-					try {
-						File src = search(referencesDir, dest);
-						Path dst = new File(reportsDir.getPath() + File.separator +
-								dest + "-old.plist" +
-								(src.getName().endsWith(".zip") ? ".zip" : "")).toPath();
-						Files.move(src.toPath(), dst);
-					} catch (FileAlreadyExistsException e) {
-						logError("file '" + reportsDir + File.separator + dest + "' already exists.");
-						continue;
-					} catch (IOException e) {
-						logError("failed to move '" + referencesDir + File.separator + dest
-								+ "' to '" + reportsDir + File.separator + dest + "'.");
-						continue;
-					}
-				}
-				dest += SHA_PREFIX + sha256(plist, SHA_EXCLUDE) + ".plist";
-				// save new reference
-				if (useCompression) {
-					// with compression
-					ref = exportDir.toPath().resolve(dest + ".zip").toFile();
-					try {
-						ZipOutputStream zos = new ZipOutputStream(
-								new FileOutputStream(ref));
-						zos.putNextEntry(new ZipEntry(dest));
-						zos.write(result.getBytes());
-						zos.finish();
-						zos.close();
-					} catch (FileNotFoundException e) {
-						logError("failed to open '" + dest + "' for writing.");
-						nTestFailures++;
-					} catch (IOException e) {
-						logError("failed to write to '" + dest + "'.");
-						nTestFailures++;
-					}
-				} else {
-					// no compression
-					ref = exportDir.toPath().resolve(dest).toFile();
-					try {
-						FileOutputStream fos = new FileOutputStream(ref);
-						fos.write(result.getBytes());
-						fos.close();
-					} catch (FileNotFoundException e) {
-						logError("failed to open '" + dest + "' for writing.");
-						nTestFailures++;
-					} catch (IOException e) {
-						logError("failed to write to '" + dest + "'.");
-						nTestFailures++;
-					}
-				}
-				String name = ref.getName();
-				int idx = name.indexOf(SHA_PREFIX);
-				logOk(name.substring(0, idx) + ": test generated/updated.");
-				// check test
-				test(ref);
+				int idx = ++nTest;
+				submit(worker -> worker.generate(exportDir, cloLine, idx));
 			}
 			scanner.close();
 		} catch (FileNotFoundException fnfe) {
@@ -309,6 +538,84 @@ public class TestEvoLudo implements RunListener {
 		}
 	}
 
+	/**
+	 * Generate test case number {@code idx} with command line options
+	 * {@code cloLine} and store it in {@code exportDir}.
+	 * 
+	 * @param exportDir the directory for storing the generated test case
+	 * @param cloLine   the command line options of the test case
+	 * @param idx       the index of the test case in its generator file
+	 */
+	protected void generate(File exportDir, String cloLine, int idx) {
+		// run module
+		if (!runModule("Testing", cloLine))
+			return;
+		// check result against references
+		String result = engine.encodeState();
+		Plist plist = PlistParser.parse(result);
+		String dest = generateBasename(cloLine, idx);
+		File ref = checkReference(referencesDir, plist, dest);
+		if (ref != null && ref != referencesDir)
+			// check passed
+			return;
+		if (ref == null) {
+			// copy failed test to reports directory
+			try {
+				File src = search(referencesDir, dest);
+				Path dst = new File(reportsDir.getPath() + File.separator +
+						dest + "-old.plist" +
+						(src.getName().endsWith(".zip") ? ".zip" : "")).toPath();
+				Files.move(src.toPath(), dst);
+			} catch (FileAlreadyExistsException e) {
+				logError("file '" + reportsDir + File.separator + dest + "' already exists.");
+				return;
+			} catch (IOException e) {
+				logError("failed to move '" + referencesDir + File.separator + dest
+						+ "' to '" + reportsDir + File.separator + dest + "'.");
+				return;
+			}
+		}
+		dest += SHA_PREFIX + sha256(plist, SHA_EXCLUDE) + ".plist";
+		// save new reference
+		if (useCompression) {
+			// with compression
+			ref = exportDir.toPath().resolve(dest + ".zip").toFile();
+			try {
+				ZipOutputStream zos = new ZipOutputStream(
+						new FileOutputStream(ref));
+				zos.putNextEntry(new ZipEntry(dest));
+				zos.write(result.getBytes());
+				zos.finish();
+				zos.close();
+			} catch (FileNotFoundException e) {
+				logError("failed to open '" + dest + "' for writing.");
+				nTestFailures++;
+			} catch (IOException e) {
+				logError("failed to write to '" + dest + "'.");
+				nTestFailures++;
+			}
+		} else {
+			// no compression
+			ref = exportDir.toPath().resolve(dest).toFile();
+			try {
+				FileOutputStream fos = new FileOutputStream(ref);
+				fos.write(result.getBytes());
+				fos.close();
+			} catch (FileNotFoundException e) {
+				logError("failed to open '" + dest + "' for writing.");
+				nTestFailures++;
+			} catch (IOException e) {
+				logError("failed to write to '" + dest + "'.");
+				nTestFailures++;
+			}
+		}
+		String name = ref.getName();
+		int shaIdx = name.indexOf(SHA_PREFIX);
+		logOk(name.substring(0, shaIdx) + ": test generated/updated.");
+		// check test
+		test(ref);
+	}
+
 	/**
 	 * Test all files in directory {@code dir}. This directory can either contain
 	 * test files or files for generating them. In either case the test output is
@@ -325,23 +632,11 @@ public class TestEvoLudo implements RunListener {
 			return;
 		}
 		// dir is file
-		String parent = (dir.getParentFile() != null ? dir.getParentFile().getName() + File.separator : "");
 		// test plist or clo files
 		String filename = dir.getName();
 		String ext = filename.substring(filename.lastIndexOf('.'));
 		if (ext.equals(".plist") || ext.equals(".zip")) {
-			String name = dir.getName();
-			int idx = name.indexOf(SHA_PREFIX);
-			startTest(parent + name.substring(0, idx));
-			Plist reference = engine.readPlist(dir.getAbsolutePath());
-			if (reference.isEmpty())
-				return;
-			String clo = (String) reference.get("CLO");
-			// run module
-			if (runModule("Testing", clo)) {
-				Plist result = PlistParser.parse(engine.encodeState());
-				compareRuns(dir, reference, result);
-			}
+			submit(worker -> worker.testReference(dir));
 		} else if (ext.equals(".clo")) {
 			// derive reference from clo string
 			int nTest = 0;
@@ -352,17 +647,8 @@ public class TestEvoLudo implements RunListener {
 					// skip comments and empty lines
 					if (clo.isEmpty() || clo.startsWith("#"))
 						continue;
-					startTest(dir.getName() + "#" + (nTest + 1));
-					// run module
-					if (!runModule("Testing", clo)) {
-						nTest++;
-						continue;
-					}
-					// check result against references
-					Plist result = PlistParser.parse(engine.encodeState());
-					String refname = generateBasename(clo, ++nTest);
-					if (checkReference(referencesDir, result, refname) == referencesDir)
-						logWarning("reference file '" + refname + "' not found - generate references first!");
+					int idx = ++nTest;
+					submit(worker -> worker.test(dir, clo, idx));
 				}
 				scanner.close();
 			} catch (FileNotFoundException fnfe) {
@@ -373,6 +659,48 @@ public class TestEvoLudo implements RunListener {
 		}
 	}
 
+	/**
+	 * Test the reference file {@code file} by running its command line
+	 * options and comparing the result with the reference.
+	 * 
+	 * @param file the reference file (plist or zip)
+	 */
+	protected void testReference(File file) {
+		String parent = (file.getParentFile() != null ? file.getParentFile().getName() + File.separator : "");
+		String name = file.getName();
+		int idx = name.indexOf(SHA_PREFIX);
+		startTest(parent + name.substring(0, idx));
+		Plist reference = engine.readPlist(file.getAbsolutePath());
+		if (reference.isEmpty())
+			return;
+		String clo = (String) reference.get("CLO");
+		// run module
+		if (runModule("Testing", clo)) {
+			Plist result = PlistParser.parse(engine.encodeState());
+			compareRuns(file, reference, result);
+		}
+	}
+
+	/**
+	 * Test case number {@code idx} with command line options {@code clo} from the
+	 * generator file {@code clofile} and compare the result with the references.
+	 * 
+	 * @param clofile the generator file
+	 * @param clo     the command line options of the test case
+	 * @param idx     the index of the test case in {@code clofile}
+	 */
+	protected void test(File clofile, String clo, int idx) {
+		startTest(clofile.getName() + "#" + idx);
+		// run module
+		if (!runModule("Testing", clo))
+			return;
+		// check result against references
+		Plist result = PlistParser.parse(engine.encodeState());
+		String refname = generateBasename(clo, idx);
+		if (checkReference(referencesDir, result, refname) == referencesDir)
+			logWarning("reference file '" + refname + "' not found - generate references first!");
+	}
+
 	/**
 	 * Compute the SHA-256 hash of the {@code plist}, excluding the keys in
 	 * {@code exclude}.
@@ -498,6 +826,8 @@ public class TestEvoLudo implements RunListener {
 			return false;
 		}
 		engine.setSuspended(true);
+		long startNanos = System.nanoTime();
+		long startBytes = getAllocatedBytes();
 		// reset/run module
 		engine.modelReset();
 		// if --generation 0 then reset cleared the --run flag, i.e. engine
@@ -516,9 +846,33 @@ public class TestEvoLudo implements RunListener {
 				}
 			}
 		}
+		if (trackPerformance && testLabel != null)
+			measured = new Performance(testLabel, System.nanoTime() - startNanos,
+					engine.getModel().getUpdates(), getAllocatedBytes() - startBytes);
 		return true;
 	}
 
+	/**
+	 * Get the number of bytes allocated by the engine thread and the current
+	 * thread so far. Models are initialized by the current thread but run in the
+	 * engine thread.
+	 * 
+	 * @return the number of allocated bytes or {@code 0} if not supported
+	 */
+	private long getAllocatedBytes() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof ThreadMXBean))
+			return 0L;
+		ThreadMXBean tbean = (ThreadMXBean) bean;
+		if (!tbean.isThreadAllocatedMemorySupported() || !tbean.isThreadAllocatedMemoryEnabled())
+			return 0L;
+		long bytes = tbean.getCurrentThreadAllocatedBytes();
+		Thread engineThread = engine.getEngineThread();
+		if (engineThread != null && engineThread != Thread.currentThread())
+			bytes += tbean.getThreadAllocatedBytes(engineThread.threadId());
+		return Math.max(bytes, 0L);
+	}
+
 	/**
 	 * Compare reference output {@code reference} with the output of the test
 	 * {@code replicate} and generate a report if differences are found. The
@@ -534,6 +888,7 @@ public class TestEvoLudo implements RunListener {
 		nTests++;
 		// create 'plist' of current state and compare to 'reference'
 		// ignore some plist entries
+		replicate.setReport(capture == null ? System.err : output);
 		int nIssues = replicate.diff(reference, SHA_EXCLUDE);
 		// check option strings only if some tests failed
 		if (replicate.getNMajor() > 0) {
@@ -699,24 +1054,46 @@ public class TestEvoLudo implements RunListener {
 		nTestFailures = 0;
 		nTestMinor = 0;
 		nTestWarnings = 0;
+		nPerfRegressions = 0;
+		measurements.clear();
+		if (trackPerformance)
+			readBaseline();
+		if (nThreads > 1) {
+			pool = Executors.newFixedThreadPool(nThreads);
+			workers = new ArrayBlockingQueue<>(nThreads);
+			for (int n = 0; n < nThreads; n++)
+				workers.add(new TestEvoLudo(this));
+		}
 		if (performTest) {
 			test(testsDir);
+			collect();
 			logTitle("Tests completed.");
 		} else {
 			generate();
+			collect();
 			logTitle("Generating completed.");
 		}
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+			workers = null;
+		}
 		if (nTestWarnings > 0)
 			logWarning(nTestWarnings + " out of " + nTests + " tests had warnings.");
 		if (nTestMinor > 0)
 			logWarning(nTestMinor + " out of " + nTests
 					+ " tests had minor (likely numerical) issues.");
+		if (nPerfRegressions > 0)
+			logWarning(nPerfRegressions + " out of " + measurements.size()
+					+ " tests got slower (tolerance " + Math.round(perfTolerance * 100.0) + "%).");
+		if (trackPerformance && (updateBaseline || baseline.isEmpty()))
+			writeBaseline();
 		if (nTestFailures > 0)
 			logError(nTestFailures + " out of " + nTests + " tests had errors.");
 		if (nTests != nTestFailures)
 			logOk((nTests - nTestFailures) + " out of " + nTests
 					+ " tests successfully passed.");
-		if (nTestFailures > 0 || nTestMinor > 0 || nTestWarnings > 0)
+		if (nTestFailures > 0 || nTestMinor > 0 || nTestWarnings > 0 || nPerfRegressions > 0)
 			logTitle("Review issues carefully!");
 		// remove reports directory if empty
 		reportsDir.delete();
@@ -736,6 +1113,10 @@ public class TestEvoLudo implements RunListener {
 		// --compress: compress generated test files
 		// --verb: verbose mode
 		// --minor: dump differences for minor failures as well
+		// --parallel [<n>]: run tests in parallel on n threads
+		// --perf [<filename>]: track performance against baseline
+		// --perftol <t>: relative tolerance for performance regressions
+		// --perfupdate: update performance baseline
 		// --help, -h or no arguments: help screen
 		reportsDir = null;
 		int nArgs = args.length;
@@ -834,6 +1215,32 @@ public class TestEvoLudo implements RunListener {
 			// skip SHA checks
 			if (arg.startsWith("--nosha")) {
 				skipSHA = true;
+				continue;
+			}
+			// track performance
+			if (arg.startsWith("--perf")) {
+				trackPerformance = true;
+				if (arg.startsWith("--perfupdate")) {
+					updateBaseline = true;
+					continue;
+				}
+				if (arg.startsWith("--perftol")) {
+					if (i + 1 == nArgs) {
+						logError("perftol: tolerance missing.");
+						engine.exit(1);
+					}
+					perfTolerance = Math.abs(Double.parseDouble(args[++i]));
+					continue;
+				}
+				if (i + 1 < nArgs && !args[i + 1].startsWith("-"))
+					perfFile = new File(args[++i]);
+				continue;
+			}
+			// run tests in parallel
+			if (arg.startsWith("--parallel")) {
+				nThreads = Runtime.getRuntime().availableProcessors();
+				if (i + 1 < nArgs && !args[i + 1].startsWith("-"))
+					nThreads = Math.max(1, Integer.parseInt(args[++i]));
 			}
 		}
 		if (testsDir == null)
@@ -897,6 +1304,11 @@ public class TestEvoLudo implements RunListener {
 			engine.exit(1);
 		}
 		performTest = (generator == null);
+		if (trackPerformance && perfFile == null) {
+			// store baseline next to references
+			File refs = referencesDir.isDirectory() ? referencesDir : referencesDir.getAbsoluteFile().getParentFile();
+			perfFile = new File(refs, PERF_BASELINE);
+		}
 	}
 
 	/**
@@ -914,6 +1326,11 @@ public class TestEvoLudo implements RunListener {
 						"       --minor: dump differences for minor failures\n" + //
 						"       --verb: verbose mode\n" + //
 						"       --nosha: disable SHA checks\n" + //
+						"       --parallel [<n>]: run tests in parallel (defaults to number of processors)\n" + //
+						"       --perf [<file>]: compare performance with baseline (defaults to references/"
+						+ PERF_BASELINE + ")\n" + //
+						"       --perftol <t>: relative tolerance for performance regressions (0.25)\n" + //
+						"       --perfupdate: update performance baseline with current measurements\n" + //
 						"       --help, -h or no arguments: this help screen");
 		engine.exit(0);
 	}
@@ -983,6 +1400,7 @@ public class TestEvoLudo implements RunListener {
 	private void startTest(String label) {
 		testLabel = label;
 		testStartNanos = System.nanoTime();
+		measured = null;
 	}
 
 	/**
@@ -1034,10 +1452,191 @@ public class TestEvoLudo implements RunListener {
 		long now = System.nanoTime();
 		logMessage("Time: " + formatDuration(now - testStartNanos) + "   Total: "
 				+ formatDuration(now - suiteStartNanos));
+		checkPerformance();
 		testStartNanos = 0L;
 		testLabel = null;
 	}
 
+	/**
+	 * Compare the performance of the current test with the baseline. Tests whose
+	 * running time or allocated memory exceed the baseline or whose updates per
+	 * second fall short of the baseline by more than the relative tolerance
+	 * {@link #perfTolerance} are flagged as performance regressions.
+	 */
+	private void checkPerformance() {
+		if (measured == null)
+			return;
+		measurements.add(measured);
+		Performance base = baseline.get(measured.label);
+		String perf = "Performance: " + measured.format();
+		if (base == null) {
+			logMessage(perf + " (no baseline)");
+		} else {
+			double slack = 1.0 + perfTolerance;
+			String msg = "";
+			if (measured.nanos - base.nanos > PERF_MIN_NANOS) {
+				// time differences of short tests are dominated by noise
+				if (measured.nanos > base.nanos * slack)
+					msg += " time +" + percent(measured.nanos, base.nanos);
+				else if (measured.updatesPerSec() * slack < base.updatesPerSec())
+					msg += " updates/sec -" + percent(base.updatesPerSec(), measured.updatesPerSec());
+			}
+			if (measured.bytes > base.bytes * slack && measured.bytes - base.bytes > PERF_MIN_BYTES)
+				msg += " memory +" + percent(measured.bytes, base.bytes);
+			if (msg.isEmpty()) {
+				logMessage(perf + " (baseline " + base.format() + ")");
+			} else {
+				logWarning(measured.label + " got slower:" + msg + "\n" + perf + " (baseline " + base.format() + ")");
+				nPerfRegressions++;
+			}
+		}
+		measured = null;
+	}
+
+	/**
+	 * Format the relative increase of {@code a} over {@code b} as a percentage.
+	 * 
+	 * @param a the larger value
+	 * @param b the reference value
+	 * @return the formatted percentage
+	 */
+	private static String percent(double a, double b) {
+		if (b <= 0.0)
+			return "inf%";
+		return Math.round((a / b - 1.0) * 100.0) + "%";
+	}
+
+	/**
+	 * Read the performance baseline from {@code perfFile}. Each line of the file
+	 * contains the label of a test, its running time in milliseconds, the number of
+	 * updates and the number of bytes allocated, separated by tabs. Lines starting
+	 * with {@code #} are ignored.
+	 */
+	void readBaseline() {
+		baseline.clear();
+		if (!perfFile.exists())
+			return;
+		try (Scanner scanner = new Scanner(perfFile)) {
+			while (scanner.hasNextLine()) {
+				String line = scanner.nextLine().trim();
+				if (line.isEmpty() || line.startsWith("#"))
+					continue;
+				Performance perf = Performance.parse(line);
+				if (perf == null) {
+					logWarning("performance baseline: failed to parse '" + line + "' - ignored.");
+					continue;
+				}
+				baseline.put(perf.label, perf);
+			}
+		} catch (FileNotFoundException e) {
+			logWarning("performance baseline '" + perfFile.getPath() + "' not found.");
+		}
+	}
+
+	/**
+	 * Write the performance baseline to {@code perfFile}. Measurements of the
+	 * current run replace those of the previous baseline, while baseline entries
+	 * of tests that did not run are retained.
+	 */
+	void writeBaseline() {
+		for (Performance perf : measurements)
+			baseline.put(perf.label, perf);
+		try (PrintStream out = new PrintStream(perfFile)) {
+			out.println("# EvoLudo performance baseline");
+			out.println("# " + engine.getVersion() + ", " + engine.getJavaVersion());
+			out.println("# test\ttime [ms]\tupdates\tallocated [bytes]");
+			for (Performance perf : baseline.values())
+				out.println(perf);
+		} catch (FileNotFoundException e) {
+			logError("failed to write performance baseline '" + perfFile.getPath() + "'.");
+			return;
+		}
+		logOk("performance baseline '" + perfFile.getPath() + "' updated (" + measurements.size() + " tests).");
+	}
+
+	/**
+	 * The performance of a test.
+	 */
+	static class Performance {
+
+		/**
+		 * The label of the test.
+		 */
+		final String label;
+
+		/**
+		 * The running time in nanoseconds.
+		 */
+		final long nanos;
+
+		/**
+		 * The number of updates.
+		 */
+		final double updates;
+
+		/**
+		 * The number of bytes allocated.
+		 */
+		final long bytes;
+
+		/**
+		 * Create a new performance record.
+		 * 
+		 * @param label   the label of the test
+		 * @param nanos   the running time in nanoseconds
+		 * @param updates the number of updates
+		 * @param bytes   the number of bytes allocated
+		 */
+		Performance(String label, long nanos, double updates, long bytes) {
+			this.label = label;
+			this.nanos = nanos;
+			this.updates = updates;
+			this.bytes = bytes;
+		}
+
+		/**
+		 * Get the number of updates per second.
+		 * 
+		 * @return the updates per second
+		 */
+		double updatesPerSec() {
+			return nanos > 0L ? updates * 1e9 / nanos : 0.0;
+		}
+
+		/**
+		 * Format the performance for reporting.
+		 * 
+		 * @return the formatted performance
+		 */
+		String format() {
+			return (nanos / 1_000_000L) + " ms, " + Math.round(updatesPerSec()) + " updates/sec, "
+					+ (bytes >> 10) + " kB";
+		}
+
+		/**
+		 * Parse performance record from a line of the baseline file.
+		 * 
+		 * @param line the line to parse
+		 * @return the performance record or {@code null} if parsing failed
+		 */
+		static Performance parse(String line) {
+			String[] cols = line.split("\t");
+			if (cols.length != 4)
+				return null;
+			try {
+				return new Performance(cols[0], Math.round(Double.parseDouble(cols[1]) * 1e6),
+						Double.parseDouble(cols[2]), Long.parseLong(cols[3]));
+			} catch (NumberFormatException e) {
+				return null;
+			}
+		}
+
+		@Override
+		public String toString() {
+			return label + "\t" + (nanos / 1e6) + "\t" + updates + "\t" + bytes;
+		}
+	}
+
 	/**
 	 * Format elapsed nanoseconds as {@code h:mm:ss.mmm}.
 	 * 